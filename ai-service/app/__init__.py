@@ -7,6 +7,7 @@ import werkzeug
 
 from .config import AppConfig, build_config
 from .routes import register_blueprints
+from .services.embedding import EmbeddingService
 from .services.search_intent import SearchIntentService
 from .services.tagging import TaggingService
 from .services.vision_classifier import VisionModelError, ZeroShotVisionClassifier
@@ -45,6 +46,7 @@ def create_app(overrides: dict | None = None) -> Flask:
         download_timeout=config.download_timeout,
         download_max_bytes=config.download_max_bytes,
         vision_classifier=vision_classifier,
+        embedding_service=EmbeddingService(vision_classifier),
     )
     app.extensions["search_intent_service"] = SearchIntentService()
     app.extensions["app_config"] = config
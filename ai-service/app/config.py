@@ -44,6 +44,7 @@ class AppConfig:
     download_timeout: float = _float_from_env("IMAGE_DOWNLOAD_TIMEOUT", 5.0)
     download_max_mb: int = _int_from_env("IMAGE_DOWNLOAD_MAX_MB", 8)
     default_tag_limit: int = _int_from_env("TAG_MAX_RESULTS", 8)
+    max_batch_items: int = _int_from_env("TAG_MAX_BATCH_ITEMS", 32)
     enable_profiler: bool = os.getenv("ENABLE_PROFILER", "false").lower() in {"1", "true", "yes"}
     enable_vision_model: bool = _bool_from_env("ENABLE_VISION_MODEL", True)
     vision_model_id: str = os.getenv("VISION_MODEL_ID", "openai/clip-vit-base-patch32")
@@ -8,6 +8,8 @@ from ..services.tagging import TaggingService
 
 bp = Blueprint("tags", __name__, url_prefix="/ai/v1/tags")
 
+BATCH_FIELD_PREFIX = "image."
+
 
 @bp.route("/suggest", methods=["POST"])
 def suggest_tags():
@@ -15,22 +17,52 @@ def suggest_tags():
     service: TaggingService = current_app.extensions["tagging_service"]
     limit = _safe_int(payload.get("limit"))
     hints = _normalize_hints(payload.get("hints"))
+    include_embedding = _truthy(payload.get("include_embedding"))
 
     try:
-        tags, metadata = service.analyze(
+        tags, metadata, embedding = service.analyze(
             file_storage=request.files.get("file"),
             image_url=payload.get("image_url"),
             image_base64=payload.get("image_base64"),
             hints=hints,
             limit=limit,
+            include_embedding=include_embedding,
         )
     except ValueError as exc:
         return jsonify({"status": "error", "message": str(exc)}), 400
 
-    response = {"status": "ok", "data": {"tags": tags, "metadata": metadata}}
+    data: Dict[str, Any] = {"tags": tags, "metadata": metadata}
+    if embedding is not None:
+        data["embedding"] = embedding
+    response = {"status": "ok", "data": data}
     return jsonify(response), 200
 
 
+@bp.route("/suggest-batch", methods=["POST"])
+def suggest_tags_batch():
+    """Tag several images in one request. Each image is a multipart part named ``image.<id>``."""
+    payload = _extract_payload()
+    service: TaggingService = current_app.extensions["tagging_service"]
+    files = [
+        (name[len(BATCH_FIELD_PREFIX):], storage)
+        for name, storage in request.files.items(multi=True)
+        if name.startswith(BATCH_FIELD_PREFIX) and len(name) > len(BATCH_FIELD_PREFIX)
+    ]
+    if not files:
+        return jsonify({"status": "error", "message": "Provide at least one image.<id> file part"}), 400
+    max_items = current_app.extensions["app_config"].max_batch_items
+    if len(files) > max_items:
+        return jsonify({"status": "error", "message": f"A batch may contain at most {max_items} images"}), 400
+
+    items = service.analyze_batch(
+        files,
+        hints=_normalize_hints(payload.get("hints")),
+        limit=_safe_int(payload.get("limit")),
+        include_embedding=_truthy(payload.get("include_embedding")),
+    )
+    return jsonify({"status": "ok", "data": {"items": items}}), 200
+
+
 def _extract_payload() -> Dict[str, Any]:
     if request.is_json:
         return request.get_json(silent=True) or {}
@@ -55,6 +87,14 @@ def _normalize_hints(raw: Any) -> List[str]:
     return [str(raw)]
 
 
+def _truthy(value: Any) -> bool:
+    if isinstance(value, bool):
+        return value
+    if value is None:
+        return False
+    return str(value).strip().lower() in {"1", "true", "yes", "on"}
+
+
 def _safe_int(value: Any) -> int | None:
     if value is None:
         return None
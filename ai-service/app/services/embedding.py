@@ -0,0 +1,66 @@
+from __future__ import annotations
+
+import logging
+from dataclasses import dataclass
+from typing import List
+
+import numpy as np
+from PIL import Image
+
+from .vision_classifier import VisionModelError, ZeroShotVisionClassifier
+
+COLOR_LAYOUT_MODEL = "color-layout-v1"
+_GRID = 4
+_HISTOGRAM_BINS = 16
+
+
+@dataclass(slots=True)
+class ImageEmbedding:
+    model: str
+    vector: List[float]
+
+    def to_dict(self) -> dict:
+        return {
+            "model": self.model,
+            "dimensions": len(self.vector),
+            "vector": [round(float(value), 6) for value in self.vector],
+        }
+
+
+class EmbeddingService:
+    """Produces L2-normalised image embeddings for visual similarity search.
+
+    Uses the CLIP image tower when the vision model is loaded; otherwise falls back to a cheap,
+    deterministic colour-layout descriptor so tests and constrained hosts still get a usable vector.
+    """
+
+    def __init__(self, vision_classifier: ZeroShotVisionClassifier | None = None) -> None:
+        self.vision_classifier = vision_classifier
+        self._logger = logging.getLogger(__name__)
+
+    def embed(self, image: Image.Image) -> ImageEmbedding:
+        if self.vision_classifier is not None:
+            try:
+                vector = self.vision_classifier.embed(image)
+                return ImageEmbedding(f"clip:{self.vision_classifier.model_id}", _normalize(vector))
+            except VisionModelError as exc:  # pragma: no cover - logged for observability only
+                self._logger.warning("Vision embedding unavailable, using colour layout: %s", exc)
+        return ImageEmbedding(COLOR_LAYOUT_MODEL, _normalize(self._color_layout(image)))
+
+    def _color_layout(self, image: Image.Image) -> np.ndarray:
+        # 4x4 grid of mean RGB (48 values) followed by a 16-bin luminance histogram
+        arr = np.asarray(image.convert("RGB").resize((64, 64)), dtype=np.float32) / 255.0
+        cells = arr.reshape(_GRID, 64 // _GRID, _GRID, 64 // _GRID, 3).mean(axis=(1, 3))
+        grayscale = np.dot(arr[..., :3], [0.299, 0.587, 0.114])
+        histogram, _ = np.histogram(grayscale, bins=_HISTOGRAM_BINS, range=(0.0, 1.0))
+        histogram = histogram.astype(np.float32) / grayscale.size
+        centered = cells.reshape(-1) - cells.mean()
+        return np.concatenate([centered, histogram - histogram.mean()])
+
+
+def _normalize(vector) -> List[float]:
+    arr = np.asarray(vector, dtype=np.float32).reshape(-1)
+    norm = float(np.linalg.norm(arr))
+    if norm == 0.0:
+        return arr.tolist()
+    return (arr / norm).tolist()
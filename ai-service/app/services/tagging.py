@@ -11,6 +11,7 @@ import requests
 from PIL import Image, UnidentifiedImageError
 from werkzeug.datastructures import FileStorage
 
+from .embedding import EmbeddingService
 from .tagging_types import TagSuggestion
 from .vision_classifier import VisionModelError, ZeroShotVisionClassifier
 
@@ -27,11 +28,13 @@ class TaggingService:
         download_max_bytes: int,
         *,
         vision_classifier: ZeroShotVisionClassifier | None = None,
+        embedding_service: EmbeddingService | None = None,
     ) -> None:
         self.default_limit = max(1, max_tags)
         self.download_timeout = download_timeout
         self.download_max_bytes = download_max_bytes
         self.vision_classifier = vision_classifier
+        self.embedding_service = embedding_service
         self._logger = logging.getLogger(__name__)
 
     def analyze(
@@ -42,12 +45,53 @@ class TaggingService:
         image_base64: str | None = None,
         hints: Sequence[str] | None = None,
         limit: int | None = None,
-    ) -> Tuple[List[dict], dict]:
+        include_embedding: bool = False,
+    ) -> Tuple[List[dict], dict, dict | None]:
         image_bytes = self._resolve_image_bytes(file_storage, image_url, image_base64)
         image = self._load_image(image_bytes)
+        return self._describe(image, self._vision_tags(image, limit), hints, limit, include_embedding)
+
+    def analyze_batch(
+        self,
+        files: Sequence[Tuple[str, FileStorage]],
+        *,
+        hints: Sequence[str] | None = None,
+        limit: int | None = None,
+        include_embedding: bool = False,
+    ) -> List[dict]:
+        """Analyze several uploads, running the vision model once over all decodable images.
+
+        Every item gets its own entry keyed by ``id``; an item that cannot be read carries an
+        ``error`` instead of failing the whole batch. With ``include_embedding`` each readable item
+        also carries its ``embedding``.
+        """
+        results: List[dict] = [{"id": item_id} for item_id, _ in files]
+        decoded: List[Tuple[int, Image.Image]] = []
+        for index, (_, file_storage) in enumerate(files):
+            try:
+                decoded.append((index, self._load_image(self._resolve_image_bytes(file_storage, None, None))))
+            except ValueError as exc:
+                results[index]["error"] = str(exc)
+
+        vision = self._vision_tags_batch([image for _, image in decoded], limit)
+        for (index, image), vision_tags in zip(decoded, vision):
+            tags, metadata, embedding = self._describe(image, vision_tags, hints, limit, include_embedding)
+            results[index]["tags"] = tags
+            results[index]["metadata"] = metadata
+            if embedding is not None:
+                results[index]["embedding"] = embedding
+        return results
+
+    def _describe(
+        self,
+        image: Image.Image,
+        vision_tags: List[TagSuggestion],
+        hints: Sequence[str] | None,
+        limit: int | None,
+        include_embedding: bool,
+    ) -> Tuple[List[dict], dict, dict | None]:
         stats = self._extract_stats(image)
-        raw_tags: List[TagSuggestion] = []
-        raw_tags.extend(self._vision_tags(image, limit))
+        raw_tags: List[TagSuggestion] = list(vision_tags)
         raw_tags.extend(self._orientation_tags(stats))
         raw_tags.extend(self._lighting_tags(stats))
         raw_tags.extend(self._color_tags(stats))
@@ -70,7 +114,10 @@ class TaggingService:
             "skin_ratio": round(stats["skin_ratio"], 3),
             "edge_density": round(stats["edge_density"], 3),
         }
-        return tags, metadata
+        embedding = None
+        if include_embedding and self.embedding_service is not None:
+            embedding = self.embedding_service.embed(image).to_dict()
+        return tags, metadata, embedding
 
     def _vision_tags(self, image: Image.Image, limit: int | None) -> List[TagSuggestion]:
         if not self.vision_classifier:
@@ -82,6 +129,16 @@ class TaggingService:
             self._logger.warning("Vision classifier unavailable: %s", exc)
             return []
 
+    def _vision_tags_batch(self, images: Sequence[Image.Image], limit: int | None) -> List[List[TagSuggestion]]:
+        if not self.vision_classifier or not images:
+            return [[] for _ in images]
+        expanded_limit = max(self.default_limit, (limit or self.default_limit) + 3)
+        try:
+            return self.vision_classifier.classify_batch(images, limit=expanded_limit)
+        except VisionModelError as exc:  # pragma: no cover - logged for observability only
+            self._logger.warning("Vision classifier unavailable: %s", exc)
+            return [[] for _ in images]
+
     def _resolve_image_bytes(
         self,
         file_storage: FileStorage | None,
@@ -78,17 +78,28 @@ class ZeroShotVisionClassifier:
     def classify(self, image: Image.Image, limit: int | None = None) -> List[TagSuggestion]:
         if image is None:
             raise ValueError("image must not be None")
+        return self.classify_batch([image], limit)[0]
+
+    def classify_batch(self, images: Sequence[Image.Image], limit: int | None = None) -> List[List[TagSuggestion]]:
+        """Classify several images in one pipeline call so the model can run them as a batch."""
+        if not images:
+            return []
+        if any(image is None for image in images):
+            raise ValueError("images must not contain None")
         pipeline = self._ensure_pipeline()
         try:
-            raw_outputs: Iterable[dict] = pipeline(
-                image,
+            raw_outputs = pipeline(
+                list(images),
                 candidate_labels=list(self._prompt_lookup.keys()),
                 hypothesis_template=self.hypothesis_template,
                 multi_label=True,
+                batch_size=len(images),
             )
         except Exception as exc:  # pragma: no cover - passthrough for model runtime errors
             raise VisionModelError(f"Vision model inference failed: {exc}") from exc
+        return [self._to_suggestions(outputs, limit) for outputs in raw_outputs]
 
+    def _to_suggestions(self, raw_outputs: Iterable[dict], limit: int | None) -> List[TagSuggestion]:
         suggestions: List[TagSuggestion] = []
         for output in raw_outputs:
             definition = self._prompt_lookup.get(output.get("label"))
@@ -106,6 +117,21 @@ class ZeroShotVisionClassifier:
             return collapsed[:limit]
         return collapsed
 
+    def embed(self, image: Image.Image) -> List[float]:
+        """Return the CLIP image-tower features for ``image`` (not normalised)."""
+        if image is None:
+            raise ValueError("image must not be None")
+        pipeline = self._ensure_pipeline()
+        try:
+            import torch  # Lazy import, only needed when the model is loaded
+
+            inputs = pipeline.image_processor(images=image, return_tensors="pt")
+            with torch.no_grad():
+                features = pipeline.model.get_image_features(**inputs)
+            return features[0].tolist()
+        except Exception as exc:  # pragma: no cover - passthrough for model runtime errors
+            raise VisionModelError(f"Vision model embedding failed: {exc}") from exc
+
     def _collapse_by_group(self, suggestions: Sequence[TagSuggestion]) -> List[TagSuggestion]:
         grouped: Dict[str, List[TagSuggestion]] = {}
         for suggestion in suggestions:
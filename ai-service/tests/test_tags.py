@@ -52,3 +52,75 @@ def test_tag_suggestions_respect_limit_with_real_images(client, load_sample_imag
     assert response.status_code == 200
     payload = response.get_json()
     assert len(payload["data"]["tags"]) == 2
+
+
+def test_tag_suggestions_include_embedding_on_request(client, load_sample_image):
+    sample = load_sample_image("beach.jpeg")
+    data = _multipart_payload(sample)
+    data["include_embedding"] = "true"
+    response = client.post("/ai/v1/tags/suggest", data=data, content_type="multipart/form-data")
+    assert response.status_code == 200
+    embedding = response.get_json()["data"]["embedding"]
+    assert embedding["model"] == "color-layout-v1"
+    assert embedding["dimensions"] == len(embedding["vector"]) == 64
+    assert sum(value * value for value in embedding["vector"]) == pytest.approx(1.0, abs=1e-3)
+
+
+def test_tag_suggestions_omit_embedding_by_default(client, load_sample_image):
+    sample = load_sample_image("tree.jpeg")
+    response = client.post(
+        "/ai/v1/tags/suggest",
+        data=_multipart_payload(sample),
+        content_type="multipart/form-data",
+    )
+    assert response.status_code == 200
+    assert "embedding" not in response.get_json()["data"]
+
+
+def test_batch_suggestions_return_one_item_per_image(client, load_sample_image):
+    sea = load_sample_image("sea.jpeg")
+    tree = load_sample_image("tree.jpeg")
+    data = {
+        "image.11": (BytesIO(sea.data), sea.name),
+        "image.12": (BytesIO(tree.data), tree.name),
+        "limit": "3",
+    }
+    response = client.post("/ai/v1/tags/suggest-batch", data=data, content_type="multipart/form-data")
+    assert response.status_code == 200
+    items = {item["id"]: item for item in response.get_json()["data"]["items"]}
+    assert set(items) == {"11", "12"}
+    assert items["11"]["metadata"]["width"] == sea.width
+    assert items["12"]["metadata"]["height"] == tree.height
+    assert all(len(item["tags"]) == 3 for item in items.values())
+
+
+def test_batch_suggestions_report_unreadable_images_per_item(client, load_sample_image):
+    sample = load_sample_image("beach.jpeg")
+    data = {
+        "image.1": (BytesIO(sample.data), sample.name),
+        "image.2": (BytesIO(b"not an image"), "broken.jpg"),
+    }
+    response = client.post("/ai/v1/tags/suggest-batch", data=data, content_type="multipart/form-data")
+    assert response.status_code == 200
+    items = {item["id"]: item for item in response.get_json()["data"]["items"]}
+    assert items["1"]["tags"]
+    assert "error" in items["2"] and "tags" not in items["2"]
+
+
+def test_batch_suggestions_include_embeddings_on_request(client, load_sample_image):
+    sample = load_sample_image("beach.jpeg")
+    data = {
+        "image.1": (BytesIO(sample.data), sample.name),
+        "image.2": (BytesIO(b"not an image"), "broken.jpg"),
+        "include_embedding": "true",
+    }
+    response = client.post("/ai/v1/tags/suggest-batch", data=data, content_type="multipart/form-data")
+    assert response.status_code == 200
+    items = {item["id"]: item for item in response.get_json()["data"]["items"]}
+    assert items["1"]["embedding"]["dimensions"] == len(items["1"]["embedding"]["vector"])
+    assert "embedding" not in items["2"]
+
+
+def test_batch_suggestions_require_images(client):
+    response = client.post("/ai/v1/tags/suggest-batch", data={"limit": "2"}, content_type="multipart/form-data")
+    assert response.status_code == 400
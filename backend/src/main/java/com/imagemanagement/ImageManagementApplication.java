@@ -4,15 +4,19 @@ import com.imagemanagement.config.AiServiceProperties;
 import com.imagemanagement.config.CacheProperties;
 import com.imagemanagement.config.FileStorageProperties;
 import com.imagemanagement.config.JwtProperties;
+import com.imagemanagement.config.SimilarityProperties;
+import com.imagemanagement.config.TagProperties;
 import com.imagemanagement.config.ThumbnailProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync
-@EnableConfigurationProperties({JwtProperties.class, FileStorageProperties.class, ThumbnailProperties.class, CacheProperties.class, AiServiceProperties.class})
+@EnableScheduling
+@EnableConfigurationProperties({JwtProperties.class, FileStorageProperties.class, ThumbnailProperties.class, CacheProperties.class, AiServiceProperties.class, SimilarityProperties.class, TagProperties.class})
 public class ImageManagementApplication {
 
     public static void main(String[] args) {
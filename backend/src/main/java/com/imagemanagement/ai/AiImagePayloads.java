@@ -0,0 +1,153 @@
+package com.imagemanagement.ai;
+
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.entity.Image;
+import com.imagemanagement.entity.Thumbnail;
+import com.imagemanagement.exception.ResourceNotFoundException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import net.coobird.thumbnailator.Thumbnails;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Chooses what to upload to the AI service for an image. The classifier only needs a few hundred
+ * pixels, so a stored thumbnail is sent by default; stored files are streamed from disk. When the
+ * thumbnail is missing, a {@code render-size} JPEG is rendered from the original instead, and an
+ * original that cannot be decoded here is sent as it is for the AI service to judge.
+ */
+@Component
+public class AiImagePayloads {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AiImagePayloads.class);
+
+    private final AiImageSource defaultSource;
+    private final int renderSize;
+    private final int batchMaxItems;
+    private final long batchMaxBytes;
+
+    public AiImagePayloads(AiServiceProperties properties) {
+        this.defaultSource = properties.getImageSource();
+        this.renderSize = properties.getRenderSize();
+        this.batchMaxItems = properties.getBatch().getMaxItems();
+        this.batchMaxBytes = properties.getBatch().getMaxBytes();
+    }
+
+    /**
+     * Picks the file to send. Reads the image's thumbnails, so call it while they can be loaded.
+     */
+    public Selection select(Image image, AiImageSource requested) {
+        AiImageSource source = requested != null ? requested : defaultSource;
+        if (source.thumbnailType() != null) {
+            Path thumbnail = image.getThumbnails().stream()
+                    .filter(candidate -> candidate.getSizeType() == source.thumbnailType())
+                    .map(Thumbnail::getFilePath)
+                    .filter(StringUtils::hasText)
+                    .map(Paths::get)
+                    .filter(Files::isRegularFile)
+                    .findFirst()
+                    .orElse(null);
+            if (thumbnail != null) {
+                return new Selection(thumbnail, derivativeName(image), false);
+            }
+        }
+        if (!StringUtils.hasText(image.getFilePath()) || !Files.isRegularFile(Paths.get(image.getFilePath()))) {
+            throw new ResourceNotFoundException("Image binary data is not available");
+        }
+        String filename = StringUtils.hasText(image.getOriginalFilename()) ? image.getOriginalFilename() : "upload.jpg";
+        boolean render = source.thumbnailType() != null;
+        return new Selection(Paths.get(image.getFilePath()), render ? derivativeName(image) : filename, render);
+    }
+
+    /**
+     * Opens the selection as an upload part. Only an on-the-fly render is held in memory.
+     */
+    public Resource open(Selection selection) {
+        if (selection.render()) {
+            try {
+                ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+                Thumbnails.of(selection.path().toFile())
+                        .size(renderSize, renderSize)
+                        .keepAspectRatio(true)
+                        .outputFormat("jpg")
+                        .toOutputStream(rendered);
+                return new ByteArrayResource(rendered.toByteArray()) {
+                    @Override
+                    public String getFilename() {
+                        return selection.filename();
+                    }
+                };
+            } catch (IOException ex) {
+                LOGGER.debug("Could not render {} for AI tagging, sending the original: {}", selection.path(), ex.getMessage());
+            }
+        }
+        return new FileSystemResource(selection.path()) {
+            @Override
+            public String getFilename() {
+                return selection.filename();
+            }
+        };
+    }
+
+    /**
+     * Splits selections into batch requests of at most {@code batch.max-items} images and
+     * {@code batch.max-bytes} upload bytes, keeping their order.
+     */
+    public <K> List<List<K>> batches(Map<K, Selection> selections) {
+        List<List<K>> batches = new ArrayList<>();
+        List<K> current = new ArrayList<>();
+        long currentBytes = 0;
+        for (Map.Entry<K, Selection> entry : selections.entrySet()) {
+            long size = estimatedSize(entry.getValue());
+            if (!current.isEmpty() && (current.size() >= batchMaxItems || currentBytes + size > batchMaxBytes)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentBytes = 0;
+            }
+            current.add(entry.getKey());
+            currentBytes += size;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    // a render is not produced until the batch is sent; a render-size JPEG stays well under
+    // three bits per pixel
+    private long estimatedSize(Selection selection) {
+        long fileSize;
+        try {
+            fileSize = Files.size(selection.path());
+        } catch (IOException ex) {
+            fileSize = 0;
+        }
+        if (!selection.render()) {
+            return fileSize;
+        }
+        return Math.min(fileSize, (long) renderSize * renderSize * 3 / 8);
+    }
+
+    private static String derivativeName(Image image) {
+        String base = FilenameUtils.getBaseName(image.getOriginalFilename());
+        return (StringUtils.hasText(base) ? base : "upload") + ".jpg";
+    }
+
+    /**
+     * @param render whether {@code path} is an original still to be scaled down
+     */
+    public record Selection(Path path, String filename, boolean render) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.imagemanagement.ai;
+
+import com.imagemanagement.entity.enums.ThumbnailSizeType;
+
+/**
+ * Which rendition of an image is sent to the AI service.
+ */
+public enum AiImageSource {
+    SMALL(ThumbnailSizeType.SMALL),
+    MEDIUM(ThumbnailSizeType.MEDIUM),
+    LARGE(ThumbnailSizeType.LARGE),
+    ORIGINAL(null);
+
+    private final ThumbnailSizeType thumbnailType;
+
+    AiImageSource(ThumbnailSizeType thumbnailType) {
+        this.thumbnailType = thumbnailType;
+    }
+
+    /**
+     * The stored thumbnail this source maps to, or {@code null} for the original.
+     */
+    public ThumbnailSizeType thumbnailType() {
+        return thumbnailType;
+    }
+}
@@ -0,0 +1,96 @@
+package com.imagemanagement.ai;
+
+import com.imagemanagement.ai.dto.AiSearchInterpretation;
+import com.imagemanagement.cache.CacheNames;
+import com.imagemanagement.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves AI search interpretations from the {@link CacheNames#AI_SEARCH_INTERPRETATIONS} cache,
+ * which keeps the popular queries in the bounded in-process tier and the rest in Redis. Queries are
+ * folded before they are looked up and sent, so {@code "Sunset  Beach"} and {@code "sunset beach"}
+ * share one entry and one AI call; concurrent misses for the same query are coalesced by the cache.
+ * Misses go through {@link AsyncAiServiceClient}, so a busy or failing AI service is refused at once
+ * rather than holding the request thread until the read timeout.
+ */
+@Component
+public class AiSearchInterpretationCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AsyncAiServiceClient aiServiceClient;
+    private final Cache cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public AiSearchInterpretationCache(AsyncAiServiceClient aiServiceClient,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry) {
+        this.aiServiceClient = aiServiceClient;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheNames.AI_SEARCH_INTERPRETATIONS),
+                "AI search interpretation cache must be configured");
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+    }
+
+    public AiSearchInterpretation interpret(String query, Integer limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            throw new BadRequestException("Query must not be blank");
+        }
+        Integer effectiveLimit = limit != null && limit > 0 ? limit : null;
+        String key = (effectiveLimit != null ? effectiveLimit : "") + ":" + normalized;
+
+        // one lookup per call; a caller that waited for somebody else's load counts as a hit
+        AtomicBoolean loaded = new AtomicBoolean();
+        try {
+            AiSearchInterpretation interpretation = cache.get(key, () -> {
+                loaded.set(true);
+                return load(normalized, effectiveLimit);
+            });
+            (loaded.get() ? misses : hits).increment();
+            return interpretation;
+        } catch (Cache.ValueRetrievalException ex) {
+            misses.increment();
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private AiSearchInterpretation load(String query, Integer limit) {
+        try {
+            return aiServiceClient.interpretSearch(query, limit).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(query, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(folded).replaceAll(" ").strip();
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.search.interpret.cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -3,11 +3,13 @@ package com.imagemanagement.ai;
 import com.imagemanagement.ai.dto.AiHealthStatus;
 import com.imagemanagement.ai.dto.AiResponseEnvelope;
 import com.imagemanagement.ai.dto.AiSearchInterpretation;
+import com.imagemanagement.ai.dto.AiTagBatchResponse;
 import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
 import com.imagemanagement.config.AiServiceProperties;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.hc.client5.http.classic.HttpClient;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -15,6 +17,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
@@ -23,7 +26,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 
 @Component
 public class AiServiceClient {
@@ -38,16 +41,30 @@ public class AiServiceClient {
             new ParameterizedTypeReference<>() {
             };
 
+    private static final ParameterizedTypeReference<AiResponseEnvelope<AiTagBatchResponse>> BATCH_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final RestTemplate restTemplate;
 
-    public AiServiceClient(RestTemplateBuilder restTemplateBuilder, AiServiceProperties properties) {
+    // timeouts live on the pooled client, see AiHttpClientConfig
+    public AiServiceClient(RestTemplateBuilder restTemplateBuilder,
+            AiServiceProperties properties,
+            HttpClient aiServiceHttpClient) {
         this.restTemplate = restTemplateBuilder
                 .rootUri(properties.getServiceUrl())
-                .setConnectTimeout(properties.getTimeout())
-                .setReadTimeout(properties.getTimeout())
+                .requestFactory(() -> streamingRequestFactory(aiServiceHttpClient))
                 .build();
     }
 
+    // image uploads are written straight to the connection instead of being copied into a buffer
+    @SuppressWarnings("deprecation")
+    private static HttpComponentsClientHttpRequestFactory streamingRequestFactory(HttpClient httpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+
     public AiHealthStatus getHealth() {
         return exchange("/ai/v1/health", HttpMethod.GET, null, HEALTH_TYPE);
     }
@@ -65,20 +82,34 @@ public class AiServiceClient {
         return exchange("/ai/v1/search/interpret", HttpMethod.POST, request, SEARCH_TYPE);
     }
 
-    public AiTagSuggestionResponse suggestTags(byte[] imageBytes, String filename, List<String> hints, Integer limit) {
-        if (imageBytes == null || imageBytes.length == 0) {
-            throw new IllegalArgumentException("imageBytes must not be empty");
-        }
-        String resolvedName = StringUtils.hasText(filename) ? filename : "upload.jpg";
-        ByteArrayResource fileResource = new ByteArrayResource(imageBytes) {
-            @Override
-            public String getFilename() {
-                return resolvedName;
-            }
-        };
+    /**
+     * Uploads the image as the {@code file} part, streaming it from the resource. The resource has to
+     * report a filename.
+     */
+    public AiTagSuggestionResponse suggestTags(Resource image, List<String> hints, Integer limit) {
+        Assert.notNull(image, "image must not be null");
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("file", image);
+        form.add("include_embedding", "true");
+        return exchange("/ai/v1/tags/suggest", HttpMethod.POST, multipart(form, hints, limit), TAGS_TYPE);
+    }
 
+    /**
+     * Tags several images in one request, each uploaded as an {@code image.<key>} part. Results come
+     * back per key, with an embedding for each readable image; an image the service cannot read fails
+     * on its own, not the whole batch.
+     */
+    public AiTagBatchResponse suggestTagsBatch(Map<String, ? extends Resource> images, List<String> hints, Integer limit) {
+        Assert.notEmpty(images, "images must not be empty");
         MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
-        form.add("file", fileResource);
+        images.forEach((key, image) -> form.add("image." + key, image));
+        form.add("include_embedding", "true");
+        return exchange("/ai/v1/tags/suggest-batch", HttpMethod.POST, multipart(form, hints, limit), BATCH_TYPE);
+    }
+
+    private static HttpEntity<MultiValueMap<String, Object>> multipart(MultiValueMap<String, Object> form,
+            List<String> hints,
+            Integer limit) {
         if (limit != null && limit > 0) {
             form.add("limit", String.valueOf(limit));
         }
@@ -92,8 +123,7 @@ public class AiServiceClient {
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-        HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(form, headers);
-        return exchange("/ai/v1/tags/suggest", HttpMethod.POST, request, TAGS_TYPE);
+        return new HttpEntity<>(form, headers);
     }
 
     private <T> T exchange(String path,
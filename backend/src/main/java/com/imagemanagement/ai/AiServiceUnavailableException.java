@@ -0,0 +1,12 @@
+package com.imagemanagement.ai;
+
+/**
+ * Raised without contacting the AI service, because too many calls are in flight or the circuit
+ * breaker is open.
+ */
+public class AiServiceUnavailableException extends AiServiceException {
+
+    public AiServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,140 @@
+package com.imagemanagement.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
+import com.imagemanagement.cache.CacheNames;
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.repository.AiTagSuggestionStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * AI tag suggestions keyed by what determines them: the image bytes (its content hash), the model
+ * version, the rendition sent, the limit and the hints. The same photo uploaded by different users
+ * is therefore only sent to the AI service once per model.
+ *
+ * <p>Entries live in the {@link CacheNames#AI_TAG_SUGGESTIONS} cache and, with
+ * {@code app.ai.suggestion-cache.persist}, also in the {@code ai_tag_suggestions} table, which
+ * refills the cache on a miss. Images without a content hash are never cached.
+ */
+@Component
+public class AiTagSuggestionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AiTagSuggestionCache.class);
+
+    private final Cache cache;
+    private final AiTagSuggestionStore store;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean persist;
+    private final String modelVersion;
+    private final AiImageSource defaultSource;
+    private final Counter cacheHits;
+    private final Counter storeHits;
+    private final Counter misses;
+
+    public AiTagSuggestionCache(CacheManager cacheManager,
+            AiTagSuggestionStore store,
+            ObjectMapper objectMapper,
+            AiServiceProperties properties,
+            MeterRegistry meterRegistry) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheNames.AI_TAG_SUGGESTIONS),
+                "AI tag suggestion cache must be configured");
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.getSuggestionCache().isEnabled();
+        this.persist = properties.getSuggestionCache().isPersist();
+        this.modelVersion = properties.getSuggestionCache().getModelVersion();
+        this.defaultSource = properties.getImageSource();
+        this.cacheHits = lookups(meterRegistry, "hit", "cache");
+        this.storeHits = lookups(meterRegistry, "hit", "store");
+        this.misses = lookups(meterRegistry, "miss", "none");
+    }
+
+    public Optional<AiTagSuggestionResponse> get(String contentHash, AiImageSource source, List<String> hints, Integer limit) {
+        String key = key(contentHash, source, hints, limit);
+        if (key == null) {
+            return Optional.empty();
+        }
+        AiTagSuggestionResponse cached = cache.get(key, AiTagSuggestionResponse.class);
+        if (cached != null) {
+            cacheHits.increment();
+            return Optional.of(cached);
+        }
+        Optional<AiTagSuggestionResponse> stored = persist ? load(key) : Optional.empty();
+        if (stored.isPresent()) {
+            storeHits.increment();
+            cache.put(key, stored.get());
+        } else {
+            misses.increment();
+        }
+        return stored;
+    }
+
+    public void put(String contentHash, AiImageSource source, List<String> hints, Integer limit,
+            AiTagSuggestionResponse response) {
+        String key = key(contentHash, source, hints, limit);
+        if (key == null || response == null || response.tags() == null || response.tags().isEmpty()) {
+            return;
+        }
+        cache.put(key, response);
+        if (persist) {
+            try {
+                store.save(key, contentHash, modelVersion, objectMapper.writeValueAsString(response));
+            } catch (JsonProcessingException | RuntimeException ex) {
+                LOGGER.warn("Could not persist AI tag suggestions for {}: {}", contentHash, ex.getMessage());
+            }
+        }
+    }
+
+    // hints are folded the way the AI service reads them: order, case and duplicates do not matter
+    String key(String contentHash, AiImageSource source, List<String> hints, Integer limit) {
+        if (!enabled || !StringUtils.hasText(contentHash)) {
+            return null;
+        }
+        String normalizedHints = hints == null ? "" : hints.stream()
+                .filter(StringUtils::hasText)
+                .map(hint -> hint.trim().toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining("\u001f"));
+        String material = String.join("\u001e", contentHash, modelVersion,
+                (source != null ? source : defaultSource).name(),
+                limit != null && limit > 0 ? limit.toString() : "",
+                normalizedHints);
+        return DigestUtils.md5DigestAsHex(material.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Optional<AiTagSuggestionResponse> load(String key) {
+        try {
+            Optional<String> payload = store.findPayload(key);
+            if (payload.isPresent()) {
+                return Optional.of(objectMapper.readValue(payload.get(), AiTagSuggestionResponse.class));
+            }
+        } catch (JsonProcessingException | RuntimeException ex) {
+            LOGGER.warn("Could not read stored AI tag suggestions {}: {}", key, ex.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("ai.tags.cache.requests")
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.imagemanagement.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queues the existing library for AI tagging when the application is started with
+ * {@code --ai-tagging-backfill}. Safe to repeat: images that are tagged or already queued are
+ * skipped.
+ */
+@Component
+public class AiTaggingBackfillRunner implements ApplicationRunner {
+
+    public static final String OPTION = "ai-tagging-backfill";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AiTaggingBackfillRunner.class);
+
+    private final AiTaggingQueue queue;
+
+    public AiTaggingBackfillRunner(AiTaggingQueue queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        int queued = queue.backfill();
+        LOGGER.info("Queued {} images for AI tagging backfill", queued);
+    }
+}
@@ -0,0 +1,23 @@
+package com.imagemanagement.ai;
+
+/**
+ * Order in which {@link AiTaggingQueue} hands out images: a user waiting on a fresh upload goes
+ * ahead of tagging the existing library.
+ */
+public enum AiTaggingPriority {
+    INTERACTIVE(100),
+    BACKFILL(0);
+
+    private final int value;
+
+    AiTaggingPriority(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Stored in {@code ai_tagging_queue.priority}; higher is claimed first.
+     */
+    public int value() {
+        return value;
+    }
+}
@@ -0,0 +1,205 @@
+package com.imagemanagement.ai;
+
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.entity.Image;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Durable queue of images waiting for AI tags, kept in {@code ai_tagging_queue}. Rows are claimed
+ * with {@code FOR UPDATE SKIP LOCKED}, so workers on several nodes take disjoint rows without
+ * waiting on each other, and a claim is a lease: rows a worker never settles become claimable again
+ * once it runs out.
+ *
+ * <p>Rows that fail are retried with exponential backoff and marked {@code DEAD} after
+ * {@code max-attempts}; they stay in the table until the image is queued again.
+ */
+@Component
+public class AiTaggingQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AiTaggingQueue.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // a dead row is revived with fresh attempts; the assignments that read state come before it
+    private static final String ENQUEUE_SQL = "INSERT INTO ai_tagging_queue "
+            + "(image_id, user_id, priority, state, attempts, available_at, created_at) VALUES (?, ?, ?, 'PENDING', 0, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE attempts = CASE WHEN state = 'DEAD' THEN 0 ELSE attempts END, "
+            + "available_at = CASE WHEN state = 'DEAD' THEN VALUES(available_at) ELSE available_at END, "
+            + "priority = GREATEST(priority, VALUES(priority)), state = 'PENDING'";
+    private static final String CLAIM_SQL = "SELECT image_id, user_id, attempts FROM ai_tagging_queue "
+            + "WHERE state = 'PENDING' AND available_at <= ? AND (locked_until IS NULL OR locked_until <= ?) "
+            + "ORDER BY priority DESC, available_at LIMIT ? FOR UPDATE";
+    private static final String LEASE_SQL = "UPDATE ai_tagging_queue SET locked_until = ?, attempts = attempts + 1 WHERE image_id = ?";
+    private static final String COMPLETE_SQL = "DELETE FROM ai_tagging_queue WHERE image_id = ?";
+    private static final String RETRY_SQL = "UPDATE ai_tagging_queue SET available_at = ?, locked_until = NULL, last_error = ? "
+            + "WHERE image_id = ?";
+    private static final String BURY_SQL = "UPDATE ai_tagging_queue SET state = 'DEAD', locked_until = NULL, last_error = ? "
+            + "WHERE image_id = ?";
+    private static final String ID_RANGE_SQL = "SELECT MIN(image_id), MAX(image_id) FROM images";
+    // images without any AI tag that are not queued yet
+    private static final String BACKFILL_SQL = "INSERT INTO ai_tagging_queue "
+            + "(image_id, user_id, priority, state, attempts, available_at, created_at) "
+            + "SELECT i.image_id, i.user_id, ?, 'PENDING', 0, ?, ? FROM images i "
+            + "WHERE i.image_id BETWEEN ? AND ? "
+            + "AND NOT EXISTS (SELECT 1 FROM image_tags it JOIN tags t ON t.tag_id = it.tag_id "
+            + "WHERE it.image_id = i.image_id AND t.tag_type = 'AI') "
+            + "AND NOT EXISTS (SELECT 1 FROM ai_tagging_queue q WHERE q.image_id = i.image_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AiServiceProperties.TaggingQueue properties;
+    private volatile String claimSql;
+
+    public AiTaggingQueue(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            AiServiceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties.getTaggingQueue();
+    }
+
+    /**
+     * Queues freshly uploaded images as part of the upload's transaction, unless
+     * {@code enqueue-uploads} is off.
+     */
+    public void enqueueUploaded(Collection<Image> images) {
+        if (properties.isEnqueueUploads()) {
+            enqueue(images, AiTaggingPriority.INTERACTIVE);
+        }
+    }
+
+    /**
+     * Queues the images. An image already queued keeps the higher of the two priorities.
+     */
+    public void enqueue(Collection<Image> images, AiTaggingPriority priority) {
+        if (images.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(images.size());
+        for (Image image : images) {
+            rows.add(new Object[] {image.getId(), image.getUser().getId(), priority.value(), now, now});
+        }
+        jdbcTemplate.batchUpdate(ENQUEUE_SQL, rows);
+    }
+
+    /**
+     * Leases up to {@code limit} due rows, highest priority first, oldest first within a priority.
+     */
+    public List<Claim> claim(int limit) {
+        List<Claim> claims = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp nowTimestamp = Timestamp.valueOf(now);
+            List<Claim> rows = jdbcTemplate.query(claimSql(),
+                    (rs, rowNum) -> new Claim(rs.getLong(1), rs.getLong(2), rs.getInt(3) + 1),
+                    nowTimestamp, nowTimestamp, limit);
+            if (!rows.isEmpty()) {
+                Timestamp lockedUntil = Timestamp.valueOf(now.plus(properties.getLease()));
+                jdbcTemplate.batchUpdate(LEASE_SQL,
+                        rows.stream().map(claim -> new Object[] {lockedUntil, claim.imageId()}).toList());
+            }
+            return rows;
+        });
+        return claims == null ? List.of() : claims;
+    }
+
+    /**
+     * Removes rows whose images have been tagged.
+     */
+    public void complete(Collection<Claim> claims) {
+        if (claims.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(COMPLETE_SQL,
+                claims.stream().map(claim -> new Object[] {claim.imageId()}).toList());
+    }
+
+    /**
+     * Releases failed rows for another attempt after their backoff, or marks them {@code DEAD} once
+     * they have used up their attempts.
+     *
+     * @return rows marked dead
+     */
+    public int retry(Collection<Claim> claims, String error) {
+        if (claims.isEmpty()) {
+            return 0;
+        }
+        String lastError = error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> retried = new ArrayList<>();
+        List<Object[]> buried = new ArrayList<>();
+        for (Claim claim : claims) {
+            if (claim.attempts() >= properties.getMaxAttempts()) {
+                buried.add(new Object[] {lastError, claim.imageId()});
+            } else {
+                retried.add(new Object[] {Timestamp.valueOf(now.plus(backoff(claim.attempts()))), lastError, claim.imageId()});
+            }
+        }
+        if (!retried.isEmpty()) {
+            jdbcTemplate.batchUpdate(RETRY_SQL, retried);
+        }
+        if (!buried.isEmpty()) {
+            jdbcTemplate.batchUpdate(BURY_SQL, buried);
+            LOGGER.warn("Gave up AI tagging {} images after {} attempts: {}", buried.size(), properties.getMaxAttempts(),
+                    lastError);
+        }
+        return buried.size();
+    }
+
+    /**
+     * Queues every image that has no AI tag and is not queued yet, at {@link AiTaggingPriority#BACKFILL}.
+     * Walks the table in id ranges so no single statement locks a large part of it.
+     *
+     * @return images queued
+     */
+    public int backfill() {
+        Long[] range = jdbcTemplate.queryForObject(ID_RANGE_SQL,
+                (rs, rowNum) -> new Long[] {rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return 0;
+        }
+        int queued = 0;
+        int chunk = properties.getBackfillChunkSize();
+        for (long from = range[0]; from <= range[1]; from += chunk) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            queued += jdbcTemplate.update(BACKFILL_SQL, AiTaggingPriority.BACKFILL.value(), now, now, from,
+                    from + chunk - 1);
+        }
+        return queued;
+    }
+
+    // SKIP LOCKED needs MySQL 8; the embedded test database only knows a plain FOR UPDATE
+    private String claimSql() {
+        String sql = claimSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            sql = "MySQL".equalsIgnoreCase(product) ? CLAIM_SQL + " SKIP LOCKED" : CLAIM_SQL;
+            claimSql = sql;
+        }
+        return sql;
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    /**
+     * A leased row; {@code attempts} includes the one in progress.
+     */
+    public record Claim(long imageId, long userId, int attempts) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.imagemanagement.ai;
+
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.dto.request.AiTagBatchGenerationRequest;
+import com.imagemanagement.dto.response.AiTagBatchGenerationResponse;
+import com.imagemanagement.service.TagService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains {@link AiTaggingQueue} in the background. Each poll claims as many rows as the rate limit
+ * allows and tags them through {@link TagService#generateAiTagsBatch}, one user at a time. The poll
+ * itself never waits for the AI service: while a round is in flight further polls return at once,
+ * so the shared scheduler thread stays free.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.ai.tagging-queue", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AiTaggingWorker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AiTaggingWorker.class);
+
+    private final AiTaggingQueue queue;
+    private final TagService tagService;
+    private final int claimSize;
+    private final TokenBucket rateLimit;
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private final Counter tagged;
+    private final Counter retried;
+    private final Counter dead;
+
+    public AiTaggingWorker(AiTaggingQueue queue,
+            TagService tagService,
+            AiServiceProperties properties,
+            MeterRegistry meterRegistry) {
+        this.queue = queue;
+        this.tagService = tagService;
+        this.claimSize = properties.getTaggingQueue().getClaimSize();
+        this.rateLimit = new TokenBucket(claimSize, properties.getTaggingQueue().getRatePerMinute());
+        this.tagged = processed(meterRegistry, "tagged");
+        this.retried = processed(meterRegistry, "retried");
+        this.dead = processed(meterRegistry, "dead");
+    }
+
+    @Scheduled(fixedDelayString = "${app.ai.tagging-queue.poll-interval:PT2S}",
+            initialDelayString = "${app.ai.tagging-queue.poll-interval:PT2S}")
+    public void poll() {
+        if (!busy.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<Void> round = CompletableFuture.completedFuture(null);
+        try {
+            int permits = rateLimit.tryAcquire(claimSize);
+            if (permits > 0) {
+                List<AiTaggingQueue.Claim> claims = queue.claim(permits);
+                rateLimit.release(permits - claims.size());
+                round = process(claims);
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to claim images for AI tagging: {}", ex.getMessage());
+        } finally {
+            round.whenComplete((ignored, ex) -> busy.set(false));
+        }
+    }
+
+    private CompletableFuture<Void> process(List<AiTaggingQueue.Claim> claims) {
+        Map<Long, List<AiTaggingQueue.Claim>> byUser = new LinkedHashMap<>();
+        for (AiTaggingQueue.Claim claim : claims) {
+            byUser.computeIfAbsent(claim.userId(), id -> new ArrayList<>()).add(claim);
+        }
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (Map.Entry<Long, List<AiTaggingQueue.Claim>> entry : byUser.entrySet()) {
+            chain = chain.thenCompose(ignored -> tag(entry.getKey(), entry.getValue()));
+        }
+        return chain;
+    }
+
+    private CompletableFuture<Void> tag(Long userId, List<AiTaggingQueue.Claim> claims) {
+        List<Long> imageIds = claims.stream().map(AiTaggingQueue.Claim::imageId).toList();
+        CompletableFuture<AiTagBatchGenerationResponse> call;
+        try {
+            call = tagService.generateAiTagsBatch(userId, new AiTagBatchGenerationRequest(imageIds, null, null, null));
+        } catch (RuntimeException ex) {
+            call = CompletableFuture.failedFuture(ex);
+        }
+        return call.handle((response, ex) -> {
+            settle(claims, response, ex);
+            return null;
+        });
+    }
+
+    // rows that cannot be settled keep their lease and are claimed again once it expires
+    private void settle(List<AiTaggingQueue.Claim> claims, AiTagBatchGenerationResponse response, Throwable ex) {
+        try {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                fail(claims, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+                return;
+            }
+            Set<Long> failedIds = new HashSet<>(response.failedImageIds());
+            List<AiTaggingQueue.Claim> done = new ArrayList<>();
+            List<AiTaggingQueue.Claim> failed = new ArrayList<>();
+            for (AiTaggingQueue.Claim claim : claims) {
+                (failedIds.contains(claim.imageId()) ? failed : done).add(claim);
+            }
+            queue.complete(done);
+            tagged.increment(done.size());
+            fail(failed, "image could not be read or its batch failed");
+        } catch (RuntimeException settleEx) {
+            LOGGER.warn("Failed to settle {} AI tagging queue rows: {}", claims.size(), settleEx.getMessage());
+        }
+    }
+
+    private void fail(List<AiTaggingQueue.Claim> claims, String error) {
+        int buried = queue.retry(claims, error);
+        retried.increment(claims.size() - buried);
+        dead.increment(buried);
+    }
+
+    private static Counter processed(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.tagging.queue.images")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Refills continuously at {@code perMinute} up to {@code capacity}, so a burst after an idle
+     * spell is limited to one claim.
+     */
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double perNano;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(int capacity, int perMinute) {
+            this.capacity = capacity;
+            this.perNano = perMinute / 60_000_000_000d;
+            this.tokens = capacity;
+        }
+
+        synchronized int tryAcquire(int wanted) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * perNano);
+            refilledAt = now;
+            int granted = (int) Math.min(wanted, Math.floor(tokens));
+            tokens -= granted;
+            return granted;
+        }
+
+        synchronized void release(int unused) {
+            tokens = Math.min(capacity, tokens + unused);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.imagemanagement.ai;
+
+import com.imagemanagement.ai.dto.AiSearchInterpretation;
+import com.imagemanagement.ai.dto.AiTagBatchResponse;
+import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
+import com.imagemanagement.config.AiServiceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Future-returning front for {@link AiServiceClient}. Calls run on a dedicated executor behind a
+ * bulkhead that caps how many are in flight, and behind an {@link AiCircuitBreaker} that stops
+ * sending requests to a failing service. Either one rejects a call immediately with
+ * {@link AiServiceUnavailableException} instead of letting callers queue up behind slow responses.
+ *
+ * <p>Only transport failures and server errors count against the breaker; a 4xx or an error
+ * envelope means the service is up and answering.
+ */
+@Component
+public class AsyncAiServiceClient {
+
+    private final AiServiceClient delegate;
+    private final Executor executor;
+    private final Semaphore bulkhead;
+    private final AiCircuitBreaker circuitBreaker;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+
+    public AsyncAiServiceClient(AiServiceClient delegate,
+            @Qualifier("aiServiceExecutor") Executor executor,
+            AiServiceProperties properties,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        int maxConcurrent = properties.getBulkhead().getMaxConcurrent();
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.circuitBreaker = new AiCircuitBreaker(properties.getCircuitBreaker().getFailureThreshold(),
+                properties.getCircuitBreaker().getOpenDuration());
+        this.bulkheadRejections = rejections(meterRegistry, "bulkhead");
+        this.circuitRejections = rejections(meterRegistry, "circuit_open");
+        meterRegistry.gauge("ai.client.in.flight", bulkhead, permits -> maxConcurrent - permits.availablePermits());
+        meterRegistry.gauge("ai.client.circuit.open", circuitBreaker,
+                breaker -> breaker.state() == AiCircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    public CompletableFuture<AiTagSuggestionResponse> suggestTags(Resource image, List<String> hints, Integer limit) {
+        return submit(() -> delegate.suggestTags(image, hints, limit));
+    }
+
+    public CompletableFuture<AiTagBatchResponse> suggestTagsBatch(Map<String, ? extends Resource> images,
+            List<String> hints,
+            Integer limit) {
+        return submit(() -> delegate.suggestTagsBatch(images, hints, limit));
+    }
+
+    public CompletableFuture<AiSearchInterpretation> interpretSearch(String query, Integer limit) {
+        return submit(() -> delegate.interpretSearch(query, limit));
+    }
+
+    public AiCircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException("AI service is busy, try again later"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            circuitRejections.increment();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException("AI service is unavailable, try again later"));
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                T result;
+                try {
+                    result = call.get();
+                } catch (Throwable ex) {
+                    // an Error must settle the call too, or the permit leaks and the caller waits forever
+                    if (countsAsFailure(ex)) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                    bulkhead.release();
+                    future.completeExceptionally(ex);
+                    return;
+                }
+                circuitBreaker.onSuccess();
+                // dependent stages run inside complete() on this thread; they must not hold the permit
+                bulkhead.release();
+                future.complete(result);
+            });
+        } catch (RejectedExecutionException ex) {
+            bulkhead.release();
+            circuitBreaker.onCancelled();
+            bulkheadRejections.increment();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException("AI service is busy, try again later"));
+        }
+        return future;
+    }
+
+    static boolean countsAsFailure(Throwable ex) {
+        if (!(ex instanceof AiServiceException)) {
+            return !(ex instanceof IllegalArgumentException);
+        }
+        Throwable cause = ex.getCause();
+        return cause != null && !(cause instanceof HttpClientErrorException);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("ai.client.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
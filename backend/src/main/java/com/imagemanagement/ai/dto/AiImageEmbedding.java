@@ -0,0 +1,7 @@
+package com.imagemanagement.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AiImageEmbedding(String model, Integer dimensions, float[] vector) {
+}
@@ -0,0 +1,18 @@
+package com.imagemanagement.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One image of a batch. {@code id} echoes the part name the image was sent under; an image the AI
+ * service could not read carries an {@code error} and no tags. {@code embedding} is only present
+ * when the batch asked for embeddings.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AiTagBatchItem(String id,
+        List<AiTagSuggestion> tags,
+        Map<String, Object> metadata,
+        AiImageEmbedding embedding,
+        String error) {
+}
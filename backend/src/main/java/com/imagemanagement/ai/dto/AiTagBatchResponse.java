@@ -0,0 +1,8 @@
+package com.imagemanagement.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AiTagBatchResponse(List<AiTagBatchItem> items) {
+}
@@ -5,5 +5,5 @@ import java.util.List;
 import java.util.Map;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record AiTagSuggestionResponse(List<AiTagSuggestion> tags, Map<String, Object> metadata) {
+public record AiTagSuggestionResponse(List<AiTagSuggestion> tags, Map<String, Object> metadata, AiImageEmbedding embedding) {
 }
@@ -0,0 +1,11 @@
+package com.imagemanagement.cache;
+
+public enum CacheCodecFormat {
+    /** Legacy default-typed JSON, readable by every deployed version. */
+    JSON,
+    /**
+     * Versioned Smile envelope with compact type ids and optional LZ4 compression. Enable it only once
+     * every node can read it.
+     */
+    SMILE
+}
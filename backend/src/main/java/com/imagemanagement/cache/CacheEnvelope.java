@@ -0,0 +1,10 @@
+package com.imagemanagement.cache;
+
+/**
+ * Value stored by {@link TwoLevelCache} together with the bookkeeping needed for early refresh.
+ *
+ * @param computedAt epoch millis when the value was loaded
+ * @param computeMillis how long the loader took, used to scale the early refresh window
+ */
+public record CacheEnvelope(Object value, long computedAt, long computeMillis) {
+}
@@ -1,21 +1,16 @@
 package com.imagemanagement.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.HexFormat;
+import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.entity.enums.ImagePrivacyLevel;
 
 public final class CacheKeyGenerator {
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-
     private CacheKeyGenerator() {
     }
 
-    public static String imageSearchKey(Long userId, Object criteria) {
-        return "user:" + userId + ":search:" + digest(criteria);
+    public static String imageSearchKey(Long userId, Object criteria, SearchCacheVersions versions) {
+        String stamp = versions.stamp(userId, mayIncludeOtherOwners(userId, criteria));
+        return "user:" + userId + ":search:" + stamp + ":" + digest(criteria);
     }
 
     public static String imageKey(Long userId, Long imageId) {
@@ -26,18 +21,17 @@ public final class CacheKeyGenerator {
         return "user:" + userId;
     }
 
-    private static String digest(Object value) {
-        if (value == null) {
-            return "null";
+    private static boolean mayIncludeOtherOwners(Long userId, Object criteria) {
+        if (userId == null || !(criteria instanceof ImageSearchRequest request)) {
+            return true;
         }
-        try {
-            byte[] jsonBytes = OBJECT_MAPPER.writeValueAsBytes(value);
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(jsonBytes);
-            return HexFormat.of().formatHex(hashBytes);
-        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
-            byte[] fallback = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
-            return HexFormat.of().formatHex(fallback);
+        return !Boolean.TRUE.equals(request.getOnlyOwn()) && request.getPrivacyLevel() != ImagePrivacyLevel.PRIVATE;
+    }
+
+    private static String digest(Object value) {
+        if (value instanceof ImageSearchRequest request) {
+            return SearchKeyBuilder.digest(request);
         }
+        return String.valueOf(value);
     }
-}
\ No newline at end of file
+}
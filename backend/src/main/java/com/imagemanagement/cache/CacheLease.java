@@ -0,0 +1,28 @@
+package com.imagemanagement.cache;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cross-node lock that lets a single node recompute a missing cache entry while the
+ * others wait for it to appear in the shared cache.
+ */
+public interface CacheLease {
+
+    CacheLease NONE = new CacheLease() {
+        @Override
+        public String tryAcquire(String key, Duration ttl) {
+            return "";
+        }
+
+        @Override
+        public void release(String key, String token) {
+        }
+    };
+
+    /**
+     * @return an ownership token, or {@code null} when another node holds the lease
+     */
+    String tryAcquire(String key, Duration ttl);
+
+    void release(String key, String token);
+}
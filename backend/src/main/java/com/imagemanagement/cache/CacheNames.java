@@ -5,6 +5,8 @@ public final class CacheNames {
     public static final String USERS = "users";
     public static final String IMAGES = "images";
     public static final String IMAGE_SEARCH = "image-search";
+    public static final String AI_TAG_SUGGESTIONS = "ai-tag-suggestions";
+    public static final String AI_SEARCH_INTERPRETATIONS = "ai-search-interpretations";
 
     private CacheNames() {
     }
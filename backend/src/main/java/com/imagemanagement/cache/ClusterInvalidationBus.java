@@ -0,0 +1,14 @@
+package com.imagemanagement.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Fire-and-forget channel used to tell other nodes to drop process-local state. Messages published
+ * by a node are never delivered back to that same node.
+ */
+public interface ClusterInvalidationBus {
+
+    void publish(String channel, String message);
+
+    void subscribe(String channel, Consumer<String> listener);
+}
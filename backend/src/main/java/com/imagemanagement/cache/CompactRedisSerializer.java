@@ -0,0 +1,134 @@
+package com.imagemanagement.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+
+/**
+ * Redis value serializer that writes a small binary envelope around Smile-encoded values:
+ * {@code [version][flags][uncompressed length if LZ4][payload]}. Values written by earlier releases as
+ * plain JSON are still readable, so switching {@link CacheCodecFormat} back and forth is safe during a
+ * rolling deploy.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte VERSION = 1;
+    static final byte FLAG_LZ4 = 0x01;
+
+    private static final int HEADER_LENGTH = 2;
+    private static final int LENGTH_FIELD = Integer.BYTES;
+
+    private final ObjectWriter jsonWriter;
+    private final ObjectReader jsonReader;
+    private final ObjectWriter smileWriter;
+    private final ObjectReader smileReader;
+    private final CacheCodecFormat writeFormat;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param jsonMapper mapper used for the legacy JSON format, with default typing enabled
+     * @param smileMapper identically configured mapper backed by a {@link SmileFactory}
+     * @param compressionThreshold payloads of at least this many bytes are LZ4-compressed, 0 disables
+     */
+    public CompactRedisSerializer(ObjectMapper jsonMapper, ObjectMapper smileMapper,
+            CacheCodecFormat writeFormat, int compressionThreshold) {
+        Objects.requireNonNull(jsonMapper, "JSON mapper must not be null");
+        if (!(smileMapper.getFactory() instanceof SmileFactory)) {
+            throw new IllegalArgumentException("Smile mapper must use a SmileFactory");
+        }
+        // declaring the root as Object makes default typing record the concrete class for final types too
+        this.jsonWriter = jsonMapper.writerFor(Object.class);
+        this.jsonReader = jsonMapper.readerFor(Object.class);
+        this.smileWriter = smileMapper.writerFor(Object.class);
+        this.smileReader = smileMapper.readerFor(Object.class);
+        this.writeFormat = Objects.requireNonNull(writeFormat, "Cache codec format must not be null");
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (writeFormat == CacheCodecFormat.JSON) {
+            return writeJson(value);
+        }
+        byte[] payload;
+        try {
+            payload = smileWriter.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write cache value: " + ex.getMessage(), ex);
+        }
+        if (compressionThreshold <= 0 || payload.length < compressionThreshold) {
+            byte[] result = new byte[HEADER_LENGTH + payload.length];
+            result[0] = VERSION;
+            System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+            return result;
+        }
+        int offset = HEADER_LENGTH + LENGTH_FIELD;
+        byte[] result = new byte[offset + compressor.maxCompressedLength(payload.length)];
+        result[0] = VERSION;
+        result[1] = FLAG_LZ4;
+        ByteBuffer.wrap(result, HEADER_LENGTH, LENGTH_FIELD).putInt(payload.length);
+        int compressedLength = compressor.compress(payload, 0, payload.length, result, offset);
+        return Arrays.copyOf(result, offset + compressedLength);
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != VERSION) {
+            return readJson(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated cache value");
+        }
+        try {
+            if ((bytes[1] & FLAG_LZ4) == 0) {
+                return smileReader.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            }
+            int length = ByteBuffer.wrap(bytes, HEADER_LENGTH, LENGTH_FIELD).getInt();
+            byte[] payload = new byte[length];
+            decompressor.decompress(bytes, HEADER_LENGTH + LENGTH_FIELD, payload, 0, length);
+            return smileReader.readValue(payload);
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("Could not read cache value: " + ex.getMessage(), ex);
+        }
+    }
+
+    private byte[] writeJson(Object value) {
+        try {
+            return jsonWriter.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write cache value: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Nullable
+    private Object readJson(byte[] bytes) {
+        try {
+            return jsonReader.readValue(bytes);
+        } catch (IOException ex) {
+            throw new SerializationException("Could not read cache value: " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.imagemanagement.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Default typing for the Smile cache mapper that writes class-name type ids with the well-known
+ * package prefixes folded to a short marker, e.g. {@code .a.dto.response.PageResponse} instead of
+ * {@code com.imagemanagement.dto.response.PageResponse}. A class name never starts with a dot, so
+ * full names written before this existed are still read as they are.
+ */
+public final class CompactTypeIds {
+
+    private static final Map<String, String> PREFIXES = Map.of(
+            "com.imagemanagement.", ".a.",
+            "java.util.", ".u.",
+            "java.time.", ".t.",
+            "java.lang.", ".l.");
+
+    private CompactTypeIds() {
+    }
+
+    /**
+     * Equivalent of {@code activateDefaultTyping(validator, NON_FINAL, PROPERTY)} with compact ids.
+     */
+    public static ObjectMapper apply(ObjectMapper mapper, PolymorphicTypeValidator validator) {
+        return mapper.setDefaultTyping(new CompactTypeResolverBuilder(validator)
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY));
+    }
+
+    static String abbreviate(String id) {
+        for (Map.Entry<String, String> prefix : PREFIXES.entrySet()) {
+            if (id.startsWith(prefix.getKey())) {
+                return prefix.getValue() + id.substring(prefix.getKey().length());
+            }
+        }
+        return id;
+    }
+
+    static String expand(String id) {
+        if (!id.startsWith(".")) {
+            return id;
+        }
+        for (Map.Entry<String, String> prefix : PREFIXES.entrySet()) {
+            if (id.startsWith(prefix.getValue())) {
+                return prefix.getKey() + id.substring(prefix.getValue().length());
+            }
+        }
+        return id;
+    }
+
+    private static final class CompactTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        private static final long serialVersionUID = 1L;
+
+        private CompactTypeResolverBuilder(PolymorphicTypeValidator validator) {
+            super(ObjectMapper.DefaultTyping.NON_FINAL, validator);
+        }
+
+        private CompactTypeResolverBuilder(CompactTypeResolverBuilder base, Class<?> defaultImpl) {
+            super(base, defaultImpl);
+        }
+
+        @Override
+        public CompactTypeResolverBuilder withDefaultImpl(Class<?> defaultImpl) {
+            return new CompactTypeResolverBuilder(this, defaultImpl);
+        }
+
+        @Override
+        protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                PolymorphicTypeValidator subtypeValidator, Collection<NamedType> subtypes,
+                boolean forSer, boolean forDeser) {
+            return new CompactClassNameIdResolver(baseType, config.getTypeFactory(), subtypeValidator);
+        }
+    }
+
+    private static final class CompactClassNameIdResolver extends ClassNameIdResolver {
+
+        private CompactClassNameIdResolver(JavaType baseType, TypeFactory typeFactory, PolymorphicTypeValidator validator) {
+            super(baseType, typeFactory, validator);
+        }
+
+        @Override
+        public String idFromValue(Object value) {
+            return abbreviate(super.idFromValue(value));
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> type) {
+            return abbreviate(super.idFromValueAndType(value, type));
+        }
+
+        @Override
+        public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+            return super.typeFromId(context, expand(id));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.imagemanagement.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component("searchCacheVersions")
+@Profile("test")
+public class InMemorySearchCacheVersions implements SearchCacheVersions {
+
+    private final ConcurrentMap<Long, AtomicLong> ownerVersions = new ConcurrentHashMap<>();
+    private final AtomicLong publicVersion = new AtomicLong();
+
+    @Override
+    public String stamp(Long userId, boolean includesPublic) {
+        if (userId == null) {
+            return "p" + publicVersion.get();
+        }
+        String owner = "o" + ownerVersion(userId).get();
+        return includesPublic ? owner + ".p" + publicVersion.get() : owner;
+    }
+
+    @Override
+    public void bump(Long ownerId, boolean publicContentChanged) {
+        if (ownerId != null) {
+            ownerVersion(ownerId).incrementAndGet();
+        }
+        if (publicContentChanged) {
+            publicVersion.incrementAndGet();
+        }
+    }
+
+    private AtomicLong ownerVersion(Long userId) {
+        return ownerVersions.computeIfAbsent(userId, key -> new AtomicLong());
+    }
+}
@@ -0,0 +1,19 @@
+package com.imagemanagement.cache;
+
+import java.util.function.Consumer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("test")
+public class LocalClusterInvalidationBus implements ClusterInvalidationBus {
+
+    @Override
+    public void publish(String channel, String message) {
+        // single node: nothing else holds local state that could go stale
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+    }
+}
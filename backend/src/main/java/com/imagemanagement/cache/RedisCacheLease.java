@@ -0,0 +1,47 @@
+package com.imagemanagement.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+public class RedisCacheLease implements CacheLease {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisCacheLease.class);
+    private static final String KEY_PREFIX = "cache:lease:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheLease(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String tryAcquire(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, token, ttl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException ex) {
+            // without Redis there is nothing to coordinate with, so load locally
+            LOGGER.warn("Cache lease unavailable for {}: {}", key, ex.getMessage());
+            return token;
+        }
+    }
+
+    @Override
+    public void release(String key, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), token);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to release cache lease {}: {}", key, ex.getMessage());
+        }
+    }
+}
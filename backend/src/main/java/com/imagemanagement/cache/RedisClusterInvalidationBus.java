@@ -0,0 +1,51 @@
+package com.imagemanagement.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!test")
+public class RedisClusterInvalidationBus implements ClusterInvalidationBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisClusterInvalidationBus.class);
+    private static final String CHANNEL_PREFIX = "cluster:invalidate:";
+    private static final char SEPARATOR = '|';
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisClusterInvalidationBus(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL_PREFIX + channel, nodeId + SEPARATOR + message);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to publish invalidation on channel {}: {}", channel, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf(SEPARATOR);
+            if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+                return;
+            }
+            listener.accept(body.substring(separator + 1));
+        }, new ChannelTopic(CHANNEL_PREFIX + channel));
+    }
+}
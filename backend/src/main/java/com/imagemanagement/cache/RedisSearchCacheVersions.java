@@ -0,0 +1,53 @@
+package com.imagemanagement.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+@Component("searchCacheVersions")
+@Profile("!test")
+public class RedisSearchCacheVersions implements SearchCacheVersions {
+
+    private static final String OWNER_PREFIX = "cache:search:version:owner:";
+    private static final String PUBLIC_KEY = "cache:search:version:public";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisSearchCacheVersions(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String stamp(Long userId, boolean includesPublic) {
+        if (userId == null) {
+            return "p" + toVersion(redisTemplate.opsForValue().get(PUBLIC_KEY));
+        }
+        if (!includesPublic) {
+            return "o" + toVersion(redisTemplate.opsForValue().get(ownerKey(userId)));
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(Arrays.asList(ownerKey(userId), PUBLIC_KEY));
+        String owner = values != null && values.size() > 0 ? values.get(0) : null;
+        String shared = values != null && values.size() > 1 ? values.get(1) : null;
+        return "o" + toVersion(owner) + ".p" + toVersion(shared);
+    }
+
+    @Override
+    public void bump(Long ownerId, boolean publicContentChanged) {
+        if (ownerId != null) {
+            redisTemplate.opsForValue().increment(ownerKey(ownerId));
+        }
+        if (publicContentChanged) {
+            redisTemplate.opsForValue().increment(PUBLIC_KEY);
+        }
+    }
+
+    private String ownerKey(Long userId) {
+        return OWNER_PREFIX + userId;
+    }
+
+    private String toVersion(String raw) {
+        return raw != null ? raw : "0";
+    }
+}
@@ -0,0 +1,29 @@
+package com.imagemanagement.cache;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Generation counters folded into image search cache keys. Bumping a counter makes every
+ * search entry that depended on it unreachable; the orphaned entries simply age out by TTL.
+ */
+public interface SearchCacheVersions {
+
+    /**
+     * Returns the version stamp for a search issued by {@code userId}. The public counter is only
+     * part of the stamp when the search can return images owned by somebody else.
+     */
+    String stamp(Long userId, boolean includesPublic);
+
+    void bump(Long ownerId, boolean publicContentChanged);
+
+    /**
+     * Bumps the counters now and, when called inside a transaction, once more after commit so that
+     * entries repopulated from not-yet-committed state are discarded as well.
+     */
+    default void invalidate(Long ownerId, boolean publicContentChanged) {
+        bump(ownerId, publicContentChanged);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            AfterCommit.run(() -> bump(ownerId, publicContentChanged));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.imagemanagement.cache;
+
+import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.repository.specification.ImageSpecifications;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Writes the criteria that affect a search result into a per-thread byte buffer in a fixed order
+ * and normalized form, then hashes them. Requests that run the same query produce the same key
+ * regardless of tag order, tag or keyword case, or surrounding whitespace.
+ */
+final class SearchKeyBuilder {
+
+    private static final long SEED = 0x9e3779b97f4a7c15L;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final ThreadLocal<SearchKeyBuilder> BUFFERS = ThreadLocal.withInitial(SearchKeyBuilder::new);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+
+    private SearchKeyBuilder() {
+    }
+
+    static String digest(ImageSearchRequest request) {
+        SearchKeyBuilder builder = BUFFERS.get();
+        builder.position = 0;
+        builder.write(request);
+        return MurmurHash3.hash128Hex(builder.buffer, builder.position, SEED);
+    }
+
+    private void write(ImageSearchRequest request) {
+        putString(ImageSpecifications.normalizeText(request.getKeyword()));
+        putEnum(request.getPrivacyLevel());
+        putTags(request.getTags());
+        putDateTime(request.getUploadedFrom());
+        putDateTime(request.getUploadedTo());
+        putString(ImageSpecifications.normalizeText(request.getCameraMake()));
+        putString(ImageSpecifications.normalizeText(request.getCameraModel()));
+        putInteger(request.getMinWidth());
+        putInteger(request.getMinHeight());
+        putInteger(request.getMaxWidth());
+        putInteger(request.getMaxHeight());
+        putDouble(request.getMinLatitude());
+        putDouble(request.getMaxLatitude());
+        putDouble(request.getMinLongitude());
+        putDouble(request.getMaxLongitude());
+        putDouble(request.getCenterLatitude());
+        putDouble(request.getCenterLongitude());
+        putDouble(request.getRadiusKm());
+        putByte(Boolean.TRUE.equals(request.getOnlyOwn()) ? 1 : 0);
+        putInt(request.getPage());
+        putInt(request.getSize());
+        putString(ImageSpecifications.sortProperty(request.getSortBy()));
+        putEnum(Objects.requireNonNullElse(request.getSortDirection(), Sort.Direction.DESC));
+    }
+
+    private void putTags(List<String> tags) {
+        List<String> normalized = ImageSpecifications.normalizeTags(tags);
+        putInt(normalized.size());
+        for (String tag : normalized) {
+            putString(tag);
+        }
+    }
+
+    private void putDateTime(LocalDateTime value) {
+        if (value == null) {
+            putByte(0);
+            return;
+        }
+        putByte(1);
+        putLong(value.toEpochSecond(ZoneOffset.UTC));
+        putInt(value.getNano());
+    }
+
+    private void putEnum(Enum<?> value) {
+        putInt(value == null ? -1 : value.ordinal());
+    }
+
+    private void putInteger(Integer value) {
+        if (value == null) {
+            putByte(0);
+            return;
+        }
+        putByte(1);
+        putInt(value);
+    }
+
+    private void putDouble(Double value) {
+        if (value == null) {
+            putByte(0);
+            return;
+        }
+        putByte(1);
+        putLong(Double.doubleToLongBits(value));
+    }
+
+    // length-prefixed UTF-16 code units; -1 marks null so "" and null differ
+    private void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        int length = value.length();
+        putInt(length);
+        ensureCapacity(length * 2);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            buffer[position++] = (byte) c;
+            buffer[position++] = (byte) (c >>> 8);
+        }
+    }
+
+    private void putLong(long value) {
+        putInt((int) value);
+        putInt((int) (value >>> 32));
+    }
+
+    private void putInt(int value) {
+        ensureCapacity(4);
+        buffer[position++] = (byte) value;
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 24);
+    }
+
+    private void putByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.imagemanagement.cache;
+
+import com.imagemanagement.config.CacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Cache that answers from a bounded in-process map first and falls back to the shared remote
+ * cache. Writes go to both levels. Puts, refreshes, evictions and clears are announced so other
+ * nodes drop their local copy. A loader filling a miss is not: the remote cache had no value, and
+ * any older local copy elsewhere (the remote entry may have been evicted under memory pressure)
+ * is bounded by the local TTL.
+ *
+ * <p>{@link #get(Object, Callable)} coalesces concurrent misses: one loader runs per key on this
+ * node, and with a {@link CacheLease} one node across the cluster while the rest poll the remote
+ * cache. Hot entries are recomputed slightly before they expire (XFetch), by a single caller,
+ * while everybody else keeps being served the current value.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, CacheEnvelope> local;
+    private final Cache remote;
+    private final Duration remoteTtl;
+    private final Consumer<Object> invalidationPublisher;
+    private final CacheLease lease;
+    private final CacheProperties.Stampede stampede;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter loads;
+    private final Counter coalesced;
+    private final Counter earlyRefreshes;
+
+    public TwoLevelCache(String name,
+            com.github.benmanes.caffeine.cache.Cache<Object, CacheEnvelope> local,
+            Cache remote,
+            Duration remoteTtl,
+            Consumer<Object> invalidationPublisher,
+            CacheLease lease,
+            CacheProperties.Stampede stampede,
+            MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.remoteTtl = remoteTtl;
+        this.invalidationPublisher = invalidationPublisher;
+        this.lease = lease;
+        this.stampede = stampede;
+        this.localHits = requests(meterRegistry, "l1", "hit");
+        this.localMisses = requests(meterRegistry, "l1", "miss");
+        this.remoteHits = requests(meterRegistry, "l2", "hit");
+        this.remoteMisses = requests(meterRegistry, "l2", "miss");
+        this.loads = loads(meterRegistry, "load");
+        this.coalesced = loads(meterRegistry, "coalesced");
+        this.earlyRefreshes = loads(meterRegistry, "early-refresh");
+        meterRegistry.gauge("cache.tier.l1.size", io.micrometer.core.instrument.Tags.of("cache", name), local,
+                cache -> cache.estimatedSize());
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(@NonNull Object key) {
+        CacheEnvelope envelope = lookupEnvelope(key);
+        return envelope == null ? null : toStoreValue(envelope.value());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        CacheEnvelope current = lookupEnvelope(key);
+        if (current != null && !shouldRefreshEarly(current)) {
+            return (T) current.value();
+        }
+        String localKey = localKey(key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(localKey, mine);
+        if (running != null) {
+            if (current != null) {
+                return (T) current.value();
+            }
+            coalesced.increment();
+            return (T) await(running, key, valueLoader);
+        }
+        if (current != null) {
+            earlyRefreshes.increment();
+        }
+        try {
+            Object value = loadOnce(key, valueLoader, current);
+            mine.complete(value);
+            return (T) value;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(localKey, mine);
+        }
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        store(key, new CacheEnvelope(value, System.currentTimeMillis(), 0), true);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        CacheEnvelope envelope = new CacheEnvelope(value, System.currentTimeMillis(), 0);
+        ValueWrapper existing = remote.putIfAbsent(key, envelope);
+        if (existing != null) {
+            CacheEnvelope stored = unwrap(existing.get());
+            local.put(localKey(key), stored);
+            return toValueWrapper(toStoreValue(stored.value()));
+        }
+        local.put(localKey(key), envelope);
+        return null;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        invalidationPublisher.accept(key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(null);
+    }
+
+    void evictLocal(@Nullable Object key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey(key));
+        }
+    }
+
+    @Nullable
+    private CacheEnvelope lookupEnvelope(Object key) {
+        CacheEnvelope envelope = local.getIfPresent(localKey(key));
+        if (envelope != null) {
+            localHits.increment();
+            return envelope;
+        }
+        localMisses.increment();
+        envelope = lookupRemote(key);
+        if (envelope == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        local.put(localKey(key), envelope);
+        return envelope;
+    }
+
+    @Nullable
+    private CacheEnvelope lookupRemote(Object key) {
+        ValueWrapper wrapper = remote.get(key);
+        return wrapper == null ? null : unwrap(wrapper.get());
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader, @Nullable CacheEnvelope current) {
+        String leaseKey = name + "::" + localKey(key);
+        String token = lease.tryAcquire(leaseKey, stampede.getLeaseTtl());
+        if (token == null) {
+            if (current != null) {
+                // another node is already refreshing this entry
+                return current.value();
+            }
+            CacheEnvelope published = awaitRemote(key);
+            if (published != null) {
+                local.put(localKey(key), published);
+                return published.value();
+            }
+            return load(key, valueLoader, false);
+        }
+        try {
+            if (current == null) {
+                CacheEnvelope published = lookupRemote(key);
+                if (published != null) {
+                    local.put(localKey(key), published);
+                    return published.value();
+                }
+            }
+            return load(key, valueLoader, current != null);
+        } finally {
+            lease.release(leaseKey, token);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, boolean announce) {
+        loads.increment();
+        long started = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        long computeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        store(key, new CacheEnvelope(value, System.currentTimeMillis(), computeMillis), announce);
+        return value;
+    }
+
+    @Nullable
+    private CacheEnvelope awaitRemote(Object key) {
+        long deadline = System.nanoTime() + stampede.getLeaseWait().toNanos();
+        long pollMillis = Math.max(1, stampede.getPollInterval().toMillis());
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CacheEnvelope published = lookupRemote(key);
+            if (published != null) {
+                return published;
+            }
+        }
+        return null;
+    }
+
+    private Object await(CompletableFuture<Object> running, Object key, Callable<?> valueLoader) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    private void store(Object key, CacheEnvelope envelope, boolean announce) {
+        remote.put(key, envelope);
+        local.put(localKey(key), envelope);
+        if (announce) {
+            invalidationPublisher.accept(key);
+        }
+    }
+
+    // XFetch: refresh with a probability that rises as expiry nears, scaled by how slow the load was
+    private boolean shouldRefreshEarly(CacheEnvelope envelope) {
+        if (envelope.computeMillis() <= 0 || stampede.getEarlyRefreshBeta() <= 0) {
+            return false;
+        }
+        long expiresAt = envelope.computedAt() + remoteTtl.toMillis();
+        double gap = -envelope.computeMillis() * stampede.getEarlyRefreshBeta()
+                * Math.log(ThreadLocalRandom.current().nextDouble(Double.MIN_VALUE, 1.0));
+        return System.currentTimeMillis() + gap >= expiresAt;
+    }
+
+    private static CacheEnvelope unwrap(@Nullable Object stored) {
+        // entries written before envelopes existed carry no load metadata
+        return stored instanceof CacheEnvelope envelope ? envelope : new CacheEnvelope(stored, 0, 0);
+    }
+
+    // keys travel between nodes as text, so L1 is keyed the same way
+    private static String localKey(Object key) {
+        return key.toString();
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.requests")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter loads(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cache.loads")
+                .tag("cache", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
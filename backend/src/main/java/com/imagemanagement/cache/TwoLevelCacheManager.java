@@ -0,0 +1,83 @@
+package com.imagemanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imagemanagement.config.CacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Wraps a remote {@link CacheManager} so every cache it serves gets an in-process L1 in front.
+ * Local copies on other nodes are dropped through the {@link ClusterInvalidationBus}; the short L1
+ * TTL bounds staleness if an invalidation message is lost.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    static final String CHANNEL = "cache";
+    private static final char SEPARATOR = '\t';
+
+    private final CacheManager remoteCacheManager;
+    private final CacheProperties cacheProperties;
+    private final ClusterInvalidationBus invalidationBus;
+    private final CacheLease lease;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+            CacheProperties cacheProperties,
+            ClusterInvalidationBus invalidationBus,
+            CacheLease lease,
+            MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.cacheProperties = cacheProperties;
+        this.invalidationBus = invalidationBus;
+        this.lease = lease;
+        this.meterRegistry = meterRegistry;
+        invalidationBus.subscribe(CHANNEL, this::onRemoteInvalidation);
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        CacheProperties.LocalSpec spec = cacheProperties.getLocal().specFor(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, CacheEnvelope> local = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getTtl())
+                .build();
+        return new TwoLevelCache(name, local, remote, cacheProperties.ttlFor(name),
+                key -> publishInvalidation(name, key), lease, cacheProperties.getStampede(), meterRegistry);
+    }
+
+    private void publishInvalidation(String cacheName, @Nullable Object key) {
+        String message = key == null ? cacheName : cacheName + SEPARATOR + key;
+        invalidationBus.publish(CHANNEL, message);
+    }
+
+    private void onRemoteInvalidation(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        String cacheName = separator < 0 ? message : message.substring(0, separator);
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(separator < 0 ? null : message.substring(separator + 1));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.imagemanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Pooled keep-alive HTTP client for the AI service. Pool usage is published as
+ * {@code httpcomponents.httpclient.pool.*} gauges tagged {@code httpclient=ai-service}.
+ */
+@Configuration
+public class AiHttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager aiServiceConnectionManager(AiServiceProperties properties,
+            MeterRegistry meterRegistry) {
+        AiServiceProperties.Pool pool = properties.getPool();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxTotal())
+                .setMaxConnPerRoute(pool.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                        .setSocketTimeout(timeout(properties.getTimeout()))
+                        .setTimeToLive(timeValue(pool.getTimeToLive()))
+                        .setValidateAfterInactivity(timeValue(pool.getValidateAfterInactivity()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "ai-service").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient aiServiceHttpClient(PoolingHttpClientConnectionManager aiServiceConnectionManager,
+            AiServiceProperties properties) {
+        AiServiceProperties.Pool pool = properties.getPool();
+        return HttpClients.custom()
+                .setConnectionManager(aiServiceConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(properties.getAcquireTimeout()))
+                        .setResponseTimeout(timeout(properties.getTimeout()))
+                        .setConnectionKeepAlive(timeValue(pool.getKeepAlive()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(pool.getIdleTimeout()))
+                .build();
+    }
+
+    /**
+     * Threads that wait on the AI service, so that request threads and JDBC connections don't.
+     * One per bulkhead permit and no queue. A thread also runs the caller's follow-up stages after
+     * its permit is returned, so a call admitted while every thread is still busy with those is
+     * rejected, which {@code AsyncAiServiceClient} reports as busy, instead of waiting in line.
+     */
+    @Bean
+    @Profile("!test")
+    public ExecutorService aiServiceExecutor(AiServiceProperties properties) {
+        int threads = properties.getBulkhead().getMaxConcurrent();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new CustomizableThreadFactory("ai-client-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.of(duration.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.of(duration.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -1,5 +1,8 @@
 package com.imagemanagement.config;
 
+import com.imagemanagement.ai.AiImageSource;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
@@ -13,9 +16,51 @@ public class AiServiceProperties {
     @NotBlank
     private String serviceUrl = "http://localhost:5000";
 
+    /**
+     * Read timeout: how long to wait for the response once the request has been sent.
+     */
     @NotNull
     private Duration timeout = Duration.ofSeconds(30);
 
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * How long a request waits for a pooled connection before failing.
+     */
+    @NotNull
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Rendition sent for tagging when a request does not choose one.
+     */
+    @NotNull
+    private AiImageSource imageSource = AiImageSource.MEDIUM;
+
+    /**
+     * Bounding box of the JPEG rendered on the fly when the chosen thumbnail is missing.
+     */
+    @Min(64)
+    private int renderSize = 512;
+
+    @Valid
+    private Pool pool = new Pool();
+
+    @Valid
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Valid
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Valid
+    private Batch batch = new Batch();
+
+    @Valid
+    private SuggestionCache suggestionCache = new SuggestionCache();
+
+    @Valid
+    private TaggingQueue taggingQueue = new TaggingQueue();
+
     public String getServiceUrl() {
         return serviceUrl;
     }
@@ -31,4 +76,423 @@ public class AiServiceProperties {
     public void setTimeout(Duration timeout) {
         this.timeout = timeout;
     }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public AiImageSource getImageSource() {
+        return imageSource;
+    }
+
+    public void setImageSource(AiImageSource imageSource) {
+        this.imageSource = imageSource;
+    }
+
+    public int getRenderSize() {
+        return renderSize;
+    }
+
+    public void setRenderSize(int renderSize) {
+        this.renderSize = renderSize;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public void setPool(Pool pool) {
+        this.pool = pool;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public SuggestionCache getSuggestionCache() {
+        return suggestionCache;
+    }
+
+    public void setSuggestionCache(SuggestionCache suggestionCache) {
+        this.suggestionCache = suggestionCache;
+    }
+
+    public TaggingQueue getTaggingQueue() {
+        return taggingQueue;
+    }
+
+    public void setTaggingQueue(TaggingQueue taggingQueue) {
+        this.taggingQueue = taggingQueue;
+    }
+
+    public static class Pool {
+
+        @Min(1)
+        private int maxTotal = 50;
+
+        /**
+         * All calls go to the one AI service host, so this is effectively the concurrency limit.
+         */
+        @Min(1)
+        private int maxPerRoute = 20;
+
+        /**
+         * Used when the response carries no {@code Keep-Alive} header. Keep it below the server's
+         * keep-alive so the client never reuses a connection the server is about to close.
+         */
+        @NotNull
+        private Duration keepAlive = Duration.ofSeconds(30);
+
+        /**
+         * Idle connections older than this are closed by the background evictor.
+         */
+        @NotNull
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        @NotNull
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Connections idle for longer than this are checked for staleness before reuse.
+         */
+        @NotNull
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
+    }
+
+    public static class Bulkhead {
+
+        /**
+         * Calls allowed in flight at once; further calls are rejected instead of queued. Keep it at
+         * or below {@code pool.max-per-route} so admitted calls never wait for a connection.
+         */
+        @Min(1)
+        private int maxConcurrent = 16;
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+    }
+
+    public static class CircuitBreaker {
+
+        @Min(1)
+        private int failureThreshold = 5;
+
+        /**
+         * How long calls fail fast once the circuit opens, before a probe is let through.
+         */
+        @NotNull
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+    }
+
+    public static class Batch {
+
+        /**
+         * Images per batch request. The AI service refuses batches above its own
+         * {@code TAG_MAX_BATCH_ITEMS}.
+         */
+        @Min(1)
+        private int maxItems = 16;
+
+        /**
+         * Upload bytes per batch request; has to stay below the AI service's {@code MAX_UPLOAD_MB}.
+         * An image larger than this is sent in a batch of its own.
+         */
+        @Min(1)
+        private long maxBytes = 8L * 1024 * 1024;
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    public static class SuggestionCache {
+
+        private boolean enabled = true;
+
+        /**
+         * Part of every key; change it when the AI service's model changes so stale suggestions
+         * are no longer served.
+         */
+        @NotBlank
+        private String modelVersion = "default";
+
+        /**
+         * Also keeps suggestions in the {@code ai_tag_suggestions} table, so they outlive the cache.
+         */
+        private boolean persist = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getModelVersion() {
+            return modelVersion;
+        }
+
+        public void setModelVersion(String modelVersion) {
+            this.modelVersion = modelVersion;
+        }
+
+        public boolean isPersist() {
+            return persist;
+        }
+
+        public void setPersist(boolean persist) {
+            this.persist = persist;
+        }
+    }
+
+    public static class TaggingQueue {
+
+        /**
+         * Runs the worker that drains {@code ai_tagging_queue} on this node. Uploads are still
+         * queued when it is off, so another node can pick them up.
+         */
+        private boolean enabled = true;
+
+        private boolean enqueueUploads = true;
+
+        /**
+         * Delay between polls; read by {@code @Scheduled}, so it has to be an ISO-8601 duration.
+         */
+        @NotNull
+        private Duration pollInterval = Duration.ofSeconds(2);
+
+        /**
+         * Most rows one poll claims.
+         */
+        @Min(1)
+        private int claimSize = 32;
+
+        /**
+         * How long a claimed row stays invisible to other workers. A worker that dies leaves its
+         * rows to be claimed again once the lease runs out.
+         */
+        @NotNull
+        private Duration lease = Duration.ofMinutes(5);
+
+        /**
+         * Images per minute this node sends to the AI service from the queue.
+         */
+        @Min(1)
+        private int ratePerMinute = 120;
+
+        /**
+         * Attempts before a row is marked {@code DEAD}; queueing the image again revives it.
+         */
+        @Min(1)
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before the first retry; doubled for each further attempt up to {@code max-backoff}.
+         */
+        @NotNull
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        @NotNull
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * Images per insert when the backfill walks the {@code images} table.
+         */
+        @Min(1)
+        private int backfillChunkSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isEnqueueUploads() {
+            return enqueueUploads;
+        }
+
+        public void setEnqueueUploads(boolean enqueueUploads) {
+            this.enqueueUploads = enqueueUploads;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getClaimSize() {
+            return claimSize;
+        }
+
+        public void setClaimSize(int claimSize) {
+            this.claimSize = claimSize;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public int getRatePerMinute() {
+            return ratePerMinute;
+        }
+
+        public void setRatePerMinute(int ratePerMinute) {
+            this.ratePerMinute = ratePerMinute;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public int getBackfillChunkSize() {
+            return backfillChunkSize;
+        }
+
+        public void setBackfillChunkSize(int backfillChunkSize) {
+            this.backfillChunkSize = backfillChunkSize;
+        }
+    }
 }
@@ -1,7 +1,13 @@
 package com.imagemanagement.config;
 
+import com.imagemanagement.cache.CacheCodecFormat;
+import com.imagemanagement.cache.CacheNames;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
@@ -21,6 +27,24 @@ public class CacheProperties {
     @NotNull
     private Duration searchTtl = Duration.ofMinutes(5);
 
+    /**
+     * AI suggestions only change with the model, which is part of their key.
+     */
+    @NotNull
+    private Duration aiTagsTtl = Duration.ofDays(7);
+
+    @NotNull
+    private Duration aiSearchTtl = Duration.ofHours(1);
+
+    @Valid
+    private Local local = new Local();
+
+    @Valid
+    private Codec codec = new Codec();
+
+    @Valid
+    private Stampede stampede = new Stampede();
+
     public Duration getDefaultTtl() {
         return defaultTtl;
     }
@@ -52,4 +76,180 @@ public class CacheProperties {
     public void setSearchTtl(Duration searchTtl) {
         this.searchTtl = searchTtl;
     }
-}
\ No newline at end of file
+
+    public Duration getAiTagsTtl() {
+        return aiTagsTtl;
+    }
+
+    public void setAiTagsTtl(Duration aiTagsTtl) {
+        this.aiTagsTtl = aiTagsTtl;
+    }
+
+    public Duration getAiSearchTtl() {
+        return aiSearchTtl;
+    }
+
+    public void setAiSearchTtl(Duration aiSearchTtl) {
+        this.aiSearchTtl = aiSearchTtl;
+    }
+
+    public Local getLocal() {
+        return local;
+    }
+
+    public void setLocal(Local local) {
+        this.local = local;
+    }
+
+    public Duration ttlFor(String cacheName) {
+        return switch (cacheName) {
+            case CacheNames.USERS -> usersTtl;
+            case CacheNames.IMAGES -> imagesTtl;
+            case CacheNames.IMAGE_SEARCH -> searchTtl;
+            case CacheNames.AI_TAG_SUGGESTIONS -> aiTagsTtl;
+            case CacheNames.AI_SEARCH_INTERPRETATIONS -> aiSearchTtl;
+            default -> defaultTtl;
+        };
+    }
+
+    public Stampede getStampede() {
+        return stampede;
+    }
+
+    public void setStampede(Stampede stampede) {
+        this.stampede = stampede;
+    }
+
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(Codec codec) {
+        this.codec = codec;
+    }
+
+    public static class Stampede {
+
+        private boolean leaseEnabled = true;
+
+        @NotNull
+        private Duration leaseTtl = Duration.ofSeconds(10);
+
+        @NotNull
+        private Duration leaseWait = Duration.ofSeconds(3);
+
+        @NotNull
+        private Duration pollInterval = Duration.ofMillis(50);
+
+        @Min(value = 0, message = "Early refresh beta must not be negative")
+        private double earlyRefreshBeta = 1.0;
+
+        public boolean isLeaseEnabled() {
+            return leaseEnabled;
+        }
+
+        public void setLeaseEnabled(boolean leaseEnabled) {
+            this.leaseEnabled = leaseEnabled;
+        }
+
+        public Duration getLeaseTtl() {
+            return leaseTtl;
+        }
+
+        public void setLeaseTtl(Duration leaseTtl) {
+            this.leaseTtl = leaseTtl;
+        }
+
+        public Duration getLeaseWait() {
+            return leaseWait;
+        }
+
+        public void setLeaseWait(Duration leaseWait) {
+            this.leaseWait = leaseWait;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public double getEarlyRefreshBeta() {
+            return earlyRefreshBeta;
+        }
+
+        public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+            this.earlyRefreshBeta = earlyRefreshBeta;
+        }
+    }
+
+    public static class Codec {
+
+        @NotNull
+        private CacheCodecFormat format = CacheCodecFormat.JSON;
+
+        @Min(value = 0, message = "Compression threshold must not be negative")
+        private int compressionThreshold = 2048;
+
+        public CacheCodecFormat getFormat() {
+            return format;
+        }
+
+        public void setFormat(CacheCodecFormat format) {
+            this.format = format;
+        }
+
+        public int getCompressionThreshold() {
+            return compressionThreshold;
+        }
+
+        public void setCompressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+        }
+    }
+
+    public static class LocalSpec {
+
+        @Min(value = 1, message = "L1 cache size must be positive")
+        private long maximumSize = 10_000;
+
+        @NotNull
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Local extends LocalSpec {
+
+        @Valid
+        private Map<String, LocalSpec> caches = new HashMap<>();
+
+        public Map<String, LocalSpec> getCaches() {
+            return caches;
+        }
+
+        public void setCaches(Map<String, LocalSpec> caches) {
+            this.caches = caches;
+        }
+
+        public LocalSpec specFor(String cacheName) {
+            return caches.getOrDefault(cacheName, this);
+        }
+    }
+}
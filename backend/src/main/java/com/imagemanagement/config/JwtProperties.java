@@ -1,7 +1,10 @@
 package com.imagemanagement.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
@@ -18,6 +21,12 @@ public class JwtProperties {
     @NotNull
     private Long refreshExpiration;
 
+    @Valid
+    private PrincipalCache principalCache = new PrincipalCache();
+
+    @Valid
+    private VerifiedTokens verifiedTokens = new VerifiedTokens();
+
     public String getSecret() {
         return secret;
     }
@@ -41,4 +50,77 @@ public class JwtProperties {
     public void setRefreshExpiration(Long refreshExpiration) {
         this.refreshExpiration = refreshExpiration;
     }
+
+    public PrincipalCache getPrincipalCache() {
+        return principalCache;
+    }
+
+    public void setPrincipalCache(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    public VerifiedTokens getVerifiedTokens() {
+        return verifiedTokens;
+    }
+
+    public void setVerifiedTokens(VerifiedTokens verifiedTokens) {
+        this.verifiedTokens = verifiedTokens;
+    }
+
+    public static class PrincipalCache {
+
+        @Min(1)
+        private long maximumSize = 10_000;
+
+        /**
+         * Upper bound on how long a role or status change made outside the application (for
+         * example directly in the database) takes to reach authenticated requests.
+         */
+        @NotNull
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class VerifiedTokens {
+
+        /**
+         * Remembers tokens whose signature has been checked, so repeat requests with the same token
+         * skip decoding and HMAC verification until it expires.
+         */
+        private boolean enabled = true;
+
+        @Min(1)
+        private long maximumSize = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
 }
@@ -3,9 +3,20 @@ package com.imagemanagement.config;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.imagemanagement.cache.CacheLease;
 import com.imagemanagement.cache.CacheNames;
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.cache.CompactRedisSerializer;
+import com.imagemanagement.cache.CompactTypeIds;
+import com.imagemanagement.cache.RedisCacheLease;
+import com.imagemanagement.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,7 +30,8 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.lang.NonNull;
@@ -30,12 +42,12 @@ import org.springframework.lang.NonNull;
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, CacheProperties cacheProperties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
-        GenericJackson2JsonRedisSerializer serializer = jacksonRedisSerializer();
+        CompactRedisSerializer serializer = compactRedisSerializer(cacheProperties);
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
         template.afterPropertiesSet();
@@ -43,8 +55,19 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheProperties cacheProperties) {
-        GenericJackson2JsonRedisSerializer serializer = jacksonRedisSerializer();
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            CacheProperties cacheProperties,
+            ClusterInvalidationBus invalidationBus,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry) {
+        CompactRedisSerializer serializer = compactRedisSerializer(cacheProperties);
         RedisSerializationContext.SerializationPair<Object> pair = RedisSerializationContext.SerializationPair.fromSerializer(serializer);
 
         Duration defaultTtl = Objects.requireNonNull(cacheProperties.getDefaultTtl(), "Default cache TTL must be configured");
@@ -59,20 +82,44 @@ public class RedisConfig {
             defaultConfig.entryTtl(Objects.requireNonNull(cacheProperties.getImagesTtl(), "Image cache TTL must be configured")));
         cacheConfigurations.put(CacheNames.IMAGE_SEARCH,
             defaultConfig.entryTtl(Objects.requireNonNull(cacheProperties.getSearchTtl(), "Search cache TTL must be configured")));
+        cacheConfigurations.put(CacheNames.AI_TAG_SUGGESTIONS,
+            defaultConfig.entryTtl(Objects.requireNonNull(cacheProperties.getAiTagsTtl(), "AI tag cache TTL must be configured")));
+        cacheConfigurations.put(CacheNames.AI_SEARCH_INTERPRETATIONS,
+            defaultConfig.entryTtl(Objects.requireNonNull(cacheProperties.getAiSearchTtl(), "AI search cache TTL must be configured")));
 
         RedisConnectionFactory safeConnectionFactory = Objects.requireNonNull(connectionFactory, "Redis connection factory must not be null");
-        return RedisCacheManager.builder(safeConnectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(safeConnectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+        CacheLease lease = cacheProperties.getStampede().isLeaseEnabled()
+                ? new RedisCacheLease(stringRedisTemplate)
+                : CacheLease.NONE;
+        return new TwoLevelCacheManager(redisCacheManager, cacheProperties, invalidationBus, lease, meterRegistry);
     }
 
-    private @NonNull GenericJackson2JsonRedisSerializer jacksonRedisSerializer() {
-        ObjectMapper mapper = JsonMapper.builder()
+    private @NonNull CompactRedisSerializer compactRedisSerializer(CacheProperties cacheProperties) {
+        CacheProperties.Codec codec = cacheProperties.getCodec();
+        ObjectMapper jsonMapper = baseCacheMapper(JsonMapper.builder());
+        jsonMapper.activateDefaultTyping(cacheTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        // Smile values are only read by releases that know the compact type ids, so only they use them
+        ObjectMapper smileMapper = CompactTypeIds.apply(
+                baseCacheMapper(SmileMapper.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)),
+                cacheTypeValidator());
+        return new CompactRedisSerializer(jsonMapper, smileMapper, codec.getFormat(), codec.getCompressionThreshold());
+    }
+
+    private @NonNull ObjectMapper baseCacheMapper(MapperBuilder<?, ?> builder) {
+        ObjectMapper mapper = builder
                 .findAndAddModules()
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .build();
-        BasicPolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+        return Objects.requireNonNull(mapper);
+    }
+
+    private PolymorphicTypeValidator cacheTypeValidator() {
+        return BasicPolymorphicTypeValidator.builder()
             .allowIfSubType("com.imagemanagement")
             .allowIfSubType("java.time")
             // 允许 java.util 的集合类（例如 Collections$UnmodifiableRandomAccessList）被反序列化
@@ -80,7 +127,5 @@ public class RedisConfig {
             // 允许基础的 java.lang 类型（安全范围内）
             .allowIfSubType("java.lang")
             .build();
-        mapper.activateDefaultTyping(validator, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
-        return new GenericJackson2JsonRedisSerializer(Objects.requireNonNull(mapper));
     }
-}
\ No newline at end of file
+}
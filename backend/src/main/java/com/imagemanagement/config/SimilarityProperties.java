@@ -0,0 +1,174 @@
+package com.imagemanagement.config;
+
+import com.imagemanagement.similarity.PerceptualHash;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "app.similarity")
+public class SimilarityProperties {
+
+    /**
+     * Hamming distance up to which two perceptual hashes count as the same picture.
+     */
+    @Min(0)
+    @Max(PerceptualHash.BITS)
+    private int nearDuplicateDistance = 6;
+
+    @Min(0)
+    @Max(PerceptualHash.BITS)
+    private int defaultMaxDistance = 12;
+
+    @Min(0)
+    @Max(PerceptualHash.BITS)
+    private int maxDistance = 20;
+
+    @Min(1)
+    private long indexMaximumUsers = 1000;
+
+    @NotNull
+    private Duration indexTtl = Duration.ofMinutes(30);
+
+    @Valid
+    private Vector vector = new Vector();
+
+    public int getNearDuplicateDistance() {
+        return nearDuplicateDistance;
+    }
+
+    public void setNearDuplicateDistance(int nearDuplicateDistance) {
+        this.nearDuplicateDistance = nearDuplicateDistance;
+    }
+
+    public int getDefaultMaxDistance() {
+        return defaultMaxDistance;
+    }
+
+    public void setDefaultMaxDistance(int defaultMaxDistance) {
+        this.defaultMaxDistance = defaultMaxDistance;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public void setMaxDistance(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    public long getIndexMaximumUsers() {
+        return indexMaximumUsers;
+    }
+
+    public void setIndexMaximumUsers(long indexMaximumUsers) {
+        this.indexMaximumUsers = indexMaximumUsers;
+    }
+
+    public Duration getIndexTtl() {
+        return indexTtl;
+    }
+
+    public void setIndexTtl(Duration indexTtl) {
+        this.indexTtl = indexTtl;
+    }
+
+    public Vector getVector() {
+        return vector;
+    }
+
+    public void setVector(Vector vector) {
+        this.vector = vector;
+    }
+
+    public static class Vector {
+
+        @NotBlank
+        private String indexDir = "./vector-index";
+
+        /**
+         * Links kept per node on the upper HNSW layers; layer 0 keeps twice as many.
+         */
+        @Min(2)
+        private int m = 16;
+
+        @Min(1)
+        private int efConstruction = 128;
+
+        @Min(1)
+        private int efSearch = 64;
+
+        @Min(1)
+        private int maxResults = 50;
+
+        /**
+         * Number of changes after which a user's index is written back to disk.
+         */
+        @Min(1)
+        private int flushEvery = 32;
+
+        @Min(1)
+        private long indexMaximumUsers = 200;
+
+        public String getIndexDir() {
+            return indexDir;
+        }
+
+        public void setIndexDir(String indexDir) {
+            this.indexDir = indexDir;
+        }
+
+        public int getM() {
+            return m;
+        }
+
+        public void setM(int m) {
+            this.m = m;
+        }
+
+        public int getEfConstruction() {
+            return efConstruction;
+        }
+
+        public void setEfConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        public int getFlushEvery() {
+            return flushEvery;
+        }
+
+        public void setFlushEvery(int flushEvery) {
+            this.flushEvery = flushEvery;
+        }
+
+        public long getIndexMaximumUsers() {
+            return indexMaximumUsers;
+        }
+
+        public void setIndexMaximumUsers(long indexMaximumUsers) {
+            this.indexMaximumUsers = indexMaximumUsers;
+        }
+    }
+}
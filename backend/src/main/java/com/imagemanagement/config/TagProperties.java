@@ -0,0 +1,194 @@
+package com.imagemanagement.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "app.tags")
+public class TagProperties {
+
+    @Valid
+    private Suggest suggest = new Suggest();
+
+    @Valid
+    private Popular popular = new Popular();
+
+    @Valid
+    private Usage usage = new Usage();
+
+    @Valid
+    private Dictionary dictionary = new Dictionary();
+
+    public Suggest getSuggest() {
+        return suggest;
+    }
+
+    public void setSuggest(Suggest suggest) {
+        this.suggest = suggest;
+    }
+
+    public Popular getPopular() {
+        return popular;
+    }
+
+    public void setPopular(Popular popular) {
+        this.popular = popular;
+    }
+
+    public Usage getUsage() {
+        return usage;
+    }
+
+    public void setUsage(Usage usage) {
+        this.usage = usage;
+    }
+
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    public void setDictionary(Dictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public static class Suggest {
+
+        /**
+         * Completions cached per trie node; also the largest {@code limit} a caller may ask for.
+         */
+        @Min(1)
+        @Max(100)
+        private int maxResults = 20;
+
+        /**
+         * How often the trie is rebuilt from the database to pick up usage changes from other nodes.
+         * Read by {@code @Scheduled}, so it has to be written in ISO-8601 form.
+         */
+        @NotNull
+        private Duration reloadInterval = Duration.ofMinutes(5);
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        public Duration getReloadInterval() {
+            return reloadInterval;
+        }
+
+        public void setReloadInterval(Duration reloadInterval) {
+            this.reloadInterval = reloadInterval;
+        }
+    }
+
+    public static class Popular {
+
+        /**
+         * Tags ranked in memory. It has to cover the largest page served; the slack above that keeps
+         * the ranking close to exact while usage drops between reconciliations.
+         */
+        @Min(100)
+        private int windowSize = 200;
+
+        /**
+         * How often the ranking is rebuilt from the database to pick up changes from other nodes.
+         * Read by {@code @Scheduled}, so it has to be written in ISO-8601 form.
+         */
+        @NotNull
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public Duration getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(Duration reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+    }
+
+    public static class Usage {
+
+        /**
+         * Buffers usage count changes in memory and writes them in periodic batches. When off, every
+         * change is applied to its row right away, inside the caller's transaction.
+         */
+        private boolean writeBehind = true;
+
+        /**
+         * Delay between flushes. Read by {@code @Scheduled}, so it has to be written in ISO-8601 form.
+         */
+        @NotNull
+        private Duration flushInterval = Duration.ofSeconds(5);
+
+        @Min(1)
+        private int batchSize = 500;
+
+        public boolean isWriteBehind() {
+            return writeBehind;
+        }
+
+        public void setWriteBehind(boolean writeBehind) {
+            this.writeBehind = writeBehind;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Dictionary {
+
+        @Min(1)
+        private long maximumSize = 50_000;
+
+        /**
+         * How long a name that had no tag is remembered as missing.
+         */
+        @NotNull
+        private Duration negativeTtl = Duration.ofMinutes(1);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.imagemanagement.controller;
 
-import com.imagemanagement.ai.AiServiceClient;
+import com.imagemanagement.ai.AiSearchInterpretationCache;
 import com.imagemanagement.ai.dto.AiSearchInterpretation;
 import com.imagemanagement.dto.request.AiSearchInterpretRequest;
 import com.imagemanagement.dto.response.ApiResponse;
@@ -15,16 +15,16 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/ai")
 public class AiController {
 
-    private final AiServiceClient aiServiceClient;
+    private final AiSearchInterpretationCache interpretationCache;
 
-    public AiController(AiServiceClient aiServiceClient) {
-        this.aiServiceClient = aiServiceClient;
+    public AiController(AiSearchInterpretationCache interpretationCache) {
+        this.interpretationCache = interpretationCache;
     }
 
     @PostMapping("/search/interpret")
     public ResponseEntity<ApiResponse<AiSearchInterpretation>> interpretSearch(
             @Valid @RequestBody AiSearchInterpretRequest request) {
-        AiSearchInterpretation interpretation = aiServiceClient.interpretSearch(request.query(), request.limit());
+        AiSearchInterpretation interpretation = interpretationCache.interpret(request.query(), request.limit());
         return ResponseEntity.ok(ApiResponse.success(interpretation));
     }
 }
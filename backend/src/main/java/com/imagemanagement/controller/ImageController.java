@@ -2,16 +2,31 @@ package com.imagemanagement.controller;
 
 import com.imagemanagement.dto.request.ImageEditRequest;
 import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.dto.request.NaturalSearchRequest;
+import com.imagemanagement.dto.request.TimelineGranularity;
 import com.imagemanagement.dto.response.ApiResponse;
+import com.imagemanagement.dto.response.GeoTileResponse;
 import com.imagemanagement.dto.response.ImageDeleteResponse;
 import com.imagemanagement.dto.response.ImageSummaryResponse;
 import com.imagemanagement.dto.response.ImageUploadResponse;
+import com.imagemanagement.dto.response.NaturalSearchResponse;
+import com.imagemanagement.dto.response.NearDuplicateGroupResponse;
 import com.imagemanagement.dto.response.PageResponse;
+import com.imagemanagement.dto.response.SimilarImageResponse;
+import com.imagemanagement.dto.response.TimelineBucketResponse;
+import com.imagemanagement.dto.response.VisuallySimilarImageResponse;
 import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import com.imagemanagement.exception.BadRequestException;
+import com.imagemanagement.geo.GeoBoundingBox;
 import com.imagemanagement.security.CustomUserDetails;
 import com.imagemanagement.service.ImageService;
+import com.imagemanagement.service.NaturalSearchService;
+import com.imagemanagement.service.TimelineService;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -31,9 +46,15 @@ import org.springframework.web.multipart.MultipartFile;
 public class ImageController {
 
     private final ImageService imageService;
+    private final TimelineService timelineService;
+    private final NaturalSearchService naturalSearchService;
 
-    public ImageController(ImageService imageService) {
+    public ImageController(ImageService imageService,
+            TimelineService timelineService,
+            NaturalSearchService naturalSearchService) {
         this.imageService = imageService;
+        this.timelineService = timelineService;
+        this.naturalSearchService = naturalSearchService;
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -41,10 +62,12 @@ public class ImageController {
             @RequestPart("files") List<MultipartFile> files,
             @RequestParam(value = "privacyLevel", required = false) ImagePrivacyLevel privacyLevel,
             @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "nearDuplicateCheck", defaultValue = "false") boolean nearDuplicateCheck,
             Authentication authentication) {
 
         CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
-        List<ImageUploadResponse> responses = imageService.uploadImages(principal.getId(), files, privacyLevel, description);
+        List<ImageUploadResponse> responses = imageService.uploadImages(principal.getId(), files, privacyLevel, description,
+                nearDuplicateCheck);
         return ResponseEntity.ok(ApiResponse.success(responses));
     }
 
@@ -58,6 +81,20 @@ public class ImageController {
         return ResponseEntity.ok(ApiResponse.success(page));
     }
 
+    @PostMapping(value = "/search/natural", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<NaturalSearchResponse>> searchNatural(
+            @Valid @RequestBody NaturalSearchRequest request,
+            Authentication authentication) {
+
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        NaturalSearchResponse response = naturalSearchService.search(principal.getId(), request);
+        NaturalSearchResponse.Timings timings = response.timings();
+        return ResponseEntity.ok()
+                .header("Server-Timing", String.format(Locale.ROOT, "interpret;dur=%.2f, search;dur=%.2f, total;dur=%.2f",
+                        timings.interpretMs(), timings.searchMs(), timings.totalMs()))
+                .body(ApiResponse.success(response));
+    }
+
     @PostMapping(value = "/{imageId}/edit", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponse<ImageSummaryResponse>> editImage(
             @PathVariable Long imageId,
@@ -86,4 +123,66 @@ public class ImageController {
         List<ImageSummaryResponse> highlights = imageService.getHighlightImages(principal.getId(), size);
         return ResponseEntity.ok(ApiResponse.success(highlights));
     }
+
+    @GetMapping("/{imageId}/similar")
+    public ResponseEntity<ApiResponse<List<SimilarImageResponse>>> getSimilarImages(
+            @PathVariable Long imageId,
+            @RequestParam(value = "maxDistance", required = false) Integer maxDistance,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            Authentication authentication) {
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        List<SimilarImageResponse> similar = imageService.findSimilarImages(principal.getId(), imageId, maxDistance, limit);
+        return ResponseEntity.ok(ApiResponse.success(similar));
+    }
+
+    @GetMapping("/{imageId}/visually-similar")
+    public ResponseEntity<ApiResponse<List<VisuallySimilarImageResponse>>> getVisuallySimilarImages(
+            @PathVariable Long imageId,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            Authentication authentication) {
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        List<VisuallySimilarImageResponse> similar = imageService.findVisuallySimilarImages(principal.getId(), imageId, limit);
+        return ResponseEntity.ok(ApiResponse.success(similar));
+    }
+
+    @GetMapping("/near-duplicates")
+    public ResponseEntity<ApiResponse<List<NearDuplicateGroupResponse>>> getNearDuplicateGroups(
+            @RequestParam(value = "maxDistance", required = false) Integer maxDistance,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            Authentication authentication) {
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        List<NearDuplicateGroupResponse> groups = imageService.findNearDuplicateGroups(principal.getId(), maxDistance, limit);
+        return ResponseEntity.ok(ApiResponse.success(groups));
+    }
+
+    @GetMapping("/timeline")
+    public ResponseEntity<ApiResponse<List<TimelineBucketResponse>>> getTimeline(
+            @RequestParam(value = "granularity", defaultValue = "DAY") TimelineGranularity granularity,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        List<TimelineBucketResponse> buckets = timelineService.getTimeline(principal.getId(), granularity, from, to);
+        return ResponseEntity.ok(ApiResponse.success(buckets));
+    }
+
+    @GetMapping("/geo/tiles")
+    public ResponseEntity<ApiResponse<List<GeoTileResponse>>> getGeoTiles(
+            @RequestParam(value = "zoom", defaultValue = "3") int zoom,
+            @RequestParam(value = "minLatitude", required = false) Double minLatitude,
+            @RequestParam(value = "maxLatitude", required = false) Double maxLatitude,
+            @RequestParam(value = "minLongitude", required = false) Double minLongitude,
+            @RequestParam(value = "maxLongitude", required = false) Double maxLongitude,
+            Authentication authentication) {
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        GeoBoundingBox box = null;
+        if (minLatitude != null || maxLatitude != null || minLongitude != null || maxLongitude != null) {
+            if (minLatitude == null || maxLatitude == null || minLongitude == null || maxLongitude == null) {
+                throw new BadRequestException("Bounding box requires minLatitude, maxLatitude, minLongitude and maxLongitude");
+            }
+            box = new GeoBoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        }
+        List<GeoTileResponse> tiles = imageService.getGeoTiles(principal.getId(), zoom, box);
+        return ResponseEntity.ok(ApiResponse.success(tiles));
+    }
 }
\ No newline at end of file
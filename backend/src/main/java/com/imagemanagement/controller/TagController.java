@@ -1,9 +1,13 @@
 package com.imagemanagement.controller;
 
 import com.imagemanagement.dto.request.AiTagAssignmentRequest;
+import com.imagemanagement.dto.request.AiTagBatchGenerationRequest;
 import com.imagemanagement.dto.request.AiTagGenerationRequest;
+import com.imagemanagement.dto.request.BulkTagRequest;
 import com.imagemanagement.dto.request.TagAssignmentRequest;
+import com.imagemanagement.dto.response.AiTagBatchGenerationResponse;
 import com.imagemanagement.dto.response.ApiResponse;
+import com.imagemanagement.dto.response.BulkTagResponse;
 import com.imagemanagement.dto.response.ImageTagResponse;
 import com.imagemanagement.dto.response.TagResponse;
 import com.imagemanagement.exception.BadRequestException;
@@ -11,6 +15,7 @@ import com.imagemanagement.security.CustomUserDetails;
 import com.imagemanagement.service.TagService;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -58,14 +63,23 @@ public class TagController {
     }
 
     @PostMapping("/images/{imageId}/tags/ai/generate")
-    public ResponseEntity<ApiResponse<List<ImageTagResponse>>> generateAiTags(
+    public CompletableFuture<ResponseEntity<ApiResponse<List<ImageTagResponse>>>> generateAiTags(
             @PathVariable Long imageId,
             @Valid @RequestBody(required = false) AiTagGenerationRequest request,
             Authentication authentication) {
         CustomUserDetails principal = requirePrincipal(authentication);
         AiTagGenerationRequest effectiveRequest = request != null ? request : new AiTagGenerationRequest(null, null);
-        List<ImageTagResponse> responses = tagService.generateAiTags(principal.getId(), imageId, effectiveRequest);
-        return ResponseEntity.ok(ApiResponse.success(responses));
+        return tagService.generateAiTags(principal.getId(), imageId, effectiveRequest)
+                .thenApply(responses -> ResponseEntity.ok(ApiResponse.success(responses)));
+    }
+
+    @PostMapping("/images/tags/ai/generate-batch")
+    public CompletableFuture<ResponseEntity<ApiResponse<AiTagBatchGenerationResponse>>> generateAiTagsBatch(
+            @Valid @RequestBody AiTagBatchGenerationRequest request,
+            Authentication authentication) {
+        CustomUserDetails principal = requirePrincipal(authentication);
+        return tagService.generateAiTagsBatch(principal.getId(), request)
+                .thenApply(response -> ResponseEntity.ok(ApiResponse.success(response)));
     }
 
     @DeleteMapping("/images/{imageId}/tags/{tagId}")
@@ -78,11 +92,34 @@ public class TagController {
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    @PostMapping("/images/tags/bulk")
+    public ResponseEntity<ApiResponse<BulkTagResponse>> bulkAddTags(
+            @Valid @RequestBody BulkTagRequest request,
+            Authentication authentication) {
+        CustomUserDetails principal = requirePrincipal(authentication);
+        return ResponseEntity.ok(ApiResponse.success(tagService.bulkAssignTags(principal.getId(), request)));
+    }
+
+    @PostMapping("/images/tags/bulk/remove")
+    public ResponseEntity<ApiResponse<BulkTagResponse>> bulkRemoveTags(
+            @Valid @RequestBody BulkTagRequest request,
+            Authentication authentication) {
+        CustomUserDetails principal = requirePrincipal(authentication);
+        return ResponseEntity.ok(ApiResponse.success(tagService.bulkRemoveTags(principal.getId(), request)));
+    }
+
     @GetMapping("/tags/popular")
     public ResponseEntity<ApiResponse<List<TagResponse>>> getPopularTags(@RequestParam(defaultValue = "10") int limit) {
         return ResponseEntity.ok(ApiResponse.success(tagService.getPopularTags(limit)));
     }
 
+    @GetMapping("/tags/suggest")
+    public ResponseEntity<ApiResponse<List<TagResponse>>> suggestTags(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(tagService.suggestTags(prefix, limit)));
+    }
+
     private CustomUserDetails requirePrincipal(Authentication authentication) {
         if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails principal)) {
             throw new BadRequestException("Authentication required");
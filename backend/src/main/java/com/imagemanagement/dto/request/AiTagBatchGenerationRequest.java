@@ -0,0 +1,29 @@
+package com.imagemanagement.dto.request;
+
+import com.imagemanagement.ai.AiImageSource;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record AiTagBatchGenerationRequest(
+        @NotEmpty(message = "imageIds cannot be empty")
+        @Size(max = 1000, message = "at most 1000 images per request")
+        List<@NotNull(message = "image id cannot be null") Long> imageIds,
+
+        @Size(max = 20, message = "hints cannot contain more than 20 entries")
+        List<@NotBlank(message = "hint cannot be blank")
+                @Size(max = 50, message = "hint cannot exceed 50 characters")
+                String> hints,
+
+        @Min(value = 1, message = "limit must be at least 1")
+        @Max(value = 50, message = "limit must be at most 50")
+        Integer limit,
+
+        // rendition to send; null means app.ai.image-source
+        AiImageSource source
+) {
+}
@@ -1,5 +1,6 @@
 package com.imagemanagement.dto.request;
 
+import com.imagemanagement.ai.AiImageSource;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -15,9 +16,16 @@ public record AiTagGenerationRequest(
 
         @Min(value = 1, message = "limit must be at least 1")
         @Max(value = 50, message = "limit must be at most 50")
-        Integer limit
+        Integer limit,
+
+        // rendition to send; null means app.ai.image-source
+        AiImageSource source
 ) {
 
+    public AiTagGenerationRequest(List<String> hints, Integer limit) {
+        this(hints, limit, null);
+    }
+
     public AiTagGenerationRequest {
         if (hints != null) {
             hints = hints.stream()
@@ -0,0 +1,17 @@
+package com.imagemanagement.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BulkTagRequest(
+        @NotEmpty(message = "imageIds cannot be empty")
+        @Size(max = 1000, message = "at most 1000 images per request")
+        List<@NotNull(message = "image id cannot be null") Long> imageIds,
+        @NotEmpty(message = "tagNames cannot be empty")
+        @Size(max = 50, message = "at most 50 tags per request")
+        List<@NotBlank(message = "tag name cannot be blank") @Size(max = 50, message = "tag name too long") String> tagNames
+) {
+}
@@ -1,6 +1,8 @@
 package com.imagemanagement.dto.request;
 
 import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import java.time.LocalDateTime;
@@ -39,6 +41,34 @@ public class ImageSearchRequest {
     @Min(1)
     private Integer maxHeight;
 
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double minLatitude;
+
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double maxLatitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double minLongitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double maxLongitude;
+
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double centerLatitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double centerLongitude;
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax("20000.0")
+    private Double radiusKm;
+
     private Boolean onlyOwn = Boolean.FALSE;
 
     @Min(0)
@@ -140,6 +170,62 @@ public class ImageSearchRequest {
         this.maxHeight = maxHeight;
     }
 
+    public Double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public void setMinLatitude(Double minLatitude) {
+        this.minLatitude = minLatitude;
+    }
+
+    public Double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public void setMaxLatitude(Double maxLatitude) {
+        this.maxLatitude = maxLatitude;
+    }
+
+    public Double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public void setMinLongitude(Double minLongitude) {
+        this.minLongitude = minLongitude;
+    }
+
+    public Double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    public void setMaxLongitude(Double maxLongitude) {
+        this.maxLongitude = maxLongitude;
+    }
+
+    public Double getCenterLatitude() {
+        return centerLatitude;
+    }
+
+    public void setCenterLatitude(Double centerLatitude) {
+        this.centerLatitude = centerLatitude;
+    }
+
+    public Double getCenterLongitude() {
+        return centerLongitude;
+    }
+
+    public void setCenterLongitude(Double centerLongitude) {
+        this.centerLongitude = centerLongitude;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
     public Boolean getOnlyOwn() {
         return onlyOwn;
     }
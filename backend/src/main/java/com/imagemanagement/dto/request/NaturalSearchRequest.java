@@ -0,0 +1,23 @@
+package com.imagemanagement.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record NaturalSearchRequest(
+        @NotBlank(message = "query cannot be blank")
+        @Size(max = 200, message = "query is too long")
+        String query,
+
+        @Min(value = 0, message = "page cannot be negative")
+        Integer page,
+
+        @Min(value = 1, message = "size must be at least 1")
+        @Max(value = 100, message = "size must be at most 100")
+        Integer size,
+
+        // overrides what the interpretation says; null keeps it
+        Boolean onlyOwn
+) {
+}
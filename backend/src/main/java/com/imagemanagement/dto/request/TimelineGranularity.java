@@ -0,0 +1,6 @@
+package com.imagemanagement.dto.request;
+
+public enum TimelineGranularity {
+    DAY,
+    MONTH
+}
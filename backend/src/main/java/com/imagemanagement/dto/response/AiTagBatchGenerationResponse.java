@@ -0,0 +1,16 @@
+package com.imagemanagement.dto.response;
+
+import java.util.List;
+
+/**
+ * @param batchCount     requests made to the AI service
+ * @param failedImageIds images left untagged because they could not be read or their batch failed
+ */
+public record AiTagBatchGenerationResponse(
+        int imageCount,
+        int batchCount,
+        int taggedCount,
+        int linksAdded,
+        List<Long> failedImageIds
+) {
+}
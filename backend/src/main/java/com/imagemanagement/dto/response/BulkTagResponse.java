@@ -0,0 +1,8 @@
+package com.imagemanagement.dto.response;
+
+public record BulkTagResponse(
+        int imageCount,
+        int tagCount,
+        int linksChanged
+) {
+}
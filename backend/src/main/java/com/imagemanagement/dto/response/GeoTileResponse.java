@@ -0,0 +1,9 @@
+package com.imagemanagement.dto.response;
+
+public record GeoTileResponse(
+        String geohash,
+        long count,
+        double latitude,
+        double longitude
+) {
+}
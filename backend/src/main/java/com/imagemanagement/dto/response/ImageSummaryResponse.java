@@ -2,6 +2,7 @@ package com.imagemanagement.dto.response;
 
 import com.imagemanagement.entity.enums.ImagePrivacyLevel;
 import com.imagemanagement.entity.enums.ThumbnailSizeType;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +23,8 @@ public class ImageSummaryResponse {
     private String cameraMake;
     private String cameraModel;
     private LocalDateTime takenTime;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
     private List<String> tags = new ArrayList<>();
     private List<ThumbnailSummary> thumbnails = new ArrayList<>();
 
@@ -137,6 +140,22 @@ public class ImageSummaryResponse {
         this.takenTime = takenTime;
     }
 
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(BigDecimal latitude) {
+        this.latitude = latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(BigDecimal longitude) {
+        this.longitude = longitude;
+    }
+
     public List<String> getTags() {
         return tags;
     }
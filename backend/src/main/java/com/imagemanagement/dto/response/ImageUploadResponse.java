@@ -1,6 +1,7 @@
 package com.imagemanagement.dto.response;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class ImageUploadResponse {
 
@@ -13,6 +14,7 @@ public class ImageUploadResponse {
     private Integer width;
     private Integer height;
     private LocalDateTime uploadTime;
+    private List<Long> nearDuplicateIds = List.of();
 
     public ImageUploadResponse() {
     }
@@ -101,4 +103,12 @@ public class ImageUploadResponse {
     public void setUploadTime(LocalDateTime uploadTime) {
         this.uploadTime = uploadTime;
     }
-}
\ No newline at end of file
+
+    public List<Long> getNearDuplicateIds() {
+        return nearDuplicateIds;
+    }
+
+    public void setNearDuplicateIds(List<Long> nearDuplicateIds) {
+        this.nearDuplicateIds = nearDuplicateIds;
+    }
+}
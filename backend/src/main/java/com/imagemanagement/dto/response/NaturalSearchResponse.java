@@ -0,0 +1,25 @@
+package com.imagemanagement.dto.response;
+
+import com.imagemanagement.ai.dto.AiSearchInterpretation;
+import com.imagemanagement.dto.request.ImageSearchRequest;
+
+/**
+ * @param interpreted {@code false} when the AI service could not be reached and the query was
+ *                    searched as a plain keyword
+ * @param criteria    the search the interpretation was mapped to
+ */
+public record NaturalSearchResponse(
+        String query,
+        boolean interpreted,
+        AiSearchInterpretation interpretation,
+        ImageSearchRequest criteria,
+        PageResponse<ImageSummaryResponse> results,
+        Timings timings
+) {
+
+    /**
+     * Milliseconds spent in each stage, cache lookups included.
+     */
+    public record Timings(double interpretMs, double searchMs, double totalMs) {
+    }
+}
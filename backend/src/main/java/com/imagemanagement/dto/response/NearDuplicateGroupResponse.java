@@ -0,0 +1,9 @@
+package com.imagemanagement.dto.response;
+
+import java.util.List;
+
+public record NearDuplicateGroupResponse(
+        int size,
+        List<ImageSummaryResponse> images
+) {
+}
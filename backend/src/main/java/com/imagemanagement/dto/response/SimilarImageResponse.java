@@ -0,0 +1,7 @@
+package com.imagemanagement.dto.response;
+
+public record SimilarImageResponse(
+        ImageSummaryResponse image,
+        int distance
+) {
+}
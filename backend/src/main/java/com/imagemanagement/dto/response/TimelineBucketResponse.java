@@ -0,0 +1,9 @@
+package com.imagemanagement.dto.response;
+
+import java.time.LocalDate;
+
+public record TimelineBucketResponse(
+        LocalDate start,
+        long count
+) {
+}
@@ -0,0 +1,7 @@
+package com.imagemanagement.dto.response;
+
+public record VisuallySimilarImageResponse(
+        ImageSummaryResponse image,
+        double similarity
+) {
+}
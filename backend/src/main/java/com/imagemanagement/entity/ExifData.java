@@ -1,5 +1,6 @@
 package com.imagemanagement.entity;
 
+import com.imagemanagement.geo.GeoHash;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -9,6 +10,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.math.BigDecimal;
@@ -22,7 +25,8 @@ import java.time.LocalDateTime;
         },
         indexes = {
                 @Index(name = "idx_exif_taken_time", columnList = "taken_time"),
-                @Index(name = "idx_exif_camera_model", columnList = "camera_model")
+                @Index(name = "idx_exif_camera_model", columnList = "camera_model"),
+                @Index(name = "idx_exif_geohash", columnList = "geohash")
         }
 )
 public class ExifData {
@@ -63,9 +67,20 @@ public class ExifData {
     @Column(name = "longitude", precision = 9, scale = 6)
     private BigDecimal longitude;
 
+    @Column(name = "geohash", length = GeoHash.MAX_PRECISION)
+    private String geohash;
+
     @Column(name = "location_name", length = 200)
     private String locationName;
 
+    @PrePersist
+    @PreUpdate
+    public void syncGeohash() {
+        this.geohash = latitude != null && longitude != null
+                ? GeoHash.encode(latitude.doubleValue(), longitude.doubleValue(), GeoHash.MAX_PRECISION)
+                : null;
+    }
+
     public Long getId() {
         return id;
     }
@@ -161,4 +176,8 @@ public class ExifData {
     public void setLocationName(String locationName) {
         this.locationName = locationName;
     }
-}
\ No newline at end of file
+
+    public String getGeohash() {
+        return geohash;
+    }
+}
@@ -59,6 +59,9 @@ public class Image {
     @Column(name = "content_hash", length = 128)
     private String contentHash;
 
+    @Column(name = "perceptual_hash")
+    private Long perceptualHash;
+
     @Column(name = "mime_type", nullable = false, length = 50)
     private String mimeType;
 
@@ -168,6 +171,14 @@ public class Image {
         this.contentHash = contentHash;
     }
 
+    public Long getPerceptualHash() {
+        return perceptualHash;
+    }
+
+    public void setPerceptualHash(Long perceptualHash) {
+        this.perceptualHash = perceptualHash;
+    }
+
     public String getMimeType() {
         return mimeType;
     }
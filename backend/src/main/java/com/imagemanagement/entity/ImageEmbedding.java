@@ -0,0 +1,98 @@
+package com.imagemanagement.entity;
+
+import com.imagemanagement.similarity.QuantizedVector;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.LocalDateTime;
+
+/**
+ * int8-quantised image embedding returned by the AI service. {@code version} changes on every
+ * rewrite, which is how a persisted vector index finds the entries it has to re-insert.
+ */
+@Entity
+@Table(name = "image_embeddings")
+public class ImageEmbedding {
+
+    @Id
+    @Column(name = "image_id")
+    private Long imageId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "model", nullable = false, length = 100)
+    private String model;
+
+    @Column(name = "dimensions", nullable = false)
+    private int dimensions;
+
+    @Column(name = "vector_scale", nullable = false)
+    private float vectorScale;
+
+    @Column(name = "vector_data", nullable = false, length = 4096)
+    private byte[] vectorData;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public QuantizedVector toVector() {
+        return new QuantizedVector(vectorData, vectorScale);
+    }
+
+    public void setVector(QuantizedVector vector) {
+        this.dimensions = vector.dimensions();
+        this.vectorScale = vector.scale();
+        this.vectorData = vector.values();
+    }
+
+    public Long getImageId() {
+        return imageId;
+    }
+
+    public void setImageId(Long imageId) {
+        this.imageId = imageId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
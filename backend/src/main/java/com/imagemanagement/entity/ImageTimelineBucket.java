@@ -0,0 +1,83 @@
+package com.imagemanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Number of a user's photos per day (EXIF taken date, else upload date). Maintained incrementally
+ * so the timeline never has to scan {@code images}.
+ */
+@Entity
+@Table(name = "image_timeline_buckets")
+public class ImageTimelineBucket {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "image_count", nullable = false)
+    private int imageCount;
+
+    public Key getId() {
+        return id;
+    }
+
+    public void setId(Key id) {
+        this.id = id;
+    }
+
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(int imageCount) {
+        this.imageCount = imageCount;
+    }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "bucket_date", nullable = false)
+        private LocalDate bucketDate;
+
+        public Key() {
+        }
+
+        public Key(Long userId, LocalDate bucketDate) {
+            this.userId = userId;
+            this.bucketDate = bucketDate;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public LocalDate getBucketDate() {
+            return bucketDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(userId, key.userId) && Objects.equals(bucketDate, key.bucketDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, bucketDate);
+        }
+    }
+}
@@ -26,7 +26,8 @@ import java.util.Set;
                 @UniqueConstraint(name = "uk_tags_name", columnNames = "tag_name")
         },
         indexes = {
-                @Index(name = "idx_tags_type", columnList = "tag_type")
+                @Index(name = "idx_tags_type", columnList = "tag_type"),
+                @Index(name = "idx_tags_usage_count", columnList = "usage_count, created_time")
         }
 )
 public class Tag {
@@ -49,7 +50,8 @@ public class Tag {
     @Column(name = "created_time", nullable = false)
     private LocalDateTime createdTime;
 
-    @Column(name = "usage_count", nullable = false)
+    // written only through TagUsageCounters so concurrent links never overwrite each other's counts
+    @Column(name = "usage_count", nullable = false, updatable = false)
     private Integer usageCount = 0;
 
     @OneToMany(
@@ -2,9 +2,11 @@ package com.imagemanagement.entity;
 
 import com.imagemanagement.entity.enums.UserRole;
 import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.security.UserPrincipalInvalidator;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -21,6 +23,7 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(UserPrincipalInvalidator.class)
 @Table(
         name = "users",
         uniqueConstraints = {
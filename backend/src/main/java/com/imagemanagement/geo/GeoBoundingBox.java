@@ -0,0 +1,59 @@
+package com.imagemanagement.geo;
+
+import java.util.List;
+
+/**
+ * Latitude/longitude box in degrees. {@code minLongitude > maxLongitude} means the box crosses the
+ * antimeridian.
+ */
+public record GeoBoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+    public static final GeoBoundingBox WORLD = new GeoBoundingBox(-90, 90, -180, 180);
+
+    private static final double KM_PER_DEGREE_LATITUDE = 110.574;
+    private static final double KM_PER_DEGREE_LONGITUDE = 111.320;
+
+    /** Smallest box containing the circle of {@code radiusKm} around the centre. */
+    public static GeoBoundingBox around(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+        double cos = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double lngDelta = cos <= 0 ? 180 : radiusKm / (KM_PER_DEGREE_LONGITUDE * cos);
+        if (lngDelta >= 180) {
+            return new GeoBoundingBox(minLat, maxLat, -180, 180);
+        }
+        return new GeoBoundingBox(minLat, maxLat, wrap(longitude - lngDelta), wrap(longitude + lngDelta));
+    }
+
+    public static double kmPerDegreeLatitude() {
+        return KM_PER_DEGREE_LATITUDE;
+    }
+
+    public static double kmPerDegreeLongitude(double latitude) {
+        return KM_PER_DEGREE_LONGITUDE * Math.cos(Math.toRadians(latitude));
+    }
+
+    public boolean crossesAntimeridian() {
+        return minLongitude > maxLongitude;
+    }
+
+    public List<GeoBoundingBox> splitAtAntimeridian() {
+        if (!crossesAntimeridian()) {
+            return List.of(this);
+        }
+        return List.of(
+                new GeoBoundingBox(minLatitude, maxLatitude, minLongitude, 180),
+                new GeoBoundingBox(minLatitude, maxLatitude, -180, maxLongitude));
+    }
+
+    private static double wrap(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+}
@@ -0,0 +1,152 @@
+package com.imagemanagement.geo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Standard base-32 geohash encoding. Points sharing a prefix fall in the same cell, so a bounding
+ * box can be answered by a handful of {@code LIKE 'prefix%'} range scans on an indexed column.
+ */
+public final class GeoHash {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLng = -180;
+        double maxLng = 180;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+        int bit = 0;
+        int index = 0;
+        int position = 0;
+        while (position < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLng = mid;
+                } else {
+                    index <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLat = mid;
+                } else {
+                    index <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash[position++] = BASE32[index];
+                bit = 0;
+                index = 0;
+            }
+        }
+        return new String(hash);
+    }
+
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((5 * precision + 1) / 2));
+    }
+
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    /**
+     * Geohash prefixes covering the box, at the finest precision that needs at most {@code maxCells}
+     * cells. An empty list means the box is too large for prefixes to narrow anything down.
+     */
+    public static List<String> cover(GeoBoundingBox box, int maxCells) {
+        List<GeoBoundingBox> parts = box.splitAtAntimeridian();
+        int precision = 0;
+        for (int candidate = 1; candidate <= MAX_PRECISION; candidate++) {
+            long cells = 0;
+            for (GeoBoundingBox part : parts) {
+                cells += cellCount(part, candidate);
+            }
+            if (cells > maxCells) {
+                break;
+            }
+            precision = candidate;
+        }
+        if (precision == 0) {
+            return List.of();
+        }
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (GeoBoundingBox part : parts) {
+            addCells(part, precision, prefixes);
+        }
+        return new ArrayList<>(prefixes);
+    }
+
+    /** Rough mapping from web-map zoom level to a geohash precision giving a few dozen cells per viewport. */
+    public static int precisionForZoom(int zoom) {
+        if (zoom <= 2) {
+            return 1;
+        }
+        if (zoom <= 5) {
+            return 2;
+        }
+        if (zoom <= 7) {
+            return 3;
+        }
+        if (zoom <= 10) {
+            return 4;
+        }
+        if (zoom <= 12) {
+            return 5;
+        }
+        if (zoom <= 15) {
+            return 6;
+        }
+        return 7;
+    }
+
+    private static long cellCount(GeoBoundingBox box, int precision) {
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        long columns = column(box.maxLongitude(), width) - column(box.minLongitude(), width) + 1;
+        long rows = row(box.maxLatitude(), height) - row(box.minLatitude(), height) + 1;
+        return columns * rows;
+    }
+
+    private static void addCells(GeoBoundingBox box, int precision, Set<String> prefixes) {
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        long firstColumn = column(box.minLongitude(), width);
+        long lastColumn = column(box.maxLongitude(), width);
+        long firstRow = row(box.minLatitude(), height);
+        long lastRow = row(box.maxLatitude(), height);
+        for (long r = firstRow; r <= lastRow; r++) {
+            double latitude = -90 + (r + 0.5) * height;
+            for (long c = firstColumn; c <= lastColumn; c++) {
+                double longitude = -180 + (c + 0.5) * width;
+                prefixes.add(encode(latitude, longitude, precision));
+            }
+        }
+    }
+
+    private static long column(double longitude, double width) {
+        long maxColumn = Math.round(360 / width) - 1;
+        return Math.min((long) Math.floor((longitude + 180) / width), maxColumn);
+    }
+
+    private static long row(double latitude, double height) {
+        long maxRow = Math.round(180 / height) - 1;
+        return Math.min((long) Math.floor((latitude + 90) / height), maxRow);
+    }
+}
@@ -0,0 +1,35 @@
+package com.imagemanagement.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Durable copy of AI tag suggestions, stored as the JSON the cache would hold.
+ */
+@Repository
+public class AiTagSuggestionStore {
+
+    private static final String SELECT_SQL = "SELECT payload FROM ai_tag_suggestions WHERE cache_key = ?";
+    private static final String UPSERT_SQL = "INSERT INTO ai_tag_suggestions (cache_key, content_hash, model_version, payload, created_at) "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE payload = VALUES(payload), created_at = VALUES(created_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AiTagSuggestionStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<String> findPayload(String cacheKey) {
+        List<String> payloads = jdbcTemplate.queryForList(SELECT_SQL, String.class, cacheKey);
+        return payloads.stream().findFirst();
+    }
+
+    public void save(String cacheKey, String contentHash, String modelVersion, String payload) {
+        jdbcTemplate.update(UPSERT_SQL, cacheKey, contentHash, modelVersion, payload,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
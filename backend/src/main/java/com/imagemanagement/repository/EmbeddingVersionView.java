@@ -0,0 +1,8 @@
+package com.imagemanagement.repository;
+
+public interface EmbeddingVersionView {
+
+    Long getImageId();
+
+    Long getVersion();
+}
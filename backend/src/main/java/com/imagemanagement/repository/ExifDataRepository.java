@@ -3,5 +3,5 @@ package com.imagemanagement.repository;
 import com.imagemanagement.entity.ExifData;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ExifDataRepository extends JpaRepository<ExifData, Long> {
+public interface ExifDataRepository extends JpaRepository<ExifData, Long>, ExifDataRepositoryCustom {
 }
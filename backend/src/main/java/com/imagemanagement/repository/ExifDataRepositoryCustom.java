@@ -0,0 +1,14 @@
+package com.imagemanagement.repository;
+
+import com.imagemanagement.dto.response.GeoTileResponse;
+import com.imagemanagement.geo.GeoBoundingBox;
+import java.util.List;
+
+public interface ExifDataRepositoryCustom {
+
+    /**
+     * Counts geotagged images visible to the user per geohash cell of the given precision. Each tile
+     * carries the mean position of its photos so markers sit where the photos are.
+     */
+    List<GeoTileResponse> countTiles(Long userId, int precision, GeoBoundingBox box);
+}
@@ -0,0 +1,63 @@
+package com.imagemanagement.repository;
+
+import com.imagemanagement.dto.response.GeoTileResponse;
+import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import com.imagemanagement.geo.GeoBoundingBox;
+import com.imagemanagement.geo.GeoHash;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.util.List;
+
+class ExifDataRepositoryImpl implements ExifDataRepositoryCustom {
+
+    private static final int MAX_COVER_CELLS = 32;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GeoTileResponse> countTiles(Long userId, int precision, GeoBoundingBox box) {
+        List<String> cover = GeoHash.cover(box, MAX_COVER_CELLS);
+        // precision is an int, inlined so the SELECT and GROUP BY expressions are textually identical
+        String cell = "substring(e.geohash, 1, " + precision + ")";
+        StringBuilder jpql = new StringBuilder()
+                .append("select ").append(cell).append(", count(e), avg(e.latitude), avg(e.longitude) ")
+                .append("from ExifData e join e.image i ")
+                .append("where e.geohash is not null ")
+                .append("and (i.privacyLevel = :publicLevel or i.user.id = :userId) ")
+                .append("and e.latitude between :minLatitude and :maxLatitude ");
+        if (box.crossesAntimeridian()) {
+            jpql.append("and (e.longitude >= :minLongitude or e.longitude <= :maxLongitude) ");
+        } else {
+            jpql.append("and e.longitude between :minLongitude and :maxLongitude ");
+        }
+        if (!cover.isEmpty()) {
+            jpql.append("and (");
+            for (int i = 0; i < cover.size(); i++) {
+                jpql.append(i == 0 ? "" : " or ").append("e.geohash like :cell").append(i);
+            }
+            jpql.append(") ");
+        }
+        jpql.append("group by ").append(cell);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("publicLevel", ImagePrivacyLevel.PUBLIC)
+                .setParameter("userId", userId)
+                .setParameter("minLatitude", BigDecimal.valueOf(box.minLatitude()))
+                .setParameter("maxLatitude", BigDecimal.valueOf(box.maxLatitude()))
+                .setParameter("minLongitude", BigDecimal.valueOf(box.minLongitude()))
+                .setParameter("maxLongitude", BigDecimal.valueOf(box.maxLongitude()));
+        for (int i = 0; i < cover.size(); i++) {
+            query.setParameter("cell" + i, cover.get(i) + "%");
+        }
+        return query.getResultList().stream()
+                .map(row -> new GeoTileResponse(
+                        (String) row[0],
+                        ((Number) row[1]).longValue(),
+                        ((Number) row[2]).doubleValue(),
+                        ((Number) row[3]).doubleValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,10 @@
+package com.imagemanagement.repository;
+
+import com.imagemanagement.entity.ImageEmbedding;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImageEmbeddingRepository extends JpaRepository<ImageEmbedding, Long> {
+
+    List<EmbeddingVersionView> findByUserIdAndModel(Long userId, String model);
+}
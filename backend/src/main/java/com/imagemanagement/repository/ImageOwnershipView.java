@@ -0,0 +1,10 @@
+package com.imagemanagement.repository;
+
+import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+
+public interface ImageOwnershipView {
+
+    Long getId();
+
+    ImagePrivacyLevel getPrivacyLevel();
+}
@@ -1,6 +1,8 @@
 package com.imagemanagement.repository;
 
 import com.imagemanagement.entity.Image;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,4 +18,8 @@ public interface ImageRepository extends JpaRepository<Image, Long>, JpaSpecific
 	boolean existsByUser_IdAndContentHash(Long userId, String contentHash);
 
 	Page<Image> findByUser_IdOrderByUploadTimeDesc(Long userId, Pageable pageable);
+
+	List<PerceptualHashView> findByUser_IdAndPerceptualHashIsNotNull(Long userId);
+
+	List<ImageOwnershipView> findByUser_IdAndIdIn(Long userId, Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.imagemanagement.repository;
 
 import com.imagemanagement.entity.ImageTag;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ImageTagRepository extends JpaRepository<ImageTag, Long> {
+public interface ImageTagRepository extends JpaRepository<ImageTag, Long>, ImageTagRepositoryCustom {
 
     @EntityGraph(attributePaths = "tag")
     @Query("SELECT it FROM ImageTag it WHERE it.image.id = :imageId ORDER BY it.tag.tagName ASC")
@@ -19,5 +22,15 @@ public interface ImageTagRepository extends JpaRepository<ImageTag, Long> {
 
     boolean existsByImage_IdAndTag_Id(Long imageId, Long tagId);
 
+    @Query("SELECT it.tag.id FROM ImageTag it WHERE it.image.id = :imageId AND it.tag.id IN :tagIds")
+    Set<Long> findLinkedTagIds(@Param("imageId") Long imageId, @Param("tagIds") Collection<Long> tagIds);
+
+    @Query("SELECT it.image.id, it.tag.id FROM ImageTag it WHERE it.image.id IN :imageIds AND it.tag.id IN :tagIds")
+    List<Object[]> findLinks(@Param("imageIds") Collection<Long> imageIds, @Param("tagIds") Collection<Long> tagIds);
+
+    @Modifying
+    @Query("DELETE FROM ImageTag it WHERE it.image.id IN :imageIds AND it.tag.id IN :tagIds")
+    int deleteLinks(@Param("imageIds") Collection<Long> imageIds, @Param("tagIds") Collection<Long> tagIds);
+
     void deleteByImage_IdAndTag_Id(Long imageId, Long tagId);
 }
@@ -0,0 +1,15 @@
+package com.imagemanagement.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ImageTagRepositoryCustom {
+
+    /**
+     * Inserts image-tag links in JDBC batches, bypassing the persistence context.
+     */
+    void insertLinks(List<NewLink> links);
+
+    record NewLink(long imageId, long tagId, BigDecimal confidence) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.imagemanagement.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ImageTagRepositoryImpl implements ImageTagRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO image_tags (image_id, tag_id, confidence, created_time) VALUES (?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ImageTagRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertLinks(List<NewLink> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, links, BATCH_SIZE, (statement, link) -> {
+            statement.setLong(1, link.imageId());
+            statement.setLong(2, link.tagId());
+            statement.setBigDecimal(3, link.confidence());
+            statement.setTimestamp(4, now);
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.imagemanagement.repository;
+
+import com.imagemanagement.entity.ImageTimelineBucket;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ImageTimelineBucketRepository extends JpaRepository<ImageTimelineBucket, ImageTimelineBucket.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO image_timeline_buckets (user_id, bucket_date, image_count) VALUES (:userId, :bucketDate, :delta) "
+            + "ON DUPLICATE KEY UPDATE image_count = image_count + :delta", nativeQuery = true)
+    void increment(@Param("userId") Long userId, @Param("bucketDate") LocalDate bucketDate, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE image_timeline_buckets SET image_count = GREATEST(image_count - :delta, 0) "
+            + "WHERE user_id = :userId AND bucket_date = :bucketDate", nativeQuery = true)
+    void decrement(@Param("userId") Long userId, @Param("bucketDate") LocalDate bucketDate, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "DELETE FROM image_timeline_buckets WHERE user_id = :userId AND bucket_date = :bucketDate AND image_count = 0",
+            nativeQuery = true)
+    void deleteIfEmpty(@Param("userId") Long userId, @Param("bucketDate") LocalDate bucketDate);
+
+    @Query("SELECT b.id.bucketDate, b.imageCount FROM ImageTimelineBucket b "
+            + "WHERE b.id.userId = :userId AND b.id.bucketDate BETWEEN :from AND :to ORDER BY b.id.bucketDate")
+    List<Object[]> findDays(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT year(b.id.bucketDate), month(b.id.bucketDate), sum(b.imageCount) FROM ImageTimelineBucket b "
+            + "WHERE b.id.userId = :userId AND b.id.bucketDate BETWEEN :from AND :to "
+            + "GROUP BY year(b.id.bucketDate), month(b.id.bucketDate) "
+            + "ORDER BY year(b.id.bucketDate), month(b.id.bucketDate)")
+    List<Object[]> findMonths(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
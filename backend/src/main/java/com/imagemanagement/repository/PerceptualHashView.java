@@ -0,0 +1,8 @@
+package com.imagemanagement.repository;
+
+public interface PerceptualHashView {
+
+    Long getId();
+
+    Long getPerceptualHash();
+}
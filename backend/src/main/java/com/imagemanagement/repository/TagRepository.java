@@ -1,18 +1,26 @@
 package com.imagemanagement.repository;
 
 import com.imagemanagement.entity.Tag;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
 
     Optional<Tag> findByTagNameIgnoreCase(String tagName);
 
+    @Query("SELECT t FROM Tag t WHERE lower(t.tagName) IN :names")
+    List<Tag> findAllByLowerNameIn(@Param("names") Collection<String> names);
+
     @Query("SELECT t FROM Tag t ORDER BY t.usageCount DESC, t.createdTime DESC")
     List<Tag> findTopTags(Pageable pageable);
 
+    @Query("SELECT t.id AS id, t.tagName AS tagName, t.tagType AS tagType, t.usageCount AS usageCount FROM Tag t")
+    List<TagSummaryView> findAllSummaries();
+
 }
 
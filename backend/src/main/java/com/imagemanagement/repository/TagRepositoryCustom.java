@@ -0,0 +1,16 @@
+package com.imagemanagement.repository;
+
+import com.imagemanagement.entity.enums.TagType;
+import java.util.List;
+
+public interface TagRepositoryCustom {
+
+    /**
+     * Inserts the given tags in one JDBC batch. Names that already exist, including ones created
+     * concurrently by another transaction, are left untouched instead of failing the batch.
+     */
+    void insertMissing(List<NewTag> tags);
+
+    record NewTag(String tagName, TagType tagType) {
+    }
+}
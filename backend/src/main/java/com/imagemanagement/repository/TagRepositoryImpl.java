@@ -0,0 +1,31 @@
+package com.imagemanagement.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class TagRepositoryImpl implements TagRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO tags (tag_name, tag_type, created_time, usage_count) "
+            + "VALUES (?, ?, ?, 0) ON DUPLICATE KEY UPDATE tag_id = tag_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TagRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertMissing(List<NewTag> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, tags, tags.size(), (statement, tag) -> {
+            statement.setString(1, tag.tagName());
+            statement.setString(2, tag.tagType().name());
+            statement.setTimestamp(3, now);
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.imagemanagement.repository;
+
+import com.imagemanagement.entity.enums.TagType;
+
+public interface TagSummaryView {
+
+    Long getId();
+
+    String getTagName();
+
+    TagType getTagType();
+
+    Integer getUsageCount();
+}
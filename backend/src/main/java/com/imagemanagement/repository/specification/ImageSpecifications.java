@@ -3,17 +3,28 @@ package com.imagemanagement.repository.specification;
 import com.imagemanagement.dto.request.ImageSearchRequest;
 import com.imagemanagement.entity.Image;
 import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import com.imagemanagement.geo.GeoBoundingBox;
+import com.imagemanagement.geo.GeoHash;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 public final class ImageSpecifications {
 
+    private static final int MAX_COVER_CELLS = 16;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     private ImageSpecifications() {
     }
 
@@ -25,8 +36,9 @@ public final class ImageSpecifications {
 
             predicates.add(buildVisibilityPredicate(criteria, userId, root.get("user").get("id"), root.get("privacyLevel"), cb));
 
-            if (StringUtils.hasText(criteria.getKeyword())) {
-                String keyword = "%" + criteria.getKeyword().trim().toLowerCase() + "%";
+            String normalizedKeyword = normalizeText(criteria.getKeyword());
+            if (normalizedKeyword != null) {
+                String keyword = "%" + normalizedKeyword + "%";
                     predicates.add(cb.or(
                             cb.like(cb.lower(root.get("originalFilename")), keyword),
                             cb.like(cb.lower(root.get("description")), keyword)
@@ -57,29 +69,147 @@ public final class ImageSpecifications {
                 predicates.add(cb.lessThanOrEqualTo(root.get("height"), criteria.getMaxHeight()));
             }
 
+            String cameraMake = normalizeText(criteria.getCameraMake());
+            String cameraModel = normalizeText(criteria.getCameraModel());
+            GeoBoundingBox boundingBox = boundingBox(criteria);
+            GeoBoundingBox radiusBox = radiusBox(criteria);
             Join<Image, ?> exifJoin = null;
-            if (StringUtils.hasText(criteria.getCameraMake()) || StringUtils.hasText(criteria.getCameraModel())) {
+            if (cameraMake != null || cameraModel != null || boundingBox != null || radiusBox != null) {
                 exifJoin = root.join("exifData", JoinType.LEFT);
             }
 
-            if (StringUtils.hasText(criteria.getCameraMake()) && exifJoin != null) {
-                predicates.add(cb.equal(cb.lower(exifJoin.get("cameraMake")), criteria.getCameraMake().trim().toLowerCase()));
+            if (cameraMake != null && exifJoin != null) {
+                predicates.add(cb.equal(cb.lower(exifJoin.get("cameraMake")), cameraMake));
+            }
+
+            if (cameraModel != null && exifJoin != null) {
+                predicates.add(cb.equal(cb.lower(exifJoin.get("cameraModel")), cameraModel));
             }
 
-            if (StringUtils.hasText(criteria.getCameraModel()) && exifJoin != null) {
-                predicates.add(cb.equal(cb.lower(exifJoin.get("cameraModel")), criteria.getCameraModel().trim().toLowerCase()));
+            if (boundingBox != null && exifJoin != null) {
+                predicates.add(buildBoundingBoxPredicate(boundingBox, exifJoin, cb));
             }
 
-            if (!CollectionUtils.isEmpty(criteria.getTags())) {
+            if (radiusBox != null && exifJoin != null) {
+                predicates.add(buildBoundingBoxPredicate(radiusBox, exifJoin, cb));
+                predicates.add(buildRadiusPredicate(criteria, radiusBox, exifJoin, cb));
+            }
+
+            List<String> tags = normalizeTags(criteria.getTags());
+            if (!tags.isEmpty()) {
                 Join<Image, ?> imageTagJoin = root.join("imageTags", JoinType.LEFT);
                 Join<?, ?> tagJoin = imageTagJoin.join("tag", JoinType.LEFT);
-                predicates.add(tagJoin.get("tagName").in(criteria.getTags()));
+                predicates.add(cb.lower(tagJoin.get("tagName")).in(tags));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    /**
+     * Form in which free-text criteria are matched; blank values mean "no filter". Cache keys use
+     * the same normalization so equivalent requests share an entry.
+     */
+    public static String normalizeText(String value) {
+        return StringUtils.hasText(value) ? value.trim().toLowerCase() : null;
+    }
+
+    /**
+     * Tag filter values as matched against tag names, which are unique regardless of case: lower
+     * case with whitespace collapsed, blanks dropped, sorted and without duplicates.
+     */
+    public static List<String> normalizeTags(List<String> tags) {
+        if (CollectionUtils.isEmpty(tags)) {
+            return List.of();
+        }
+        return tags.stream()
+                .map(ImageSpecifications::normalizeText)
+                .filter(Objects::nonNull)
+                .map(tag -> WHITESPACE.matcher(tag).replaceAll(" "))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    public static GeoBoundingBox boundingBox(ImageSearchRequest request) {
+        if (request.getMinLatitude() == null || request.getMaxLatitude() == null
+                || request.getMinLongitude() == null || request.getMaxLongitude() == null) {
+            return null;
+        }
+        return new GeoBoundingBox(request.getMinLatitude(), request.getMaxLatitude(),
+                request.getMinLongitude(), request.getMaxLongitude());
+    }
+
+    public static GeoBoundingBox radiusBox(ImageSearchRequest request) {
+        if (request.getCenterLatitude() == null || request.getCenterLongitude() == null || request.getRadiusKm() == null) {
+            return null;
+        }
+        return GeoBoundingBox.around(request.getCenterLatitude(), request.getCenterLongitude(), request.getRadiusKm());
+    }
+
+    public static String sortProperty(String sortBy) {
+        return switch (sortBy != null ? sortBy : "") {
+            case "originalFilename" -> "originalFilename";
+            case "fileSize" -> "fileSize";
+            case "width" -> "width";
+            case "height" -> "height";
+            default -> "uploadTime";
+        };
+    }
+
+    // the geohash prefixes turn the box into a few index range scans; the exact bounds trim the cell edges
+    private static Predicate buildBoundingBoxPredicate(GeoBoundingBox box, Join<Image, ?> exifJoin, CriteriaBuilder cb) {
+        Path<String> geohash = exifJoin.get("geohash");
+        Path<BigDecimal> latitude = exifJoin.get("latitude");
+        Path<BigDecimal> longitude = exifJoin.get("longitude");
+
+        List<Predicate> predicates = new ArrayList<>();
+        List<String> cover = GeoHash.cover(box, MAX_COVER_CELLS);
+        if (cover.isEmpty()) {
+            predicates.add(cb.isNotNull(geohash));
+        } else {
+            predicates.add(cb.or(cover.stream()
+                    .map(prefix -> cb.like(geohash, prefix + "%"))
+                    .toArray(Predicate[]::new)));
+        }
+        predicates.add(cb.between(latitude, BigDecimal.valueOf(box.minLatitude()), BigDecimal.valueOf(box.maxLatitude())));
+        BigDecimal minLongitude = BigDecimal.valueOf(box.minLongitude());
+        BigDecimal maxLongitude = BigDecimal.valueOf(box.maxLongitude());
+        if (box.crossesAntimeridian()) {
+            predicates.add(cb.or(cb.greaterThanOrEqualTo(longitude, minLongitude), cb.lessThanOrEqualTo(longitude, maxLongitude)));
+        } else {
+            predicates.add(cb.between(longitude, minLongitude, maxLongitude));
+        }
+        return cb.and(predicates.toArray(new Predicate[0]));
+    }
+
+    // equirectangular distance: accurate enough at photo-search radii and plain arithmetic in SQL
+    private static Predicate buildRadiusPredicate(ImageSearchRequest request,
+                                                  GeoBoundingBox radiusBox,
+                                                  Join<Image, ?> exifJoin,
+                                                  CriteriaBuilder cb) {
+        Path<BigDecimal> latitude = exifJoin.get("latitude");
+        Path<BigDecimal> longitude = exifJoin.get("longitude");
+        double centerLatitude = request.getCenterLatitude();
+        double centerLongitude = request.getCenterLongitude();
+        BigDecimal radiusSquared = BigDecimal.valueOf(request.getRadiusKm() * request.getRadiusKm());
+        BigDecimal kmPerLongitude = BigDecimal.valueOf(GeoBoundingBox.kmPerDegreeLongitude(centerLatitude));
+
+        Expression<BigDecimal> dy = cb.prod(cb.diff(latitude, BigDecimal.valueOf(centerLatitude)),
+                BigDecimal.valueOf(GeoBoundingBox.kmPerDegreeLatitude()));
+        Expression<BigDecimal> dySquared = cb.prod(dy, dy);
+
+        List<Double> centers = radiusBox.crossesAntimeridian()
+                ? List.of(centerLongitude, centerLongitude + (centerLongitude < 0 ? 360 : -360))
+                : List.of(centerLongitude);
+        return cb.or(centers.stream()
+                .map(center -> {
+                    Expression<BigDecimal> dx = cb.prod(cb.diff(longitude, BigDecimal.valueOf(center)), kmPerLongitude);
+                    return cb.le(cb.sum(cb.prod(dx, dx), dySquared), radiusSquared);
+                })
+                .toArray(Predicate[]::new));
+    }
+
     private static Predicate buildVisibilityPredicate(ImageSearchRequest request,
                                                        Long userId,
                                                        jakarta.persistence.criteria.Path<Long> ownerIdPath,
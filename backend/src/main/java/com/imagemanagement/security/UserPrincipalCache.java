@@ -0,0 +1,55 @@
+package com.imagemanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imagemanagement.cache.AfterCommit;
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.config.JwtProperties;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, short-lived cache of the principals that token authentication resolves, so an
+ * authenticated request does not need a user query. Changes to a user made through JPA evict the
+ * entry here and, through the {@link ClusterInvalidationBus}, on the other nodes; anything else is
+ * picked up once the entry expires.
+ */
+@Component
+public class UserPrincipalCache {
+
+    public static final String CHANNEL = "user-principals";
+
+    private final Cache<Long, CustomUserDetails> principals;
+    private final CustomUserDetailsService userDetailsService;
+    private final ClusterInvalidationBus invalidationBus;
+
+    public UserPrincipalCache(CustomUserDetailsService userDetailsService,
+            JwtProperties properties,
+            ClusterInvalidationBus invalidationBus) {
+        this.userDetailsService = userDetailsService;
+        this.invalidationBus = invalidationBus;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(properties.getPrincipalCache().getMaximumSize())
+                .expireAfterWrite(properties.getPrincipalCache().getTtl())
+                .build();
+        invalidationBus.subscribe(CHANNEL, userId -> principals.invalidate(Long.valueOf(userId)));
+    }
+
+    /**
+     * Returns the cached principal or loads it; concurrent misses for one user share a query.
+     */
+    public CustomUserDetails get(@NonNull Long userId) {
+        return principals.get(userId, userDetailsService::loadUserById);
+    }
+
+    /**
+     * Drops the user's principal here and on the other nodes once the surrounding transaction
+     * commits, so a reload cannot pick up the state from before the change.
+     */
+    public void evict(@NonNull Long userId) {
+        AfterCommit.run(() -> {
+            principals.invalidate(userId);
+            invalidationBus.publish(CHANNEL, String.valueOf(userId));
+        });
+    }
+}
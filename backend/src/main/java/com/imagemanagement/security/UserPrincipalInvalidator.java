@@ -0,0 +1,28 @@
+package com.imagemanagement.security;
+
+import com.imagemanagement.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA listener on {@link User} that evicts the cached principal whenever a user row is updated or
+ * deleted, which covers role and status changes. Hibernate obtains it from the Spring context; the
+ * cache is looked up lazily because JPA test slices run without it.
+ */
+public class UserPrincipalInvalidator {
+
+    private final ObjectProvider<UserPrincipalCache> principalCache;
+
+    public UserPrincipalInvalidator(ObjectProvider<UserPrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void userChanged(User user) {
+        if (user.getId() != null) {
+            principalCache.ifAvailable(cache -> cache.evict(user.getId()));
+        }
+    }
+}
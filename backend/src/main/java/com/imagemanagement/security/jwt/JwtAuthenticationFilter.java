@@ -1,12 +1,12 @@
 package com.imagemanagement.security.jwt;
 
-import com.imagemanagement.security.CustomUserDetailsService;
+import com.imagemanagement.security.UserPrincipalCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Objects;
+import java.util.Optional;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,11 +19,11 @@ import org.springframework.lang.NonNull;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final UserPrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserPrincipalCache principalCache) {
         this.tokenProvider = tokenProvider;
-        this.customUserDetailsService = customUserDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -33,9 +33,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = Objects.requireNonNull(tokenProvider.getUserIdFromJWT(jwt));
-                var userDetails = customUserDetailsService.loadUserById(userId);
+            Optional<Long> userId = StringUtils.hasText(jwt) ? tokenProvider.resolveUserId(jwt) : Optional.empty();
+            if (userId.isPresent()) {
+                var userDetails = principalCache.get(userId.get());
                 var authentication = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
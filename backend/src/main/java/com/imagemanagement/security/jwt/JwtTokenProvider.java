@@ -3,6 +3,8 @@ package com.imagemanagement.security.jwt;
 import com.imagemanagement.config.JwtProperties;
 import com.imagemanagement.security.CustomUserDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,6 +12,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Optional;
 import javax.crypto.SecretKey;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -19,10 +22,15 @@ public class JwtTokenProvider {
 
     private final JwtProperties jwtProperties;
     private final SecretKey secretKey;
+    // immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
-    public JwtTokenProvider(JwtProperties jwtProperties) {
+    public JwtTokenProvider(JwtProperties jwtProperties, VerifiedTokenCache verifiedTokens) {
         this.jwtProperties = jwtProperties;
         this.secretKey = initSecretKey(jwtProperties.getSecret());
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verifiedTokens = verifiedTokens;
     }
 
     public String generateToken(Authentication authentication) {
@@ -45,21 +53,26 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return Long.parseLong(claims.getSubject());
-    }
-
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the token and reads its subject in a single parse, or without parsing at all when
+     * the same token was verified before.
+     *
+     * @return the user id, or empty when the token is malformed, expired or wrongly signed
+     */
+    public Optional<Long> resolveUserId(String token) {
+        Optional<Long> verified = verifiedTokens.find(token);
+        if (verified.isPresent()) {
+            return verified;
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(authToken);
-            return true;
-        } catch (Exception ex) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            long userId = Long.parseLong(claims.getSubject());
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(token, userId, claims.getExpiration().getTime());
+            }
+            return Optional.of(userId);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
         }
     }
 
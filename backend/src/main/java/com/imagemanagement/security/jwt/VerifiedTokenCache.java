@@ -0,0 +1,103 @@
+package com.imagemanagement.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.imagemanagement.config.JwtProperties;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Subjects of access tokens whose signature has already been verified, keyed by a 64-bit hash of
+ * the token string. A page that sends the same token on hundreds of requests only pays for Base64
+ * decoding, JSON parsing and the HMAC once. The full token is kept with each entry and compared on
+ * lookup, so a hash collision can never authenticate a different token.
+ *
+ * <p>Entries expire with their token. Access tokens are not revoked before they expire, so a cached
+ * verification never accepts a token that verifying it again would reject.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean enabled;
+    private final Cache<Long, Entry> entries;
+
+    public VerifiedTokenCache(JwtProperties properties) {
+        this.enabled = properties.getVerifiedTokens().isEnabled();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getVerifiedTokens().getMaximumSize())
+                .expireAfter(new Expiry<Long, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Long key, Entry entry, long currentTime) {
+                        long remaining = entry.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the user id of a token verified earlier that has not expired.
+     */
+    public Optional<Long> find(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = entries.getIfPresent(hash(token));
+        if (entry == null
+                || entry.expiresAtMillis() <= System.currentTimeMillis()
+                || !sameToken(entry.token(), token)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.userId());
+    }
+
+    /**
+     * Remembers a token whose signature was just verified.
+     */
+    public void put(String token, long userId, long expiresAtMillis) {
+        if (!enabled) {
+            return;
+        }
+        entries.put(hash(token), new Entry(token, userId, expiresAtMillis));
+    }
+
+    // FNV-1a over the UTF-16 code units; JWTs are ASCII, so this is one step per character
+    static long hash(String token) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // constant time for tokens of equal length, so timing does not reveal a cached token
+    private static boolean sameToken(String cached, String candidate) {
+        if (cached.length() != candidate.length()) {
+            return false;
+        }
+        int difference = 0;
+        for (int i = 0; i < cached.length(); i++) {
+            difference |= cached.charAt(i) ^ candidate.charAt(i);
+        }
+        return difference == 0;
+    }
+
+    private record Entry(String token, long userId, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.imagemanagement.service;
+
+import com.imagemanagement.ai.dto.AiImageEmbedding;
+import com.imagemanagement.entity.Image;
+import com.imagemanagement.similarity.HnswIndex;
+import java.util.List;
+
+public interface ImageEmbeddingService {
+
+    void store(Image image, AiImageEmbedding embedding);
+
+    void remove(Long userId, Long imageId);
+
+    /**
+     * Nearest neighbours of an image within its owner's library, most similar first. Empty when the
+     * image has no embedding yet.
+     */
+    List<HnswIndex.Match> findNearest(Long userId, Long imageId, int limit);
+}
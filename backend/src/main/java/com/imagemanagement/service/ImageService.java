@@ -2,17 +2,23 @@ package com.imagemanagement.service;
 
 import com.imagemanagement.dto.request.ImageEditRequest;
 import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.dto.response.GeoTileResponse;
 import com.imagemanagement.dto.response.ImageDeleteResponse;
 import com.imagemanagement.dto.response.ImageSummaryResponse;
 import com.imagemanagement.dto.response.ImageUploadResponse;
+import com.imagemanagement.dto.response.NearDuplicateGroupResponse;
 import com.imagemanagement.dto.response.PageResponse;
+import com.imagemanagement.dto.response.SimilarImageResponse;
+import com.imagemanagement.dto.response.VisuallySimilarImageResponse;
 import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import com.imagemanagement.geo.GeoBoundingBox;
 import java.util.List;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface ImageService {
 
-    List<ImageUploadResponse> uploadImages(Long userId, List<MultipartFile> files, ImagePrivacyLevel privacyLevel, String description);
+    List<ImageUploadResponse> uploadImages(Long userId, List<MultipartFile> files, ImagePrivacyLevel privacyLevel, String description,
+                                       boolean nearDuplicateCheck);
 
     PageResponse<ImageSummaryResponse> searchImages(Long userId, ImageSearchRequest request);
 
@@ -21,4 +27,12 @@ public interface ImageService {
     ImageSummaryResponse editImage(Long userId, Long imageId, ImageEditRequest request);
 
     List<ImageSummaryResponse> getHighlightImages(Long userId, int size);
+
+    List<GeoTileResponse> getGeoTiles(Long userId, int zoom, GeoBoundingBox box);
+
+    List<SimilarImageResponse> findSimilarImages(Long userId, Long imageId, Integer maxDistance, int limit);
+
+    List<NearDuplicateGroupResponse> findNearDuplicateGroups(Long userId, Integer maxDistance, int limit);
+
+    List<VisuallySimilarImageResponse> findVisuallySimilarImages(Long userId, Long imageId, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.imagemanagement.service;
+
+import com.imagemanagement.dto.request.NaturalSearchRequest;
+import com.imagemanagement.dto.response.NaturalSearchResponse;
+
+public interface NaturalSearchService {
+
+    NaturalSearchResponse search(Long userId, NaturalSearchRequest request);
+}
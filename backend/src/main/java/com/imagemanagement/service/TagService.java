@@ -1,12 +1,17 @@
 package com.imagemanagement.service;
 
 import com.imagemanagement.dto.request.AiTagAssignmentRequest;
+import com.imagemanagement.dto.request.AiTagBatchGenerationRequest;
 import com.imagemanagement.dto.request.AiTagGenerationRequest;
+import com.imagemanagement.dto.request.BulkTagRequest;
 import com.imagemanagement.dto.request.TagAssignmentRequest;
+import com.imagemanagement.dto.response.AiTagBatchGenerationResponse;
+import com.imagemanagement.dto.response.BulkTagResponse;
 import com.imagemanagement.dto.response.ImageTagResponse;
 import com.imagemanagement.dto.response.TagResponse;
 import com.imagemanagement.entity.Image;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface TagService {
 
@@ -16,11 +21,28 @@ public interface TagService {
 
     List<ImageTagResponse> assignAiTags(Long userId, Long imageId, AiTagAssignmentRequest request);
 
-    List<ImageTagResponse> generateAiTags(Long userId, Long imageId, AiTagGenerationRequest request);
+    /**
+     * Asks the AI service for tags and attaches them. No transaction is held while the service
+     * works; the image is read before and the tags are written after, each in a short transaction.
+     */
+    CompletableFuture<List<ImageTagResponse>> generateAiTags(Long userId, Long imageId, AiTagGenerationRequest request);
+
+    /**
+     * Tags many images through the AI service's batch route, grouped into micro-batches by count and
+     * upload size. Each batch's tags are written in one short transaction as soon as it returns; a
+     * batch that fails leaves its images untagged without failing the others.
+     */
+    CompletableFuture<AiTagBatchGenerationResponse> generateAiTagsBatch(Long userId, AiTagBatchGenerationRequest request);
 
     void removeTag(Long userId, Long imageId, Long tagId);
 
+    BulkTagResponse bulkAssignTags(Long userId, BulkTagRequest request);
+
+    BulkTagResponse bulkRemoveTags(Long userId, BulkTagRequest request);
+
     List<TagResponse> getPopularTags(int limit);
 
+    List<TagResponse> suggestTags(String prefix, int limit);
+
     void applyAutomaticTags(Image image);
 }
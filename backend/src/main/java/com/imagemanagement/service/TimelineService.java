@@ -0,0 +1,23 @@
+package com.imagemanagement.service;
+
+import com.imagemanagement.dto.request.TimelineGranularity;
+import com.imagemanagement.dto.response.TimelineBucketResponse;
+import com.imagemanagement.entity.Image;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TimelineService {
+
+    List<TimelineBucketResponse> getTimeline(Long userId, TimelineGranularity granularity, LocalDate from, LocalDate to);
+
+    void recordAdded(Image image);
+
+    void recordRemoved(Image image);
+
+    void recordMoved(Long userId, LocalDate previousDate, LocalDate currentDate);
+
+    /**
+     * Day an image is filed under on the timeline: EXIF taken time, falling back to upload time.
+     */
+    LocalDate bucketDate(Image image);
+}
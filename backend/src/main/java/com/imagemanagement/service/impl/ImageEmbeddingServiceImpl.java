@@ -0,0 +1,80 @@
+package com.imagemanagement.service.impl;
+
+import com.imagemanagement.ai.dto.AiImageEmbedding;
+import com.imagemanagement.entity.Image;
+import com.imagemanagement.entity.ImageEmbedding;
+import com.imagemanagement.repository.ImageEmbeddingRepository;
+import com.imagemanagement.service.ImageEmbeddingService;
+import com.imagemanagement.similarity.HnswIndex;
+import com.imagemanagement.similarity.QuantizedVector;
+import com.imagemanagement.similarity.VectorIndexStore;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+@Service
+@Transactional
+public class ImageEmbeddingServiceImpl implements ImageEmbeddingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageEmbeddingServiceImpl.class);
+    private static final int MAX_DIMENSIONS = 4096;
+
+    private final ImageEmbeddingRepository embeddingRepository;
+    private final VectorIndexStore vectorIndexStore;
+
+    public ImageEmbeddingServiceImpl(ImageEmbeddingRepository embeddingRepository, VectorIndexStore vectorIndexStore) {
+        this.embeddingRepository = embeddingRepository;
+        this.vectorIndexStore = vectorIndexStore;
+    }
+
+    @Override
+    public void store(Image image, AiImageEmbedding embedding) {
+        if (image == null || image.getId() == null || embedding == null || !StringUtils.hasText(embedding.model())) {
+            return;
+        }
+        float[] vector = embedding.vector();
+        if (vector == null || vector.length == 0 || vector.length > MAX_DIMENSIONS) {
+            LOGGER.warn("Ignoring embedding for image {} with {} dimensions", image.getId(),
+                    vector == null ? 0 : vector.length);
+            return;
+        }
+
+        Long userId = image.getUser().getId();
+        QuantizedVector quantized = QuantizedVector.quantize(vector);
+        ImageEmbedding entity = embeddingRepository.findById(image.getId()).orElseGet(ImageEmbedding::new);
+        if (entity.getModel() != null && !entity.getModel().equals(embedding.model())) {
+            vectorIndexStore.remove(userId, entity.getModel(), image.getId());
+        }
+        entity.setImageId(image.getId());
+        entity.setUserId(userId);
+        entity.setModel(embedding.model());
+        entity.setVector(quantized);
+        ImageEmbedding saved = embeddingRepository.saveAndFlush(entity);
+        vectorIndexStore.put(userId, saved.getModel(), saved.getImageId(), saved.getVersion(), quantized);
+    }
+
+    @Override
+    public void remove(Long userId, Long imageId) {
+        embeddingRepository.findById(Objects.requireNonNull(imageId)).ifPresent(embedding -> {
+            embeddingRepository.delete(embedding);
+            vectorIndexStore.remove(userId, embedding.getModel(), imageId);
+        });
+    }
+
+    @Override
+    public List<HnswIndex.Match> findNearest(Long userId, Long imageId, int limit) {
+        ImageEmbedding embedding = embeddingRepository.findById(Objects.requireNonNull(imageId)).orElse(null);
+        if (embedding == null) {
+            return List.of();
+        }
+        // the image is its own nearest neighbour
+        return vectorIndexStore.search(userId, embedding.getModel(), embedding.toVector(), limit + 1).stream()
+                .filter(match -> match.id() != imageId)
+                .limit(limit)
+                .toList();
+    }
+}
@@ -1,28 +1,45 @@
 package com.imagemanagement.service.impl;
 
+import com.imagemanagement.ai.AiTaggingQueue;
 import com.imagemanagement.cache.CacheNames;
+import com.imagemanagement.cache.SearchCacheVersions;
+import com.imagemanagement.config.SimilarityProperties;
 import com.imagemanagement.dto.request.ImageEditRequest;
 import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.dto.response.GeoTileResponse;
 import com.imagemanagement.dto.response.ImageDeleteResponse;
 import com.imagemanagement.dto.response.ImageSummaryResponse;
 import com.imagemanagement.dto.response.ImageUploadResponse;
+import com.imagemanagement.dto.response.NearDuplicateGroupResponse;
 import com.imagemanagement.dto.response.PageResponse;
+import com.imagemanagement.dto.response.SimilarImageResponse;
+import com.imagemanagement.dto.response.VisuallySimilarImageResponse;
 import com.imagemanagement.entity.Image;
 import com.imagemanagement.entity.ImageTag;
 import com.imagemanagement.entity.Thumbnail;
 import com.imagemanagement.entity.User;
 import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import com.imagemanagement.entity.enums.ThumbnailSizeType;
 import com.imagemanagement.exception.BadRequestException;
 import com.imagemanagement.exception.ForbiddenException;
 import com.imagemanagement.exception.ResourceNotFoundException;
+import com.imagemanagement.geo.GeoBoundingBox;
+import com.imagemanagement.geo.GeoHash;
+import com.imagemanagement.repository.ExifDataRepository;
 import com.imagemanagement.repository.ImageRepository;
 import com.imagemanagement.repository.UserRepository;
 import com.imagemanagement.repository.specification.ImageSpecifications;
 import com.imagemanagement.service.ExifExtractionService;
 import com.imagemanagement.service.FileStorageService;
+import com.imagemanagement.service.ImageEmbeddingService;
 import com.imagemanagement.service.ImageService;
 import com.imagemanagement.service.TagService;
 import com.imagemanagement.service.ThumbnailService;
+import com.imagemanagement.service.TimelineService;
+import com.imagemanagement.similarity.BkTree;
+import com.imagemanagement.similarity.HnswIndex;
+import com.imagemanagement.similarity.PerceptualHash;
+import com.imagemanagement.similarity.PerceptualHashIndex;
 import jakarta.transaction.Transactional;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
@@ -34,17 +51,21 @@ import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Locale;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.HexFormat;
 import javax.imageio.ImageIO;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -63,29 +84,52 @@ public class ImageServiceImpl implements ImageService {
 
     private final ImageRepository imageRepository;
     private final UserRepository userRepository;
+    private final ExifDataRepository exifDataRepository;
     private final FileStorageService fileStorageService;
     private final ExifExtractionService exifExtractionService;
     private final ThumbnailService thumbnailService;
     private final TagService tagService;
+    private final SearchCacheVersions searchCacheVersions;
+    private final TimelineService timelineService;
+    private final PerceptualHashIndex perceptualHashIndex;
+    private final SimilarityProperties similarityProperties;
+    private final ImageEmbeddingService imageEmbeddingService;
+    private final AiTaggingQueue aiTaggingQueue;
     private static final int MAX_HIGHLIGHT_SIZE = 12;
+    private static final int MAX_TILE_ZOOM = 20;
+    private static final int MAX_SIMILAR_RESULTS = 100;
 
     public ImageServiceImpl(ImageRepository imageRepository,
             UserRepository userRepository,
+            ExifDataRepository exifDataRepository,
             FileStorageService fileStorageService,
             ExifExtractionService exifExtractionService,
             ThumbnailService thumbnailService,
-            TagService tagService) {
+            TagService tagService,
+            SearchCacheVersions searchCacheVersions,
+            TimelineService timelineService,
+            PerceptualHashIndex perceptualHashIndex,
+            SimilarityProperties similarityProperties,
+            ImageEmbeddingService imageEmbeddingService,
+            AiTaggingQueue aiTaggingQueue) {
         this.imageRepository = imageRepository;
         this.userRepository = userRepository;
+        this.exifDataRepository = exifDataRepository;
         this.fileStorageService = fileStorageService;
         this.exifExtractionService = exifExtractionService;
         this.thumbnailService = thumbnailService;
         this.tagService = tagService;
+        this.searchCacheVersions = searchCacheVersions;
+        this.timelineService = timelineService;
+        this.perceptualHashIndex = perceptualHashIndex;
+        this.similarityProperties = similarityProperties;
+        this.imageEmbeddingService = imageEmbeddingService;
+        this.aiTaggingQueue = aiTaggingQueue;
     }
 
     @Override
-    @CacheEvict(value = CacheNames.IMAGE_SEARCH, allEntries = true)
-    public List<ImageUploadResponse> uploadImages(Long userId, List<MultipartFile> files, ImagePrivacyLevel privacyLevel, String description) {
+    public List<ImageUploadResponse> uploadImages(Long userId, List<MultipartFile> files, ImagePrivacyLevel privacyLevel, String description,
+                                              boolean nearDuplicateCheck) {
         if (userId == null) {
             throw new BadRequestException("User id is required");
         }
@@ -132,21 +176,47 @@ public class ImageServiceImpl implements ImageService {
             imagesToSave.add(image);
         }
 
+        // looked up before the batch is saved, so a lazily built index only holds committed images
+        List<List<Long>> indexedNearDuplicates = nearDuplicateCheck
+                ? imagesToSave.stream().map(image -> indexedNearDuplicates(userId, image)).toList()
+                : List.of();
         List<Image> savedImages = imageRepository.saveAll(imagesToSave);
+        savedImages.forEach(timelineService::recordAdded);
         savedImages.forEach(tagService::applyAutomaticTags);
-
-        return savedImages.stream()
-            .map(this::toResponse)
-            .toList();
+        aiTaggingQueue.enqueueUploaded(savedImages);
+        searchCacheVersions.invalidate(userId, savedImages.stream().anyMatch(this::isPublic));
+
+        List<ImageUploadResponse> responses = new ArrayList<>(savedImages.size());
+        for (int i = 0; i < savedImages.size(); i++) {
+            Image image = savedImages.get(i);
+            ImageUploadResponse response = toResponse(image);
+            if (nearDuplicateCheck && image.getPerceptualHash() != null) {
+                // the index only sees this batch after commit, so the other files of the batch are compared here
+                List<Long> nearDuplicateIds = new ArrayList<>(indexedNearDuplicates.get(i));
+                for (Image other : savedImages) {
+                    if (other != image && other.getPerceptualHash() != null
+                            && PerceptualHash.distance(image.getPerceptualHash(), other.getPerceptualHash())
+                                    <= similarityProperties.getNearDuplicateDistance()) {
+                        nearDuplicateIds.add(other.getId());
+                    }
+                }
+                response.setNearDuplicateIds(nearDuplicateIds);
+            }
+            perceptualHashIndex.add(userId, image.getId(), image.getPerceptualHash());
+            responses.add(response);
+        }
+        return responses;
     }
 
     @Override
         @Cacheable(cacheNames = CacheNames.IMAGE_SEARCH,
-            key = "T(com.imagemanagement.cache.CacheKeyGenerator).imageSearchKey(#userId, #request)")
+            key = "T(com.imagemanagement.cache.CacheKeyGenerator).imageSearchKey(#userId, #request, @searchCacheVersions)",
+            sync = true)
         public PageResponse<ImageSummaryResponse> searchImages(Long userId, ImageSearchRequest request) {
         ImageSearchRequest criteria = request != null ? request : new ImageSearchRequest();
         validateRange(criteria.getMinWidth(), criteria.getMaxWidth(), "width");
         validateRange(criteria.getMinHeight(), criteria.getMaxHeight(), "height");
+        validateGeoCriteria(criteria);
 
         Sort sort = Objects.requireNonNull(buildSort(criteria));
         Pageable pageable = PageRequest.of(criteria.getPage(), criteria.getSize(), sort);
@@ -156,7 +226,6 @@ public class ImageServiceImpl implements ImageService {
     }
 
     @Override
-    @CacheEvict(value = CacheNames.IMAGE_SEARCH, allEntries = true)
     public ImageDeleteResponse deleteImage(Long userId, Long imageId) {
         if (userId == null) {
             throw new BadRequestException("User id is required");
@@ -173,12 +242,15 @@ public class ImageServiceImpl implements ImageService {
         }
 
         removeStoredFiles(image);
+        imageEmbeddingService.remove(userId, imageId);
         imageRepository.delete(image);
+        timelineService.recordRemoved(image);
+        perceptualHashIndex.remove(userId, imageId, image.getPerceptualHash());
+        searchCacheVersions.invalidate(userId, isPublic(image));
         return new ImageDeleteResponse(imageId, Instant.now());
     }
 
     @Override
-    @CacheEvict(value = CacheNames.IMAGE_SEARCH, allEntries = true)
     public ImageSummaryResponse editImage(Long userId, Long imageId, ImageEditRequest request) {
         if (userId == null) {
             throw new BadRequestException("User id is required");
@@ -202,6 +274,7 @@ public class ImageServiceImpl implements ImageService {
         }
 
         Path imagePath = Path.of(image.getFilePath());
+        LocalDate timelineDate = timelineService.bucketDate(image);
         BufferedImage workingImage = readImageForEditing(imagePath);
 
         if (request.getCrop() != null) {
@@ -215,6 +288,14 @@ public class ImageServiceImpl implements ImageService {
         writeImage(workingImage, imagePath, resolveOutputFormat(image));
         updateImageMetadata(image, workingImage, imagePath);
         refreshThumbnails(image);
+        Long previousHash = image.getPerceptualHash();
+        image.setPerceptualHash(computePerceptualHash(image));
+        perceptualHashIndex.remove(userId, imageId, previousHash);
+        perceptualHashIndex.add(userId, imageId, image.getPerceptualHash());
+        // the stored embedding describes the pixels before the edit
+        imageEmbeddingService.remove(userId, imageId);
+        timelineService.recordMoved(userId, timelineDate, timelineService.bucketDate(image));
+        searchCacheVersions.invalidate(userId, isPublic(image));
 
         return toSummaryResponse(image);
     }
@@ -233,6 +314,104 @@ public class ImageServiceImpl implements ImageService {
                 .toList();
     }
 
+    @Override
+    public List<GeoTileResponse> getGeoTiles(Long userId, int zoom, GeoBoundingBox box) {
+        if (zoom < 0 || zoom > MAX_TILE_ZOOM) {
+            throw new BadRequestException("Zoom must be between 0 and " + MAX_TILE_ZOOM);
+        }
+        GeoBoundingBox bounds = box != null ? box : GeoBoundingBox.WORLD;
+        validateCoordinate(bounds.minLatitude(), 90, "minLatitude");
+        validateCoordinate(bounds.maxLatitude(), 90, "maxLatitude");
+        validateCoordinate(bounds.minLongitude(), 180, "minLongitude");
+        validateCoordinate(bounds.maxLongitude(), 180, "maxLongitude");
+        if (bounds.minLatitude() > bounds.maxLatitude()) {
+            throw new BadRequestException("Invalid latitude range: min must be <= max");
+        }
+        return exifDataRepository.countTiles(userId, GeoHash.precisionForZoom(zoom), bounds);
+    }
+
+    @Override
+    public List<SimilarImageResponse> findSimilarImages(Long userId, Long imageId, Integer maxDistance, int limit) {
+        if (imageId == null) {
+            throw new BadRequestException("Image id is required");
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("Limit must be greater than zero");
+        }
+        int distance = resolveMaxDistance(maxDistance, similarityProperties.getDefaultMaxDistance());
+
+        Image image = imageRepository.findById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+        if (!Objects.equals(image.getUser().getId(), userId)) {
+            throw new ForbiddenException("You do not have permission to view this image");
+        }
+        if (image.getPerceptualHash() == null) {
+            return List.of();
+        }
+
+        List<BkTree.Match> matches = perceptualHashIndex.search(userId, image.getPerceptualHash(), distance).stream()
+                .filter(match -> match.id() != imageId)
+                .limit(Math.min(limit, MAX_SIMILAR_RESULTS))
+                .toList();
+        Map<Long, Image> images = loadOwnedImages(userId, matches.stream().map(BkTree.Match::id).toList());
+        return matches.stream()
+                .filter(match -> images.containsKey(match.id()))
+                .map(match -> new SimilarImageResponse(toSummaryResponse(images.get(match.id())), match.distance()))
+                .toList();
+    }
+
+    @Override
+    public List<NearDuplicateGroupResponse> findNearDuplicateGroups(Long userId, Integer maxDistance, int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("Limit must be greater than zero");
+        }
+        int distance = resolveMaxDistance(maxDistance, similarityProperties.getNearDuplicateDistance());
+
+        List<List<BkTree.Match>> groups = perceptualHashIndex.groups(userId, distance).stream()
+                .limit(Math.min(limit, MAX_SIMILAR_RESULTS))
+                .toList();
+        Map<Long, Image> images = loadOwnedImages(userId, groups.stream()
+                .flatMap(List::stream)
+                .map(BkTree.Match::id)
+                .toList());
+
+        List<NearDuplicateGroupResponse> responses = new ArrayList<>();
+        for (List<BkTree.Match> group : groups) {
+            List<ImageSummaryResponse> members = group.stream()
+                    .map(match -> images.get(match.id()))
+                    .filter(Objects::nonNull)
+                    .map(this::toSummaryResponse)
+                    .toList();
+            if (members.size() > 1) {
+                responses.add(new NearDuplicateGroupResponse(members.size(), members));
+            }
+        }
+        return responses;
+    }
+
+    @Override
+    public List<VisuallySimilarImageResponse> findVisuallySimilarImages(Long userId, Long imageId, int limit) {
+        if (imageId == null) {
+            throw new BadRequestException("Image id is required");
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("Limit must be greater than zero");
+        }
+        Image image = imageRepository.findById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+        if (!Objects.equals(image.getUser().getId(), userId)) {
+            throw new ForbiddenException("You do not have permission to view this image");
+        }
+
+        List<HnswIndex.Match> matches = imageEmbeddingService.findNearest(userId, imageId,
+                Math.min(limit, similarityProperties.getVector().getMaxResults()));
+        Map<Long, Image> images = loadOwnedImages(userId, matches.stream().map(HnswIndex.Match::id).toList());
+        return matches.stream()
+                .filter(match -> images.containsKey(match.id()))
+                .map(match -> new VisuallySimilarImageResponse(toSummaryResponse(images.get(match.id())), match.similarity()))
+                .toList();
+    }
+
     private Image buildImageEntity(User user, FileStorageService.StoredFileInfo storedFile,
                                    ImagePrivacyLevel privacyLevel, String description, String contentHash) {
         Image image = new Image();
@@ -250,9 +429,60 @@ public class ImageServiceImpl implements ImageService {
         setImageDimensions(image, imagePath);
         exifExtractionService.extract(imagePath, image).ifPresent(image::setExifData);
         thumbnailService.generateThumbnails(image);
+        image.setPerceptualHash(computePerceptualHash(image));
         return image;
     }
 
+    // hashed from the SMALL thumbnail: already decoded to a few hundred pixels and JPEG-normalised
+    private List<Long> indexedNearDuplicates(Long userId, Image image) {
+        if (image.getPerceptualHash() == null) {
+            return List.of();
+        }
+        return perceptualHashIndex
+                .search(userId, image.getPerceptualHash(), similarityProperties.getNearDuplicateDistance())
+                .stream()
+                .map(BkTree.Match::id)
+                .toList();
+    }
+
+    private Long computePerceptualHash(Image image) {
+        String source = image.getThumbnails().stream()
+                .filter(thumbnail -> thumbnail.getSizeType() == ThumbnailSizeType.SMALL)
+                .map(Thumbnail::getFilePath)
+                .filter(StringUtils::hasText)
+                .findFirst()
+                .orElse(image.getFilePath());
+        if (!StringUtils.hasText(source)) {
+            return null;
+        }
+        try {
+            BufferedImage bufferedImage = ImageIO.read(Path.of(source).toFile());
+            return bufferedImage != null ? PerceptualHash.dHash(bufferedImage) : null;
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    private int resolveMaxDistance(Integer requested, int fallback) {
+        if (requested == null) {
+            return fallback;
+        }
+        if (requested < 0 || requested > similarityProperties.getMaxDistance()) {
+            throw new BadRequestException("maxDistance must be between 0 and " + similarityProperties.getMaxDistance());
+        }
+        return requested;
+    }
+
+    // the index may briefly hold ids of uploads that were rolled back or deleted elsewhere
+    private Map<Long, Image> loadOwnedImages(Long userId, List<Long> imageIds) {
+        if (imageIds.isEmpty()) {
+            return Map.of();
+        }
+        return imageRepository.findAllById(imageIds).stream()
+                .filter(image -> Objects.equals(image.getUser().getId(), userId))
+                .collect(Collectors.toMap(Image::getId, Function.identity()));
+    }
+
     private void setImageDimensions(Image image, Path absolutePath) {
         try (var inputStream = Files.newInputStream(absolutePath)) {
             BufferedImage bufferedImage = ImageIO.read(inputStream);
@@ -286,14 +516,37 @@ public class ImageServiceImpl implements ImageService {
         if (direction == null) {
             direction = Sort.Direction.DESC;
         }
-        String property = switch (sortBy != null ? sortBy : "") {
-            case "originalFilename" -> "originalFilename";
-            case "fileSize" -> "fileSize";
-            case "width" -> "width";
-            case "height" -> "height";
-            default -> "uploadTime";
-        };
-        return Sort.by(direction, property);
+        return Sort.by(direction, ImageSpecifications.sortProperty(sortBy));
+    }
+
+    private boolean isPublic(Image image) {
+        return image.getPrivacyLevel() == ImagePrivacyLevel.PUBLIC;
+    }
+
+    private void validateGeoCriteria(ImageSearchRequest request) {
+        long boundsProvided = Stream.of(request.getMinLatitude(), request.getMaxLatitude(),
+                        request.getMinLongitude(), request.getMaxLongitude())
+                .filter(Objects::nonNull)
+                .count();
+        if (boundsProvided != 0 && boundsProvided != 4) {
+            throw new BadRequestException("Bounding box requires minLatitude, maxLatitude, minLongitude and maxLongitude");
+        }
+        if (boundsProvided == 4 && request.getMinLatitude() > request.getMaxLatitude()) {
+            throw new BadRequestException("Invalid latitude range: min must be <= max");
+        }
+        long radiusProvided = Stream.of(request.getCenterLatitude(), request.getCenterLongitude(), request.getRadiusKm())
+                .filter(Objects::nonNull)
+                .count();
+        if (radiusProvided != 0 && radiusProvided != 3) {
+            throw new BadRequestException("Radius search requires centerLatitude, centerLongitude and radiusKm");
+        }
+    }
+
+    private void validateCoordinate(double value, double limit, String fieldName) {
+        // written so that NaN fails as well
+        if (!(value >= -limit && value <= limit)) {
+            throw new BadRequestException(fieldName + " must be between " + (int) -limit + " and " + (int) limit);
+        }
     }
 
     private void validateRange(Integer min, Integer max, String fieldName) {
@@ -320,6 +573,8 @@ public class ImageServiceImpl implements ImageService {
             response.setCameraMake(image.getExifData().getCameraMake());
             response.setCameraModel(image.getExifData().getCameraModel());
             response.setTakenTime(image.getExifData().getTakenTime());
+            response.setLatitude(image.getExifData().getLatitude());
+            response.setLongitude(image.getExifData().getLongitude());
         }
 
         response.setTags(extractTagNames(image.getImageTags()));
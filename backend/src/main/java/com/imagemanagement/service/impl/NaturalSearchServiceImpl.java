@@ -0,0 +1,180 @@
+package com.imagemanagement.service.impl;
+
+import com.imagemanagement.ai.AiSearchInterpretationCache;
+import com.imagemanagement.ai.AiServiceException;
+import com.imagemanagement.ai.dto.AiSearchInterpretation;
+import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.dto.request.NaturalSearchRequest;
+import com.imagemanagement.dto.response.ImageSummaryResponse;
+import com.imagemanagement.dto.response.NaturalSearchResponse;
+import com.imagemanagement.dto.response.PageResponse;
+import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import com.imagemanagement.service.ImageService;
+import com.imagemanagement.service.NaturalSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * Interprets a natural-language query and runs the resulting search in one call. Both stages go
+ * through their caches: the interpretation through {@link AiSearchInterpretationCache}, the search
+ * through the cached {@link ImageService#searchImages}. When the AI service is unavailable the query
+ * is searched as a plain keyword instead of failing.
+ *
+ * <p>Deliberately not transactional, so no connection is held while the AI service answers.
+ */
+@Service
+public class NaturalSearchServiceImpl implements NaturalSearchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NaturalSearchServiceImpl.class);
+
+    private static final int DEFAULT_SIZE = 20;
+
+    private final AiSearchInterpretationCache interpretationCache;
+    private final ImageService imageService;
+    private final Timer interpretTimer;
+    private final Timer searchTimer;
+
+    public NaturalSearchServiceImpl(AiSearchInterpretationCache interpretationCache,
+            ImageService imageService,
+            MeterRegistry meterRegistry) {
+        this.interpretationCache = interpretationCache;
+        this.imageService = imageService;
+        this.interpretTimer = stage(meterRegistry, "interpret");
+        this.searchTimer = stage(meterRegistry, "search");
+    }
+
+    @Override
+    public NaturalSearchResponse search(Long userId, NaturalSearchRequest request) {
+        String query = request.query().strip();
+        long start = System.nanoTime();
+        AiSearchInterpretation interpretation;
+        boolean interpreted = true;
+        try {
+            interpretation = interpretationCache.interpret(query, null);
+        } catch (AiServiceException ex) {
+            LOGGER.warn("Searching '{}' as a keyword, interpretation failed: {}", query, ex.getMessage());
+            interpretation = fallback(query);
+            interpreted = false;
+        }
+        long interpretedAt = System.nanoTime();
+
+        ImageSearchRequest criteria = toSearchRequest(query, interpretation, request);
+        PageResponse<ImageSummaryResponse> results = imageService.searchImages(userId, criteria);
+        long searchedAt = System.nanoTime();
+
+        interpretTimer.record(interpretedAt - start, TimeUnit.NANOSECONDS);
+        searchTimer.record(searchedAt - interpretedAt, TimeUnit.NANOSECONDS);
+        return new NaturalSearchResponse(query, interpreted, interpretation, criteria, results,
+                new NaturalSearchResponse.Timings(millis(interpretedAt - start), millis(searchedAt - interpretedAt),
+                        millis(searchedAt - start)));
+    }
+
+    /**
+     * Maps the interpreter's filters onto a search. Values of the wrong type are dropped rather than
+     * rejected; the raw query becomes the keyword only when nothing else narrows the search, because
+     * keywords match file names and descriptions and would hide images found by their tags.
+     */
+    static ImageSearchRequest toSearchRequest(String query,
+            AiSearchInterpretation interpretation,
+            NaturalSearchRequest request) {
+        Map<String, Object> filters = interpretation.filters() != null ? interpretation.filters() : Map.of();
+        ImageSearchRequest criteria = new ImageSearchRequest();
+        List<String> tags = strings(filters.get("tags"));
+        criteria.setTags(!tags.isEmpty() ? tags : strings(interpretation.tags()));
+        String keyword = text(filters.get("keyword"));
+        criteria.setKeyword(keyword == null && criteria.getTags().isEmpty() ? query : keyword);
+        criteria.setPrivacyLevel(privacyLevel(filters.get("privacyLevel")));
+        criteria.setUploadedFrom(dateTime(filters.get("uploadedFrom")));
+        criteria.setUploadedTo(dateTime(filters.get("uploadedTo")));
+        criteria.setCameraMake(text(filters.get("cameraMake")));
+        criteria.setCameraModel(text(filters.get("cameraModel")));
+        criteria.setMinWidth(dimension(filters.get("minWidth")));
+        criteria.setMinHeight(dimension(filters.get("minHeight")));
+        criteria.setMaxWidth(dimension(filters.get("maxWidth")));
+        criteria.setMaxHeight(dimension(filters.get("maxHeight")));
+        criteria.setOnlyOwn(request.onlyOwn() != null
+                ? request.onlyOwn()
+                : Boolean.TRUE.equals(filters.get("onlyOwn")));
+        String sortBy = text(filters.get("sortBy"));
+        if (sortBy != null) {
+            criteria.setSortBy(sortBy);
+        }
+        criteria.setSortDirection(direction(filters.get("sortDirection")));
+        criteria.setPage(request.page() != null ? request.page() : 0);
+        criteria.setSize(request.size() != null ? request.size() : DEFAULT_SIZE);
+        return criteria;
+    }
+
+    private static AiSearchInterpretation fallback(String query) {
+        return new AiSearchInterpretation(query, List.of(query), List.of(), Map.of("keyword", query),
+                List.of(Map.of("rule", "fallback", "reason", "AI service unavailable")), BigDecimal.ZERO);
+    }
+
+    private static String text(Object value) {
+        return value instanceof String text && StringUtils.hasText(text) ? text.strip() : null;
+    }
+
+    private static List<String> strings(Object value) {
+        if (!(value instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream().map(NaturalSearchServiceImpl::text).filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static Integer dimension(Object value) {
+        return value instanceof Number number && number.intValue() > 0 ? number.intValue() : null;
+    }
+
+    private static LocalDateTime dateTime(Object value) {
+        String text = text(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static ImagePrivacyLevel privacyLevel(Object value) {
+        String text = text(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return ImagePrivacyLevel.valueOf(text.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static Sort.Direction direction(Object value) {
+        String text = text(value);
+        return text != null ? Sort.Direction.fromOptionalString(text).orElse(Sort.Direction.DESC) : Sort.Direction.DESC;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000d) / 100d;
+    }
+
+    private static Timer stage(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("search.natural.duration")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -1,10 +1,21 @@
 package com.imagemanagement.service.impl;
 
-import com.imagemanagement.ai.AiServiceClient;
+import com.imagemanagement.ai.AiImagePayloads;
+import com.imagemanagement.ai.AiImageSource;
+import com.imagemanagement.ai.AiTagSuggestionCache;
+import com.imagemanagement.ai.AsyncAiServiceClient;
+import com.imagemanagement.ai.dto.AiImageEmbedding;
+import com.imagemanagement.ai.dto.AiTagBatchItem;
+import com.imagemanagement.ai.dto.AiTagBatchResponse;
 import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
+import com.imagemanagement.cache.SearchCacheVersions;
 import com.imagemanagement.dto.request.AiTagAssignmentRequest;
+import com.imagemanagement.dto.request.AiTagBatchGenerationRequest;
 import com.imagemanagement.dto.request.AiTagGenerationRequest;
+import com.imagemanagement.dto.request.BulkTagRequest;
 import com.imagemanagement.dto.request.TagAssignmentRequest;
+import com.imagemanagement.dto.response.AiTagBatchGenerationResponse;
+import com.imagemanagement.dto.response.BulkTagResponse;
 import com.imagemanagement.dto.response.ImageTagResponse;
 import com.imagemanagement.dto.response.TagResponse;
 import com.imagemanagement.entity.ExifData;
@@ -12,31 +23,49 @@ import com.imagemanagement.entity.Image;
 import com.imagemanagement.entity.ImageTag;
 import com.imagemanagement.entity.Tag;
 import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.ImagePrivacyLevel;
 import com.imagemanagement.entity.enums.TagType;
 import com.imagemanagement.exception.BadRequestException;
 import com.imagemanagement.exception.ResourceNotFoundException;
+import com.imagemanagement.repository.ImageOwnershipView;
 import com.imagemanagement.repository.ImageRepository;
 import com.imagemanagement.repository.ImageTagRepository;
+import com.imagemanagement.repository.ImageTagRepositoryCustom;
 import com.imagemanagement.repository.TagRepository;
+import com.imagemanagement.repository.TagRepositoryCustom;
+import com.imagemanagement.service.ImageEmbeddingService;
 import com.imagemanagement.service.TagService;
+import com.imagemanagement.tag.PopularTagRanking;
+import com.imagemanagement.tag.TagDictionary;
+import com.imagemanagement.tag.TagRef;
+import com.imagemanagement.tag.TagSuggestionIndex;
+import com.imagemanagement.tag.TagUsageCounters;
 import jakarta.transaction.Transactional;
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.springframework.data.domain.PageRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -44,22 +73,51 @@ import org.springframework.util.StringUtils;
 @Transactional
 public class TagServiceImpl implements TagService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TagServiceImpl.class);
     private static final BigDecimal CONFIDENCE_STRONG = BigDecimal.valueOf(1.00).setScale(2, RoundingMode.HALF_UP);
     private static final BigDecimal CONFIDENCE_AUTO = BigDecimal.valueOf(0.85).setScale(2, RoundingMode.HALF_UP);
+    private static final BigDecimal CONFIDENCE_AI = BigDecimal.valueOf(0.75);
 
     private final TagRepository tagRepository;
     private final ImageRepository imageRepository;
     private final ImageTagRepository imageTagRepository;
-    private final AiServiceClient aiServiceClient;
+    private final AsyncAiServiceClient aiServiceClient;
+    private final AiImagePayloads aiImagePayloads;
+    private final AiTagSuggestionCache aiTagSuggestionCache;
+    private final SearchCacheVersions searchCacheVersions;
+    private final ImageEmbeddingService imageEmbeddingService;
+    private final TagSuggestionIndex tagSuggestionIndex;
+    private final PopularTagRanking popularTagRanking;
+    private final TagUsageCounters tagUsageCounters;
+    private final TagDictionary tagDictionary;
+    private final TransactionTemplate transactionTemplate;
 
     public TagServiceImpl(TagRepository tagRepository,
             ImageRepository imageRepository,
             ImageTagRepository imageTagRepository,
-            AiServiceClient aiServiceClient) {
+            AsyncAiServiceClient aiServiceClient,
+            AiImagePayloads aiImagePayloads,
+            AiTagSuggestionCache aiTagSuggestionCache,
+            SearchCacheVersions searchCacheVersions,
+            ImageEmbeddingService imageEmbeddingService,
+            TagSuggestionIndex tagSuggestionIndex,
+            PopularTagRanking popularTagRanking,
+            TagUsageCounters tagUsageCounters,
+            TagDictionary tagDictionary,
+            PlatformTransactionManager transactionManager) {
         this.tagRepository = tagRepository;
         this.imageRepository = imageRepository;
         this.imageTagRepository = imageTagRepository;
         this.aiServiceClient = aiServiceClient;
+        this.aiImagePayloads = aiImagePayloads;
+        this.aiTagSuggestionCache = aiTagSuggestionCache;
+        this.searchCacheVersions = searchCacheVersions;
+        this.imageEmbeddingService = imageEmbeddingService;
+        this.tagSuggestionIndex = tagSuggestionIndex;
+        this.popularTagRanking = popularTagRanking;
+        this.tagUsageCounters = tagUsageCounters;
+        this.tagDictionary = tagDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -79,6 +137,7 @@ public class TagServiceImpl implements TagService {
         Image image = loadOwnedImage(userId, imageId);
         List<TagCandidate> candidates = toCandidates(request.tagNames(), TagType.CUSTOM, CONFIDENCE_STRONG);
         attachCandidates(image, candidates);
+        invalidateSearches(image);
         return getTagsForImage(imageId);
     }
 
@@ -92,28 +151,43 @@ public class TagServiceImpl implements TagService {
         }
 
         List<TagCandidate> candidates = request.tags().stream()
-                .map(tag -> new TagCandidate(tag.name(), TagType.AI, normalizeConfidence(tag.confidence(), BigDecimal.valueOf(0.75))))
+                .map(tag -> new TagCandidate(tag.name(), TagType.AI, normalizeConfidence(tag.confidence(), CONFIDENCE_AI)))
                 .toList();
         attachCandidates(image, candidates);
+        invalidateSearches(image);
         return getTagsForImage(imageId);
     }
 
     @Override
-    public List<ImageTagResponse> generateAiTags(Long userId, Long imageId, AiTagGenerationRequest request) {
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public CompletableFuture<List<ImageTagResponse>> generateAiTags(Long userId, Long imageId, AiTagGenerationRequest request) {
         Objects.requireNonNull(userId, "userId cannot be null");
         Objects.requireNonNull(imageId, "imageId cannot be null");
-        Image image = loadOwnedImage(userId, imageId);
-        byte[] payload = resolveImageBytes(image);
-
+        AiImageSource source = request != null ? request.source() : null;
         List<String> hints = request != null ? sanitizeHints(request.hints()) : Collections.emptyList();
         Integer limit = request != null ? request.limit() : null;
+        SelectedImage selected = transactionTemplate.execute(status -> {
+            Image image = loadOwnedImage(userId, imageId);
+            return new SelectedImage(aiImagePayloads.select(image, source), image.getContentHash());
+        });
+
+        Optional<AiTagSuggestionResponse> cached = aiTagSuggestionCache.get(selected.contentHash(), source, hints, limit);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(
+                    transactionTemplate.execute(status -> storeAiSuggestions(userId, imageId, cached.get())));
+        }
 
-        AiTagSuggestionResponse response = aiServiceClient.suggestTags(
-                payload,
-                image.getOriginalFilename(),
-                hints.isEmpty() ? null : hints,
-                limit);
+        Resource payload = aiImagePayloads.open(selected.selection());
+        return aiServiceClient.suggestTags(payload, hints.isEmpty() ? null : hints, limit)
+                .thenApply(response -> {
+                    aiTagSuggestionCache.put(selected.contentHash(), source, hints, limit, response);
+                    return transactionTemplate.execute(status -> storeAiSuggestions(userId, imageId, response));
+                });
+    }
 
+    private List<ImageTagResponse> storeAiSuggestions(Long userId, Long imageId, AiTagSuggestionResponse response) {
+        // ownership is checked again: the image may have changed while the AI service was working
+        Image image = loadOwnedImage(userId, imageId);
         if (response == null || CollectionUtils.isEmpty(response.tags())) {
             throw new BadRequestException("AI service returned no tag suggestions");
         }
@@ -129,9 +203,161 @@ public class TagServiceImpl implements TagService {
             throw new BadRequestException("AI service returned no valid tag names");
         }
 
+        imageEmbeddingService.store(image, response.embedding());
         return assignAiTags(userId, imageId, new AiTagAssignmentRequest(suggestions));
     }
 
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public CompletableFuture<AiTagBatchGenerationResponse> generateAiTagsBatch(Long userId, AiTagBatchGenerationRequest request) {
+        Objects.requireNonNull(userId, "userId cannot be null");
+        BatchProgress progress = new BatchProgress();
+        List<String> hints = sanitizeHints(request.hints());
+        Map<Long, AiImagePayloads.Selection> selections = transactionTemplate.execute(
+                status -> selectPayloads(userId, request, hints, progress));
+        List<List<Long>> batches = aiImagePayloads.batches(selections);
+        if (!progress.fromCache.isEmpty()) {
+            List<Long> cachedIds = progress.fromCache.stream().map(item -> Long.valueOf(item.id())).toList();
+            transactionTemplate.executeWithoutResult(status -> storeBatchSuggestions(userId, cachedIds,
+                    new AiTagBatchResponse(progress.fromCache), progress));
+        }
+
+        // one batch at a time: the next is sent once the previous one's tags are stored
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (List<Long> batch : batches) {
+            chain = chain.thenCompose(ignored -> tagBatch(userId, batch, selections, request.source(), hints,
+                    request.limit(), progress));
+        }
+        int imageCount = new HashSet<>(request.imageIds()).size();
+        return chain.thenApply(ignored -> new AiTagBatchGenerationResponse(
+                imageCount,
+                batches.size(),
+                progress.tagged,
+                progress.linksAdded,
+                List.copyOf(progress.failed)));
+    }
+
+    // images whose suggestions are cached are not sent again
+    private Map<Long, AiImagePayloads.Selection> selectPayloads(Long userId,
+            AiTagBatchGenerationRequest request,
+            List<String> hints,
+            BatchProgress progress) {
+        loadOwnedImages(userId, request.imageIds());
+        Map<Long, Image> images = imageRepository.findAllById(new HashSet<>(request.imageIds())).stream()
+                .collect(Collectors.toMap(Image::getId, Function.identity()));
+        Map<Long, AiImagePayloads.Selection> selections = new LinkedHashMap<>();
+        for (Long imageId : new LinkedHashSet<>(request.imageIds())) {
+            Image image = images.get(imageId);
+            Optional<AiTagSuggestionResponse> cached = aiTagSuggestionCache.get(image.getContentHash(),
+                    request.source(), hints, request.limit());
+            if (cached.isPresent()) {
+                progress.fromCache.add(new AiTagBatchItem(String.valueOf(imageId), cached.get().tags(),
+                        cached.get().metadata(), cached.get().embedding(), null));
+                continue;
+            }
+            try {
+                selections.put(imageId, aiImagePayloads.select(image, request.source()));
+                progress.contentHashes.put(imageId, image.getContentHash());
+            } catch (ResourceNotFoundException ex) {
+                progress.failed.add(imageId);
+            }
+        }
+        return selections;
+    }
+
+    private CompletableFuture<Void> tagBatch(Long userId,
+            List<Long> batch,
+            Map<Long, AiImagePayloads.Selection> selections,
+            AiImageSource source,
+            List<String> hints,
+            Integer limit,
+            BatchProgress progress) {
+        Map<String, Resource> payloads = new LinkedHashMap<>();
+        batch.forEach(imageId -> payloads.put(String.valueOf(imageId), aiImagePayloads.open(selections.get(imageId))));
+        return aiServiceClient.suggestTagsBatch(payloads, hints.isEmpty() ? null : hints, limit)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        LOGGER.warn("AI tagging failed for a batch of {} images: {}", batch.size(), error.getMessage());
+                        progress.failed.addAll(batch);
+                    } else {
+                        cacheBatchSuggestions(batch, response, source, hints, limit, progress);
+                        transactionTemplate.executeWithoutResult(status -> storeBatchSuggestions(userId, batch, response, progress));
+                    }
+                    return null;
+                });
+    }
+
+    // same entries as the single-image path, so either path can reuse the other's results
+    private void cacheBatchSuggestions(List<Long> batch,
+            AiTagBatchResponse response,
+            AiImageSource source,
+            List<String> hints,
+            Integer limit,
+            BatchProgress progress) {
+        List<AiTagBatchItem> items = response != null && response.items() != null ? response.items() : List.of();
+        for (AiTagBatchItem item : items) {
+            Long imageId = batchImageId(item, batch);
+            if (imageId != null) {
+                aiTagSuggestionCache.put(progress.contentHashes.get(imageId), source, hints, limit,
+                        new AiTagSuggestionResponse(item.tags(), item.metadata(), item.embedding()));
+            }
+        }
+    }
+
+    private void storeBatchSuggestions(Long userId, List<Long> batch, AiTagBatchResponse response, BatchProgress progress) {
+        Map<Long, List<TagCandidate>> candidatesByImage = new LinkedHashMap<>();
+        Map<Long, AiImageEmbedding> embeddings = new HashMap<>();
+        List<AiTagBatchItem> items = response != null && response.items() != null ? response.items() : List.of();
+        for (AiTagBatchItem item : items) {
+            Long imageId = batchImageId(item, batch);
+            if (imageId == null || CollectionUtils.isEmpty(item.tags())) {
+                continue;
+            }
+            List<TagCandidate> candidates = normalizeCandidates(item.tags().stream()
+                    .map(tag -> new TagCandidate(tag.name(), TagType.AI,
+                            normalizeConfidence(BigDecimal.valueOf(tag.confidence()), CONFIDENCE_AI)))
+                    .toList());
+            if (!candidates.isEmpty()) {
+                candidatesByImage.put(imageId, candidates);
+                if (item.embedding() != null) {
+                    embeddings.put(imageId, item.embedding());
+                }
+            }
+        }
+
+        // ownership is checked again: images may have changed while the AI service was working
+        List<ImageOwnershipView> owned = candidatesByImage.isEmpty()
+                ? List.of()
+                : imageRepository.findByUser_IdAndIdIn(userId, candidatesByImage.keySet());
+        Set<Long> ownedIds = owned.stream().map(ImageOwnershipView::getId).collect(Collectors.toSet());
+        candidatesByImage.keySet().retainAll(ownedIds);
+        batch.stream().filter(imageId -> !ownedIds.contains(imageId)).forEach(progress.failed::add);
+        if (candidatesByImage.isEmpty()) {
+            return;
+        }
+
+        embeddings.keySet().retainAll(ownedIds);
+        if (!embeddings.isEmpty()) {
+            imageRepository.findAllById(embeddings.keySet())
+                    .forEach(image -> imageEmbeddingService.store(image, embeddings.get(image.getId())));
+        }
+        progress.linksAdded += linkCandidates(candidatesByImage);
+        progress.tagged += candidatesByImage.size();
+        invalidateSearches(userId, owned);
+    }
+
+    private static Long batchImageId(AiTagBatchItem item, List<Long> batch) {
+        if (item.id() == null || item.error() != null) {
+            return null;
+        }
+        try {
+            Long imageId = Long.valueOf(item.id());
+            return batch.contains(imageId) ? imageId : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
     @Override
     public void removeTag(Long userId, Long imageId, Long tagId) {
         Objects.requireNonNull(userId, "userId cannot be null");
@@ -142,14 +368,72 @@ public class TagServiceImpl implements TagService {
                 .orElseThrow(() -> new BadRequestException("Tag is not attached to image"));
         imageTagRepository.delete(Objects.requireNonNull(imageTag));
         Tag tag = imageTag.getTag();
-        decrementUsage(tag);
+        adjustUsage(TagRef.of(tag), -1, tag);
+        invalidateSearches(image);
+    }
+
+    @Override
+    public BulkTagResponse bulkAssignTags(Long userId, BulkTagRequest request) {
+        Objects.requireNonNull(userId, "userId cannot be null");
+        List<ImageOwnershipView> images = loadOwnedImages(userId, request.imageIds());
+        List<TagCandidate> candidates = normalizeCandidates(toCandidates(request.tagNames(), TagType.CUSTOM, CONFIDENCE_STRONG));
+        if (candidates.isEmpty()) {
+            throw new BadRequestException("tagNames cannot be empty");
+        }
+
+        Map<Long, List<TagCandidate>> candidatesByImage = new LinkedHashMap<>();
+        images.forEach(image -> candidatesByImage.put(image.getId(), candidates));
+        int linksAdded = linkCandidates(candidatesByImage);
+        invalidateSearches(userId, images);
+        return new BulkTagResponse(images.size(), candidates.size(), linksAdded);
+    }
+
+    @Override
+    public BulkTagResponse bulkRemoveTags(Long userId, BulkTagRequest request) {
+        Objects.requireNonNull(userId, "userId cannot be null");
+        List<ImageOwnershipView> images = loadOwnedImages(userId, request.imageIds());
+        List<String> keys = normalizeCandidates(toCandidates(request.tagNames(), TagType.CUSTOM, CONFIDENCE_STRONG)).stream()
+                .map(candidate -> TagDictionary.key(candidate.tagName()))
+                .toList();
+
+        Map<Long, Tag> loaded = new HashMap<>();
+        Map<String, TagRef> tags = findTags(keys, loaded);
+        if (tags.isEmpty()) {
+            return new BulkTagResponse(images.size(), 0, 0);
+        }
+        List<Long> imageIds = images.stream().map(ImageOwnershipView::getId).toList();
+        List<Long> tagIds = tagIds(tags.values());
+        Map<Long, Integer> removed = new HashMap<>();
+        for (Object[] link : imageTagRepository.findLinks(imageIds, tagIds)) {
+            removed.merge((Long) link[1], 1, Integer::sum);
+        }
+        if (removed.isEmpty()) {
+            return new BulkTagResponse(images.size(), tags.size(), 0);
+        }
+        int deleted = imageTagRepository.deleteLinks(imageIds, tagIds);
+        for (TagRef tag : tags.values()) {
+            Integer count = removed.get(tag.id());
+            if (count != null) {
+                adjustUsage(tag, -count, loaded.get(tag.id()));
+            }
+        }
+        invalidateSearches(userId, images);
+        return new BulkTagResponse(images.size(), tags.size(), deleted);
     }
 
     @Override
     public List<TagResponse> getPopularTags(int limit) {
         int resolvedLimit = limit <= 0 ? 10 : Math.min(limit, 100);
-        return tagRepository.findTopTags(PageRequest.of(0, resolvedLimit)).stream()
-                .map(tag -> new TagResponse(tag.getId(), tag.getTagName(), tag.getTagType(), tag.getUsageCount()))
+        return popularTagRanking.top(resolvedLimit).stream()
+                .map(entry -> new TagResponse(entry.id(), entry.name(), entry.type(), entry.usageCount()))
+                .toList();
+    }
+
+    @Override
+    public List<TagResponse> suggestTags(String prefix, int limit) {
+        int resolvedLimit = limit <= 0 ? 10 : Math.min(limit, tagSuggestionIndex.maxResults());
+        return tagSuggestionIndex.suggest(prefix, resolvedLimit).stream()
+                .map(entry -> new TagResponse(entry.id(), entry.name(), entry.type(), Math.toIntExact(entry.weight())))
                 .toList();
     }
 
@@ -197,21 +481,6 @@ public class TagServiceImpl implements TagService {
         return candidates;
     }
 
-    private byte[] resolveImageBytes(Image image) {
-        if (image == null || !StringUtils.hasText(image.getFilePath())) {
-            throw new ResourceNotFoundException("Image binary data is not available");
-        }
-        Path path = Paths.get(image.getFilePath());
-        try {
-            if (!Files.exists(path)) {
-                throw new ResourceNotFoundException("Image binary data is not available");
-            }
-            return Files.readAllBytes(path);
-        } catch (IOException ex) {
-            throw new IllegalStateException("Failed to read stored image from disk", ex);
-        }
-    }
-
     private List<String> sanitizeHints(List<String> hints) {
         if (CollectionUtils.isEmpty(hints)) {
             return Collections.emptyList();
@@ -249,62 +518,138 @@ public class TagServiceImpl implements TagService {
             return;
         }
 
-        List<TagCandidate> candidates = rawCandidates.stream()
-                .filter(candidate -> StringUtils.hasText(candidate.tagName()))
-                .map(candidate -> new TagCandidate(normalizeTagName(candidate.tagName()), candidate.tagType(), candidate.confidence()))
-                .filter(candidate -> StringUtils.hasText(candidate.tagName()))
-                .collect(Collectors.collectingAndThen(Collectors.toMap(
-                        candidate -> candidate.tagName().toLowerCase(Locale.ROOT),
-                        Function.identity(),
-                        this::preferHigherConfidence
-                ), map -> new ArrayList<>(map.values())));
-
+        List<TagCandidate> candidates = normalizeCandidates(rawCandidates);
         if (candidates.isEmpty()) {
             return;
         }
 
-        List<ImageTag> newLinks = new ArrayList<>();
+        Map<Long, Tag> loaded = new HashMap<>();
+        Map<String, TagRef> tags = resolveTags(candidates, loaded);
+        Set<Long> linked = new HashSet<>(imageTagRepository.findLinkedTagIds(image.getId(), tagIds(tags.values())));
+        List<ImageTagRepositoryCustom.NewLink> newLinks = new ArrayList<>();
         for (TagCandidate candidate : candidates) {
-            Tag tag = resolveTag(candidate);
-            if (imageTagRepository.existsByImage_IdAndTag_Id(image.getId(), tag.getId())) {
+            TagRef tag = tags.get(TagDictionary.key(candidate.tagName()));
+            if (tag == null || !linked.add(tag.id())) {
                 continue;
             }
-            ImageTag imageTag = new ImageTag();
-            imageTag.setImage(image);
-            imageTag.setTag(tag);
-            imageTag.setConfidence(candidate.confidence());
-            newLinks.add(imageTag);
-            incrementUsage(tag);
+            newLinks.add(new ImageTagRepositoryCustom.NewLink(image.getId(), tag.id(), candidate.confidence()));
+            adjustUsage(tag, 1, loaded.get(tag.id()));
         }
-        if (!newLinks.isEmpty()) {
-            imageTagRepository.saveAll(newLinks);
+        imageTagRepository.insertLinks(newLinks);
+    }
+
+    // links every image to its candidates with one tag resolution, one link query and one insert
+    // batch for the whole set; returns the number of links added
+    private int linkCandidates(Map<Long, List<TagCandidate>> candidatesByImage) {
+        List<TagCandidate> allCandidates = normalizeCandidates(candidatesByImage.values().stream()
+                .flatMap(List::stream)
+                .toList());
+        Map<Long, Tag> loaded = new HashMap<>();
+        Map<String, TagRef> tags = resolveTags(allCandidates, loaded);
+        Map<Long, Set<Long>> linked = new HashMap<>();
+        for (Object[] link : imageTagRepository.findLinks(candidatesByImage.keySet(), tagIds(tags.values()))) {
+            linked.computeIfAbsent((Long) link[0], id -> new HashSet<>()).add((Long) link[1]);
         }
+
+        List<ImageTagRepositoryCustom.NewLink> newLinks = new ArrayList<>();
+        Map<TagRef, Integer> added = new LinkedHashMap<>();
+        candidatesByImage.forEach((imageId, candidates) -> {
+            Set<Long> imageTags = linked.computeIfAbsent(imageId, id -> new HashSet<>());
+            for (TagCandidate candidate : candidates) {
+                TagRef tag = tags.get(TagDictionary.key(candidate.tagName()));
+                if (tag != null && imageTags.add(tag.id())) {
+                    newLinks.add(new ImageTagRepositoryCustom.NewLink(imageId, tag.id(), candidate.confidence()));
+                    added.merge(tag, 1, Integer::sum);
+                }
+            }
+        });
+        imageTagRepository.insertLinks(newLinks);
+        added.forEach((tag, count) -> adjustUsage(tag, count, loaded.get(tag.id())));
+        return newLinks.size();
+    }
+
+    // one candidate per normalized name, keeping the most confident
+    private List<TagCandidate> normalizeCandidates(Collection<TagCandidate> rawCandidates) {
+        return rawCandidates.stream()
+                .filter(candidate -> StringUtils.hasText(candidate.tagName()))
+                .map(candidate -> new TagCandidate(normalizeTagName(candidate.tagName()), candidate.tagType(), candidate.confidence()))
+                .filter(candidate -> StringUtils.hasText(candidate.tagName()))
+                .collect(Collectors.collectingAndThen(Collectors.toMap(
+                        candidate -> TagDictionary.key(candidate.tagName()),
+                        Function.identity(),
+                        this::preferHigherConfidence
+                ), map -> new ArrayList<>(map.values())));
     }
 
     private TagCandidate preferHigherConfidence(TagCandidate left, TagCandidate right) {
         return left.confidence().compareTo(right.confidence()) >= 0 ? left : right;
     }
 
-    private Tag resolveTag(TagCandidate candidate) {
-        return tagRepository.findByTagNameIgnoreCase(candidate.tagName())
-                .orElseGet(() -> {
-                    Tag tag = new Tag();
-                    tag.setTagName(candidate.tagName());
-                    tag.setTagType(candidate.tagType());
-                    tag.setUsageCount(0);
-                    return tagRepository.save(tag);
-                });
+    // names in the dictionary cost nothing; the rest take one query, and the ones still missing one
+    // insert batch plus a query to read them back
+    private Map<String, TagRef> resolveTags(List<TagCandidate> candidates, Map<Long, Tag> loaded) {
+        Map<String, TagRef> resolved = findTags(candidates.stream()
+                .map(candidate -> TagDictionary.key(candidate.tagName()))
+                .toList(), loaded);
+
+        List<TagCandidate> missing = candidates.stream()
+                .filter(candidate -> !resolved.containsKey(TagDictionary.key(candidate.tagName())))
+                .toList();
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        tagRepository.insertMissing(missing.stream()
+                .map(candidate -> new TagRepositoryCustom.NewTag(candidate.tagName(), candidate.tagType()))
+                .toList());
+        List<TagRef> created = collect(tagRepository.findAllByLowerNameIn(missing.stream()
+                .map(candidate -> TagDictionary.key(candidate.tagName()))
+                .toList()), resolved, loaded);
+        created.forEach(tagSuggestionIndex::register);
+        tagDictionary.created(created);
+        return resolved;
+    }
+
+    // existing tags only; names without a tag are left out of the result
+    private Map<String, TagRef> findTags(List<String> keys, Map<Long, Tag> loaded) {
+        TagDictionary.Lookup lookup = tagDictionary.lookup(keys);
+        Map<String, TagRef> resolved = new HashMap<>(lookup.known());
+        if (!lookup.unknown().isEmpty()) {
+            List<TagRef> found = collect(tagRepository.findAllByLowerNameIn(lookup.unknown()), resolved, loaded);
+            tagDictionary.remember(found);
+            tagDictionary.rememberMissing(lookup.unknown().stream()
+                    .filter(key -> !resolved.containsKey(key))
+                    .toList());
+        }
+        return resolved;
+    }
+
+    private static List<Long> tagIds(Collection<TagRef> tags) {
+        return tags.stream().map(TagRef::id).distinct().toList();
+    }
+
+    private List<TagRef> collect(List<Tag> tags, Map<String, TagRef> resolved, Map<Long, Tag> loaded) {
+        List<TagRef> refs = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            TagRef ref = TagRef.of(tag);
+            resolved.put(TagDictionary.key(tag.getTagName()), ref);
+            loaded.put(tag.getId(), tag);
+            refs.add(ref);
+        }
+        return refs;
     }
 
-    private void incrementUsage(Tag tag) {
-        tag.setUsageCount(tag.getUsageCount() + 1);
-        tagRepository.save(tag);
+    // usage_count is owned by TagUsageCounters; a loaded entity only mirrors this transaction's change
+    private void adjustUsage(TagRef tag, int delta, Tag entity) {
+        if (entity != null) {
+            entity.setUsageCount(Math.max(0, entity.getUsageCount() + delta));
+        }
+        tagUsageCounters.add(tag.id(), delta);
+        tagSuggestionIndex.adjustUsage(tag.id(), delta);
+        popularTagRanking.adjust(tag, delta);
     }
 
-    private void decrementUsage(Tag tag) {
-        int next = Math.max(0, tag.getUsageCount() - 1);
-        tag.setUsageCount(next);
-        tagRepository.save(tag);
+    private int currentUsage(Tag tag) {
+        return (int) Math.max(0, tag.getUsageCount() + tagUsageCounters.pending(tag.getId()));
     }
 
     private List<TagCandidate> toCandidates(List<String> tagNames, TagType tagType, BigDecimal confidence) {
@@ -340,6 +685,28 @@ public class TagServiceImpl implements TagService {
         return image;
     }
 
+    // one query for the whole set; ids that are missing or owned by somebody else fail the request
+    private List<ImageOwnershipView> loadOwnedImages(Long userId, List<Long> imageIds) {
+        if (CollectionUtils.isEmpty(imageIds)) {
+            throw new BadRequestException("imageIds cannot be empty");
+        }
+        Set<Long> requested = new HashSet<>(imageIds);
+        List<ImageOwnershipView> images = imageRepository.findByUser_IdAndIdIn(userId, requested);
+        if (images.size() != requested.size()) {
+            throw new BadRequestException("You do not have permission to modify one or more images");
+        }
+        return images;
+    }
+
+    private void invalidateSearches(Image image) {
+        searchCacheVersions.invalidate(image.getUser().getId(), image.getPrivacyLevel() == ImagePrivacyLevel.PUBLIC);
+    }
+
+    private void invalidateSearches(Long ownerId, List<ImageOwnershipView> images) {
+        searchCacheVersions.invalidate(ownerId, images.stream()
+                .anyMatch(image -> image.getPrivacyLevel() == ImagePrivacyLevel.PUBLIC));
+    }
+
     private void ensureImageExists(Long imageId) {
         Objects.requireNonNull(imageId, "imageId cannot be null");
         if (!imageRepository.existsById(imageId)) {
@@ -353,7 +720,7 @@ public class TagServiceImpl implements TagService {
                 tag.getId(),
                 tag.getTagName(),
                 tag.getTagType(),
-                tag.getUsageCount(),
+                currentUsage(tag),
                 imageTag.getConfidence()
         );
     }
@@ -375,4 +742,17 @@ public class TagServiceImpl implements TagService {
 
     private record TagCandidate(String tagName, TagType tagType, BigDecimal confidence) {
     }
+
+    private record SelectedImage(AiImagePayloads.Selection selection, String contentHash) {
+    }
+
+    // batches run one after another, so the counts are never updated concurrently
+    private static final class BatchProgress {
+
+        private final List<Long> failed = new ArrayList<>();
+        private final List<AiTagBatchItem> fromCache = new ArrayList<>();
+        private final Map<Long, String> contentHashes = new HashMap<>();
+        private int tagged;
+        private int linksAdded;
+    }
 }
@@ -0,0 +1,94 @@
+package com.imagemanagement.service.impl;
+
+import com.imagemanagement.dto.request.TimelineGranularity;
+import com.imagemanagement.dto.response.TimelineBucketResponse;
+import com.imagemanagement.entity.Image;
+import com.imagemanagement.exception.BadRequestException;
+import com.imagemanagement.repository.ImageTimelineBucketRepository;
+import com.imagemanagement.service.TimelineService;
+import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.stereotype.Service;
+
+@Service
+@Transactional
+public class TimelineServiceImpl implements TimelineService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1800, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final ImageTimelineBucketRepository bucketRepository;
+
+    public TimelineServiceImpl(ImageTimelineBucketRepository bucketRepository) {
+        this.bucketRepository = bucketRepository;
+    }
+
+    @Override
+    public List<TimelineBucketResponse> getTimeline(Long userId, TimelineGranularity granularity, LocalDate from, LocalDate to) {
+        if (userId == null) {
+            throw new BadRequestException("User id is required");
+        }
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        if (start.isAfter(end)) {
+            throw new BadRequestException("Invalid date range: from must be <= to");
+        }
+        if (granularity == TimelineGranularity.MONTH) {
+            return bucketRepository.findMonths(userId, start, end).stream()
+                    .map(row -> new TimelineBucketResponse(
+                            LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1),
+                            ((Number) row[2]).longValue()))
+                    .toList();
+        }
+        return bucketRepository.findDays(userId, start, end).stream()
+                .map(row -> new TimelineBucketResponse((LocalDate) row[0], ((Number) row[1]).longValue()))
+                .toList();
+    }
+
+    @Override
+    public void recordAdded(Image image) {
+        LocalDate date = bucketDate(image);
+        if (date != null) {
+            bucketRepository.increment(image.getUser().getId(), date, 1);
+        }
+    }
+
+    @Override
+    public void recordRemoved(Image image) {
+        LocalDate date = bucketDate(image);
+        if (date != null) {
+            remove(image.getUser().getId(), date);
+        }
+    }
+
+    @Override
+    public void recordMoved(Long userId, LocalDate previousDate, LocalDate currentDate) {
+        if (Objects.equals(previousDate, currentDate)) {
+            return;
+        }
+        if (previousDate != null) {
+            remove(userId, previousDate);
+        }
+        if (currentDate != null) {
+            bucketRepository.increment(userId, currentDate, 1);
+        }
+    }
+
+    @Override
+    public LocalDate bucketDate(Image image) {
+        if (image == null) {
+            return null;
+        }
+        LocalDateTime takenTime = image.getExifData() != null ? image.getExifData().getTakenTime() : null;
+        LocalDateTime timestamp = takenTime != null ? takenTime : image.getUploadTime();
+        return timestamp != null ? timestamp.toLocalDate() : null;
+    }
+
+    private void remove(Long userId, LocalDate date) {
+        bucketRepository.decrement(userId, date, 1);
+        bucketRepository.deleteIfEmpty(userId, date);
+    }
+}
@@ -26,7 +26,7 @@ public class UserProfileServiceImpl implements UserProfileService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(key = "T(com.imagemanagement.cache.CacheKeyGenerator).userKey(#userId)")
+    @Cacheable(key = "T(com.imagemanagement.cache.CacheKeyGenerator).userKey(#userId)", sync = true)
     public UserResponse getUserProfile(Long userId) {
         Objects.requireNonNull(userId, "userId cannot be null");
         User user = userRepository.findById(userId)
@@ -0,0 +1,255 @@
+package com.imagemanagement.similarity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Burkhard-Keller tree over 64-bit hashes under Hamming distance. A range query only descends into
+ * children whose edge distance lies within {@code [d - r, d + r]} of the probe, which prunes most of
+ * the tree for the small radii used in near-duplicate detection.
+ *
+ * <p>Several ids may share one hash. Removal only detaches the id; nodes left without ids keep
+ * routing queries until {@link #compact()} rebuilds the tree. Not thread-safe.
+ */
+public final class BkTree {
+
+    private Node root;
+    private int size;
+    private int nodeCount;
+    private int emptyNodes;
+
+    public void add(long hash, long id) {
+        if (root == null) {
+            root = new Node(hash, id);
+            nodeCount = 1;
+            size = 1;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance == 0) {
+                boolean wasEmpty = node.idCount == 0;
+                if (node.addId(id)) {
+                    size++;
+                    if (wasEmpty) {
+                        emptyNodes--;
+                    }
+                }
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.setChild(distance, new Node(hash, id));
+                nodeCount++;
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public boolean remove(long hash, long id) {
+        Node node = root;
+        while (node != null) {
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance == 0) {
+                if (!node.removeId(id)) {
+                    return false;
+                }
+                size--;
+                if (node.idCount == 0) {
+                    emptyNodes++;
+                }
+                return true;
+            }
+            node = node.child(distance);
+        }
+        return false;
+    }
+
+    /**
+     * Entries within {@code maxDistance} of {@code hash}, nearest first.
+     */
+    public List<Match> search(long hash, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.idCount; i++) {
+                    matches.add(new Match(node.ids[i], node.hash, distance));
+                }
+            }
+            if (node.children == null) {
+                continue;
+            }
+            int from = Math.max(1, distance - maxDistance);
+            int to = Math.min(node.children.length - 1, distance + maxDistance);
+            for (int edge = from; edge <= to; edge++) {
+                Node child = node.children[edge];
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparingLong(Match::id));
+        return matches;
+    }
+
+    /**
+     * Connected components of the "within {@code maxDistance}" relation, restricted to components
+     * of two or more entries. Largest groups come first; entries inside a group are ordered by id.
+     */
+    public List<List<Match>> groups(int maxDistance) {
+        List<Match> entries = entries();
+        Map<Long, Integer> positions = new HashMap<>(entries.size() * 2);
+        for (int i = 0; i < entries.size(); i++) {
+            positions.put(entries.get(i).id(), i);
+        }
+        int[] parents = new int[entries.size()];
+        Arrays.setAll(parents, i -> i);
+        for (int i = 0; i < entries.size(); i++) {
+            for (Match neighbour : search(entries.get(i).hash(), maxDistance)) {
+                union(parents, i, positions.get(neighbour.id()));
+            }
+        }
+        Map<Integer, List<Match>> components = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            components.computeIfAbsent(find(parents, i), key -> new ArrayList<>()).add(entries.get(i));
+        }
+        List<List<Match>> groups = new ArrayList<>();
+        for (List<Match> component : components.values()) {
+            if (component.size() > 1) {
+                component.sort(Comparator.comparingLong(Match::id));
+                groups.add(component);
+            }
+        }
+        groups.sort(Comparator.<List<Match>>comparingInt(List::size).reversed()
+                .thenComparingLong(group -> group.get(0).id()));
+        return groups;
+    }
+
+    /**
+     * Rebuilds the tree without id-less nodes once they outnumber the live ones.
+     */
+    public void compact() {
+        if (emptyNodes == 0 || emptyNodes * 2 < nodeCount) {
+            return;
+        }
+        List<Match> entries = entries();
+        root = null;
+        size = 0;
+        nodeCount = 0;
+        emptyNodes = 0;
+        entries.forEach(entry -> add(entry.hash(), entry.id()));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private List<Match> entries() {
+        List<Match> entries = new ArrayList<>(size);
+        if (root == null) {
+            return entries;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            for (int i = 0; i < node.idCount; i++) {
+                entries.add(new Match(node.ids[i], node.hash, 0));
+            }
+            if (node.children != null) {
+                for (Node child : node.children) {
+                    if (child != null) {
+                        pending.push(child);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static int find(int[] parents, int index) {
+        while (parents[index] != index) {
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private static void union(int[] parents, int first, int second) {
+        int firstRoot = find(parents, first);
+        int secondRoot = find(parents, second);
+        if (firstRoot != secondRoot) {
+            parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+        }
+    }
+
+    public record Match(long id, long hash, int distance) {
+    }
+
+    private static final class Node {
+
+        private final long hash;
+        private long[] ids;
+        private int idCount;
+        // indexed by edge distance (1..64), grown on demand
+        private Node[] children;
+
+        private Node(long hash, long id) {
+            this.hash = hash;
+            this.ids = new long[] {id};
+            this.idCount = 1;
+        }
+
+        private Node child(int distance) {
+            return children != null && distance < children.length ? children[distance] : null;
+        }
+
+        private void setChild(int distance, Node child) {
+            if (children == null) {
+                children = new Node[distance + 1];
+            } else if (distance >= children.length) {
+                children = Arrays.copyOf(children, distance + 1);
+            }
+            children[distance] = child;
+        }
+
+        private boolean addId(long id) {
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    return false;
+                }
+            }
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+            }
+            ids[idCount++] = id;
+            return true;
+        }
+
+        private boolean removeId(long id) {
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--idCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
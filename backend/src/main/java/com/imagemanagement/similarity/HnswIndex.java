@@ -0,0 +1,335 @@
+package com.imagemanagement.similarity;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Hierarchical navigable small-world graph over {@link QuantizedVector}s with cosine distance.
+ * Each node lives on layers {@code 0..level} (level drawn from an exponential distribution) and
+ * links to at most {@code m} neighbours per layer ({@code 2m} on layer 0). A query descends
+ * greedily through the sparse upper layers, then runs a best-first beam of width {@code ef} on
+ * layer 0, touching a few hundred vectors instead of the whole library.
+ *
+ * <p>Removed ids are tombstoned: they keep routing queries but are never returned. Once tombstones
+ * outnumber live entries, {@link #compact()} rebuilds the graph. Not thread-safe.
+ */
+public final class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357;
+    private static final int FORMAT_VERSION = 1;
+
+    private final int m;
+    private final int maxLinksLayerZero;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(0x5eed);
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount;
+
+    public HnswIndex(int m, int efConstruction) {
+        if (m < 2) {
+            throw new IllegalArgumentException("m must be at least 2");
+        }
+        this.m = m;
+        this.maxLinksLayerZero = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    public void add(long id, long version, QuantizedVector vector) {
+        if (entryPoint >= 0 && nodes.get(entryPoint).vector.dimensions() != vector.dimensions()) {
+            throw new IllegalArgumentException("Expected " + nodes.get(entryPoint).vector.dimensions()
+                    + " dimensions but got " + vector.dimensions());
+        }
+        remove(id);
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        int index = nodes.size();
+        nodes.add(new Node(id, version, vector, level, m, maxLinksLayerZero));
+        positions.put(id, index);
+        if (entryPoint < 0) {
+            entryPoint = index;
+            maxLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            current = greedyClosest(vector, current, layer);
+        }
+        for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+            List<Candidate> candidates = searchLayer(vector, current, efConstruction, layer);
+            int linked = 0;
+            for (Candidate candidate : candidates) {
+                if (linked == m) {
+                    break;
+                }
+                link(index, candidate.index, layer);
+                link(candidate.index, index, layer);
+                linked++;
+            }
+            current = candidates.get(0).index;
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = index;
+        }
+    }
+
+    public boolean remove(long id) {
+        Integer index = positions.remove(id);
+        if (index == null) {
+            return false;
+        }
+        nodes.get(index).deleted = true;
+        deletedCount++;
+        return true;
+    }
+
+    /**
+     * The {@code k} live entries most similar to {@code query}, most similar first.
+     */
+    public List<Match> search(QuantizedVector query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > 0; layer--) {
+            current = greedyClosest(query, current, layer);
+        }
+        // tombstones occupy beam slots, so widen the beam by up to as many as there are
+        int beam = Math.max(ef, k) + Math.min(deletedCount, Math.max(ef, k));
+        List<Match> matches = new ArrayList<>(k);
+        for (Candidate candidate : searchLayer(query, current, beam, 0)) {
+            Node node = nodes.get(candidate.index);
+            if (!node.deleted) {
+                matches.add(new Match(node.id, 1 - candidate.distance));
+                if (matches.size() == k) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    public Long version(long id) {
+        Integer index = positions.get(id);
+        return index == null ? null : nodes.get(index).version;
+    }
+
+    public Set<Long> ids() {
+        return new HashSet<>(positions.keySet());
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public boolean compact() {
+        if (deletedCount == 0 || deletedCount <= positions.size()) {
+            return false;
+        }
+        List<Node> live = nodes.stream().filter(node -> !node.deleted).toList();
+        nodes.clear();
+        positions.clear();
+        entryPoint = -1;
+        maxLevel = -1;
+        deletedCount = 0;
+        live.forEach(node -> add(node.id, node.version, node.vector));
+        return true;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(m);
+        out.writeInt(efConstruction);
+        out.writeInt(nodes.size());
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (Node node : nodes) {
+            out.writeLong(node.id);
+            out.writeLong(node.version);
+            out.writeBoolean(node.deleted);
+            out.writeFloat(node.vector.scale());
+            out.writeInt(node.vector.dimensions());
+            out.write(node.vector.values());
+            out.writeInt(node.links.length);
+            for (int layer = 0; layer < node.links.length; layer++) {
+                out.writeInt(node.linkCounts[layer]);
+                for (int i = 0; i < node.linkCounts[layer]; i++) {
+                    out.writeInt(node.links[layer][i]);
+                }
+            }
+        }
+    }
+
+    public static HnswIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not an HNSW index file of a supported version");
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt());
+        int count = in.readInt();
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        for (int position = 0; position < count; position++) {
+            long id = in.readLong();
+            long version = in.readLong();
+            boolean deleted = in.readBoolean();
+            float scale = in.readFloat();
+            byte[] values = new byte[in.readInt()];
+            in.readFully(values);
+            int layers = in.readInt();
+            Node node = new Node(id, version, new QuantizedVector(values, scale), layers - 1, index.m,
+                    index.maxLinksLayerZero);
+            for (int layer = 0; layer < layers; layer++) {
+                int links = in.readInt();
+                for (int i = 0; i < links; i++) {
+                    node.links[layer][i] = in.readInt();
+                }
+                node.linkCounts[layer] = links;
+            }
+            node.deleted = deleted;
+            index.nodes.add(node);
+            if (deleted) {
+                index.deletedCount++;
+            } else {
+                index.positions.put(id, position);
+            }
+        }
+        return index;
+    }
+
+    private int greedyClosest(QuantizedVector query, int start, int layer) {
+        int current = start;
+        double currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.linkCounts[layer]; i++) {
+                int neighbour = node.links[layer][i];
+                double neighbourDistance = distance(query, neighbour);
+                if (neighbourDistance < currentDistance) {
+                    current = neighbour;
+                    currentDistance = neighbourDistance;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // best-first beam search on one layer; returns up to ef candidates, nearest first
+    private List<Candidate> searchLayer(QuantizedVector query, int entry, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        visited.set(entry);
+        Candidate start = new Candidate(entry, distance(query, entry));
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Candidate.NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Candidate.NEAREST_FIRST.reversed());
+        frontier.add(start);
+        results.add(start);
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (results.size() >= ef && closest.distance > results.peek().distance) {
+                break;
+            }
+            Node node = nodes.get(closest.index);
+            for (int i = 0; i < node.linkCounts[layer]; i++) {
+                int neighbour = node.links[layer][i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                double neighbourDistance = distance(query, neighbour);
+                if (results.size() < ef || neighbourDistance < results.peek().distance) {
+                    Candidate candidate = new Candidate(neighbour, neighbourDistance);
+                    frontier.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        List<Candidate> ordered = new ArrayList<>(results);
+        ordered.sort(Candidate.NEAREST_FIRST);
+        return ordered;
+    }
+
+    // adds target to source's links, dropping source's farthest link when over capacity
+    private void link(int source, int target, int layer) {
+        Node node = nodes.get(source);
+        int capacity = layer == 0 ? maxLinksLayerZero : m;
+        int[] links = node.links[layer];
+        int count = node.linkCounts[layer];
+        for (int i = 0; i < count; i++) {
+            if (links[i] == target) {
+                return;
+            }
+        }
+        if (count < capacity) {
+            links[count] = target;
+            node.linkCounts[layer] = count + 1;
+            return;
+        }
+        int farthest = -1;
+        double farthestDistance = distance(node.vector, target);
+        for (int i = 0; i < count; i++) {
+            double linkDistance = distance(node.vector, links[i]);
+            if (linkDistance > farthestDistance) {
+                farthest = i;
+                farthestDistance = linkDistance;
+            }
+        }
+        if (farthest >= 0) {
+            links[farthest] = target;
+        }
+    }
+
+    private double distance(QuantizedVector query, int index) {
+        return 1 - query.dot(nodes.get(index).vector);
+    }
+
+    public record Match(long id, double similarity) {
+    }
+
+    private record Candidate(int index, double distance) {
+
+        private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    }
+
+    private static final class Node {
+
+        private final long id;
+        private final long version;
+        private final QuantizedVector vector;
+        private final int[][] links;
+        private final int[] linkCounts;
+        private boolean deleted;
+
+        private Node(long id, long version, QuantizedVector vector, int level, int m, int maxLinksLayerZero) {
+            this.id = id;
+            this.version = version;
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                links[layer] = new int[layer == 0 ? maxLinksLayerZero : m];
+            }
+        }
+    }
+}
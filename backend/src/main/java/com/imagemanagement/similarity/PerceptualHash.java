@@ -0,0 +1,65 @@
+package com.imagemanagement.similarity;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 64-bit difference hash (dHash). The image is reduced to a 9x8 grid of mean luminance and each
+ * bit records whether a cell is brighter than its right-hand neighbour, so resizing, re-encoding
+ * and mild tone changes leave most bits untouched.
+ */
+public final class PerceptualHash {
+
+    public static final int BITS = 64;
+
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 8;
+
+    private PerceptualHash() {
+    }
+
+    public static long dHash(BufferedImage image) {
+        double[] grid = luminanceGrid(image);
+        long hash = 0L;
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH - 1; x++) {
+                hash <<= 1;
+                if (grid[y * GRID_WIDTH + x] > grid[y * GRID_WIDTH + x + 1]) {
+                    hash |= 1L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    // box-filter average per cell; cheaper and more stable than letting Java2D interpolate down to 9px
+    private static double[] luminanceGrid(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[] sums = new double[GRID_WIDTH * GRID_HEIGHT];
+        int[] counts = new int[GRID_WIDTH * GRID_HEIGHT];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = (int) ((long) y * GRID_HEIGHT / height) * GRID_WIDTH;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int red = (rgb >>> 16) & 0xFF;
+                int green = (rgb >>> 8) & 0xFF;
+                int blue = rgb & 0xFF;
+                int cell = cellRow + (int) ((long) x * GRID_WIDTH / width);
+                sums[cell] += 0.299 * red + 0.587 * green + 0.114 * blue;
+                counts[cell]++;
+            }
+        }
+        for (int i = 0; i < sums.length; i++) {
+            if (counts[i] > 0) {
+                sums[i] /= counts[i];
+            }
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,126 @@
+package com.imagemanagement.similarity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imagemanagement.cache.AfterCommit;
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.config.SimilarityProperties;
+import com.imagemanagement.repository.ImageRepository;
+import com.imagemanagement.repository.PerceptualHashView;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user {@link BkTree} of image perceptual hashes. A user's tree is built from the database on
+ * first query and kept up to date by the write paths on this node; other nodes are told to drop
+ * their copy through the {@link ClusterInvalidationBus} and rebuild it on next use. Both happen only
+ * once the write commits, so a rolled-back change never reaches a tree here or elsewhere.
+ */
+@Component
+public class PerceptualHashIndex {
+
+    public static final String CHANNEL = "phash";
+
+    private final ImageRepository imageRepository;
+    private final ClusterInvalidationBus invalidationBus;
+    private final Cache<Long, UserIndex> indexes;
+
+    public PerceptualHashIndex(ImageRepository imageRepository,
+            SimilarityProperties properties,
+            ClusterInvalidationBus invalidationBus) {
+        this.imageRepository = imageRepository;
+        this.invalidationBus = invalidationBus;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(properties.getIndexMaximumUsers())
+                .expireAfterWrite(properties.getIndexTtl())
+                .build();
+        invalidationBus.subscribe(CHANNEL, message -> indexes.invalidate(Long.valueOf(message)));
+    }
+
+    public List<BkTree.Match> search(Long userId, long hash, int maxDistance) {
+        return index(userId).read(tree -> tree.search(hash, maxDistance));
+    }
+
+    public List<List<BkTree.Match>> groups(Long userId, int maxDistance) {
+        return index(userId).read(tree -> tree.groups(maxDistance));
+    }
+
+    public void add(Long userId, Long imageId, Long hash) {
+        if (hash == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            update(userId, tree -> tree.add(hash, imageId));
+            invalidationBus.publish(CHANNEL, String.valueOf(userId));
+        });
+    }
+
+    public void remove(Long userId, Long imageId, Long hash) {
+        if (hash == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            update(userId, tree -> {
+                tree.remove(hash, imageId);
+                tree.compact();
+            });
+            invalidationBus.publish(CHANNEL, String.valueOf(userId));
+        });
+    }
+
+    // compute waits for a load of the same user that is still running and then applies the change
+    // to its result; adding and removing are idempotent, so it does not matter whether the load
+    // already saw the committed row
+    private void update(Long userId, Consumer<BkTree> change) {
+        indexes.asMap().compute(userId, (id, index) -> {
+            if (index != null) {
+                index.write(change);
+            }
+            return index;
+        });
+    }
+
+    private UserIndex index(Long userId) {
+        return indexes.get(userId, this::load);
+    }
+
+    private UserIndex load(Long userId) {
+        BkTree tree = new BkTree();
+        for (PerceptualHashView view : imageRepository.findByUser_IdAndPerceptualHashIsNotNull(userId)) {
+            tree.add(view.getPerceptualHash(), view.getId());
+        }
+        return new UserIndex(tree);
+    }
+
+    private static final class UserIndex {
+
+        private final BkTree tree;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private UserIndex(BkTree tree) {
+            this.tree = tree;
+        }
+
+        private <T> T read(Function<BkTree, T> query) {
+            lock.readLock().lock();
+            try {
+                return query.apply(tree);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void write(Consumer<BkTree> update) {
+            lock.writeLock().lock();
+            try {
+                update.accept(tree);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
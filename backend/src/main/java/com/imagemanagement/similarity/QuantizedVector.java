@@ -0,0 +1,66 @@
+package com.imagemanagement.similarity;
+
+/**
+ * Unit-length vector stored as symmetric int8: {@code value[i] ~= values[i] * scale}. A 512-d
+ * embedding takes 512 bytes instead of 2 KiB, and the dot product runs on integers with a single
+ * float multiply at the end.
+ */
+public final class QuantizedVector {
+
+    private final byte[] values;
+    private final float scale;
+
+    public QuantizedVector(byte[] values, float scale) {
+        this.values = values;
+        this.scale = scale;
+    }
+
+    public static QuantizedVector quantize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += (double) value * value;
+        }
+        norm = Math.sqrt(norm);
+        float maxAbs = 0f;
+        for (float value : vector) {
+            maxAbs = Math.max(maxAbs, Math.abs((float) (value / norm)));
+        }
+        byte[] values = new byte[vector.length];
+        if (norm == 0 || maxAbs == 0f) {
+            return new QuantizedVector(values, 0f);
+        }
+        float scale = maxAbs / 127f;
+        for (int i = 0; i < vector.length; i++) {
+            values[i] = (byte) Math.round(vector[i] / norm / scale);
+        }
+        return new QuantizedVector(values, scale);
+    }
+
+    /**
+     * Approximate cosine similarity; both vectors were normalised before quantisation.
+     */
+    public float dot(QuantizedVector other) {
+        byte[] mine = values;
+        byte[] theirs = other.values;
+        if (mine.length != theirs.length) {
+            throw new IllegalArgumentException("Vector dimensions differ: " + mine.length + " vs " + theirs.length);
+        }
+        int sum = 0;
+        for (int i = 0; i < mine.length; i++) {
+            sum += mine[i] * theirs[i];
+        }
+        return sum * scale * other.scale;
+    }
+
+    public int dimensions() {
+        return values.length;
+    }
+
+    public byte[] values() {
+        return values;
+    }
+
+    public float scale() {
+        return scale;
+    }
+}
@@ -0,0 +1,233 @@
+package com.imagemanagement.similarity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.imagemanagement.cache.AfterCommit;
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.config.SimilarityProperties;
+import com.imagemanagement.entity.ImageEmbedding;
+import com.imagemanagement.repository.EmbeddingVersionView;
+import com.imagemanagement.repository.ImageEmbeddingRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link HnswIndex} per user and embedding model. Indexes are kept on disk between restarts;
+ * on load the file is reconciled against {@code image_embeddings} by version, so only embeddings
+ * written since the last flush are re-inserted and vanished ones are dropped. A lost or corrupt
+ * file therefore only costs a rebuild, never correctness.
+ *
+ * <p>Writes reach the graph, and other nodes hear about them, only once the transaction that stored
+ * the embedding commits.
+ */
+@Component
+public class VectorIndexStore {
+
+    public static final String CHANNEL = "vectors";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VectorIndexStore.class);
+    private static final String FILE_SUFFIX = ".hnsw";
+
+    private final ImageEmbeddingRepository embeddingRepository;
+    private final SimilarityProperties.Vector properties;
+    private final ClusterInvalidationBus invalidationBus;
+    private final Path directory;
+    private final Cache<IndexKey, UserIndex> indexes;
+
+    public VectorIndexStore(ImageEmbeddingRepository embeddingRepository,
+            SimilarityProperties similarityProperties,
+            ClusterInvalidationBus invalidationBus) {
+        this.embeddingRepository = embeddingRepository;
+        this.properties = similarityProperties.getVector();
+        this.invalidationBus = invalidationBus;
+        this.directory = Paths.get(properties.getIndexDir()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not initialize vector index directory", ex);
+        }
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(properties.getIndexMaximumUsers())
+                .removalListener((IndexKey key, UserIndex index, RemovalCause cause) -> {
+                    if (key != null && index != null) {
+                        persist(key, index);
+                    }
+                })
+                .build();
+        invalidationBus.subscribe(CHANNEL, message -> indexes.invalidate(IndexKey.parse(message)));
+    }
+
+    public List<HnswIndex.Match> search(Long userId, String model, QuantizedVector query, int k) {
+        return index(new IndexKey(userId, model)).read(tree -> tree.search(query, k, properties.getEfSearch()));
+    }
+
+    public void put(Long userId, String model, long imageId, long version, QuantizedVector vector) {
+        IndexKey key = new IndexKey(userId, model);
+        AfterCommit.run(() -> {
+            UserIndex index = indexes.getIfPresent(key);
+            if (index != null) {
+                index.write(graph -> graph.add(imageId, version, vector));
+                flushIfDue(key, index);
+            }
+            invalidationBus.publish(CHANNEL, key.toString());
+        });
+    }
+
+    public void remove(Long userId, String model, long imageId) {
+        IndexKey key = new IndexKey(userId, model);
+        AfterCommit.run(() -> {
+            UserIndex index = indexes.getIfPresent(key);
+            if (index != null) {
+                index.write(graph -> {
+                    graph.remove(imageId);
+                    graph.compact();
+                });
+                flushIfDue(key, index);
+            }
+            invalidationBus.publish(CHANNEL, key.toString());
+        });
+    }
+
+    @PreDestroy
+    public void flush() {
+        indexes.asMap().forEach(this::persist);
+    }
+
+    private UserIndex index(IndexKey key) {
+        return indexes.get(key, this::load);
+    }
+
+    private UserIndex load(IndexKey key) {
+        HnswIndex graph = readFile(key);
+        Map<Long, Long> versions = embeddingRepository.findByUserIdAndModel(key.userId(), key.model()).stream()
+                .collect(Collectors.toMap(EmbeddingVersionView::getImageId, EmbeddingVersionView::getVersion));
+
+        int changes = 0;
+        for (Long id : graph.ids()) {
+            if (!versions.containsKey(id)) {
+                graph.remove(id);
+                changes++;
+            }
+        }
+        List<Long> stale = versions.entrySet().stream()
+                .filter(entry -> !Objects.equals(graph.version(entry.getKey()), entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        for (ImageEmbedding embedding : embeddingRepository.findAllById(stale)) {
+            graph.add(embedding.getImageId(), embedding.getVersion(), embedding.toVector());
+            changes++;
+        }
+        graph.compact();
+        UserIndex index = new UserIndex(graph);
+        index.pendingChanges = changes;
+        return index;
+    }
+
+    private HnswIndex readFile(IndexKey key) {
+        Path file = directory.resolve(key.fileName());
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                return HnswIndex.readFrom(in);
+            } catch (IOException ex) {
+                LOGGER.warn("Discarding unreadable vector index {}: {}", file, ex.getMessage());
+            }
+        }
+        return new HnswIndex(properties.getM(), properties.getEfConstruction());
+    }
+
+    private void flushIfDue(IndexKey key, UserIndex index) {
+        if (index.pendingChanges >= properties.getFlushEvery()) {
+            persist(key, index);
+        }
+    }
+
+    private void persist(IndexKey key, UserIndex index) {
+        if (index.pendingChanges == 0) {
+            return;
+        }
+        Path file = directory.resolve(key.fileName());
+        Path temp = directory.resolve(key.fileName() + ".tmp");
+        index.read(graph -> {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                graph.writeTo(out);
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to write vector index {}: {}", file, ex.getMessage());
+                return null;
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                index.pendingChanges = 0;
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to replace vector index {}: {}", file, ex.getMessage());
+            }
+            return null;
+        });
+    }
+
+    private record IndexKey(Long userId, String model) {
+
+        static IndexKey parse(String message) {
+            int separator = message.indexOf('\t');
+            return new IndexKey(Long.valueOf(message.substring(0, separator)), message.substring(separator + 1));
+        }
+
+        String fileName() {
+            return userId + "-" + model.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_SUFFIX;
+        }
+
+        @Override
+        public String toString() {
+            return userId + "\t" + model;
+        }
+    }
+
+    private static final class UserIndex {
+
+        private final HnswIndex graph;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile int pendingChanges;
+
+        private UserIndex(HnswIndex graph) {
+            this.graph = graph;
+        }
+
+        private <T> T read(Function<HnswIndex, T> query) {
+            lock.readLock().lock();
+            try {
+                return query.apply(graph);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void write(Consumer<HnswIndex> update) {
+            lock.writeLock().lock();
+            try {
+                update.accept(graph);
+                pendingChanges++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
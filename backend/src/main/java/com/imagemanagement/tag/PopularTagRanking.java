@@ -0,0 +1,141 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.cache.AfterCommit;
+import com.imagemanagement.config.TagProperties;
+import com.imagemanagement.entity.Tag;
+import com.imagemanagement.entity.enums.TagType;
+import com.imagemanagement.repository.TagRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The most used tags, ordered like {@link TagRepository#findTopTags}, kept in memory so that
+ * popular-tag requests never query the database. The window holds the top {@code windowSize} tags
+ * and follows usage changes of the tags inside it; while it has room it holds every tag, so tags
+ * seen for the first time are new and enter it directly.
+ *
+ * <p>Once the window is full, a tag outside it is not tracked and a tag whose usage falls stays in
+ * it, so the tail can be slightly off until the next reconciliation. Reconciliation reloads the
+ * window from the database, which also picks up usage recorded by other nodes, and adds the usage
+ * {@link TagUsageCounters} has not flushed yet.
+ */
+@Component
+public class PopularTagRanking {
+
+    static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::usageCount).reversed()
+            .thenComparing(Entry::createdTime, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingLong(Entry::id).reversed());
+
+    private final TagRepository tagRepository;
+    private final TagUsageCounters usageCounters;
+    private final int windowSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private volatile boolean seeded;
+
+    public PopularTagRanking(TagRepository tagRepository, TagUsageCounters usageCounters, TagProperties properties) {
+        this.tagRepository = tagRepository;
+        this.usageCounters = usageCounters;
+        this.windowSize = properties.getPopular().getWindowSize();
+    }
+
+    public List<Entry> top(int limit) {
+        if (!seeded) {
+            reconcile();
+        }
+        lock.readLock().lock();
+        try {
+            List<Entry> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            Iterator<Entry> iterator = ranked.iterator();
+            while (result.size() < limit && iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a usage change once the surrounding transaction commits.
+     */
+    public void adjust(TagRef tag, int delta) {
+        AfterCommit.run(() -> apply(tag, delta));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tags.popular.reconcile-interval:PT5M}",
+            initialDelayString = "${app.tags.popular.reconcile-interval:PT5M}")
+    public void reconcile() {
+        // usage buffered on this node is not in the rows yet; leaving it out would roll the ranking back
+        List<Entry> loaded = tagRepository.findTopTags(PageRequest.of(0, windowSize)).stream()
+                .map(Entry::of)
+                .map(entry -> entry.withUsageCount((int) Math.max(0, entry.usageCount() + usageCounters.pending(entry.id()))))
+                .toList();
+        lock.writeLock().lock();
+        try {
+            ranked.clear();
+            entries.clear();
+            for (Entry entry : loaded) {
+                ranked.add(entry);
+                entries.put(entry.id(), entry);
+            }
+            seeded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(TagRef tag, int delta) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(tag.id());
+            Entry next;
+            if (previous != null) {
+                ranked.remove(previous);
+                next = previous.withUsageCount(Math.max(0, previous.usageCount() + delta));
+            } else if (ranked.size() < windowSize) {
+                next = new Entry(tag.id(), tag.name(), tag.type(), Math.max(0, delta), tag.createdTime());
+            } else {
+                return;
+            }
+            ranked.add(next);
+            entries.put(next.id(), next);
+            if (ranked.size() > windowSize) {
+                entries.remove(ranked.pollLast().id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public record Entry(long id, String name, TagType type, int usageCount, LocalDateTime createdTime) {
+
+        static Entry of(Tag tag) {
+            return new Entry(tag.getId(), tag.getTagName(), tag.getTagType(),
+                    tag.getUsageCount() == null ? 0 : tag.getUsageCount(), tag.getCreatedTime());
+        }
+
+        Entry withUsageCount(int newUsageCount) {
+            return new Entry(id, name, type, newUsageCount, createdTime);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.imagemanagement.tag;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.imagemanagement.cache.AfterCommit;
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.config.TagProperties;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process-wide dictionary from normalized tag name to {@link TagRef}, so that resolving a tag that
+ * has been seen before is a hash lookup instead of a query. Names that had no tag are remembered
+ * as missing for a short while. Keys and names are interned: the few hundred auto-tag names that
+ * every upload produces map to one string instance each.
+ *
+ * <p>Tags only enter the dictionary once the transaction that read or created them commits. New
+ * tags are announced on the {@link ClusterInvalidationBus} so other nodes drop a negative entry for
+ * the name; anything that deletes a tag has to go through {@link #evict(String)}.
+ */
+@Component
+public class TagDictionary {
+
+    public static final String CHANNEL = "tag-names";
+
+    private static final Optional<TagRef> MISSING = Optional.empty();
+
+    private final Cache<String, Optional<TagRef>> entries;
+    private final ClusterInvalidationBus invalidationBus;
+
+    public TagDictionary(TagProperties properties, ClusterInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+        long negativeTtlNanos = properties.getDictionary().getNegativeTtl().toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getDictionary().getMaximumSize())
+                .expireAfter(new Expiry<String, Optional<TagRef>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<TagRef> value, long currentTime) {
+                        return value.isPresent() ? Long.MAX_VALUE : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<TagRef> value, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<TagRef> value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        invalidationBus.subscribe(CHANNEL, entries::invalidate);
+    }
+
+    public static String key(String tagName) {
+        return tagName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits normalized names into known tags, names known to have no tag and names not cached.
+     */
+    public Lookup lookup(Collection<String> keys) {
+        Map<String, TagRef> known = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String key : keys) {
+            Optional<TagRef> entry = entries.getIfPresent(key);
+            if (entry == null) {
+                unknown.add(key);
+            } else if (entry.isPresent()) {
+                known.put(key, entry.get());
+            } else {
+                missing.add(key);
+            }
+        }
+        return new Lookup(known, missing, unknown);
+    }
+
+    /**
+     * Caches tags read from the database once the surrounding transaction commits.
+     */
+    public void remember(Collection<TagRef> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<TagRef> snapshot = List.copyOf(tags);
+        AfterCommit.run(() -> snapshot.forEach(this::put));
+    }
+
+    /**
+     * Caches names the database had no tag for. A tag cached in the meantime is kept.
+     */
+    public void rememberMissing(Collection<String> keys) {
+        for (String key : keys) {
+            entries.asMap().putIfAbsent(key.intern(), MISSING);
+        }
+    }
+
+    /**
+     * Caches tags created by the surrounding transaction once it commits and tells other nodes to
+     * forget that their names were missing.
+     */
+    public void created(Collection<TagRef> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<TagRef> snapshot = List.copyOf(tags);
+        AfterCommit.run(() -> snapshot.forEach(tag -> {
+            put(tag);
+            invalidationBus.publish(CHANNEL, key(tag.name()));
+        }));
+    }
+
+    public void evict(String tagName) {
+        String key = key(tagName);
+        entries.invalidate(key);
+        invalidationBus.publish(CHANNEL, key);
+    }
+
+    private void put(TagRef tag) {
+        TagRef interned = new TagRef(tag.id(), tag.name().intern(), tag.type(), tag.createdTime());
+        entries.put(key(tag.name()).intern(), Optional.of(interned));
+    }
+
+    public record Lookup(Map<String, TagRef> known, Set<String> missing, List<String> unknown) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.entity.enums.TagType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Radix trie over lower-cased tag names. Every node caches the {@code topK} heaviest entries of its
+ * subtree, so a completion is one walk down the prefix followed by a copy of that node's list,
+ * independent of how many tags share the prefix.
+ *
+ * <p>Inserting a name or changing a weight re-ranks the cached lists along the affected path only.
+ * Not thread-safe.
+ */
+public final class TagPrefixTrie {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::key);
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final Map<Long, String> keysById = new HashMap<>();
+
+    public TagPrefixTrie(int topK) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK must be positive");
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Adds the tag or, when a tag with the same name is already present, replaces it.
+     */
+    public void put(long id, String name, TagType type, long weight) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        String previousKey = keysById.put(id, key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            remove(previousKey);
+        }
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.child(key.charAt(offset));
+            if (child == null) {
+                child = new Node(key.substring(offset));
+                node.addChild(child);
+                path.add(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, key, offset);
+            if (common < child.label.length()) {
+                child = split(node, child, common);
+            }
+            path.add(child);
+            node = child;
+            offset += common;
+        }
+        if (node.entry != null && node.entry.id() != id) {
+            keysById.remove(node.entry.id());
+        }
+        node.entry = new Entry(id, name, key, type, weight);
+        rerank(path);
+    }
+
+    /**
+     * Changes the weight of a tag that is already indexed; unknown ids are ignored.
+     */
+    public boolean updateWeight(long id, long weight) {
+        String key = keysById.get(id);
+        if (key == null) {
+            return false;
+        }
+        List<Node> path = path(key);
+        Node node = path.get(path.size() - 1);
+        node.entry = node.entry.withWeight(weight);
+        rerank(path);
+        return true;
+    }
+
+    /**
+     * Adds {@code delta} to the weight of an indexed tag, never going below zero.
+     */
+    public boolean adjustWeight(long id, long delta) {
+        String key = keysById.get(id);
+        if (key == null) {
+            return false;
+        }
+        List<Node> path = path(key);
+        Node node = path.get(path.size() - 1);
+        node.entry = node.entry.withWeight(Math.max(0, node.entry.weight() + delta));
+        rerank(path);
+        return true;
+    }
+
+    /**
+     * Returns up to {@code limit} (capped at {@code topK}) tags whose name starts with the prefix,
+     * heaviest first. A blank prefix ranks over all tags.
+     */
+    public List<Entry> complete(String prefix, int limit) {
+        String key = prefix == null ? "" : normalize(prefix);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node child = node.child(key.charAt(offset));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, key, offset);
+            if (offset + common == key.length()) {
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            node = child;
+            offset += common;
+        }
+        int count = Math.min(Math.max(limit, 0), node.top.length);
+        return List.of(Arrays.copyOf(node.top, count));
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    private void remove(String key) {
+        List<Node> path = path(key);
+        path.get(path.size() - 1).entry = null;
+        rerank(path);
+    }
+
+    // the path for a key known to be present, root first
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            node = node.child(key.charAt(offset));
+            path.add(node);
+            offset += node.label.length();
+        }
+        return path;
+    }
+
+    private Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.addChild(child);
+        middle.top = child.top;
+        parent.replaceChild(middle);
+        return middle;
+    }
+
+    private void rerank(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>();
+            if (node.entry != null) {
+                candidates.add(node.entry);
+            }
+            for (Node child : node.children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            node.top = candidates.subList(0, Math.min(topK, candidates.size())).toArray(NO_ENTRIES);
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record Entry(long id, String name, String key, TagType type, long weight) {
+
+        Entry withWeight(long newWeight) {
+            return new Entry(id, name, key, type, newWeight);
+        }
+    }
+
+    private static final class Node {
+
+        private String label;
+        private Entry entry;
+        private Entry[] top = NO_ENTRIES;
+        // children ordered by the first character of their label
+        private char[] firsts = new char[0];
+        private Node[] children = new Node[0];
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int index = Arrays.binarySearch(firsts, first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node child) {
+            int index = -Arrays.binarySearch(firsts, child.label.charAt(0)) - 1;
+            char[] nextFirsts = new char[firsts.length + 1];
+            Node[] nextChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, nextFirsts, 0, index);
+            System.arraycopy(children, 0, nextChildren, 0, index);
+            nextFirsts[index] = child.label.charAt(0);
+            nextChildren[index] = child;
+            System.arraycopy(firsts, index, nextFirsts, index + 1, firsts.length - index);
+            System.arraycopy(children, index, nextChildren, index + 1, children.length - index);
+            firsts = nextFirsts;
+            children = nextChildren;
+        }
+
+        private void replaceChild(Node child) {
+            children[Arrays.binarySearch(firsts, child.label.charAt(0))] = child;
+        }
+    }
+}
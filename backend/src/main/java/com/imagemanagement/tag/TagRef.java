@@ -0,0 +1,16 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.entity.Tag;
+import com.imagemanagement.entity.enums.TagType;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable identity of a tag, enough to link it and to place it in the in-memory tag structures
+ * without loading the entity.
+ */
+public record TagRef(long id, String name, TagType type, LocalDateTime createdTime) {
+
+    public static TagRef of(Tag tag) {
+        return new TagRef(tag.getId(), tag.getTagName(), tag.getTagType(), tag.getCreatedTime());
+    }
+}
@@ -0,0 +1,151 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.cache.AfterCommit;
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.config.TagProperties;
+import com.imagemanagement.entity.enums.TagType;
+import com.imagemanagement.repository.TagRepository;
+import com.imagemanagement.repository.TagSummaryView;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autocomplete over all tag names, weighted by usage. The trie is built from the database on first
+ * use and then maintained by the tag write paths once their transaction commits. New tags are
+ * announced on the {@link ClusterInvalidationBus} so every node can complete them; usage weights are
+ * only tracked locally and catch up with other nodes when {@link #reload()} runs, every
+ * {@code app.tags.suggest.reload-interval}.
+ */
+@Component
+public class TagSuggestionIndex {
+
+    public static final String CHANNEL = "tags";
+
+    private static final char SEPARATOR = '\t';
+
+    private final TagRepository tagRepository;
+    private final TagUsageCounters usageCounters;
+    private final ClusterInvalidationBus invalidationBus;
+    private final int maxResults;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile TagPrefixTrie trie;
+
+    public TagSuggestionIndex(TagRepository tagRepository,
+            TagUsageCounters usageCounters,
+            TagProperties properties,
+            ClusterInvalidationBus invalidationBus) {
+        this.tagRepository = tagRepository;
+        this.usageCounters = usageCounters;
+        this.invalidationBus = invalidationBus;
+        this.maxResults = properties.getSuggest().getMaxResults();
+        invalidationBus.subscribe(CHANNEL, this::onRemoteTag);
+    }
+
+    public List<TagPrefixTrie.Entry> suggest(String prefix, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return trie.complete(prefix, Math.min(limit, maxResults));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int maxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Makes a newly created tag completable here and on the other nodes.
+     */
+    public void register(TagRef tag) {
+        AfterCommit.run(() -> {
+            put(tag.id(), tag.name(), tag.type(), 0);
+            invalidationBus.publish(CHANNEL, tag.id() + String.valueOf(SEPARATOR) + tag.type() + SEPARATOR + 0
+                    + SEPARATOR + tag.name());
+        });
+    }
+
+    public void adjustUsage(long tagId, int delta) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (trie != null) {
+                    trie.adjustWeight(tagId, delta);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the trie from the database, picking up usage changes made on other nodes. A trie that
+     * was never used stays unloaded.
+     */
+    @Scheduled(fixedDelayString = "${app.tags.suggest.reload-interval:PT5M}",
+            initialDelayString = "${app.tags.suggest.reload-interval:PT5M}")
+    public void reload() {
+        if (trie == null) {
+            return;
+        }
+        TagPrefixTrie loaded = load();
+        lock.writeLock().lock();
+        try {
+            trie = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (trie != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        TagPrefixTrie loaded = load();
+        lock.writeLock().lock();
+        try {
+            if (trie == null) {
+                trie = loaded;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private TagPrefixTrie load() {
+        TagPrefixTrie loaded = new TagPrefixTrie(maxResults);
+        for (TagSummaryView view : tagRepository.findAllSummaries()) {
+            // usage buffered on this node is not in the row yet and would otherwise be lost until the flush
+            long usage = (view.getUsageCount() == null ? 0 : view.getUsageCount()) + usageCounters.pending(view.getId());
+            loaded.put(view.getId(), view.getTagName(), view.getTagType(), Math.max(0, usage));
+        }
+        return loaded;
+    }
+
+    private void put(long id, String name, TagType type, long weight) {
+        lock.writeLock().lock();
+        try {
+            if (trie != null) {
+                trie.put(id, name, type, weight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onRemoteTag(String message) {
+        String[] parts = message.split(String.valueOf(SEPARATOR), 4);
+        if (parts.length == 4) {
+            put(Long.parseLong(parts[0]), parts[3], TagType.valueOf(parts[1]), Long.parseLong(parts[2]));
+        }
+    }
+}
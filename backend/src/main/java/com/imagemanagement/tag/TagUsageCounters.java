@@ -0,0 +1,108 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.cache.AfterCommit;
+import com.imagemanagement.config.TagProperties;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind buffer for {@code tags.usage_count}. Committed changes are summed per tag in a
+ * {@link LongAdder}, so uploads that hit the same popular auto-tag never wait on each other, and
+ * the sums are written as one batch of relative {@code usage_count + ?} updates. Because the
+ * updates are relative, several nodes can flush the same rows without losing increments.
+ *
+ * <p>A failed flush puts its deltas back for the next attempt; the pending sums are drained once
+ * more when the application shuts down.
+ */
+@Component
+public class TagUsageCounters {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TagUsageCounters.class);
+
+    static final String ADJUST_SQL = "UPDATE tags SET usage_count = GREATEST(usage_count + ?, 0) WHERE tag_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TagProperties.Usage properties;
+    private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public TagUsageCounters(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            TagProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties.getUsage();
+    }
+
+    /**
+     * Adds {@code delta} to the tag's usage count. With write-behind the change is buffered once the
+     * surrounding transaction commits; otherwise it is written immediately as part of it.
+     */
+    public void add(long tagId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (!properties.isWriteBehind()) {
+            jdbcTemplate.update(ADJUST_SQL, delta, tagId);
+            return;
+        }
+        AfterCommit.run(() -> pending.computeIfAbsent(tagId, id -> new LongAdder()).add(delta));
+    }
+
+    /**
+     * Change recorded on this node that has not reached the database yet.
+     */
+    public long pending(long tagId) {
+        LongAdder adder = pending.get(tagId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tags.usage.flush-interval:PT5S}",
+            initialDelayString = "${app.tags.usage.flush-interval:PT5S}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        // ascending ids keep concurrent flushes from different nodes locking rows in the same order
+        pending.keySet().stream().sorted().forEach(tagId -> {
+            long delta = pending.get(tagId).sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[] {delta, tagId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < batch.size(); from += properties.getBatchSize()) {
+                    jdbcTemplate.batchUpdate(ADJUST_SQL,
+                            batch.subList(from, Math.min(batch.size(), from + properties.getBatchSize())));
+                }
+            });
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to flush usage counts for {} tags, retrying later: {}", batch.size(), ex.getMessage());
+            for (Object[] row : batch) {
+                pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+        long lost = pending.values().stream().mapToLong(LongAdder::sum).filter(delta -> delta != 0).count();
+        if (lost > 0) {
+            LOGGER.error("Usage counts for {} tags could not be written on shutdown", lost);
+        }
+    }
+}
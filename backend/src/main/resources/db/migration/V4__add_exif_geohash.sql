@@ -0,0 +1,9 @@
+ALTER TABLE exif_data
+    ADD COLUMN geohash VARCHAR(12) NULL AFTER longitude;
+
+UPDATE exif_data
+SET geohash = ST_GeoHash(longitude, latitude, 12)
+WHERE latitude IS NOT NULL
+  AND longitude IS NOT NULL;
+
+CREATE INDEX idx_exif_geohash ON exif_data (geohash);
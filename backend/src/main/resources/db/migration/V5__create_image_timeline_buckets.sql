@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS image_timeline_buckets (
+    user_id BIGINT NOT NULL,
+    bucket_date DATE NOT NULL,
+    image_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket_date),
+    CONSTRAINT fk_timeline_buckets_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+INSERT INTO image_timeline_buckets (user_id, bucket_date, image_count)
+SELECT i.user_id, DATE(COALESCE(e.taken_time, i.upload_time)), COUNT(*)
+FROM images i
+LEFT JOIN exif_data e ON e.image_id = i.image_id
+GROUP BY i.user_id, DATE(COALESCE(e.taken_time, i.upload_time));
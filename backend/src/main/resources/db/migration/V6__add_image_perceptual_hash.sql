@@ -0,0 +1,4 @@
+ALTER TABLE images
+    ADD COLUMN perceptual_hash BIGINT NULL AFTER content_hash;
+
+CREATE INDEX idx_images_user_perceptual_hash ON images (user_id, perceptual_hash);
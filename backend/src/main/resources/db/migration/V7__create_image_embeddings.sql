@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS image_embeddings (
+    image_id BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    model VARCHAR(100) NOT NULL,
+    dimensions INT NOT NULL,
+    vector_scale FLOAT NOT NULL,
+    vector_data VARBINARY(4096) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT fk_image_embeddings_image FOREIGN KEY (image_id) REFERENCES images (image_id) ON DELETE CASCADE,
+    CONSTRAINT fk_image_embeddings_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_image_embeddings_user_model ON image_embeddings (user_id, model);
@@ -0,0 +1,75 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AiCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AiCircuitBreaker breaker = new AiCircuitBreaker(3, Duration.ofSeconds(10), now::get);
+
+    @Test
+    void shouldOpenAfterConsecutiveFailuresOnly() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldLetOneProbeThroughAfterOpenDuration() {
+        openCircuit();
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedProbeShouldReopenForAnotherPeriod() {
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void lateSuccessShouldNotCloseAnOpenCircuit() {
+        assertThat(breaker.tryAcquire()).isTrue();
+        openCircuit();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,34 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.imagemanagement.config.AiHttpClientConfig;
+import com.imagemanagement.config.AiServiceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+
+class AiHttpClientConfigTest {
+
+    @Test
+    void connectionManager_shouldApplyPoolLimitsAndPublishMetrics() {
+        AiServiceProperties properties = new AiServiceProperties();
+        properties.getPool().setMaxTotal(12);
+        properties.getPool().setMaxPerRoute(6);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        try (PoolingHttpClientConnectionManager connectionManager =
+                new AiHttpClientConfig().aiServiceConnectionManager(properties, meterRegistry)) {
+            assertThat(connectionManager.getMaxTotal()).isEqualTo(12);
+            assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(6);
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "ai-service")
+                    .gauge()
+                    .value()).isEqualTo(12.0);
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                    .tag("state", "leased")
+                    .gauge()
+                    .value()).isZero();
+        }
+    }
+}
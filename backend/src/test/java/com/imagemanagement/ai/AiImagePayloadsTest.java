@@ -0,0 +1,134 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.entity.Image;
+import com.imagemanagement.entity.Thumbnail;
+import com.imagemanagement.entity.enums.ThumbnailSizeType;
+import com.imagemanagement.exception.ResourceNotFoundException;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+class AiImagePayloadsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AiImagePayloads payloads;
+    private Image image;
+    private Path original;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        AiServiceProperties properties = new AiServiceProperties();
+        properties.setRenderSize(128);
+        payloads = new AiImagePayloads(properties);
+
+        original = writeJpeg("original.jpg", 1600, 900);
+        image = new Image();
+        image.setOriginalFilename("holiday.png");
+        image.setFilePath(original.toString());
+    }
+
+    @Test
+    void shouldStreamTheStoredMediumThumbnailByDefault() throws IOException {
+        Path medium = writeJpeg("medium.jpg", 512, 288);
+        addThumbnail(ThumbnailSizeType.SMALL, writeJpeg("small.jpg", 256, 144));
+        addThumbnail(ThumbnailSizeType.MEDIUM, medium);
+
+        AiImagePayloads.Selection selection = payloads.select(image, null);
+        Resource resource = payloads.open(selection);
+
+        assertThat(selection.path()).isEqualTo(medium);
+        assertThat(resource).isInstanceOf(FileSystemResource.class);
+        assertThat(resource.getFilename()).isEqualTo("holiday.jpg");
+    }
+
+    @Test
+    void shouldRenderFromTheOriginalWhenTheThumbnailIsMissing() throws IOException {
+        AiImagePayloads.Selection selection = payloads.select(image, AiImageSource.MEDIUM);
+        Resource resource = payloads.open(selection);
+
+        assertThat(selection.render()).isTrue();
+        assertThat(resource).isInstanceOf(ByteArrayResource.class);
+        BufferedImage rendered = ImageIO.read(new ByteArrayInputStream(((ByteArrayResource) resource).getByteArray()));
+        assertThat(rendered.getWidth()).isEqualTo(128);
+        assertThat(rendered.getHeight()).isEqualTo(72);
+    }
+
+    @Test
+    void shouldSendTheOriginalWhenRequestedOrUndecodable() throws IOException {
+        addThumbnail(ThumbnailSizeType.MEDIUM, writeJpeg("medium.jpg", 512, 288));
+
+        Resource requested = payloads.open(payloads.select(image, AiImageSource.ORIGINAL));
+
+        assertThat(requested.getFile().toPath()).isEqualTo(original);
+        assertThat(requested.getFilename()).isEqualTo("holiday.png");
+
+        Path broken = Files.writeString(tempDir.resolve("broken.jpg"), "not an image");
+        image.setFilePath(broken.toString());
+        image.getThumbnails().clear();
+
+        Resource fallback = payloads.open(payloads.select(image, AiImageSource.SMALL));
+
+        assertThat(fallback.getFile().toPath()).isEqualTo(broken);
+    }
+
+    @Test
+    void shouldFailWhenNoFileIsAvailable() {
+        image.setFilePath(tempDir.resolve("missing.jpg").toString());
+
+        assertThatThrownBy(() -> payloads.select(image, AiImageSource.ORIGINAL))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void shouldSplitBatchesByCountAndBytes() throws IOException {
+        AiServiceProperties properties = new AiServiceProperties();
+        properties.getBatch().setMaxItems(2);
+        properties.getBatch().setMaxBytes(100);
+        AiImagePayloads batching = new AiImagePayloads(properties);
+        Map<String, AiImagePayloads.Selection> selections = new LinkedHashMap<>();
+        selections.put("a", stored("a.jpg", 40));
+        selections.put("b", stored("b.jpg", 40));
+        selections.put("c", stored("c.jpg", 40));
+        selections.put("d", stored("d.jpg", 200));
+        selections.put("e", stored("e.jpg", 10));
+
+        assertThat(batching.batches(selections))
+                .containsExactly(List.of("a", "b"), List.of("c"), List.of("d"), List.of("e"));
+    }
+
+    private AiImagePayloads.Selection stored(String name, int size) throws IOException {
+        Path path = Files.write(tempDir.resolve(name), new byte[size]);
+        return new AiImagePayloads.Selection(path, name, false);
+    }
+
+    private void addThumbnail(ThumbnailSizeType type, Path path) {
+        Thumbnail thumbnail = new Thumbnail();
+        thumbnail.setSizeType(type);
+        thumbnail.setFilePath(path.toString());
+        image.addThumbnail(thumbnail);
+    }
+
+    private Path writeJpeg(String name, int width, int height) throws IOException {
+        Path path = tempDir.resolve(name);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", path.toFile());
+        return path;
+    }
+}
@@ -0,0 +1,103 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.imagemanagement.ai.dto.AiSearchInterpretation;
+import com.imagemanagement.cache.CacheNames;
+import com.imagemanagement.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class AiSearchInterpretationCacheTest {
+
+    private final AsyncAiServiceClient aiServiceClient = mock(AsyncAiServiceClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AiSearchInterpretationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AiSearchInterpretationCache(aiServiceClient,
+                new ConcurrentMapCacheManager(CacheNames.AI_SEARCH_INTERPRETATIONS), meterRegistry);
+    }
+
+    @Test
+    void shouldFoldCaseAndWhitespaceIntoOneEntry() {
+        given(aiServiceClient.interpretSearch(anyString(), any())).willReturn(CompletableFuture.completedFuture(interpretation("sunset beach")));
+
+        cache.interpret("Sunset  Beach", 5);
+        cache.interpret(" sunset\tbeach ", 5);
+        AiSearchInterpretation third = cache.interpret("SUNSET BEACH", 5);
+
+        assertThat(third.query()).isEqualTo("sunset beach");
+        verify(aiServiceClient, times(1)).interpretSearch("sunset beach", 5);
+        assertThat(meterRegistry.get("ai.search.interpret.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("ai.search.interpret.cache.requests").tag("result", "miss").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepLimitsApartAndNotCacheFailures() {
+        given(aiServiceClient.interpretSearch(anyString(), any()))
+                .willReturn(CompletableFuture.failedFuture(new AiServiceException("AI service responded with 503")))
+                .willReturn(CompletableFuture.completedFuture(interpretation("forest")));
+
+        assertThatThrownBy(() -> cache.interpret("forest", null)).isInstanceOf(AiServiceException.class);
+        cache.interpret("forest", null);
+        cache.interpret("forest", null);
+        cache.interpret("forest", 3);
+
+        verify(aiServiceClient, times(2)).interpretSearch("forest", null);
+        verify(aiServiceClient, times(1)).interpretSearch("forest", 3);
+    }
+
+    @Test
+    void shouldLookEachQueryUpOnce() {
+        Cache store = spy(new ConcurrentMapCache(CacheNames.AI_SEARCH_INTERPRETATIONS));
+        CacheManager cacheManager = mock(CacheManager.class);
+        given(cacheManager.getCache(CacheNames.AI_SEARCH_INTERPRETATIONS)).willReturn(store);
+        given(aiServiceClient.interpretSearch(anyString(), any())).willReturn(CompletableFuture.completedFuture(interpretation("harbour")));
+        AiSearchInterpretationCache singleLookup = new AiSearchInterpretationCache(aiServiceClient, cacheManager, meterRegistry);
+
+        singleLookup.interpret("harbour", null);
+        singleLookup.interpret("harbour", null);
+
+        verify(store, times(2)).get(eq(":harbour"), any(Callable.class));
+        verify(store, never()).get(any(), any(Class.class));
+        verify(store, never()).get(any());
+    }
+
+    @Test
+    void shouldRejectQueriesThatFoldToNothing() {
+        assertThatThrownBy(() -> cache.interpret(" \t　", null)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldNormalizeFullWidthCharacters() {
+        assertThat(AiSearchInterpretationCache.normalize("  Ｂeach　Ｐortrait ")).isEqualTo("beach portrait");
+    }
+
+    private static AiSearchInterpretation interpretation(String query) {
+        return new AiSearchInterpretation(query, List.of(query), List.of(), Map.of(), List.of(), BigDecimal.ONE);
+    }
+}
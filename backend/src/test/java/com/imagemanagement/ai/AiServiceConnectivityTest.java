@@ -14,6 +14,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -80,18 +81,19 @@ class AiServiceConnectivityTest {
 
     @Test
     @DisplayName("tag suggestion should analyze uploaded images")
-    void shouldSuggestTagsFromUploadedImage() throws IOException {
-        byte[] imageBytes = Files.readAllBytes(SAMPLE_IMAGE);
-        AiTagSuggestionResponse response = aiServiceClient.suggestTags(imageBytes, SAMPLE_IMAGE.getFileName().toString(), List.of("vacation", "ocean"), 5);
+    void shouldSuggestTagsFromUploadedImage() {
+        AiTagSuggestionResponse response = aiServiceClient.suggestTags(new FileSystemResource(SAMPLE_IMAGE), List.of("vacation", "ocean"), 5);
         Assertions.assertThat(response.tags()).isNotEmpty();
         Assertions.assertThat(response.metadata()).containsKeys("width", "height", "aspect_ratio");
     }
 
     @Test
     @DisplayName("AI service errors should propagate through the client")
-    void shouldPropagateAiServiceErrors() {
-        byte[] invalidPayload = "not-an-image".getBytes(java.nio.charset.StandardCharsets.UTF_8);
-        Assertions.assertThatThrownBy(() -> aiServiceClient.suggestTags(invalidPayload, "invalid.txt", List.of(), null))
+    void shouldPropagateAiServiceErrors() throws IOException {
+        Path invalidPayload = Files.createTempFile("invalid", ".txt");
+        Files.writeString(invalidPayload, "not-an-image");
+        invalidPayload.toFile().deleteOnExit();
+        Assertions.assertThatThrownBy(() -> aiServiceClient.suggestTags(new FileSystemResource(invalidPayload), List.of(), null))
                 .isInstanceOf(AiServiceException.class)
                 .hasMessageContaining("valid image");
     }
@@ -0,0 +1,84 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.ai.dto.AiTagSuggestion;
+import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
+import com.imagemanagement.cache.CacheNames;
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.repository.AiTagSuggestionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class AiTagSuggestionCacheTest {
+
+    private final AiTagSuggestionStore store = mock(AiTagSuggestionStore.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldServeTheSameContentRegardlessOfHintOrderAndCase() {
+        AiTagSuggestionCache cache = cache(new AiServiceProperties());
+        cache.put("hash-1", null, List.of("Beach", "holiday"), 5, response("ocean"));
+
+        assertThat(cache.get("hash-1", AiImageSource.MEDIUM, List.of(" HOLIDAY", "beach", "beach"), 5))
+                .map(found -> found.tags().get(0).name())
+                .contains("ocean");
+        assertThat(cache.get("hash-1", AiImageSource.MEDIUM, List.of("beach"), 5)).isEmpty();
+        assertThat(cache.get("hash-1", AiImageSource.MEDIUM, List.of("beach", "holiday"), 3)).isEmpty();
+        assertThat(cache.get("hash-2", AiImageSource.MEDIUM, List.of("beach", "holiday"), 5)).isEmpty();
+        assertThat(meterRegistry.get("ai.tags.cache.requests").tag("result", "hit").tag("tier", "cache").counter().count())
+                .isEqualTo(1.0);
+        verify(store, never()).save(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void shouldKeyByModelVersionAndSkipImagesWithoutContentHash() {
+        AiServiceProperties properties = new AiServiceProperties();
+        AiTagSuggestionCache cache = cache(properties);
+        String key = cache.key("hash-1", null, null, null);
+        properties.getSuggestionCache().setModelVersion("clip-v2");
+
+        assertThat(cache(properties).key("hash-1", null, null, null)).isNotEqualTo(key);
+        cache.put(null, null, null, null, response("ocean"));
+        assertThat(cache.get(null, null, null, null)).isEmpty();
+        assertThat(cache.key(" ", null, null, null)).isNull();
+    }
+
+    @Test
+    void shouldPersistAndRefillTheCacheFromTheStore() throws Exception {
+        AiServiceProperties properties = new AiServiceProperties();
+        properties.getSuggestionCache().setPersist(true);
+        AiTagSuggestionCache writer = cache(properties);
+        String key = writer.key("hash-1", null, null, null);
+        writer.put("hash-1", null, null, null, response("forest"));
+        verify(store).save(key, "hash-1", "default", objectMapper.writeValueAsString(response("forest")));
+
+        given(store.findPayload(key)).willReturn(Optional.of(objectMapper.writeValueAsString(response("forest"))));
+        AiTagSuggestionCache reader = cache(properties);
+
+        assertThat(reader.get("hash-1", null, null, null)).map(found -> found.tags().get(0).name()).contains("forest");
+        assertThat(reader.get("hash-1", null, null, null)).isPresent();
+        verify(store).findPayload(key);
+        assertThat(meterRegistry.get("ai.tags.cache.requests").tag("tier", "store").counter().count()).isEqualTo(1.0);
+    }
+
+    private AiTagSuggestionCache cache(AiServiceProperties properties) {
+        return new AiTagSuggestionCache(new ConcurrentMapCacheManager(CacheNames.AI_TAG_SUGGESTIONS), store,
+                objectMapper, properties, meterRegistry);
+    }
+
+    private static AiTagSuggestionResponse response(String tag) {
+        return new AiTagSuggestionResponse(List.of(new AiTagSuggestion(tag, 0.9, "test")), Map.of("width", 10), null);
+    }
+}
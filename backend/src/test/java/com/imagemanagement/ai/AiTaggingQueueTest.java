@@ -0,0 +1,199 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.entity.Image;
+import com.imagemanagement.entity.ImageTag;
+import com.imagemanagement.entity.Tag;
+import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.TagType;
+import com.imagemanagement.entity.enums.UserRole;
+import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.repository.ImageRepository;
+import com.imagemanagement.repository.ImageTagRepository;
+import com.imagemanagement.repository.TagRepository;
+import com.imagemanagement.repository.UserRepository;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@SuppressWarnings({"null"})
+class AiTaggingQueueTest {
+
+    @Autowired
+    private AiTaggingQueue queue;
+
+    @Autowired
+    private AiServiceProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private ImageTagRepository imageTagRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        imageTagRepository.deleteAll();
+        imageRepository.deleteAll();
+        tagRepository.deleteAll();
+        userRepository.deleteAll();
+        imageRepository.flush();
+
+        owner = new User();
+        owner.setUsername("queue-owner");
+        owner.setEmail("queue-owner@example.com");
+        owner.setPasswordHash("hash");
+        owner.setStatus(UserStatus.ACTIVE);
+        owner.setRole(UserRole.USER);
+        owner = userRepository.saveAndFlush(owner);
+    }
+
+    @Test
+    void claim_shouldServeInteractiveRowsFirstAndHideLeasedRows() {
+        Image old = persistImage("old.jpg");
+        Image fresh = persistImage("fresh.jpg");
+        queue.enqueue(List.of(old), AiTaggingPriority.BACKFILL);
+        queue.enqueue(List.of(fresh), AiTaggingPriority.INTERACTIVE);
+
+        List<AiTaggingQueue.Claim> first = queue.claim(1);
+        List<AiTaggingQueue.Claim> second = queue.claim(10);
+
+        assertThat(first).containsExactly(new AiTaggingQueue.Claim(fresh.getId(), owner.getId(), 1));
+        assertThat(second).containsExactly(new AiTaggingQueue.Claim(old.getId(), owner.getId(), 1));
+        assertThat(queue.claim(10)).isEmpty();
+    }
+
+    @Test
+    void enqueue_shouldKeepTheHigherPriority() {
+        Image image = persistImage("photo.jpg");
+
+        queue.enqueue(List.of(image), AiTaggingPriority.INTERACTIVE);
+        queue.enqueue(List.of(image), AiTaggingPriority.BACKFILL);
+
+        assertThat(row(image).get("priority")).isEqualTo(AiTaggingPriority.INTERACTIVE.value());
+    }
+
+    @Test
+    void complete_shouldRemoveTheRow() {
+        Image image = persistImage("photo.jpg");
+        queue.enqueue(List.of(image), AiTaggingPriority.INTERACTIVE);
+
+        queue.complete(queue.claim(10));
+
+        assertThat(count()).isZero();
+    }
+
+    @Test
+    void retry_shouldBackOffAndGiveUpAfterMaxAttempts() {
+        Image image = persistImage("photo.jpg");
+        queue.enqueue(List.of(image), AiTaggingPriority.INTERACTIVE);
+        List<AiTaggingQueue.Claim> claims = queue.claim(10);
+
+        assertThat(queue.retry(claims, "AI service unavailable")).isZero();
+        Map<String, Object> retried = row(image);
+        assertThat(retried.get("state")).isEqualTo("PENDING");
+        assertThat(retried.get("last_error")).isEqualTo("AI service unavailable");
+        assertThat(((Timestamp) retried.get("available_at")).toLocalDateTime())
+                .isAfter(LocalDateTime.now().plusSeconds(10));
+        assertThat(queue.claim(10)).isEmpty();
+
+        int maxAttempts = properties.getTaggingQueue().getMaxAttempts();
+        assertThat(queue.retry(List.of(new AiTaggingQueue.Claim(image.getId(), owner.getId(), maxAttempts)), "still failing"))
+                .isEqualTo(1);
+        assertThat(row(image).get("state")).isEqualTo("DEAD");
+
+        queue.enqueue(List.of(image), AiTaggingPriority.INTERACTIVE);
+        assertThat(row(image).get("state")).isEqualTo("PENDING");
+        assertThat(queue.claim(10)).extracting(AiTaggingQueue.Claim::attempts).containsExactly(1);
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToTheMaximum() {
+        AiServiceProperties.TaggingQueue settings = properties.getTaggingQueue();
+
+        assertThat(queue.backoff(1)).isEqualTo(settings.getInitialBackoff());
+        assertThat(queue.backoff(3)).isEqualTo(settings.getInitialBackoff().multipliedBy(4));
+        assertThat(queue.backoff(40)).isEqualTo(settings.getMaxBackoff());
+    }
+
+    @Test
+    void backfill_shouldQueueImagesWithoutAiTagsOnce() {
+        Image tagged = persistImage("tagged.jpg");
+        Image untagged = persistImage("untagged.jpg");
+        Image queued = persistImage("queued.jpg");
+        linkTag(tagged, persistTag("beach", TagType.AI));
+        linkTag(untagged, persistTag("holiday", TagType.CUSTOM));
+        queue.enqueue(List.of(queued), AiTaggingPriority.INTERACTIVE);
+
+        assertThat(queue.backfill()).isEqualTo(1);
+        assertThat(queue.backfill()).isZero();
+
+        assertThat(row(untagged).get("priority")).isEqualTo(AiTaggingPriority.BACKFILL.value());
+        assertThat(row(queued).get("priority")).isEqualTo(AiTaggingPriority.INTERACTIVE.value());
+        assertThat(count()).isEqualTo(2);
+    }
+
+    private Map<String, Object> row(Image image) {
+        return jdbcTemplate.queryForMap("SELECT * FROM ai_tagging_queue WHERE image_id = ?", image.getId());
+    }
+
+    private Integer count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ai_tagging_queue", Integer.class);
+    }
+
+    private Image persistImage(String originalFilename) {
+        Image image = new Image();
+        image.setUser(owner);
+        image.setOriginalFilename(originalFilename);
+        image.setStoredFilename(originalFilename + "-stored");
+        image.setFilePath("/tmp/" + originalFilename);
+        image.setFileSize(1_024L);
+        image.setMimeType("image/jpeg");
+        image.setUploadTime(LocalDateTime.now());
+        image.setWidth(800);
+        image.setHeight(600);
+        return imageRepository.saveAndFlush(image);
+    }
+
+    private Tag persistTag(String name, TagType type) {
+        Tag tag = new Tag();
+        tag.setTagName(name);
+        tag.setTagType(type);
+        tag.setUsageCount(1);
+        tag.setCreatedTime(LocalDateTime.now());
+        return tagRepository.saveAndFlush(tag);
+    }
+
+    private void linkTag(Image image, Tag tag) {
+        ImageTag imageTag = new ImageTag();
+        imageTag.setImage(image);
+        imageTag.setTag(tag);
+        imageTag.setConfidence(BigDecimal.ONE);
+        imageTagRepository.saveAndFlush(imageTag);
+    }
+}
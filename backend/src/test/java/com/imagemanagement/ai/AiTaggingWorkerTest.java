@@ -0,0 +1,105 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.imagemanagement.config.AiServiceProperties;
+import com.imagemanagement.dto.request.AiTagBatchGenerationRequest;
+import com.imagemanagement.dto.response.AiTagBatchGenerationResponse;
+import com.imagemanagement.service.TagService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AiTaggingWorkerTest {
+
+    private final AiTaggingQueue queue = mock(AiTaggingQueue.class);
+    private final TagService tagService = mock(TagService.class);
+    private final AiServiceProperties properties = new AiServiceProperties();
+    private AiTaggingWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        properties.getTaggingQueue().setClaimSize(4);
+        worker = new AiTaggingWorker(queue, tagService, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldTagClaimedRowsPerUserAndSettleThem() {
+        AiTaggingQueue.Claim first = new AiTaggingQueue.Claim(1L, 10L, 1);
+        AiTaggingQueue.Claim second = new AiTaggingQueue.Claim(2L, 10L, 1);
+        AiTaggingQueue.Claim other = new AiTaggingQueue.Claim(3L, 20L, 2);
+        given(queue.claim(4)).willReturn(List.of(first, second, other));
+        given(tagService.generateAiTagsBatch(eq(10L), any())).willReturn(CompletableFuture.completedFuture(
+                new AiTagBatchGenerationResponse(2, 1, 1, 3, List.of(2L))));
+        given(tagService.generateAiTagsBatch(eq(20L), any())).willReturn(
+                CompletableFuture.failedFuture(new AiServiceUnavailableException("circuit open")));
+
+        worker.poll();
+
+        verify(tagService).generateAiTagsBatch(10L, new AiTagBatchGenerationRequest(List.of(1L, 2L), null, null, null));
+        verify(queue).complete(List.of(first));
+        verify(queue).retry(List.of(second), "image could not be read or its batch failed");
+        verify(queue).retry(eq(List.of(other)), anyString());
+    }
+
+    @Test
+    void shouldRetryRowsWhenTaggingThrowsBeforeCallingTheService() {
+        AiTaggingQueue.Claim claim = new AiTaggingQueue.Claim(1L, 10L, 1);
+        given(queue.claim(4)).willReturn(List.of(claim));
+        given(tagService.generateAiTagsBatch(eq(10L), any())).willThrow(new IllegalStateException("gone"));
+
+        worker.poll();
+
+        verify(queue).retry(List.of(claim), "IllegalStateException: gone");
+    }
+
+    @Test
+    void shouldNotClaimMoreThanTheRateAllows() {
+        properties.getTaggingQueue().setRatePerMinute(1);
+        worker = new AiTaggingWorker(queue, tagService, properties, new SimpleMeterRegistry());
+        given(queue.claim(anyInt())).willReturn(List.of());
+
+        worker.poll();
+        worker.poll();
+
+        // the first poll found nothing, so its permits were handed back
+        verify(queue, times(2)).claim(4);
+
+        AiTaggingQueue.Claim claim = new AiTaggingQueue.Claim(1L, 10L, 1);
+        given(queue.claim(4)).willReturn(List.of(claim, claim, claim, claim));
+        given(tagService.generateAiTagsBatch(eq(10L), any())).willReturn(CompletableFuture.completedFuture(
+                new AiTagBatchGenerationResponse(1, 1, 1, 1, List.of())));
+
+        worker.poll();
+        worker.poll();
+
+        verify(queue, times(3)).claim(anyInt());
+    }
+
+    @Test
+    void shouldSkipPollsWhileARoundIsInFlight() {
+        AiTaggingQueue.Claim claim = new AiTaggingQueue.Claim(1L, 10L, 1);
+        CompletableFuture<AiTagBatchGenerationResponse> pending = new CompletableFuture<>();
+        given(queue.claim(anyInt())).willReturn(List.of(claim));
+        given(tagService.generateAiTagsBatch(eq(10L), any())).willReturn(pending);
+
+        worker.poll();
+        worker.poll();
+        verify(queue, times(1)).claim(anyInt());
+
+        pending.complete(new AiTagBatchGenerationResponse(1, 1, 1, 1, List.of()));
+        worker.poll();
+        verify(queue, times(2)).claim(anyInt());
+        assertThat(pending).isDone();
+    }
+}
@@ -0,0 +1,139 @@
+package com.imagemanagement.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.imagemanagement.ai.dto.AiSearchInterpretation;
+import com.imagemanagement.config.AiServiceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class AsyncAiServiceClientTest {
+
+    private final AiServiceClient delegate = mock(AiServiceClient.class);
+    private final List<Runnable> queued = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncAiServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        AiServiceProperties properties = new AiServiceProperties();
+        properties.getBulkhead().setMaxConcurrent(2);
+        properties.getCircuitBreaker().setFailureThreshold(2);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMinutes(1));
+        client = new AsyncAiServiceClient(delegate, queued::add, properties, meterRegistry);
+    }
+
+    @Test
+    void shouldRejectCallsBeyondTheBulkheadUntilPermitsAreReturned() {
+        given(delegate.interpretSearch(anyString(), any())).willReturn(interpretation());
+
+        CompletableFuture<AiSearchInterpretation> first = client.interpretSearch("beach", null);
+        CompletableFuture<AiSearchInterpretation> second = client.interpretSearch("city", null);
+        CompletableFuture<AiSearchInterpretation> third = client.interpretSearch("forest", null);
+
+        assertThat(third).isCompletedExceptionally();
+        assertThat(failureOf(third)).isInstanceOf(AiServiceUnavailableException.class)
+                .hasMessageContaining("busy");
+        assertThat(meterRegistry.get("ai.client.in.flight").gauge().value()).isEqualTo(2.0);
+
+        queued.forEach(Runnable::run);
+        queued.clear();
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(client.interpretSearch("forest", null)).isNotCompleted();
+        assertThat(meterRegistry.get("ai.client.rejected").tag("reason", "bulkhead").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFailFastOnceTransportFailuresOpenTheCircuit() {
+        given(delegate.interpretSearch(anyString(), any())).willThrow(
+                new AiServiceException("Failed to communicate with AI service", new ResourceAccessException("timed out")));
+
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<AiSearchInterpretation> call = client.interpretSearch("beach", null);
+            queued.remove(0).run();
+            assertThat(failureOf(call)).isNotInstanceOf(AiServiceUnavailableException.class);
+        }
+
+        CompletableFuture<AiSearchInterpretation> rejected = client.interpretSearch("beach", null);
+
+        assertThat(queued).isEmpty();
+        assertThat(failureOf(rejected)).isInstanceOf(AiServiceUnavailableException.class);
+        assertThat(client.circuitState()).isEqualTo(AiCircuitBreaker.State.OPEN);
+        verify(delegate, times(2)).interpretSearch(anyString(), any());
+    }
+
+    @Test
+    void clientErrorsShouldNotCountAgainstTheCircuit() {
+        given(delegate.suggestTags(any(Resource.class), any(), any())).willThrow(new AiServiceException("bad image",
+                HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null)));
+
+        for (int i = 0; i < 3; i++) {
+            client.suggestTags(new ByteArrayResource(new byte[] {1}), null, null);
+            queued.remove(0).run();
+        }
+
+        assertThat(client.circuitState()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        verify(delegate, never()).interpretSearch(anyString(), any());
+    }
+
+    @Test
+    void errorsShouldReturnThePermitAndFailTheCall() {
+        given(delegate.interpretSearch(anyString(), any())).willThrow(new StackOverflowError());
+
+        CompletableFuture<AiSearchInterpretation> call = client.interpretSearch("beach", null);
+        queued.remove(0).run();
+
+        assertThat(failureOf(call)).isInstanceOf(StackOverflowError.class);
+        assertThat(meterRegistry.get("ai.client.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void executorRejectionsShouldReportBusyAndReturnThePermit() {
+        AiServiceProperties properties = new AiServiceProperties();
+        AsyncAiServiceClient saturated = new AsyncAiServiceClient(delegate, task -> {
+            throw new RejectedExecutionException("all threads busy");
+        }, properties, meterRegistry);
+
+        CompletableFuture<AiSearchInterpretation> call = saturated.interpretSearch("beach", null);
+
+        assertThat(failureOf(call)).isInstanceOf(AiServiceUnavailableException.class).hasMessageContaining("busy");
+        assertThat(saturated.circuitState()).isEqualTo(AiCircuitBreaker.State.CLOSED);
+        verify(delegate, never()).interpretSearch(anyString(), any());
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException ex) {
+            return ex.getCause();
+        }
+        throw new AssertionError("future completed normally");
+    }
+
+    private static AiSearchInterpretation interpretation() {
+        return new AiSearchInterpretation("beach", List.of("beach"), List.of(), Map.of(), List.of(), BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,143 @@
+package com.imagemanagement.benchmark;
+
+import com.imagemanagement.cache.LocalClusterInvalidationBus;
+import com.imagemanagement.config.JwtProperties;
+import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.UserRole;
+import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.security.CustomUserDetails;
+import com.imagemanagement.security.CustomUserDetailsService;
+import com.imagemanagement.security.UserPrincipalCache;
+import com.imagemanagement.security.jwt.JwtAuthenticationFilter;
+import com.imagemanagement.security.jwt.JwtTokenProvider;
+import com.imagemanagement.security.jwt.VerifiedTokenCache;
+import jakarta.servlet.FilterChain;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Hot path of {@link JwtAuthenticationFilter} for a request that repeats a token, with and without
+ * the {@link VerifiedTokenCache}. The principal comes from a warm {@link UserPrincipalCache} in
+ * both cases, so the difference is the token verification.
+ * Run {@link #main} from the IDE, or {@code org.openjdk.jmh.Main JwtAuthenticationFilterBenchmark} on
+ * the test classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider verifyingProvider;
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter verifyingFilter;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtProperties cached = properties(true);
+        JwtProperties uncached = properties(false);
+        LocalClusterInvalidationBus bus = new LocalClusterInvalidationBus();
+        cachingProvider = new JwtTokenProvider(cached, new VerifiedTokenCache(cached));
+        verifyingProvider = new JwtTokenProvider(uncached, new VerifiedTokenCache(uncached));
+
+        UserPrincipalCache principals = new UserPrincipalCache(new FixedUserDetailsService(), cached, bus);
+        cachingFilter = new JwtAuthenticationFilter(cachingProvider, principals);
+        verifyingFilter = new JwtAuthenticationFilter(verifyingProvider, principals);
+
+        token = cachingProvider.generateToken(42L);
+        request = new MockHttpServletRequest("GET", "/api/images/42/content");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Optional<Long> resolveWithVerifiedTokenCache() {
+        return cachingProvider.resolveUserId(token);
+    }
+
+    @Benchmark
+    public Optional<Long> resolveWithHmacVerification() {
+        return verifyingProvider.resolveUserId(token);
+    }
+
+    @Benchmark
+    public Authentication filterWithVerifiedTokenCache() throws Exception {
+        return filter(cachingFilter);
+    }
+
+    @Benchmark
+    public Authentication filterWithHmacVerification() throws Exception {
+        return filter(verifyingFilter);
+    }
+
+    private Authentication filter(JwtAuthenticationFilter filter) throws Exception {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static JwtProperties properties(boolean verifiedTokens) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("benchmark-jwt-secret-key-benchmark-jwt-secret-key");
+        properties.setExpiration(TimeUnit.HOURS.toMillis(1));
+        properties.setRefreshExpiration(TimeUnit.DAYS.toMillis(7));
+        properties.getVerifiedTokens().setEnabled(verifiedTokens);
+        return properties;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static final class FixedUserDetailsService extends CustomUserDetailsService {
+
+        private final CustomUserDetails principal;
+
+        private FixedUserDetailsService() {
+            super(null);
+            User user = new User();
+            user.setId(42L);
+            user.setUsername("benchmark");
+            user.setEmail("benchmark@example.com");
+            user.setPasswordHash("hash");
+            user.setStatus(UserStatus.ACTIVE);
+            user.setRole(UserRole.USER);
+            this.principal = new CustomUserDetails(user);
+        }
+
+        @Override
+        public CustomUserDetails loadUserById(Long id) {
+            return principal;
+        }
+    }
+}
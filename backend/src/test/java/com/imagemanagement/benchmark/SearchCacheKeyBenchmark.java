@@ -0,0 +1,75 @@
+package com.imagemanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.cache.CacheKeyGenerator;
+import com.imagemanagement.cache.InMemorySearchCacheVersions;
+import com.imagemanagement.cache.SearchCacheVersions;
+import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the canonical search key against the previous Jackson + SHA-256 digest.
+ * Run {@link #main} from the IDE, or {@code org.openjdk.jmh.Main SearchCacheKeyBenchmark} on the test
+ * classpath after {@code mvn test-compile}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchCacheKeyBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private final SearchCacheVersions versions = new InMemorySearchCacheVersions();
+    private ImageSearchRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new ImageSearchRequest();
+        request.setKeyword("  Sunset over the bay ");
+        request.setPrivacyLevel(ImagePrivacyLevel.PUBLIC);
+        request.setTags(List.of("sea", "beach", "sunset", "holiday"));
+        request.setUploadedFrom(LocalDateTime.of(2023, 1, 1, 0, 0));
+        request.setCameraMake("Canon");
+        request.setMinWidth(800);
+    }
+
+    @Benchmark
+    public String canonicalKey() {
+        return CacheKeyGenerator.imageSearchKey(1L, request, versions);
+    }
+
+    @Benchmark
+    public String legacyJsonSha256Key() throws Exception {
+        String stamp = versions.stamp(1L, true);
+        byte[] json = OBJECT_MAPPER.writeValueAsBytes(request);
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+        return "user:1:search:" + stamp + ":" + HexFormat.of().formatHex(hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchCacheKeyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
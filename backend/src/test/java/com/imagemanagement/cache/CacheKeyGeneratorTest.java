@@ -0,0 +1,73 @@
+package com.imagemanagement.cache;
+
+import com.imagemanagement.dto.request.ImageSearchRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheKeyGeneratorTest {
+
+    private final SearchCacheVersions versions = new InMemorySearchCacheVersions();
+
+    @Test
+    void murmurHash3_shouldMatchReferenceVectors() {
+        assertThat(hash("")).isEqualTo("00000000000000000000000000000000");
+        assertThat(hash("hello")).isEqualTo("cbd8a7b341bd9b025b1e906a48ae1d19");
+        assertThat(hash("The quick brown fox jumps over the lazy dog")).isEqualTo("e34bbc7bbc071b6c7a433ca9c49a9347");
+    }
+
+    @Test
+    void imageSearchKey_shouldIgnoreTagOrderCaseAndWhitespace() {
+        ImageSearchRequest first = request("  Sunset ", List.of("Beach", "sea", "beach "));
+        first.setCameraMake("Canon ");
+        ImageSearchRequest second = request("sunset", List.of("sea", "beach"));
+        second.setCameraMake("canon");
+        second.setOnlyOwn(null);
+        second.setSortBy("unknownColumn");
+
+        assertThat(key(first)).isEqualTo(key(second));
+    }
+
+    @Test
+    void imageSearchKey_shouldTreatTagsLikeTheTagFilter() {
+        ImageSearchRequest spaced = request(null, List.of("  Golden   Hour", " ", "BEACH"));
+        ImageSearchRequest plain = request(null, List.of("beach", "golden hour"));
+
+        assertThat(key(spaced)).isEqualTo(key(plain));
+    }
+
+    @Test
+    void imageSearchKey_shouldDifferWhenResultsCanDiffer() {
+        String base = key(request("sunset", List.of("beach")));
+
+        ImageSearchRequest otherPage = request("sunset", List.of("beach"));
+        otherPage.setPage(1);
+        ImageSearchRequest otherTag = request("sunset", List.of("beaches"));
+        ImageSearchRequest noKeyword = request(null, List.of("beach"));
+        ImageSearchRequest blankKeyword = request("   ", List.of("beach"));
+
+        assertThat(key(otherPage)).isNotEqualTo(base);
+        assertThat(key(otherTag)).isNotEqualTo(base);
+        assertThat(key(noKeyword)).isNotEqualTo(base).isEqualTo(key(blankKeyword));
+    }
+
+    private String key(ImageSearchRequest request) {
+        return CacheKeyGenerator.imageSearchKey(1L, request, versions);
+    }
+
+    private ImageSearchRequest request(String keyword, List<String> tags) {
+        ImageSearchRequest request = new ImageSearchRequest();
+        request.setKeyword(keyword);
+        request.setTags(new ArrayList<>(tags));
+        request.setOnlyOwn(false);
+        return request;
+    }
+
+    private String hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return MurmurHash3.hash128Hex(bytes, bytes.length, 0);
+    }
+}
@@ -0,0 +1,154 @@
+package com.imagemanagement.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.imagemanagement.dto.response.ImageSummaryResponse;
+import com.imagemanagement.dto.response.PageResponse;
+import com.imagemanagement.entity.enums.ImagePrivacyLevel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedisSerializerTest {
+
+    private final ObjectMapper jsonMapper = fullTypeIds(cacheMapper(JsonMapper.builder()));
+    private final ObjectMapper smileMapper = CompactTypeIds.apply(
+            cacheMapper(SmileMapper.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)), validator());
+
+    @Test
+    void smile_shouldRoundTripPageOfSummaries() {
+        CompactRedisSerializer serializer = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 0);
+
+        byte[] bytes = serializer.serialize(samplePage(3));
+
+        assertThat(bytes[0]).isEqualTo(CompactRedisSerializer.VERSION);
+        assertThat(bytes[1] & CompactRedisSerializer.FLAG_LZ4).isZero();
+        assertSamplePage(serializer.deserialize(bytes), 3);
+    }
+
+    @Test
+    void smile_shouldCompressLargePayloads() {
+        CompactRedisSerializer plain = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 0);
+        CompactRedisSerializer compressed = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 256);
+        PageResponse<ImageSummaryResponse> page = samplePage(50);
+
+        byte[] bytes = compressed.serialize(page);
+
+        assertThat(bytes[1] & CompactRedisSerializer.FLAG_LZ4).isNotZero();
+        assertThat(bytes.length).isLessThan(plain.serialize(page).length);
+        assertSamplePage(compressed.deserialize(bytes), 50);
+    }
+
+    @Test
+    void smile_shouldBeSmallerThanLegacyJson() {
+        CompactRedisSerializer json = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.JSON, 0);
+        CompactRedisSerializer smile = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 0);
+        PageResponse<ImageSummaryResponse> page = samplePage(20);
+
+        // repeated type ids and strings become back-references, roughly a quarter of the JSON size
+        assertThat(smile.serialize(page).length).isLessThan(json.serialize(page).length / 3);
+    }
+
+    @Test
+    void smile_shouldWriteShortTypeIds() {
+        CompactRedisSerializer serializer = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 0);
+
+        String payload = new String(serializer.serialize(samplePage(3)), StandardCharsets.ISO_8859_1);
+
+        assertThat(payload).contains(".a.dto.response.PageResponse").doesNotContain("com.imagemanagement");
+    }
+
+    @Test
+    void smile_shouldReadValuesWrittenWithFullTypeIds() {
+        ObjectMapper fullIdSmileMapper = fullTypeIds(cacheMapper(SmileMapper.builder()));
+        CompactRedisSerializer previous = new CompactRedisSerializer(jsonMapper, fullIdSmileMapper, CacheCodecFormat.SMILE, 0);
+        CompactRedisSerializer current = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 0);
+
+        byte[] bytes = previous.serialize(samplePage(2));
+
+        assertSamplePage(current.deserialize(bytes), 2);
+    }
+
+    @Test
+    void deserialize_shouldReadValuesWrittenInEitherFormat() {
+        CompactRedisSerializer json = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.JSON, 0);
+        CompactRedisSerializer smile = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 64);
+
+        byte[] legacy = json.serialize(samplePage(2));
+        byte[] compact = smile.serialize(samplePage(2));
+
+        assertThat(legacy[0]).isEqualTo((byte) '{');
+        assertSamplePage(smile.deserialize(legacy), 2);
+        assertSamplePage(json.deserialize(compact), 2);
+    }
+
+    @Test
+    void nullValues_shouldMapToEmptyBytes() {
+        CompactRedisSerializer serializer = new CompactRedisSerializer(jsonMapper, smileMapper, CacheCodecFormat.SMILE, 0);
+
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertSamplePage(Object value, int size) {
+        assertThat(value).isInstanceOf(PageResponse.class);
+        PageResponse<ImageSummaryResponse> page = (PageResponse<ImageSummaryResponse>) value;
+        assertThat(page.getTotalElements()).isEqualTo(size);
+        assertThat(page.getContent()).hasSize(size);
+        ImageSummaryResponse last = page.getContent().get(size - 1);
+        assertThat(last.getId()).isEqualTo((long) size);
+        assertThat(last.getPrivacyLevel()).isEqualTo(ImagePrivacyLevel.PUBLIC);
+        assertThat(last.getUploadTime()).isEqualTo(LocalDateTime.of(2024, 5, 1, 12, 0));
+        assertThat(last.getTags()).containsExactly("beach", "sunset");
+    }
+
+    private PageResponse<ImageSummaryResponse> samplePage(int size) {
+        List<ImageSummaryResponse> content = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            ImageSummaryResponse summary = new ImageSummaryResponse();
+            summary.setId((long) i);
+            summary.setOriginalFilename("photo-" + i + ".jpg");
+            summary.setStoredFilename("stored-" + i + ".jpg");
+            summary.setFilePath("uploads/1/stored-" + i + ".jpg");
+            summary.setFileSize(1024L * i);
+            summary.setMimeType("image/jpeg");
+            summary.setPrivacyLevel(ImagePrivacyLevel.PUBLIC);
+            summary.setUploadTime(LocalDateTime.of(2024, 5, 1, 12, 0));
+            summary.setTags(new ArrayList<>(List.of("beach", "sunset")));
+            content.add(summary);
+        }
+        return new PageResponse<>(content, 0, size, size, 1, true, true);
+    }
+
+    private static ObjectMapper cacheMapper(MapperBuilder<?, ?> builder) {
+        return builder
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static ObjectMapper fullTypeIds(ObjectMapper mapper) {
+        return mapper.activateDefaultTyping(validator(), ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    }
+
+    private static PolymorphicTypeValidator validator() {
+        return BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.imagemanagement")
+                .allowIfSubType("java.time")
+                .allowIfSubType("java.util")
+                .allowIfSubType("java.lang")
+                .build();
+    }
+}
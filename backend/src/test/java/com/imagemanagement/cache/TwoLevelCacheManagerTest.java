@@ -0,0 +1,196 @@
+package com.imagemanagement.cache;
+
+import com.imagemanagement.config.CacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheManagerTest {
+
+    private ConcurrentMapCacheManager remote;
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingBus bus;
+    private CacheProperties cacheProperties;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager(CacheNames.USERS, CacheNames.IMAGE_SEARCH);
+        meterRegistry = new SimpleMeterRegistry();
+        bus = new RecordingBus();
+        cacheProperties = new CacheProperties();
+        cacheManager = new TwoLevelCacheManager(remote, cacheProperties, bus, CacheLease.NONE, meterRegistry);
+    }
+
+    @Test
+    void get_shouldServeRepeatedLookupsFromLocalTier() {
+        remote.getCache(CacheNames.USERS).put(7L, "profile");
+        Cache cache = cacheManager.getCache(CacheNames.USERS);
+
+        assertThat(cache.get(7L).get()).isEqualTo("profile");
+        assertThat(cache.get(7L).get()).isEqualTo("profile");
+
+        assertThat(count(CacheNames.USERS, "l1", "hit")).isEqualTo(1);
+        assertThat(count(CacheNames.USERS, "l1", "miss")).isEqualTo(1);
+        assertThat(count(CacheNames.USERS, "l2", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void evict_shouldClearBothTiersAndBroadcast() {
+        Cache cache = cacheManager.getCache(CacheNames.USERS);
+        cache.put(7L, "profile");
+
+        cache.evict(7L);
+
+        assertThat(cache.get(7L)).isNull();
+        assertThat(remote.getCache(CacheNames.USERS).get(7L)).isNull();
+        assertThat(bus.published).contains(CacheNames.USERS + "\t7");
+    }
+
+    @Test
+    void loaderFills_shouldNotBroadcastButPutsShould() {
+        Cache cache = cacheManager.getCache(CacheNames.USERS);
+
+        cache.get(7L, () -> "loaded");
+        cache.putIfAbsent(9L, "profile");
+        assertThat(bus.published).isEmpty();
+
+        cache.put(8L, "profile");
+
+        assertThat(bus.published).containsExactly(CacheNames.USERS + "\t8");
+    }
+
+    @Test
+    void remoteInvalidation_shouldDropOnlyLocalCopy() {
+        Cache cache = cacheManager.getCache(CacheNames.USERS);
+        cache.put(7L, "profile");
+        remote.getCache(CacheNames.USERS).put(7L, "updated");
+
+        bus.deliver(CacheNames.USERS + "\t7");
+
+        assertThat(cache.get(7L).get()).isEqualTo("updated");
+    }
+
+    @Test
+    void nullValues_shouldBeCachedLocally() {
+        Cache cache = cacheManager.getCache(CacheNames.IMAGE_SEARCH);
+        cache.put("k", null);
+
+        assertThat(cache.get("k")).isNotNull();
+        assertThat(cache.get("k").get()).isNull();
+    }
+
+    @Test
+    void get_shouldRunOneLoaderForConcurrentMisses() throws Exception {
+        Cache cache = cacheManager.getCache(CacheNames.IMAGE_SEARCH);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("hot", () -> {
+                    loads.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "page";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldWaitForAnotherNodeHoldingTheLease() {
+        CacheLease heldElsewhere = new CacheLease() {
+            @Override
+            public String tryAcquire(String key, Duration ttl) {
+                remote.getCache(CacheNames.IMAGE_SEARCH).put("hot", "from-other-node");
+                return null;
+            }
+
+            @Override
+            public void release(String key, String token) {
+            }
+        };
+        cacheManager = new TwoLevelCacheManager(remote, cacheProperties, bus, heldElsewhere, meterRegistry);
+        Cache cache = cacheManager.getCache(CacheNames.IMAGE_SEARCH);
+
+        String value = cache.get("hot", () -> "computed-here");
+
+        assertThat(value).isEqualTo("from-other-node");
+    }
+
+    @Test
+    void get_shouldRefreshHotEntriesBeforeTheyExpire() {
+        cacheProperties.setSearchTtl(Duration.ofMillis(1));
+        cacheProperties.getStampede().setEarlyRefreshBeta(1_000_000);
+        Cache cache = cacheManager.getCache(CacheNames.IMAGE_SEARCH);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            Thread.sleep(5);
+            return "page-" + loads.incrementAndGet();
+        };
+
+        assertThat(cache.get("hot", loader)).isEqualTo("page-1");
+        assertThat(bus.published).isEmpty();
+        assertThat(cache.get("hot", loader)).isEqualTo("page-2");
+        assertThat(bus.published).containsExactly(CacheNames.IMAGE_SEARCH + "\thot");
+
+        cacheProperties.getStampede().setEarlyRefreshBeta(0);
+        assertThat(cache.get("hot", () -> "unused")).isEqualTo("page-2");
+    }
+
+    private double count(String cache, String tier, String result) {
+        return meterRegistry.get("cache.tier.requests")
+                .tag("cache", cache)
+                .tag("tier", tier)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static class RecordingBus implements ClusterInvalidationBus {
+
+        private final List<String> published = new ArrayList<>();
+        private final Map<String, Consumer<String>> listeners = new HashMap<>();
+
+        @Override
+        public void publish(String channel, String message) {
+            published.add(message);
+        }
+
+        @Override
+        public void subscribe(String channel, Consumer<String> listener) {
+            listeners.put(channel, listener);
+        }
+
+        void deliver(String message) {
+            listeners.get(TwoLevelCacheManager.CHANNEL).accept(message);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.imagemanagement.config;
+
+import java.util.concurrent.Executor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("test")
+public class TestAiServiceConfig {
+
+    // AI calls run on the calling thread so that their writes join the test-managed transaction
+    @Bean
+    public Executor aiServiceExecutor() {
+        return Runnable::run;
+    }
+}
@@ -18,7 +18,9 @@ public class TestCacheConfig {
         return new ConcurrentMapCacheManager(
                 CacheNames.USERS,
                 CacheNames.IMAGES,
-                CacheNames.IMAGE_SEARCH
+                CacheNames.IMAGE_SEARCH,
+                CacheNames.AI_TAG_SUGGESTIONS,
+                CacheNames.AI_SEARCH_INTERPRETATIONS
         );
     }
 }
@@ -0,0 +1,39 @@
+package com.imagemanagement.geo;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoHashTest {
+
+    @Test
+    void encode_shouldMatchReferenceHash() {
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(48.8566, 2.3522, 5)).isEqualTo("u09tv");
+    }
+
+    @Test
+    void cover_shouldContainEveryPointInsideTheBox() {
+        GeoBoundingBox box = new GeoBoundingBox(42.0, 51.5, -5.0, 8.5);
+
+        List<String> cover = GeoHash.cover(box, 16);
+
+        assertThat(cover).isNotEmpty().hasSizeLessThanOrEqualTo(16);
+        for (double[] point : new double[][] {{48.8566, 2.3522}, {45.764, 4.8357}, {42.0, -5.0}, {51.5, 8.5}}) {
+            String hash = GeoHash.encode(point[0], point[1], GeoHash.MAX_PRECISION);
+            assertThat(cover).anyMatch(hash::startsWith);
+        }
+    }
+
+    @Test
+    void cover_shouldSplitBoxesCrossingTheAntimeridian() {
+        GeoBoundingBox box = GeoBoundingBox.around(-17.7, 179.9, 50);
+
+        List<String> cover = GeoHash.cover(box, 16);
+
+        assertThat(box.crossesAntimeridian()).isTrue();
+        assertThat(cover).anyMatch(GeoHash.encode(-17.7, 179.95, GeoHash.MAX_PRECISION)::startsWith);
+        assertThat(cover).anyMatch(GeoHash.encode(-17.7, -179.95, GeoHash.MAX_PRECISION)::startsWith);
+    }
+}
@@ -2,7 +2,11 @@ package com.imagemanagement.image;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.ai.AiServiceClient;
+import com.imagemanagement.ai.AiServiceUnavailableException;
+import com.imagemanagement.ai.dto.AiSearchInterpretation;
 import com.imagemanagement.dto.request.ImageSearchRequest;
+import com.imagemanagement.entity.ExifData;
 import com.imagemanagement.entity.Image;
 import com.imagemanagement.entity.ImageTag;
 import com.imagemanagement.entity.Tag;
@@ -15,11 +19,13 @@ import com.imagemanagement.repository.ImageRepository;
 import com.imagemanagement.repository.TagRepository;
 import com.imagemanagement.repository.UserRepository;
 import com.imagemanagement.support.TestImageResource;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +34,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -38,8 +45,15 @@ import org.springframework.lang.NonNull;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -69,6 +83,9 @@ class ImageSearchControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private AiServiceClient aiServiceClient;
+
     @Value("${app.file.upload-dir}")
     private Path uploadDir;
 
@@ -102,7 +119,7 @@ class ImageSearchControllerTest {
         String token = loginAndGetToken(owner.getUsername());
         ImageSearchRequest request = new ImageSearchRequest();
         request.setOnlyOwn(true);
-        request.setTags(List.of("city"));
+        request.setTags(List.of(" City "));
         request.setPage(0);
         request.setSize(10);
 
@@ -185,6 +202,226 @@ class ImageSearchControllerTest {
                 .andExpect(jsonPath("$.data.content[0].id").value(wideImageId));
     }
 
+    @Test
+    void searchImages_shouldSeeNewUploadsAfterCachedSearch() throws Exception {
+        User owner = persistUser("cache-owner", "cache-owner@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+
+        ImageSearchRequest request = new ImageSearchRequest();
+        request.setOnlyOwn(true);
+        request.setPage(0);
+        request.setSize(10);
+
+        uploadRealImage(token, TestImageResource.load("beach.jpeg"));
+        mockMvc.perform(post("/api/images/search")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(json(request))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(1));
+
+        uploadRealImage(token, TestImageResource.load("man2.png"));
+        mockMvc.perform(post("/api/images/search")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(json(request))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(2));
+    }
+
+    @Test
+    void searchImages_shouldFilterByBoundingBoxAndRadius() throws Exception {
+        User owner = persistUser("geo-owner", "geo-owner@example.com");
+        Image paris = persistGeotaggedImage(owner, "paris.jpg", 48.8566, 2.3522);
+        Image lyon = persistGeotaggedImage(owner, "lyon.jpg", 45.7640, 4.8357);
+        persistGeotaggedImage(owner, "tokyo.jpg", 35.6800, 139.6900);
+        persistImage(owner, "no-gps.jpg", ImagePrivacyLevel.PUBLIC, 800, 600, List.of());
+        String token = loginAndGetToken(owner.getUsername());
+
+        ImageSearchRequest france = new ImageSearchRequest();
+        france.setOnlyOwn(true);
+        france.setMinLatitude(42.0);
+        france.setMaxLatitude(51.5);
+        france.setMinLongitude(-5.0);
+        france.setMaxLongitude(8.5);
+        france.setSortBy("originalFilename");
+        france.setSortDirection(org.springframework.data.domain.Sort.Direction.ASC);
+
+        mockMvc.perform(post("/api/images/search")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(json(france))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(2))
+                .andExpect(jsonPath("$.data.content[0].id").value(lyon.getId()))
+                .andExpect(jsonPath("$.data.content[1].id").value(paris.getId()))
+                .andExpect(jsonPath("$.data.content[1].latitude").value(48.8566));
+
+        ImageSearchRequest nearParis = new ImageSearchRequest();
+        nearParis.setOnlyOwn(true);
+        nearParis.setCenterLatitude(48.80);
+        nearParis.setCenterLongitude(2.30);
+        nearParis.setRadiusKm(25.0);
+
+        mockMvc.perform(post("/api/images/search")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(json(nearParis))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(paris.getId()));
+    }
+
+    @Test
+    void searchImages_shouldRejectPartialBoundingBox() throws Exception {
+        User owner = persistUser("geo-partial", "geo-partial@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+
+        ImageSearchRequest request = new ImageSearchRequest();
+        request.setMinLatitude(10.0);
+        request.setMaxLatitude(20.0);
+
+        mockMvc.perform(post("/api/images/search")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(json(request))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void geoTiles_shouldCountVisiblePhotosPerCell() throws Exception {
+        User owner = persistUser("tile-owner", "tile-owner@example.com");
+        User viewer = persistUser("tile-viewer", "tile-viewer@example.com");
+        persistGeotaggedImage(owner, "paris.jpg", 48.8566, 2.3522);
+        persistGeotaggedImage(owner, "lyon.jpg", 45.7640, 4.8357);
+        persistGeotaggedImage(owner, "tokyo.jpg", 35.6800, 139.6900);
+        Image hidden = persistGeotaggedImage(owner, "hidden.jpg", 35.6900, 139.7000);
+        hidden.setPrivacyLevel(ImagePrivacyLevel.PRIVATE);
+        imageRepository.save(hidden);
+        String token = loginAndGetToken(viewer.getUsername());
+
+        mockMvc.perform(get("/api/images/geo/tiles")
+                        .param("zoom", "3")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[?(@.geohash == 'u0')].count").value(2))
+                .andExpect(jsonPath("$.data[?(@.geohash == 'xn')].count").value(1));
+
+        mockMvc.perform(get("/api/images/geo/tiles")
+                        .param("zoom", "3")
+                        .param("minLatitude", "30")
+                        .param("maxLatitude", "40")
+                        .param("minLongitude", "130")
+                        .param("maxLongitude", "145")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].geohash").value("xn"));
+    }
+
+    @Test
+    void geoTiles_shouldRejectCoordinatesOutOfRange() throws Exception {
+        User owner = persistUser("tile-range", "tile-range@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+
+        mockMvc.perform(get("/api/images/geo/tiles")
+                        .param("zoom", "3")
+                        .param("minLatitude", "-95")
+                        .param("maxLatitude", "40")
+                        .param("minLongitude", "130")
+                        .param("maxLongitude", "145")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/images/geo/tiles")
+                        .param("zoom", "3")
+                        .param("minLatitude", "30")
+                        .param("maxLatitude", "40")
+                        .param("minLongitude", "130")
+                        .param("maxLongitude", "190")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchNatural_shouldSearchWithTheInterpretedFilters() throws Exception {
+        User owner = persistUser("natural-owner", "natural-owner@example.com");
+        Tag evening = persistTag("daypart:evening");
+        Image sunset = persistImage(owner, "sunset.jpg", ImagePrivacyLevel.PUBLIC, 3840, 2160, List.of(evening));
+        persistImage(owner, "small-sunset.jpg", ImagePrivacyLevel.PUBLIC, 1280, 720, List.of(evening));
+        persistImage(owner, "noon.jpg", ImagePrivacyLevel.PUBLIC, 3840, 2160, List.of());
+        given(aiServiceClient.interpretSearch("4k sunset shots", null)).willReturn(new AiSearchInterpretation(
+                "4k sunset shots",
+                List.of(),
+                List.of("daypart:evening"),
+                Map.of("tags", List.of("daypart:evening"), "minWidth", 3840, "minHeight", 2160, "onlyOwn", false),
+                List.of(Map.of("rule", "resolution", "reason", "found 4k keyword")),
+                new BigDecimal("0.55")));
+        String token = loginAndGetToken(owner.getUsername());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/images/search/natural")
+                            .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                            .content(json(Map.of("query", "  4K Sunset   shots", "size", 5)))
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Server-Timing", containsString("interpret;dur=")))
+                    .andExpect(jsonPath("$.data.interpreted").value(true))
+                    .andExpect(jsonPath("$.data.criteria.tags[0]").value("daypart:evening"))
+                    .andExpect(jsonPath("$.data.criteria.keyword").doesNotExist())
+                    .andExpect(jsonPath("$.data.criteria.size").value(5))
+                    .andExpect(jsonPath("$.data.results.totalElements").value(1))
+                    .andExpect(jsonPath("$.data.results.content[0].id").value(sunset.getId()))
+                    .andExpect(jsonPath("$.data.timings.totalMs").isNumber());
+        }
+
+        verify(aiServiceClient, times(1)).interpretSearch("4k sunset shots", null);
+    }
+
+    @Test
+    void searchNatural_shouldFallBackToKeywordWhenInterpreterIsUnavailable() throws Exception {
+        User owner = persistUser("fallback-owner", "fallback-owner@example.com");
+        Image harbour = persistImage(owner, "harbour.jpg", ImagePrivacyLevel.PUBLIC, 800, 600, List.of());
+        persistImage(owner, "forest.jpg", ImagePrivacyLevel.PUBLIC, 800, 600, List.of());
+        given(aiServiceClient.interpretSearch(any(), any()))
+                .willThrow(new AiServiceUnavailableException("AI service circuit is open"));
+        String token = loginAndGetToken(owner.getUsername());
+
+        mockMvc.perform(post("/api/images/search/natural")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(json(Map.of("query", "harbour", "onlyOwn", true)))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.interpreted").value(false))
+                .andExpect(jsonPath("$.data.criteria.keyword").value("harbour"))
+                .andExpect(jsonPath("$.data.criteria.onlyOwn").value(true))
+                .andExpect(jsonPath("$.data.results.content.length()").value(1))
+                .andExpect(jsonPath("$.data.results.content[0].id").value(harbour.getId()));
+    }
+
+    @Test
+    void searchNatural_shouldRejectBlankQuery() throws Exception {
+        User owner = persistUser("blank-owner", "blank-owner@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+
+        mockMvc.perform(post("/api/images/search/natural")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(json(Map.of("query", "   ")))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Image persistGeotaggedImage(User owner, String originalFilename, double latitude, double longitude) {
+        Image image = persistImage(owner, originalFilename, ImagePrivacyLevel.PUBLIC, 800, 600, List.of());
+        ExifData exifData = new ExifData();
+        exifData.setImage(image);
+        exifData.setLatitude(BigDecimal.valueOf(latitude));
+        exifData.setLongitude(BigDecimal.valueOf(longitude));
+        image.setExifData(exifData);
+        return imageRepository.saveAndFlush(image);
+    }
+
     private User persistUser(String username, String email) {
         User user = new User();
         user.setUsername(username);
@@ -0,0 +1,242 @@
+package com.imagemanagement.image;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.UserRole;
+import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.repository.ImageRepository;
+import com.imagemanagement.repository.UserRepository;
+import com.imagemanagement.support.TestImageResource;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ImageSimilarityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.file.upload-dir}")
+    private Path uploadDir;
+
+    @Value("${app.thumbnail.base-dir}")
+    private Path thumbnailDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageRepository.deleteAll();
+        userRepository.deleteAll();
+        deleteDirectory(uploadDir);
+        deleteDirectory(thumbnailDir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        deleteDirectory(uploadDir);
+        deleteDirectory(thumbnailDir);
+    }
+
+    @Test
+    void upload_shouldWarnAboutResizedCopies() throws Exception {
+        User owner = persistUser("similar-owner", "similar-owner@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+        TestImageResource beach = TestImageResource.load("beach.jpeg");
+
+        long originalId = upload(token, beach.asMultipart("files"), false).path("id").asLong();
+        JsonNode copy = upload(token, resizedCopy(beach, "beach-small.jpeg"), true);
+        JsonNode unrelated = upload(token, TestImageResource.load("road2.jpeg").asMultipart("files"), true);
+
+        assertThat(ids(copy.path("nearDuplicateIds"))).containsExactly(originalId);
+        assertThat(ids(unrelated.path("nearDuplicateIds"))).isEmpty();
+        assertThat(imageRepository.findById(originalId).orElseThrow().getPerceptualHash()).isNotNull();
+    }
+
+    @Test
+    void upload_shouldReportCopiesWithinTheSameBatchBothWays() throws Exception {
+        User owner = persistUser("similar-owner", "similar-owner@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+        TestImageResource beach = TestImageResource.load("beach.jpeg");
+
+        MvcResult result = mockMvc.perform(multipart("/api/images/upload")
+                        .file(beach.asMultipart("files"))
+                        .file(resizedCopy(beach, "beach-small.jpeg"))
+                        .param("nearDuplicateCheck", "true")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(Objects.requireNonNull(MediaType.MULTIPART_FORM_DATA)))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode data = objectMapper.readTree(result.getResponse().getContentAsString()).path("data");
+
+        long originalId = data.get(0).path("id").asLong();
+        long copyId = data.get(1).path("id").asLong();
+        assertThat(ids(data.get(0).path("nearDuplicateIds"))).containsExactly(copyId);
+        assertThat(ids(data.get(1).path("nearDuplicateIds"))).containsExactly(originalId);
+    }
+
+    @Test
+    void similarAndNearDuplicates_shouldGroupCopiesOfTheSamePicture() throws Exception {
+        User owner = persistUser("similar-owner", "similar-owner@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+        TestImageResource beach = TestImageResource.load("beach.jpeg");
+
+        long originalId = upload(token, beach.asMultipart("files"), false).path("id").asLong();
+        long copyId = upload(token, resizedCopy(beach, "beach-small.jpeg"), false).path("id").asLong();
+        upload(token, TestImageResource.load("road2.jpeg").asMultipart("files"), false);
+
+        MvcResult similar = mockMvc.perform(get("/api/images/{imageId}/similar", originalId)
+                        .param("maxDistance", "6")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode matches = objectMapper.readTree(similar.getResponse().getContentAsString()).path("data");
+        assertThat(matches).hasSize(1);
+        assertThat(matches.get(0).path("image").path("id").asLong()).isEqualTo(copyId);
+        assertThat(matches.get(0).path("distance").asInt()).isLessThanOrEqualTo(6);
+
+        MvcResult groups = mockMvc.perform(get("/api/images/near-duplicates")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode data = objectMapper.readTree(groups.getResponse().getContentAsString()).path("data");
+        assertThat(data).hasSize(1);
+        assertThat(data.get(0).path("size").asInt()).isEqualTo(2);
+        List<Long> groupIds = new ArrayList<>();
+        data.get(0).path("images").forEach(image -> groupIds.add(image.path("id").asLong()));
+        assertThat(groupIds).containsExactlyInAnyOrder(originalId, copyId);
+    }
+
+    @Test
+    void similar_shouldRejectOtherUsersImagesAndInvalidDistance() throws Exception {
+        User owner = persistUser("similar-owner", "similar-owner@example.com");
+        User other = persistUser("similar-other", "similar-other@example.com");
+        String ownerToken = loginAndGetToken(owner.getUsername());
+        long imageId = upload(ownerToken, TestImageResource.load("beach.jpeg").asMultipart("files"), false)
+                .path("id").asLong();
+
+        mockMvc.perform(get("/api/images/{imageId}/similar", imageId)
+                        .header("Authorization", "Bearer " + loginAndGetToken(other.getUsername())))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/images/{imageId}/similar", imageId)
+                        .param("maxDistance", "65")
+                        .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode upload(String token, MockMultipartFile file, boolean nearDuplicateCheck) throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/api/images/upload")
+                        .file(Objects.requireNonNull(file))
+                        .param("nearDuplicateCheck", String.valueOf(nearDuplicateCheck))
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(Objects.requireNonNull(MediaType.MULTIPART_FORM_DATA)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).path("data").get(0);
+    }
+
+    // re-encoded at 60% scale: different bytes, same picture
+    private MockMultipartFile resizedCopy(TestImageResource source, String filename) throws IOException {
+        BufferedImage original = ImageIO.read(new ByteArrayInputStream(source.getBytes()));
+        int width = original.getWidth() * 3 / 5;
+        int height = original.getHeight() * 3 / 5;
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(original, 0, 0, width, height, null);
+        graphics.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(resized, "jpg", output);
+        return new MockMultipartFile("files", filename, "image/jpeg", output.toByteArray());
+    }
+
+    private List<Long> ids(JsonNode array) {
+        List<Long> ids = new ArrayList<>();
+        array.forEach(node -> ids.add(node.asLong()));
+        return ids;
+    }
+
+    private User persistUser(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("Password123"));
+        user.setStatus(UserStatus.ACTIVE);
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private String loginAndGetToken(String usernameOrEmail) throws Exception {
+        String payload = "{" +
+                "\"usernameOrEmail\":\"" + usernameOrEmail + "\"," +
+                "\"password\":\"Password123\"}";
+
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode jsonNode = objectMapper.readTree(result.getResponse().getContentAsString());
+        return jsonNode.path("data").path("token").asText();
+    }
+
+    private void deleteDirectory(Path directory) throws IOException {
+        if (directory != null && Files.exists(directory)) {
+            try (var paths = Files.walk(directory)) {
+                paths.sorted((p1, p2) -> p2.compareTo(p1))
+                        .forEach(path -> {
+                            try {
+                                Files.deleteIfExists(path);
+                            } catch (IOException ignored) {
+                            }
+                        });
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.imagemanagement.image;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.UserRole;
+import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.repository.ImageRepository;
+import com.imagemanagement.repository.UserRepository;
+import com.imagemanagement.service.TimelineService;
+import com.imagemanagement.support.TestImageResource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ImageTimelineControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.file.upload-dir}")
+    private Path uploadDir;
+
+    @Value("${app.thumbnail.base-dir}")
+    private Path thumbnailDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageRepository.deleteAll();
+        userRepository.deleteAll();
+        deleteDirectory(uploadDir);
+        deleteDirectory(thumbnailDir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        deleteDirectory(uploadDir);
+        deleteDirectory(thumbnailDir);
+    }
+
+    @Test
+    void timeline_shouldTrackUploadsAndDeletes() throws Exception {
+        User owner = persistUser("timeline-owner", "timeline-owner@example.com");
+        String token = loginAndGetToken(owner.getUsername());
+        long firstId = uploadImage(token, "road2.jpeg");
+        long secondId = uploadImage(token, "beach.jpeg");
+
+        Map<LocalDate, Long> expectedDays = imageRepository.findAllById(List.of(firstId, secondId)).stream()
+                .collect(Collectors.groupingBy(timelineService::bucketDate, TreeMap::new, Collectors.counting()));
+        assertThat(fetchTimeline(token, "DAY")).isEqualTo(expectedDays);
+
+        Map<LocalDate, Long> expectedMonths = expectedDays.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> entry.getKey().withDayOfMonth(1), TreeMap::new,
+                        Collectors.summingLong(Map.Entry::getValue)));
+        assertThat(fetchTimeline(token, "MONTH")).isEqualTo(expectedMonths);
+
+        LocalDate removedDate = timelineService.bucketDate(imageRepository.findById(firstId).orElseThrow());
+        mockMvc.perform(delete("/api/images/{imageId}", firstId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Map<LocalDate, Long> afterDelete = fetchTimeline(token, "DAY");
+        assertThat(afterDelete.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+        assertThat(afterDelete.getOrDefault(removedDate, 0L)).isEqualTo(expectedDays.get(removedDate) - 1);
+    }
+
+    @Test
+    void timeline_shouldOnlyCountOwnPhotos() throws Exception {
+        User owner = persistUser("timeline-owner", "timeline-owner@example.com");
+        User other = persistUser("timeline-other", "timeline-other@example.com");
+        uploadImage(loginAndGetToken(owner.getUsername()), "road2.jpeg");
+
+        assertThat(fetchTimeline(loginAndGetToken(other.getUsername()), "DAY")).isEmpty();
+    }
+
+    private Map<LocalDate, Long> fetchTimeline(String token, String granularity) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/images/timeline")
+                        .param("granularity", granularity)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        Map<LocalDate, Long> buckets = new TreeMap<>();
+        for (JsonNode bucket : objectMapper.readTree(result.getResponse().getContentAsString()).path("data")) {
+            buckets.put(LocalDate.parse(bucket.path("start").asText()), bucket.path("count").asLong());
+        }
+        return buckets;
+    }
+
+    private User persistUser(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("Password123"));
+        user.setStatus(UserStatus.ACTIVE);
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private String loginAndGetToken(String usernameOrEmail) throws Exception {
+        String payload = "{" +
+                "\"usernameOrEmail\":\"" + usernameOrEmail + "\"," +
+                "\"password\":\"Password123\"}";
+
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode jsonNode = objectMapper.readTree(result.getResponse().getContentAsString());
+        return jsonNode.path("data").path("token").asText();
+    }
+
+    private long uploadImage(String token, String filename) throws Exception {
+        MockMultipartFile file = TestImageResource.load(filename).asMultipart("files");
+
+        MvcResult result = mockMvc.perform(multipart("/api/images/upload")
+                        .file(Objects.requireNonNull(file))
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(Objects.requireNonNull(MediaType.MULTIPART_FORM_DATA)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode response = objectMapper.readTree(result.getResponse().getContentAsString());
+        return response.path("data").get(0).path("id").asLong();
+    }
+
+    private void deleteDirectory(Path directory) throws IOException {
+        if (directory != null && Files.exists(directory)) {
+            try (var paths = Files.walk(directory)) {
+                paths.sorted((p1, p2) -> p2.compareTo(p1))
+                        .forEach(path -> {
+                            try {
+                                Files.deleteIfExists(path);
+                            } catch (IOException ignored) {
+                            }
+                        });
+            }
+        }
+    }
+}
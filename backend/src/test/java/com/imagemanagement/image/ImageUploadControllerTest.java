@@ -2,6 +2,7 @@ package com.imagemanagement.image;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.ai.AiTaggingPriority;
 import com.imagemanagement.config.ThumbnailProperties;
 import com.imagemanagement.entity.Image;
 import com.imagemanagement.entity.User;
@@ -24,6 +25,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
@@ -69,6 +71,9 @@ class ImageUploadControllerTest {
     @Autowired
     private ThumbnailProperties thumbnailProperties;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() throws IOException {
         imageRepository.deleteAll();
@@ -112,6 +117,8 @@ class ImageUploadControllerTest {
         assertThat(storedImage.getThumbnails()).hasSize(thumbnailProperties.getPresets().size());
         storedImage.getThumbnails().forEach(thumbnail ->
                 assertThat(Files.exists(Path.of(thumbnail.getFilePath()))).isTrue());
+        assertThat(jdbcTemplate.queryForObject("SELECT priority FROM ai_tagging_queue WHERE image_id = ?",
+                Integer.class, storedImage.getId())).isEqualTo(AiTaggingPriority.INTERACTIVE.value());
         assertThat(Files.exists(uploadDir)).isTrue();
         try (var stream = Files.list(uploadDir.resolve(String.valueOf(user.getId())))) {
             assertThat(stream.count()).isEqualTo(1);
@@ -0,0 +1,202 @@
+package com.imagemanagement.image;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.imagemanagement.ai.AiServiceClient;
+import com.imagemanagement.ai.dto.AiImageEmbedding;
+import com.imagemanagement.ai.dto.AiTagSuggestion;
+import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
+import com.imagemanagement.entity.Image;
+import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.UserRole;
+import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.repository.ImageEmbeddingRepository;
+import com.imagemanagement.repository.ImageRepository;
+import com.imagemanagement.repository.UserRepository;
+import com.imagemanagement.security.CustomUserDetails;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@SuppressWarnings({"null"})
+class ImageVisualSimilarityControllerTest {
+
+    private static final Map<String, float[]> EMBEDDINGS = Map.of(
+            "sea-1.jpg", new float[] {1f, 0.1f, 0f, 0f},
+            "sea-2.jpg", new float[] {0.9f, 0.2f, 0.05f, 0f},
+            "city.jpg", new float[] {0f, 0.1f, 1f, 0.3f});
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ImageEmbeddingRepository imageEmbeddingRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private AiServiceClient aiServiceClient;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository.deleteAll();
+        userRepository.deleteAll();
+        owner = persistUser("visual-owner", "visual-owner@example.com");
+        given(aiServiceClient.suggestTags(any(Resource.class), any(), any())).willAnswer(invocation -> {
+            String filename = invocation.<Resource>getArgument(0).getFilename();
+            return new AiTagSuggestionResponse(
+                    List.of(new AiTagSuggestion("scene", 0.8, "test")),
+                    Map.of(),
+                    new AiImageEmbedding("test-model", 4, EMBEDDINGS.get(filename)));
+        });
+    }
+
+    @Test
+    void visuallySimilar_shouldRankByEmbeddingSimilarity() throws Exception {
+        Image sea = persistImage(owner, "sea-1.jpg");
+        Image otherSea = persistImage(owner, "sea-2.jpg");
+        Image city = persistImage(owner, "city.jpg");
+        for (Image image : List.of(sea, otherSea, city)) {
+            generateTags(image);
+        }
+
+        assertThat(imageEmbeddingRepository.findById(sea.getId())).get()
+                .satisfies(embedding -> assertThat(embedding.getDimensions()).isEqualTo(4));
+
+        JsonNode matches = fetchSimilar(sea.getId());
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(0).path("image").path("id").asLong()).isEqualTo(otherSea.getId());
+        assertThat(matches.get(0).path("similarity").asDouble()).isGreaterThan(0.95);
+        assertThat(matches.get(1).path("image").path("id").asLong()).isEqualTo(city.getId());
+
+        mockMvc.perform(delete("/api/images/{imageId}", otherSea.getId())
+                        .with(authentication(buildAuthentication(owner))))
+                .andExpect(status().isOk());
+
+        JsonNode afterDelete = fetchSimilar(sea.getId());
+        assertThat(afterDelete).hasSize(1);
+        assertThat(afterDelete.get(0).path("image").path("id").asLong()).isEqualTo(city.getId());
+    }
+
+    @Test
+    void visuallySimilar_shouldBeEmptyWithoutEmbeddingAndRejectStrangers() throws Exception {
+        Image sea = persistImage(owner, "sea-1.jpg");
+
+        assertThat(fetchSimilar(sea.getId())).isEmpty();
+
+        User stranger = persistUser("visual-stranger", "visual-stranger@example.com");
+        mockMvc.perform(get("/api/images/{imageId}/visually-similar", sea.getId())
+                        .with(authentication(buildAuthentication(stranger))))
+                .andExpect(status().isForbidden());
+    }
+
+    private void generateTags(Image image) throws Exception {
+        MvcResult pending = mockMvc.perform(post("/api/images/{imageId}/tags/ai/generate", image.getId())
+                        .header("Authorization", "Bearer " + loginAndGetToken(owner))
+                        .contentType(APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode fetchSimilar(Long imageId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/images/{imageId}/visually-similar", imageId)
+                        .with(authentication(buildAuthentication(owner))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).path("data");
+    }
+
+    private String loginAndGetToken(User user) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(Map.of(
+                                "usernameOrEmail", user.getUsername(), "password", "Password123!"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).path("data").path("token").asText();
+    }
+
+    private Authentication buildAuthentication(User user) {
+        CustomUserDetails principal = new CustomUserDetails(userRepository.findById(user.getId()).orElseThrow());
+        return new UsernamePasswordAuthenticationToken(principal, principal.getPassword(), principal.getAuthorities());
+    }
+
+    private User persistUser(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPasswordHash(passwordEncoder.encode("Password123!"));
+        user.setStatus(UserStatus.ACTIVE);
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private Image persistImage(User imageOwner, String originalFilename) {
+        Image newImage = new Image();
+        newImage.setUser(imageOwner);
+        newImage.setOriginalFilename(originalFilename);
+        newImage.setStoredFilename(originalFilename + "-stored");
+        try {
+            Path tempFile = Files.createTempFile("img-", originalFilename);
+            Files.writeString(tempFile, "dummy-image", StandardCharsets.UTF_8);
+            tempFile.toFile().deleteOnExit();
+            newImage.setFilePath(tempFile.toAbsolutePath().toString());
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to prepare test image", ex);
+        }
+        newImage.setFileSize(1_024L);
+        newImage.setMimeType("image/jpeg");
+        newImage.setUploadTime(LocalDateTime.now());
+        newImage.setWidth(800);
+        newImage.setHeight(600);
+        return imageRepository.save(newImage);
+    }
+}
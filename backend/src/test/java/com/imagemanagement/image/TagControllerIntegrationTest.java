@@ -4,19 +4,26 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.imagemanagement.ai.AiServiceClient;
+import com.imagemanagement.ai.dto.AiImageEmbedding;
+import com.imagemanagement.ai.dto.AiTagBatchItem;
+import com.imagemanagement.ai.dto.AiTagBatchResponse;
 import com.imagemanagement.ai.dto.AiTagSuggestion;
 import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
 import com.imagemanagement.dto.request.AiTagAssignmentRequest;
+import com.imagemanagement.dto.request.AiTagBatchGenerationRequest;
 import com.imagemanagement.dto.request.AiTagGenerationRequest;
+import com.imagemanagement.dto.request.BulkTagRequest;
 import com.imagemanagement.dto.request.TagAssignmentRequest;
 import com.imagemanagement.entity.Image;
 import com.imagemanagement.entity.ImageTag;
@@ -25,17 +32,21 @@ import com.imagemanagement.entity.User;
 import com.imagemanagement.entity.enums.TagType;
 import com.imagemanagement.entity.enums.UserRole;
 import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.repository.ImageEmbeddingRepository;
 import com.imagemanagement.repository.ImageRepository;
 import com.imagemanagement.repository.ImageTagRepository;
 import com.imagemanagement.repository.TagRepository;
 import com.imagemanagement.repository.UserRepository;
 import com.imagemanagement.security.CustomUserDetails;
+import com.imagemanagement.tag.PopularTagRanking;
+import com.imagemanagement.tag.TagSuggestionIndex;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,16 +54,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -79,9 +94,18 @@ class TagControllerIntegrationTest {
     @Autowired
     private ImageTagRepository imageTagRepository;
 
+    @Autowired
+    private ImageEmbeddingRepository imageEmbeddingRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TagSuggestionIndex tagSuggestionIndex;
+
+    @Autowired
+    private PopularTagRanking popularTagRanking;
+
     @MockBean
     private AiServiceClient aiServiceClient;
 
@@ -155,6 +179,7 @@ class TagControllerIntegrationTest {
     void getPopularTags_shouldRespectLimitAndOrder() throws Exception {
         createTag("alpha", TagType.CUSTOM, 5);
         createTag("beta", TagType.CUSTOM, 2);
+        popularTagRanking.reconcile();
 
         mockMvc.perform(get("/api/tags/popular").param("limit", "1")
                 .with(authentication(buildAuthentication(owner))))
@@ -163,6 +188,22 @@ class TagControllerIntegrationTest {
                 .andExpect(jsonPath("$.data[0].tagName").value("alpha"));
     }
 
+    @Test
+    void suggestTags_shouldCompletePrefixByUsage() throws Exception {
+        createTag("landmark", TagType.CUSTOM, 2);
+        createTag("Landscape", TagType.AI, 8);
+        createTag("lake", TagType.CUSTOM, 20);
+        tagSuggestionIndex.reload();
+
+        mockMvc.perform(get("/api/tags/suggest").param("prefix", "LAND")
+                .with(authentication(buildAuthentication(owner))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].tagName").value("Landscape"))
+                .andExpect(jsonPath("$.data[0].usageCount").value(8))
+                .andExpect(jsonPath("$.data[1].tagName").value("landmark"));
+    }
+
     @Test
     void addAiTags_shouldDeduplicateAndStoreWithAiType() throws Exception {
         AiTagAssignmentRequest request = new AiTagAssignmentRequest(List.of(
@@ -188,15 +229,20 @@ class TagControllerIntegrationTest {
         void generateAiTags_shouldInvokeAiServiceAndPersistResponse() throws Exception {
         AiTagSuggestionResponse aiResponse = new AiTagSuggestionResponse(
             List.of(new AiTagSuggestion("ocean", 0.91, "test")),
-            java.util.Map.of("width", 100));
-        given(aiServiceClient.suggestTags(any(), anyString(), anyList(), any())).willReturn(aiResponse);
+            java.util.Map.of("width", 100),
+            null);
+        given(aiServiceClient.suggestTags(any(Resource.class), anyList(), any())).willReturn(aiResponse);
 
         AiTagGenerationRequest request = new AiTagGenerationRequest(List.of("vacation"), 3);
 
-        mockMvc.perform(post("/api/images/{imageId}/tags/ai/generate", image.getId())
-                .with(authentication(buildAuthentication(owner)))
+        MvcResult pending = mockMvc.perform(post("/api/images/{imageId}/tags/ai/generate", image.getId())
+                .header("Authorization", "Bearer " + loginAndGetToken(owner))
                 .contentType(APPLICATION_JSON)
                 .content(objectMapper.writeValueAsBytes(request)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.data", hasSize(1)))
             .andExpect(jsonPath("$.data[0].tagName").value("ocean"))
@@ -205,6 +251,165 @@ class TagControllerIntegrationTest {
         assertThat(imageTagRepository.findAllByImageId(image.getId())).hasSize(1);
         }
 
+    @Test
+    void generateAiTags_shouldReuseSuggestionsForIdenticalContent() throws Exception {
+        given(aiServiceClient.suggestTags(any(Resource.class), any(), any())).willReturn(new AiTagSuggestionResponse(
+                List.of(new AiTagSuggestion("mountain", 0.88, "test")), Map.of("width", 100), null));
+        image.setContentHash("shared-content-hash");
+        imageRepository.save(image);
+        Image copy = persistImage(persistUser("other-owner", "other-owner@example.com"), "copy.jpg");
+        copy.setContentHash("shared-content-hash");
+        imageRepository.save(copy);
+
+        generateAiTags(owner, image);
+        generateAiTags(copy.getUser(), copy);
+
+        verify(aiServiceClient, times(1)).suggestTags(any(Resource.class), any(), any());
+        assertThat(imageTagRepository.findAllByImageId(copy.getId()))
+                .extracting(imageTag -> imageTag.getTag().getTagName())
+                .containsExactly("mountain");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateAiTagsBatch_shouldTagEveryReadableImageFromOneBatchCall() throws Exception {
+        Image second = persistImage(owner, "second.jpg");
+        Image unreadable = persistImage(owner, "broken.jpg");
+        image.setContentHash("batch-content-hash");
+        imageRepository.save(image);
+        given(aiServiceClient.suggestTagsBatch(anyMap(), any(), any())).willAnswer(invocation -> {
+            Map<String, Resource> images = invocation.getArgument(0);
+            assertThat(images).containsOnlyKeys(String.valueOf(image.getId()), String.valueOf(second.getId()),
+                    String.valueOf(unreadable.getId()));
+            return new AiTagBatchResponse(List.of(
+                    new AiTagBatchItem(String.valueOf(image.getId()),
+                            List.of(new AiTagSuggestion("ocean", 0.91, "test"), new AiTagSuggestion("Beach", 0.8, "test")),
+                            Map.of(), new AiImageEmbedding("color-layout-v1", 2, new float[] {0.6f, 0.8f}), null),
+                    new AiTagBatchItem(String.valueOf(second.getId()),
+                            List.of(new AiTagSuggestion("beach", 0.6, "test")), Map.of(), null, null),
+                    new AiTagBatchItem(String.valueOf(unreadable.getId()), null, null, null,
+                            "Provided content is not a valid image")));
+        });
+        AiTagBatchGenerationRequest request = new AiTagBatchGenerationRequest(
+                List.of(image.getId(), second.getId(), unreadable.getId()), List.of("holiday"), 5, null);
+        String token = loginAndGetToken(owner);
+
+        MvcResult pending = mockMvc.perform(post("/api/images/tags/ai/generate-batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imageCount").value(3))
+                .andExpect(jsonPath("$.data.batchCount").value(1))
+                .andExpect(jsonPath("$.data.taggedCount").value(2))
+                .andExpect(jsonPath("$.data.linksAdded").value(3))
+                .andExpect(jsonPath("$.data.failedImageIds[0]").value(unreadable.getId()));
+
+        assertThat(imageTagRepository.findAllByImageId(image.getId()))
+                .extracting(imageTag -> imageTag.getTag().getTagName().toLowerCase())
+                .containsExactlyInAnyOrder("ocean", "beach");
+        assertThat(imageTagRepository.findAllByImageId(second.getId()))
+                .extracting(imageTag -> imageTag.getTag().getTagType())
+                .containsExactly(TagType.AI);
+        assertThat(imageTagRepository.findAllByImageId(unreadable.getId())).isEmpty();
+        assertThat(imageEmbeddingRepository.findById(image.getId()))
+                .hasValueSatisfying(embedding -> assertThat(embedding.getModel()).isEqualTo("color-layout-v1"));
+
+        // the batch result was cached under the image's content hash, so a re-run does not call the AI service
+        MvcResult rerun = mockMvc.perform(post("/api/images/tags/ai/generate-batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(new AiTagBatchGenerationRequest(
+                                List.of(image.getId()), List.of("holiday"), 5, null))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(rerun))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.taggedCount").value(1));
+        verify(aiServiceClient, times(1)).suggestTagsBatch(anyMap(), any(), any());
+    }
+
+    @Test
+    void generateAiTagsBatch_shouldRejectWhenAnyImageIsNotOwned() throws Exception {
+        Image foreign = persistImage(persistUser("intruder", "intruder@example.com"), "foreign.jpg");
+        AiTagBatchGenerationRequest request = new AiTagBatchGenerationRequest(
+                List.of(image.getId(), foreign.getId()), null, null, null);
+
+        mockMvc.perform(post("/api/images/tags/ai/generate-batch")
+                        .with(authentication(buildAuthentication(owner)))
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("You do not have permission to modify one or more images"));
+    }
+
+    @Test
+    void bulkAddTags_shouldLinkEveryImageOnceAndReportSummary() throws Exception {
+        Image second = persistImage(owner, "second.jpg");
+        Tag beach = createTag("beach", TagType.CUSTOM, 1);
+        linkTag(image, beach);
+        BulkTagRequest payload = new BulkTagRequest(List.of(image.getId(), second.getId()), List.of("Beach", "Trip 2024"));
+
+        mockMvc.perform(post("/api/images/tags/bulk")
+                        .with(authentication(buildAuthentication(owner)))
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imageCount").value(2))
+                .andExpect(jsonPath("$.data.tagCount").value(2))
+                .andExpect(jsonPath("$.data.linksChanged").value(3));
+
+        assertThat(imageTagRepository.findAllByImageId(image.getId())).hasSize(2);
+        assertThat(imageTagRepository.findAllByImageId(second.getId()))
+                .extracting(imageTag -> imageTag.getTag().getTagName())
+                .containsExactlyInAnyOrder("beach", "Trip 2024");
+    }
+
+    @Test
+    void bulkRemoveTags_shouldUnlinkOnlyRequestedImages() throws Exception {
+        Image second = persistImage(owner, "second.jpg");
+        Image untouched = persistImage(owner, "third.jpg");
+        Tag beach = createTag("beach", TagType.CUSTOM, 3);
+        linkTag(image, beach);
+        linkTag(second, beach);
+        linkTag(untouched, beach);
+        BulkTagRequest payload = new BulkTagRequest(List.of(image.getId(), second.getId()), List.of("BEACH", "unknown"));
+
+        mockMvc.perform(post("/api/images/tags/bulk/remove")
+                        .with(authentication(buildAuthentication(owner)))
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imageCount").value(2))
+                .andExpect(jsonPath("$.data.tagCount").value(1))
+                .andExpect(jsonPath("$.data.linksChanged").value(2));
+
+        assertThat(imageTagRepository.findAllByImageId(image.getId())).isEmpty();
+        assertThat(imageTagRepository.findAllByImageId(second.getId())).isEmpty();
+        assertThat(imageTagRepository.existsByImage_IdAndTag_Id(untouched.getId(), beach.getId())).isTrue();
+    }
+
+    @Test
+    void bulkAddTags_shouldRejectWhenAnyImageIsNotOwned() throws Exception {
+        User otherUser = persistUser("intruder", "intruder@example.com");
+        Image foreign = persistImage(otherUser, "foreign.jpg");
+        BulkTagRequest payload = new BulkTagRequest(List.of(image.getId(), foreign.getId()), List.of("Forbidden"));
+
+        mockMvc.perform(post("/api/images/tags/bulk")
+                        .with(authentication(buildAuthentication(owner)))
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("You do not have permission to modify one or more images"));
+
+        assertThat(imageTagRepository.findAllByImageId(image.getId())).isEmpty();
+        assertThat(imageTagRepository.findAllByImageId(foreign.getId())).isEmpty();
+    }
+
     @Test
     void addCustomTags_shouldRejectWhenUserDoesNotOwnImage() throws Exception {
         User otherUser = persistUser("intruder", "intruder@example.com");
@@ -220,6 +425,24 @@ class TagControllerIntegrationTest {
         assertThat(imageTagRepository.findAllByImageId(image.getId())).isEmpty();
     }
 
+    private void generateAiTags(User user, Image target) throws Exception {
+        MvcResult pending = mockMvc.perform(post("/api/images/{imageId}/tags/ai/generate", target.getId())
+                        .header("Authorization", "Bearer " + loginAndGetToken(user)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isOk());
+    }
+
+    private String loginAndGetToken(User user) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(Map.of(
+                                "usernameOrEmail", user.getUsername(), "password", "Password123!"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).path("data").path("token").asText();
+    }
+
     private Authentication buildAuthentication(User user) {
         CustomUserDetails principal = new CustomUserDetails(userRepository.findById(user.getId()).orElseThrow());
         return new UsernamePasswordAuthenticationToken(principal, principal.getPassword(), principal.getAuthorities());
@@ -0,0 +1,71 @@
+package com.imagemanagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.UserRole;
+import com.imagemanagement.entity.enums.UserStatus;
+import com.imagemanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// not @Transactional: eviction happens when the user's update commits
+@SpringBootTest
+@ActiveProfiles("test")
+@SuppressWarnings({"null"})
+class UserPrincipalCacheTest {
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User newUser = new User();
+        newUser.setUsername("principal-user");
+        newUser.setEmail("principal-user@example.com");
+        newUser.setPasswordHash("hash");
+        newUser.setStatus(UserStatus.ACTIVE);
+        newUser.setRole(UserRole.USER);
+        user = userRepository.save(newUser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void get_shouldServeTheSamePrincipalUntilTheUserChanges() {
+        CustomUserDetails first = principalCache.get(user.getId());
+
+        assertThat(principalCache.get(user.getId())).isSameAs(first);
+        assertThat(first.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+
+        user.setRole(UserRole.ADMIN);
+        user.setStatus(UserStatus.DISABLED);
+        user = userRepository.save(user);
+
+        CustomUserDetails reloaded = principalCache.get(user.getId());
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(reloaded.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ADMIN");
+        assertThat(reloaded.isEnabled()).isFalse();
+    }
+
+    @Test
+    void evict_shouldDropTheCachedPrincipal() {
+        CustomUserDetails first = principalCache.get(user.getId());
+
+        principalCache.evict(user.getId());
+
+        assertThat(principalCache.get(user.getId())).isNotSameAs(first);
+    }
+}
@@ -0,0 +1,57 @@
+package com.imagemanagement.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.imagemanagement.config.JwtProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JwtTokenProviderTest {
+
+    private JwtProperties properties;
+    private VerifiedTokenCache verifiedTokens;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setSecret("test-jwt-secret-key-test-jwt-secret-key");
+        properties.setExpiration(60_000L);
+        properties.setRefreshExpiration(600_000L);
+        verifiedTokens = new VerifiedTokenCache(properties);
+        tokenProvider = new JwtTokenProvider(properties, verifiedTokens);
+    }
+
+    @Test
+    void resolveUserId_shouldReturnTheSubjectOfAValidToken() {
+        String token = tokenProvider.generateToken(42L);
+
+        assertThat(verifiedTokens.find(token)).isEmpty();
+        assertThat(tokenProvider.resolveUserId(token)).contains(42L);
+        assertThat(verifiedTokens.find(token)).contains(42L);
+        assertThat(tokenProvider.resolveUserId(token)).contains(42L);
+    }
+
+    @Test
+    void resolveUserId_shouldRejectTamperedExpiredAndForeignTokens() {
+        String token = tokenProvider.generateToken(42L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        properties.setExpiration(-1_000L);
+        String expired = tokenProvider.generateToken(42L);
+
+        JwtProperties otherProperties = new JwtProperties();
+        otherProperties.setSecret("another-secret-another-secret-another");
+        otherProperties.setExpiration(60_000L);
+        otherProperties.setRefreshExpiration(600_000L);
+        String foreign = new JwtTokenProvider(otherProperties,
+                new VerifiedTokenCache(otherProperties)).generateToken(42L);
+
+        assertThat(tokenProvider.resolveUserId(tampered)).isEmpty();
+        assertThat(tokenProvider.resolveUserId(expired)).isEmpty();
+        assertThat(tokenProvider.resolveUserId(foreign)).isEmpty();
+        assertThat(tokenProvider.resolveUserId("not-a-jwt")).isEmpty();
+        assertThat(verifiedTokens.find(tampered)).isEmpty();
+        assertThat(verifiedTokens.find(expired)).isEmpty();
+    }
+}
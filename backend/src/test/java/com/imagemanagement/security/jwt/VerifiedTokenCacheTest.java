@@ -0,0 +1,56 @@
+package com.imagemanagement.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.imagemanagement.config.JwtProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiI0MiJ9.signature";
+
+    private JwtProperties properties;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        cache = new VerifiedTokenCache(properties);
+    }
+
+    @Test
+    void find_shouldReturnTheSubjectOfAVerifiedToken() {
+        cache.put(TOKEN, 42L, inOneMinute());
+
+        assertThat(cache.find(TOKEN)).contains(42L);
+        assertThat(cache.find(TOKEN + "x")).isEmpty();
+    }
+
+    @Test
+    void find_shouldIgnoreExpiredTokens() {
+        cache.put(TOKEN, 42L, System.currentTimeMillis() - 1);
+
+        assertThat(cache.find(TOKEN)).isEmpty();
+    }
+
+    @Test
+    void shouldRememberNothingWhenDisabled() {
+        properties.getVerifiedTokens().setEnabled(false);
+        cache = new VerifiedTokenCache(properties);
+
+        cache.put(TOKEN, 42L, inOneMinute());
+
+        assertThat(cache.find(TOKEN)).isEmpty();
+    }
+
+    @Test
+    void hash_shouldSpreadTokensThatDifferInOneCharacter() {
+        assertThat(VerifiedTokenCache.hash(TOKEN)).isNotEqualTo(VerifiedTokenCache.hash(TOKEN.substring(0, TOKEN.length() - 1) + "x"));
+        assertThat(VerifiedTokenCache.hash(TOKEN)).isEqualTo(VerifiedTokenCache.hash(new String(TOKEN.toCharArray())));
+    }
+
+    private static long inOneMinute() {
+        return System.currentTimeMillis() + 60_000;
+    }
+}
@@ -1,6 +1,11 @@
 package com.imagemanagement.service.impl;
 
-import com.imagemanagement.ai.AiServiceClient;
+import com.imagemanagement.ai.AiImagePayloads;
+import com.imagemanagement.ai.AiTagSuggestionCache;
+import com.imagemanagement.ai.AsyncAiServiceClient;
+import com.imagemanagement.ai.dto.AiImageEmbedding;
+import com.imagemanagement.ai.dto.AiTagSuggestionResponse;
+import com.imagemanagement.cache.SearchCacheVersions;
 import com.imagemanagement.dto.request.AiTagAssignmentRequest;
 import com.imagemanagement.dto.request.TagAssignmentRequest;
 import com.imagemanagement.dto.response.ImageTagResponse;
@@ -8,18 +13,30 @@ import com.imagemanagement.exception.BadRequestException;
 import com.imagemanagement.entity.ExifData;
 import com.imagemanagement.entity.Image;
 import com.imagemanagement.entity.User;
+import com.imagemanagement.entity.enums.TagType;
 import com.imagemanagement.repository.ImageRepository;
 import com.imagemanagement.repository.ImageTagRepository;
 import com.imagemanagement.repository.TagRepository;
+import com.imagemanagement.repository.TagRepositoryCustom;
 import com.imagemanagement.repository.UserRepository;
+import com.imagemanagement.service.ImageEmbeddingService;
 import com.imagemanagement.service.TagService;
+import com.imagemanagement.tag.PopularTagRanking;
+import com.imagemanagement.tag.TagDictionary;
+import com.imagemanagement.tag.TagSuggestionIndex;
+import com.imagemanagement.tag.TagUsageCounters;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -27,10 +44,24 @@ import org.springframework.test.context.TestPropertySource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @DataJpaTest
 @Import(TagServiceImpl.class)
-@TestPropertySource(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // tag resolution issues MySQL-flavoured upserts through JDBC
+        "spring.datasource.url=jdbc:h2:mem:tag-service;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
 @SuppressWarnings({"DataFlowIssue", "null"})
 class TagServiceImplTest {
 
@@ -50,13 +81,40 @@ class TagServiceImplTest {
     private UserRepository userRepository;
 
     @MockBean
-    private AiServiceClient aiServiceClient;
+    private AsyncAiServiceClient aiServiceClient;
+
+    @MockBean
+    private AiImagePayloads aiImagePayloads;
+
+    @MockBean
+    private AiTagSuggestionCache aiTagSuggestionCache;
+
+    @MockBean
+    private SearchCacheVersions searchCacheVersions;
+
+    @MockBean
+    private ImageEmbeddingService imageEmbeddingService;
+
+    @MockBean
+    private TagSuggestionIndex tagSuggestionIndex;
+
+    @MockBean
+    private PopularTagRanking popularTagRanking;
+
+    @MockBean
+    private TagUsageCounters tagUsageCounters;
+
+    @MockBean
+    private TagDictionary tagDictionary;
 
     private User user;
     private Image image;
 
     @BeforeEach
     void setUp() {
+        given(tagDictionary.lookup(anyCollection())).willAnswer(invocation -> new TagDictionary.Lookup(
+                Map.of(), Set.of(), List.copyOf(invocation.<Collection<String>>getArgument(0))));
+
         user = new User();
         user.setUsername("alice");
         user.setEmail("alice@example.com");
@@ -124,6 +182,17 @@ class TagServiceImplTest {
                 .hasMessageContaining("tags cannot be empty");
     }
 
+    @Test
+    void generateAiTags_shouldNotStoreTheEmbeddingWhenNoTagsCameBack() {
+        AiTagSuggestionResponse empty = new AiTagSuggestionResponse(List.of(), Map.of(),
+                new AiImageEmbedding("clip", 2, new float[] {0.1f, 0.2f}));
+        given(aiTagSuggestionCache.get(any(), any(), anyList(), any())).willReturn(Optional.of(empty));
+
+        assertThatThrownBy(() -> tagService.generateAiTags(user.getId(), image.getId(), null))
+                .isInstanceOf(BadRequestException.class);
+        verify(imageEmbeddingService, never()).store(any(), any());
+    }
+
     @Test
     void applyAutomaticTags_shouldGenerateExifBasedTags() {
         ExifData exif = new ExifData();
@@ -156,6 +225,21 @@ class TagServiceImplTest {
         assertThat(tagRepository.count()).isEqualTo(1);
     }
 
+    @Test
+    void assignCustomTags_shouldReuseExistingTagsAndSkipExistingLinks() {
+        tagRepository.insertMissing(List.of(new TagRepositoryCustom.NewTag("travel", TagType.CUSTOM)));
+        tagRepository.insertMissing(List.of(new TagRepositoryCustom.NewTag("travel", TagType.AI)));
+        tagService.assignCustomTags(user.getId(), image.getId(), new TagAssignmentRequest(List.of("Travel")));
+
+        List<ImageTagResponse> responses = tagService.assignCustomTags(user.getId(), image.getId(),
+                new TagAssignmentRequest(List.of("TRAVEL", "Beach")));
+
+        assertThat(responses).extracting(ImageTagResponse::tagName).containsExactly("Beach", "travel");
+        assertThat(tagRepository.count()).isEqualTo(2);
+        assertThat(imageTagRepository.findAll()).hasSize(2);
+        assertThat(tagRepository.findByTagNameIgnoreCase("travel").orElseThrow().getTagType()).isEqualTo(TagType.CUSTOM);
+    }
+
     @Test
     void getTagsForImage_shouldFailWhenImageMissing() {
         assertThatThrownBy(() -> tagService.getTagsForImage(999L))
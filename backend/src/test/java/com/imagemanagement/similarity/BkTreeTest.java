@@ -0,0 +1,105 @@
+package com.imagemanagement.similarity;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BkTreeTest {
+
+    @Test
+    void search_shouldMatchLinearScan() {
+        Random random = new Random(42);
+        BkTree tree = new BkTree();
+        List<Long> hashes = new ArrayList<>();
+        for (long id = 0; id < 2_000; id++) {
+            long hash = id % 10 == 0 && id > 0 ? flipBits(hashes.get((int) id - 1), random, 3) : random.nextLong();
+            hashes.add(hash);
+            tree.add(hash, id);
+        }
+
+        for (int probe = 0; probe < 50; probe++) {
+            long query = flipBits(hashes.get(random.nextInt(hashes.size())), random, 2);
+            List<Long> expected = new ArrayList<>();
+            for (int id = 0; id < hashes.size(); id++) {
+                if (PerceptualHash.distance(hashes.get(id), query) <= 8) {
+                    expected.add((long) id);
+                }
+            }
+            assertThat(tree.search(query, 8)).extracting(BkTree.Match::id).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void remove_shouldHideEntriesAndSurviveCompaction() {
+        BkTree tree = new BkTree();
+        tree.add(0b1111L, 1);
+        tree.add(0b1111L, 2);
+        tree.add(0b1110L, 3);
+        tree.add(0L, 4);
+
+        assertThat(tree.remove(0b1111L, 1)).isTrue();
+        assertThat(tree.remove(0b1111L, 1)).isFalse();
+        assertThat(tree.remove(0b1111L, 2)).isTrue();
+        tree.compact();
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.search(0b1111L, 1)).extracting(BkTree.Match::id).containsExactly(3L);
+        assertThat(tree.search(0b1111L, 4)).extracting(BkTree.Match::distance).containsExactly(1, 4);
+    }
+
+    @Test
+    void groups_shouldJoinTransitivelyCloseEntries() {
+        BkTree tree = new BkTree();
+        tree.add(0L, 10);
+        tree.add(0b11L, 11);
+        tree.add(0b1111L, 12);
+        tree.add(-1L, 20);
+        tree.add(-1L ^ 0b1L, 21);
+        tree.add(0xFF00FF00L, 30);
+
+        List<List<BkTree.Match>> groups = tree.groups(2);
+
+        assertThat(groups).hasSize(2);
+        assertThat(groups.get(0)).extracting(BkTree.Match::id).containsExactly(10L, 11L, 12L);
+        assertThat(groups.get(1)).extracting(BkTree.Match::id).containsExactly(20L, 21L);
+    }
+
+    @Test
+    void dHash_shouldTolerateResizingButSeparateDifferentPictures() {
+        BufferedImage original = gradient(640, 480, Color.BLACK, Color.WHITE);
+        BufferedImage resized = new BufferedImage(200, 150, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        graphics.drawImage(original, 0, 0, 200, 150, null);
+        graphics.dispose();
+        BufferedImage mirrored = gradient(640, 480, Color.WHITE, Color.BLACK);
+
+        long originalHash = PerceptualHash.dHash(original);
+
+        assertThat(PerceptualHash.distance(originalHash, PerceptualHash.dHash(resized))).isLessThanOrEqualTo(4);
+        assertThat(PerceptualHash.distance(originalHash, PerceptualHash.dHash(mirrored))).isGreaterThan(32);
+    }
+
+    private static BufferedImage gradient(int width, int height, Color from, Color to) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, from, width, height / 3f, to));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static long flipBits(long hash, Random random, int count) {
+        long result = hash;
+        for (int i = 0; i < count; i++) {
+            result ^= 1L << random.nextInt(64);
+        }
+        return result;
+    }
+}
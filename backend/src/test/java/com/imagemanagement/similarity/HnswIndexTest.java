@@ -0,0 +1,107 @@
+package com.imagemanagement.similarity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void search_shouldRecallMostExactNeighbours() {
+        Random random = new Random(7);
+        List<QuantizedVector> vectors = randomVectors(random, 3_000);
+        HnswIndex index = new HnswIndex(16, 128);
+        for (int id = 0; id < vectors.size(); id++) {
+            index.add(id, 0, vectors.get(id));
+        }
+
+        int found = 0;
+        int queries = 50;
+        for (int probe = 0; probe < queries; probe++) {
+            QuantizedVector query = QuantizedVector.quantize(randomVector(random));
+            List<Long> exact = exactNeighbours(vectors, query, 10);
+            List<Long> approximate = index.search(query, 10, 64).stream().map(HnswIndex.Match::id).toList();
+            found += (int) approximate.stream().filter(exact::contains).count();
+        }
+
+        assertThat(found / (double) (queries * 10)).isGreaterThan(0.9);
+    }
+
+    @Test
+    void remove_shouldHideEntriesAndCompactionShouldKeepTheRest() {
+        Random random = new Random(11);
+        List<QuantizedVector> vectors = randomVectors(random, 200);
+        HnswIndex index = new HnswIndex(8, 64);
+        for (int id = 0; id < vectors.size(); id++) {
+            index.add(id, 1, vectors.get(id));
+        }
+
+        for (int id = 0; id < 150; id++) {
+            index.remove(id);
+        }
+        assertThat(index.search(vectors.get(3), 5, 32)).extracting(HnswIndex.Match::id).doesNotContain(3L);
+
+        assertThat(index.compact()).isTrue();
+        assertThat(index.size()).isEqualTo(50);
+        assertThat(index.search(vectors.get(170), 1, 32).get(0).id()).isEqualTo(170L);
+        assertThat(index.search(vectors.get(170), 1, 32).get(0).similarity()).isGreaterThan(0.99);
+    }
+
+    @Test
+    void writeTo_shouldRoundTripGraphAndVersions() throws IOException {
+        Random random = new Random(3);
+        List<QuantizedVector> vectors = randomVectors(random, 300);
+        HnswIndex index = new HnswIndex(8, 64);
+        for (int id = 0; id < vectors.size(); id++) {
+            index.add(id, id * 10L, vectors.get(id));
+        }
+        index.remove(5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        HnswIndex restored = HnswIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.size()).isEqualTo(299);
+        assertThat(restored.version(42)).isEqualTo(420L);
+        assertThat(restored.version(5)).isNull();
+        QuantizedVector query = vectors.get(42);
+        assertThat(restored.search(query, 10, 64)).isEqualTo(index.search(query, 10, 64));
+    }
+
+    private static List<Long> exactNeighbours(List<QuantizedVector> vectors, QuantizedVector query, int k) {
+        return IntStream.range(0, vectors.size())
+                .boxed()
+                .sorted(Comparator.comparingDouble(id -> -query.dot(vectors.get(id))))
+                .limit(k)
+                .map(Integer::longValue)
+                .toList();
+    }
+
+    private static List<QuantizedVector> randomVectors(Random random, int count) {
+        List<QuantizedVector> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vectors.add(QuantizedVector.quantize(randomVector(random)));
+        }
+        return vectors;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,135 @@
+package com.imagemanagement.similarity;
+
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.config.SimilarityProperties;
+import com.imagemanagement.repository.ImageRepository;
+import com.imagemanagement.repository.PerceptualHashView;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PerceptualHashIndexTest {
+
+    private static final long USER_ID = 7L;
+
+    private ImageRepository imageRepository;
+    private ClusterInvalidationBus invalidationBus;
+    private PerceptualHashIndex index;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository = mock(ImageRepository.class);
+        invalidationBus = mock(ClusterInvalidationBus.class);
+        PerceptualHashView stored = mock(PerceptualHashView.class);
+        given(stored.getId()).willReturn(1L);
+        given(stored.getPerceptualHash()).willReturn(0L);
+        given(imageRepository.findByUser_IdAndPerceptualHashIsNotNull(USER_ID)).willReturn(List.of(stored));
+        index = new PerceptualHashIndex(imageRepository, new SimilarityProperties(), invalidationBus);
+        index.search(USER_ID, 0L, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void add_shouldWaitForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.add(USER_ID, 2L, 1L);
+
+        assertThat(ids(index.search(USER_ID, 0L, 1))).containsExactly(1L);
+        verify(invalidationBus, never()).publish(PerceptualHashIndex.CHANNEL, "7");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(ids(index.search(USER_ID, 0L, 1))).containsExactly(1L, 2L);
+        verify(invalidationBus).publish(PerceptualHashIndex.CHANNEL, "7");
+    }
+
+    @Test
+    void remove_shouldLeaveTheTreeAloneWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.remove(USER_ID, 1L, 0L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(ids(index.search(USER_ID, 0L, 0))).containsExactly(1L);
+        verify(invalidationBus, never()).publish(anyString(), anyString());
+    }
+
+    @Test
+    void add_shouldApplyRightAwayOutsideATransaction() {
+        index.add(USER_ID, 2L, 1L);
+
+        assertThat(ids(index.search(USER_ID, 0L, 1))).containsExactly(1L, 2L);
+        verify(invalidationBus).publish(PerceptualHashIndex.CHANNEL, "7");
+    }
+
+    @Test
+    void add_shouldReachAnIndexThatIsStillLoading() throws Exception {
+        long otherUser = 8L;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(imageRepository.findByUser_IdAndPerceptualHashIsNotNull(otherUser)).willAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<BkTree.Match>> firstSearch = executor.submit(() -> index.search(otherUser, 0L, 0));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            AtomicReference<Thread> adder = new AtomicReference<>();
+            Future<?> addition = executor.submit(() -> {
+                adder.set(Thread.currentThread());
+                index.add(otherUser, 3L, 0L);
+            });
+            awaitDoneOrParked(addition, adder);
+
+            release.countDown();
+            firstSearch.get(5, TimeUnit.SECONDS);
+            addition.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids(index.search(otherUser, 0L, 0))).containsExactly(3L);
+    }
+
+    // the addition has to reach the index while the load is still running
+    private static void awaitDoneOrParked(Future<?> task, AtomicReference<Thread> worker) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline && !task.isDone()) {
+            Thread thread = worker.get();
+            if (thread != null && thread.getState() != Thread.State.RUNNABLE) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<Long> ids(List<BkTree.Match> matches) {
+        return matches.stream().map(BkTree.Match::id).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.config.TagProperties;
+import com.imagemanagement.entity.Tag;
+import com.imagemanagement.entity.enums.TagType;
+import com.imagemanagement.repository.TagRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PopularTagRankingTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private TagRepository tagRepository;
+    private TagUsageCounters usageCounters;
+    private PopularTagRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository = mock(TagRepository.class);
+        TagProperties properties = new TagProperties();
+        properties.getPopular().setWindowSize(100);
+        usageCounters = mock(TagUsageCounters.class);
+        ranking = new PopularTagRanking(tagRepository, usageCounters, properties);
+    }
+
+    @Test
+    void top_shouldSeedOnceAndServeFromMemory() {
+        given(tagRepository.findTopTags(any(Pageable.class)))
+                .willReturn(List.of(tag(1, "alpha", 5), tag(2, "beta", 3)));
+
+        assertThat(names(ranking.top(10))).containsExactly("alpha", "beta");
+        assertThat(names(ranking.top(1))).containsExactly("alpha");
+        verify(tagRepository, times(1)).findTopTags(any(Pageable.class));
+    }
+
+    @Test
+    void adjust_shouldReorderAndAdmitNewTagsWhileWindowHasRoom() {
+        given(tagRepository.findTopTags(any(Pageable.class)))
+                .willReturn(List.of(tag(1, "alpha", 5), tag(2, "beta", 3)));
+        ranking.reconcile();
+
+        ranking.adjust(TagRef.of(tag(2, "beta", 3)), 3);
+        ranking.adjust(TagRef.of(tag(3, "gamma", 0)), 4);
+
+        assertThat(ranking.top(10)).extracting(PopularTagRanking.Entry::name, PopularTagRanking.Entry::usageCount)
+                .containsExactly(
+                        tuple("beta", 6),
+                        tuple("alpha", 5),
+                        tuple("gamma", 4));
+    }
+
+    @Test
+    void adjust_shouldOnlyTrackTagsInsideAFullWindow() {
+        List<Tag> seeded = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            seeded.add(tag(i, "tag-" + i, 200 - i));
+        }
+        given(tagRepository.findTopTags(any(Pageable.class))).willReturn(seeded);
+        ranking.reconcile();
+
+        ranking.adjust(TagRef.of(seeded.get(99)), 200);
+        ranking.adjust(TagRef.of(tag(500, "outsider", 150)), 1);
+
+        List<PopularTagRanking.Entry> top = ranking.top(100);
+        assertThat(top).hasSize(100);
+        assertThat(top.get(0).name()).isEqualTo("tag-99");
+        assertThat(top.get(0).usageCount()).isEqualTo(301);
+        assertThat(names(top)).doesNotContain("outsider");
+
+        seeded.set(50, tag(500, "outsider", 151));
+        ranking.reconcile();
+        assertThat(names(ranking.top(100))).contains("outsider").doesNotContain("tag-50");
+    }
+
+    @Test
+    void reconcile_shouldKeepUsageThatIsStillBuffered() {
+        given(tagRepository.findTopTags(any(Pageable.class)))
+                .willReturn(List.of(tag(1, "alpha", 5), tag(2, "beta", 3)));
+        given(usageCounters.pending(2L)).willReturn(4L);
+
+        ranking.reconcile();
+
+        assertThat(ranking.top(10)).extracting(PopularTagRanking.Entry::name, PopularTagRanking.Entry::usageCount)
+                .containsExactly(
+                        tuple("beta", 7),
+                        tuple("alpha", 5));
+    }
+
+    @Test
+    void adjust_shouldNeverGoBelowZero() {
+        given(tagRepository.findTopTags(any(Pageable.class))).willReturn(List.of(tag(1, "alpha", 1)));
+        ranking.reconcile();
+
+        ranking.adjust(TagRef.of(tag(1, "alpha", 1)), -3);
+
+        assertThat(ranking.top(1).get(0).usageCount()).isZero();
+    }
+
+    @Test
+    void ranking_shouldBreakTiesByNewestTag() {
+        Tag older = tag(1, "older", 2);
+        older.setCreatedTime(CREATED.minusDays(1));
+        given(tagRepository.findTopTags(any(Pageable.class))).willReturn(List.of(older, tag(2, "newer", 2)));
+
+        assertThat(names(ranking.top(2))).containsExactly("newer", "older");
+    }
+
+    private static Tag tag(long id, String name, int usageCount) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setTagName(name);
+        tag.setTagType(TagType.CUSTOM);
+        tag.setUsageCount(usageCount);
+        tag.setCreatedTime(CREATED);
+        return tag;
+    }
+
+    private static List<String> names(List<PopularTagRanking.Entry> entries) {
+        return entries.stream().map(PopularTagRanking.Entry::name).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.cache.ClusterInvalidationBus;
+import com.imagemanagement.config.TagProperties;
+import com.imagemanagement.entity.enums.TagType;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagDictionaryTest {
+
+    private RecordingBus bus;
+    private TagDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        bus = new RecordingBus();
+        TagProperties properties = new TagProperties();
+        properties.getDictionary().setNegativeTtl(Duration.ofMinutes(5));
+        dictionary = new TagDictionary(properties, bus);
+    }
+
+    @Test
+    void lookup_shouldSplitKnownMissingAndUnknownNames() {
+        dictionary.remember(List.of(ref(1, "Camera:Canon")));
+        dictionary.rememberMissing(List.of("year:1999"));
+
+        TagDictionary.Lookup lookup = dictionary.lookup(List.of("camera:canon", "year:1999", "format:image/png"));
+
+        assertThat(lookup.known()).containsOnlyKeys("camera:canon");
+        assertThat(lookup.known().get("camera:canon").id()).isEqualTo(1);
+        assertThat(lookup.missing()).containsExactly("year:1999");
+        assertThat(lookup.unknown()).containsExactly("format:image/png");
+    }
+
+    @Test
+    void rememberMissing_shouldNotHideAKnownTag() {
+        dictionary.remember(List.of(ref(1, "sunset")));
+
+        dictionary.rememberMissing(List.of("sunset"));
+
+        assertThat(dictionary.lookup(List.of("sunset")).known()).containsKey("sunset");
+    }
+
+    @Test
+    void created_shouldReplaceMissingEntryAndNotifyOtherNodes() {
+        dictionary.rememberMissing(List.of("sunset"));
+
+        dictionary.created(List.of(ref(7, "Sunset")));
+
+        assertThat(dictionary.lookup(List.of("sunset")).known().get("sunset").id()).isEqualTo(7);
+        assertThat(bus.published).containsExactly("sunset");
+    }
+
+    @Test
+    void remoteMessage_shouldDropTheLocalEntry() {
+        dictionary.rememberMissing(List.of("sunset"));
+
+        bus.deliver(TagDictionary.CHANNEL, "sunset");
+
+        assertThat(dictionary.lookup(List.of("sunset")).unknown()).containsExactly("sunset");
+    }
+
+    @Test
+    void knownNames_shouldBeInterned() {
+        dictionary.remember(List.of(ref(1, new String("orientation:landscape"))));
+
+        TagRef first = dictionary.lookup(List.of("orientation:landscape")).known().get("orientation:landscape");
+
+        assertThat(first.name()).isSameAs("orientation:landscape");
+    }
+
+    private static TagRef ref(long id, String name) {
+        return new TagRef(id, name, TagType.AUTO, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    private static final class RecordingBus implements ClusterInvalidationBus {
+
+        private final List<String> published = new ArrayList<>();
+        private final Map<String, Consumer<String>> listeners = new HashMap<>();
+
+        @Override
+        public void publish(String channel, String message) {
+            published.add(message);
+        }
+
+        @Override
+        public void subscribe(String channel, Consumer<String> listener) {
+            listeners.put(channel, listener);
+        }
+
+        private void deliver(String channel, String message) {
+            listeners.get(channel).accept(message);
+        }
+    }
+}
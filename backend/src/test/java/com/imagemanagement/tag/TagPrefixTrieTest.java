@@ -0,0 +1,98 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.entity.enums.TagType;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagPrefixTrieTest {
+
+    @Test
+    void complete_shouldRankByWeightWithinPrefix() {
+        TagPrefixTrie trie = new TagPrefixTrie(5);
+        trie.put(1, "sunset", TagType.CUSTOM, 3);
+        trie.put(2, "Sunrise", TagType.AI, 7);
+        trie.put(3, "sun", TagType.CUSTOM, 1);
+        trie.put(4, "snow", TagType.CUSTOM, 9);
+
+        assertThat(names(trie.complete("SUN", 10))).containsExactly("Sunrise", "sunset", "sun");
+        assertThat(names(trie.complete("suns", 10))).containsExactly("sunset");
+        assertThat(names(trie.complete("s", 2))).containsExactly("snow", "Sunrise");
+        assertThat(trie.complete("sunx", 10)).isEmpty();
+        assertThat(trie.complete("x", 10)).isEmpty();
+    }
+
+    @Test
+    void updateWeight_shouldReorderCompletions() {
+        TagPrefixTrie trie = new TagPrefixTrie(2);
+        trie.put(1, "camera:canon", TagType.AUTO, 5);
+        trie.put(2, "camera:nikon", TagType.AUTO, 4);
+        trie.put(3, "camera-model:eos", TagType.AUTO, 1);
+
+        assertThat(names(trie.complete("cam", 10))).containsExactly("camera:canon", "camera:nikon");
+
+        assertThat(trie.updateWeight(3, 10)).isTrue();
+        trie.updateWeight(1, 0);
+
+        assertThat(names(trie.complete("cam", 10))).containsExactly("camera-model:eos", "camera:nikon");
+        assertThat(trie.updateWeight(42, 1)).isFalse();
+
+        trie.adjustWeight(2, -10);
+        trie.adjustWeight(1, 3);
+        assertThat(trie.complete("camera:", 10)).extracting(TagPrefixTrie.Entry::weight).containsExactly(3L, 0L);
+    }
+
+    @Test
+    void complete_shouldMatchBruteForceTopK() {
+        Random random = new Random(7);
+        TagPrefixTrie trie = new TagPrefixTrie(8);
+        Map<Long, TagPrefixTrie.Entry> expected = new TreeMap<>();
+        for (long id = 0; id < 2_000; id++) {
+            String name = randomName(random);
+            long weight = random.nextInt(1_000);
+            expected.values().removeIf(entry -> entry.key().equals(name));
+            expected.put(id, new TagPrefixTrie.Entry(id, name, name, TagType.CUSTOM, weight));
+            trie.put(id, name, TagType.CUSTOM, weight);
+        }
+        for (int i = 0; i < 500; i++) {
+            long id = random.nextInt(2_000);
+            TagPrefixTrie.Entry entry = expected.get(id);
+            if (entry != null) {
+                long weight = random.nextInt(1_000);
+                expected.put(id, new TagPrefixTrie.Entry(id, entry.name(), entry.key(), TagType.CUSTOM, weight));
+                trie.updateWeight(id, weight);
+            }
+        }
+
+        assertThat(trie.size()).isEqualTo(expected.size());
+        for (int i = 0; i < 200; i++) {
+            String name = randomName(random);
+            String prefix = name.substring(0, 1 + random.nextInt(Math.min(3, name.length())));
+            List<Long> bruteForce = expected.values().stream()
+                    .filter(entry -> entry.key().startsWith(prefix))
+                    .sorted(TagPrefixTrie.RANKING)
+                    .limit(8)
+                    .map(TagPrefixTrie.Entry::id)
+                    .toList();
+            assertThat(trie.complete(prefix, 8)).extracting(TagPrefixTrie.Entry::id).isEqualTo(bruteForce);
+        }
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = 2 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> names(List<TagPrefixTrie.Entry> entries) {
+        return entries.stream().map(TagPrefixTrie.Entry::name).toList();
+    }
+}
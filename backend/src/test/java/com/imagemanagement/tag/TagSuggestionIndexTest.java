@@ -0,0 +1,75 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.cache.LocalClusterInvalidationBus;
+import com.imagemanagement.config.TagProperties;
+import com.imagemanagement.entity.enums.TagType;
+import com.imagemanagement.repository.TagRepository;
+import com.imagemanagement.repository.TagSummaryView;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TagSuggestionIndexTest {
+
+    private TagRepository tagRepository;
+    private TagUsageCounters usageCounters;
+    private TagSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository = mock(TagRepository.class);
+        usageCounters = mock(TagUsageCounters.class);
+        index = new TagSuggestionIndex(tagRepository, usageCounters, new TagProperties(), new LocalClusterInvalidationBus());
+    }
+
+    @Test
+    void reload_shouldPickUpUsageRecordedByOtherNodes() {
+        List<TagSummaryView> before = List.of(summary(1, "beach", 5), summary(2, "bench", 3));
+        List<TagSummaryView> after = List.of(summary(1, "beach", 5), summary(2, "bench", 9));
+        given(tagRepository.findAllSummaries()).willReturn(before);
+        assertThat(names(index.suggest("be", 10))).containsExactly("beach", "bench");
+
+        given(tagRepository.findAllSummaries()).willReturn(after);
+        index.reload();
+
+        assertThat(names(index.suggest("be", 10))).containsExactly("bench", "beach");
+    }
+
+    @Test
+    void reload_shouldKeepUsageThatIsStillBuffered() {
+        List<TagSummaryView> summaries = List.of(summary(1, "beach", 5), summary(2, "bench", 3));
+        given(tagRepository.findAllSummaries()).willReturn(summaries);
+        index.suggest("be", 10);
+        given(usageCounters.pending(2L)).willReturn(4L);
+
+        index.reload();
+
+        assertThat(index.suggest("be", 10)).extracting(TagPrefixTrie.Entry::weight).containsExactly(7L, 5L);
+    }
+
+    @Test
+    void reload_shouldLeaveAnUnusedIndexUnloaded() {
+        index.reload();
+
+        verify(tagRepository, never()).findAllSummaries();
+    }
+
+    private static TagSummaryView summary(long id, String name, int usageCount) {
+        TagSummaryView view = mock(TagSummaryView.class);
+        given(view.getId()).willReturn(id);
+        given(view.getTagName()).willReturn(name);
+        given(view.getTagType()).willReturn(TagType.CUSTOM);
+        given(view.getUsageCount()).willReturn(usageCount);
+        return view;
+    }
+
+    private static List<String> names(List<TagPrefixTrie.Entry> entries) {
+        return entries.stream().map(TagPrefixTrie.Entry::name).toList();
+    }
+}
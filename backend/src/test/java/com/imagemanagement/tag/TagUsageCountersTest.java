@@ -0,0 +1,90 @@
+package com.imagemanagement.tag;
+
+import com.imagemanagement.config.TagProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TagUsageCountersTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TagProperties properties;
+    private TagUsageCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        properties = new TagProperties();
+        counters = new TagUsageCounters(jdbcTemplate, mock(PlatformTransactionManager.class), properties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteSummedDeltasInOneBatch() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    counters.add(7L, 1);
+                    counters.add(3L, i % 2 == 0 ? 1 : -1);
+                    counters.add(5L, 2);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertThat(counters.pending(7L)).isEqualTo(8_000);
+
+        counters.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(TagUsageCounters.ADJUST_SQL), rows.capture());
+        assertThat(rows.getValue()).containsExactly(new Object[] {16_000L, 5L}, new Object[] {8_000L, 7L});
+        assertThat(counters.pending(5L)).isZero();
+        assertThat(counters.pending(7L)).isZero();
+    }
+
+    @Test
+    void flush_shouldKeepDeltasWhenTheBatchFails() {
+        given(jdbcTemplate.batchUpdate(eq(TagUsageCounters.ADJUST_SQL), anyList()))
+                .willThrow(new QueryTimeoutException("timeout"));
+        counters.add(1L, 1);
+        counters.add(1L, 1);
+
+        counters.flush();
+        counters.add(1L, 1);
+
+        assertThat(counters.pending(1L)).isEqualTo(3);
+    }
+
+    @Test
+    void add_shouldWriteThroughWhenWriteBehindIsOff() {
+        properties.getUsage().setWriteBehind(false);
+
+        counters.add(9L, -1);
+        counters.drain();
+
+        verify(jdbcTemplate).update(TagUsageCounters.ADJUST_SQL, -1, 9L);
+        verify(jdbcTemplate, never()).batchUpdate(eq(TagUsageCounters.ADJUST_SQL), anyList());
+        assertThat(counters.pending(9L)).isZero();
+    }
+}
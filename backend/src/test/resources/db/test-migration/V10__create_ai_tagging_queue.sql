@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS ai_tagging_queue (
+    image_id BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    priority INT NOT NULL,
+    state VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    available_at DATETIME NOT NULL,
+    locked_until DATETIME NULL,
+    last_error VARCHAR(500) NULL,
+    created_at DATETIME NOT NULL,
+    CONSTRAINT fk_ai_tagging_queue_image FOREIGN KEY (image_id) REFERENCES images (image_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_ai_tagging_queue_ready ON ai_tagging_queue (state, priority DESC, available_at);
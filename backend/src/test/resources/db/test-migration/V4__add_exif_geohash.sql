@@ -0,0 +1,4 @@
+ALTER TABLE exif_data
+    ADD COLUMN geohash VARCHAR(12) NULL AFTER longitude;
+
+CREATE INDEX idx_exif_geohash ON exif_data (geohash);
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS image_timeline_buckets (
+    user_id BIGINT NOT NULL,
+    bucket_date DATE NOT NULL,
+    image_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket_date),
+    CONSTRAINT fk_timeline_buckets_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
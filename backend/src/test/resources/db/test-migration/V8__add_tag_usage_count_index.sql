@@ -0,0 +1 @@
+CREATE INDEX idx_tags_usage_count ON tags (usage_count, created_time);
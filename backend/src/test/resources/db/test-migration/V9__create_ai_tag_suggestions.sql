@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS ai_tag_suggestions (
+    cache_key CHAR(32) NOT NULL PRIMARY KEY,
+    content_hash VARCHAR(128) NOT NULL,
+    model_version VARCHAR(100) NOT NULL,
+    payload LONGTEXT NOT NULL,
+    created_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_ai_tag_suggestions_content_hash ON ai_tag_suggestions (content_hash);
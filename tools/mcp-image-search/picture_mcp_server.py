@@ -30,7 +30,6 @@ def _env_bool(key: str, default: bool) -> bool:
 @dataclass(slots=True)
 class ConnectorConfig:
     api_base_url: str
-    ai_base_url: str
     api_token: str
     timeout: float
 
@@ -49,8 +48,8 @@ SEARCH_TOOL = types.Tool(
     name="search_images",
     description=(
         "Search the Picture Management library using natural language. "
-        "The tool calls the AI intent interpreter and backend /api/images/search endpoint "
-        "and returns the top matches with metadata."
+        "The tool calls the backend /api/images/search/natural endpoint, which interprets the query "
+        "and runs the search in one request, and returns the top matches with metadata."
     ),
     inputSchema={
         "type": "object",
@@ -123,11 +122,6 @@ def parse_args() -> argparse.Namespace:
         default=os.getenv("PICTURE_API_BASE_URL", "http://localhost:8080"),
         help="Base URL of the Spring Boot backend (default: http://localhost:8080)",
     )
-    parser.add_argument(
-        "--ai-service-url",
-        default=os.getenv("PICTURE_AI_BASE_URL", "http://localhost:5000"),
-        help="Base URL of the ai-service Flask app (default: http://localhost:5000)",
-    )
     parser.add_argument(
         "--api-token",
         default=os.getenv("PICTURE_API_TOKEN"),
@@ -153,15 +147,11 @@ def configure_runtime(args: argparse.Namespace) -> None:
     if not token:
         raise SystemExit("PICTURE_API_TOKEN (or --api-token) is required for authenticated search calls.")
     api_base = _normalize_base(args.api_base_url)
-    ai_base = _normalize_base(args.ai_service_url)
     if not api_base:
         raise SystemExit("--api-base-url cannot be empty")
-    if not ai_base:
-        raise SystemExit("--ai-service-url cannot be empty")
     global CONFIG
     CONFIG = ConnectorConfig(
         api_base_url=api_base,
-        ai_base_url=ai_base,
         api_token=token,
         timeout=max(3.0, float(args.timeout or 12)),
     )
@@ -239,49 +229,6 @@ def _format_summary(query: str, interpretation: Dict[str, Any], matches: List[Di
     return "\n".join(lines)
 
 
-def _build_search_payload(
-    arguments: Dict[str, Any],
-    interpretation: Dict[str, Any],
-    limit: int,
-    only_own_override: bool | None,
-) -> Dict[str, Any]:
-    filters = interpretation.get("filters") or {}
-    payload = {
-        "keyword": filters.get("keyword"),
-        "privacyLevel": filters.get("privacyLevel"),
-        "tags": filters.get("tags") or [],
-        "uploadedFrom": filters.get("uploadedFrom"),
-        "uploadedTo": filters.get("uploadedTo"),
-        "cameraMake": filters.get("cameraMake"),
-        "cameraModel": filters.get("cameraModel"),
-        "minWidth": filters.get("minWidth"),
-        "minHeight": filters.get("minHeight"),
-        "maxWidth": filters.get("maxWidth"),
-        "maxHeight": filters.get("maxHeight"),
-        "onlyOwn": filters.get("onlyOwn", False),
-        "page": 0,
-        "size": limit,
-        "sortBy": filters.get("sortBy") or "uploadTime",
-        "sortDirection": filters.get("sortDirection") or "DESC",
-    }
-    if only_own_override is not None:
-        payload["onlyOwn"] = only_own_override
-    if arguments.get("query") and not payload["keyword"]:
-        payload["keyword"] = arguments["query"].strip()
-    return payload
-
-
-def _fallback_interpretation(query: str) -> Dict[str, Any]:
-    return {
-        "query": query,
-        "keywords": [query],
-        "tags": [],
-        "filters": {"keyword": query, "tags": []},
-        "explanations": [{"rule": "fallback", "reason": "AI service unavailable"}],
-        "confidence": 0.0,
-    }
-
-
 def require_non_empty(value: str, label: str) -> str:
     if not value:
         raise ValueError(f"{label} cannot be empty")
@@ -296,45 +243,32 @@ async def execute_search(arguments: Dict[str, Any]) -> Dict[str, Any]:
     limit = _coerce_int(arguments.get("limit"), default=5, minimum=1, maximum=20)
     only_own = _coerce_bool(arguments.get("onlyOwn"))
 
+    payload: Dict[str, Any] = {"query": query, "page": 0, "size": limit}
+    if only_own is not None:
+        payload["onlyOwn"] = only_own
     async with httpx.AsyncClient(timeout=config.timeout) as client:
-        interpretation: Dict[str, Any]
-        try:
-            interpretation = await _interpret_query(client, config.ai_base_url, query, limit)
-        except Exception as exc:  # pragma: no cover - informational fallback
-            logger.warning("Falling back to keyword-only filters: %s", exc)
-            interpretation = _fallback_interpretation(query)
-        payload = _build_search_payload(arguments, interpretation, limit, only_own)
-        page = await _search_backend(client, config, payload)
+        result = await _search_backend(client, config, payload)
 
+    interpretation = result.get("interpretation") or {}
+    criteria = result.get("criteria") or {}
+    page = result.get("results") or {}
     matches = page.get("content", [])
     summary = _format_summary(query, interpretation, matches, limit)
+    logger.debug("Search timings: %s", result.get("timings"))
     return {
         "summary": summary,
         "query": query,
         "requestedLimit": limit,
-        "onlyOwn": payload["onlyOwn"],
+        "onlyOwn": bool(criteria.get("onlyOwn")),
         "interpretation": interpretation,
-        "searchPayload": payload,
+        "searchPayload": criteria,
         "page": page,
         "matches": matches,
     }
 
 
-async def _interpret_query(client: httpx.AsyncClient, ai_base_url: str, query: str, limit: int) -> Dict[str, Any]:
-    url = f"{ai_base_url}/ai/v1/search/interpret"
-    response = await client.post(url, json={"query": query, "limit": limit})
-    response.raise_for_status()
-    payload = response.json()
-    if payload.get("status") != "ok":
-        raise RuntimeError(payload.get("message") or "AI service returned error response")
-    data = payload.get("data")
-    if not isinstance(data, dict):
-        raise RuntimeError("AI service returned malformed payload")
-    return data
-
-
 async def _search_backend(client: httpx.AsyncClient, config: ConnectorConfig, payload: Dict[str, Any]) -> Dict[str, Any]:
-    url = f"{config.api_base_url}/api/images/search"
+    url = f"{config.api_base_url}/api/images/search/natural"
     headers = {
         "Authorization": f"Bearer {config.api_token}",
         "Content-Type": "application/json",
@@ -347,7 +281,7 @@ async def _search_backend(client: httpx.AsyncClient, config: ConnectorConfig, pa
         raise RuntimeError(body.get("message") or "Backend returned non-success response")
     data = body.get("data")
     if not isinstance(data, dict):
-        raise RuntimeError("Backend returned malformed page response")
+        raise RuntimeError("Backend returned malformed search response")
     return data
 
 
@@ -361,10 +295,9 @@ def main() -> None:
     args = parse_args()
     configure_runtime(args)
     logger.info(
-        "Starting MCP server for %s (backend=%s, ai=%s)",
+        "Starting MCP server for %s (backend=%s)",
         server.name,
         CONFIG.api_base_url if CONFIG else "?",
-        CONFIG.ai_base_url if CONFIG else "?",
     )
     try:
         anyio.run(_run_server)